@@ -52,6 +52,8 @@ public interface ICacheConfig extends IInitialization<ICaches>, IDestroyable {
 
     String STORAGE_WITH_SET = "storage_with_set";
 
+    String STORAGE_WITH_BINARY = "storage_with_binary";
+
     String ENABLED_SUBSCRIBE_EXPIRED = "enabled_subscribe_expired";
 
     String MULTILEVEL_SLAVE_AUTO_SYNC = "multilevel_slave_auto_sync";
@@ -126,6 +128,16 @@ public interface ICacheConfig extends IInitialization<ICaches>, IDestroyable {
      */
     boolean isStorageWithSet();
 
+    /**
+     * Redis是否直接以二进制方式存储序列化后的缓存值(不再进行Base64编码)，可选参数，默认值为false
+     * <p>
+     * 读取时将根据格式标识自动识别二进制及Base64编码的数据，因此开启或关闭该参数均可兼容读取已存在的缓存数据
+     *
+     * @return 返回true表示采用
+     * @since 2.1.3
+     */
+    boolean isStorageWithBinary();
+
     /**
      * 是否开启Redis订阅缓存元素过期事件，可选参数，默认值为false
      *
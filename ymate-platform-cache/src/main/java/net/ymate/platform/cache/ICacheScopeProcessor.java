@@ -48,4 +48,17 @@ public interface ICacheScopeProcessor {
      * @throws CacheException 可能产生的异常
      */
     void putInCache(ICaches caches, ICaches.Scope scope, String cacheName, String cacheKey, CacheElement cacheElement) throws CacheException;
+
+    /**
+     * 构建在当前作用域内唯一标识缓存项的键(如会话级作用域需包含会话标识), 用于合并同一缓存项的并发加载
+     *
+     * @param scope     缓存作用域
+     * @param cacheName 缓存名称
+     * @param cacheKey  缓存KEY
+     * @return 返回作用域缓存键, 返回null表示无法确定(此时将不合并并发加载)
+     * @since 2.1.3
+     */
+    default String buildScopeCacheKey(ICaches.Scope scope, String cacheName, String cacheKey) {
+        return null;
+    }
 }
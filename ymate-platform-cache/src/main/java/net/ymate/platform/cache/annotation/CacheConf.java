@@ -53,6 +53,12 @@ public @interface CacheConf {
      */
     boolean storageWithSet() default false;
 
+    /**
+     * @return 是否采用二进制方式存储缓存值
+     * @since 2.1.3
+     */
+    boolean storageWithBinary() default false;
+
     /**
      * @return 是否开启Redis订阅缓存元素过期事件
      */
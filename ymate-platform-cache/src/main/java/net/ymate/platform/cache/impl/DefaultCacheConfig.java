@@ -58,6 +58,8 @@ public final class DefaultCacheConfig implements ICacheConfig {
 
     private boolean storageWithSet;
 
+    private boolean storageWithBinary;
+
     private boolean enabledSubscribeExpired;
 
     private boolean multilevelSlavesAutoSync;
@@ -112,6 +114,7 @@ public final class DefaultCacheConfig implements ICacheConfig {
         //
         configFile = new File(RuntimeUtils.replaceEnvVariable(configReader.getString(CONFIG_FILE, StringUtils.defaultIfBlank(confAnn != null ? confAnn.configFile() : null, DEFAULT_CONFIG_FILE))));
         storageWithSet = configReader.getBoolean(ICacheConfig.STORAGE_WITH_SET, confAnn != null && confAnn.storageWithSet());
+        storageWithBinary = configReader.getBoolean(ICacheConfig.STORAGE_WITH_BINARY, confAnn != null && confAnn.storageWithBinary());
         enabledSubscribeExpired = configReader.getBoolean(ICacheConfig.ENABLED_SUBSCRIBE_EXPIRED, confAnn != null && confAnn.subscribeExpired());
         multilevelSlavesAutoSync = configReader.getBoolean(ICacheConfig.MULTILEVEL_SLAVE_AUTO_SYNC, confAnn != null && confAnn.multilevelSlavesAutoSync());
     }
@@ -272,6 +275,17 @@ public final class DefaultCacheConfig implements ICacheConfig {
         }
     }
 
+    @Override
+    public boolean isStorageWithBinary() {
+        return storageWithBinary;
+    }
+
+    public void setStorageWithBinary(boolean storageWithBinary) {
+        if (!initialized) {
+            this.storageWithBinary = storageWithBinary;
+        }
+    }
+
     @Override
     public boolean isEnabledSubscribeExpired() {
         return enabledSubscribeExpired;
@@ -357,6 +371,11 @@ public final class DefaultCacheConfig implements ICacheConfig {
             return this;
         }
 
+        public Builder storageWithBinary(boolean storageWithBinary) {
+            config.setStorageWithBinary(storageWithBinary);
+            return this;
+        }
+
         public Builder enabledSubscribeExpired(boolean enabledSubscribeExpired) {
             config.setEnabledSubscribeExpired(enabledSubscribeExpired);
             return this;
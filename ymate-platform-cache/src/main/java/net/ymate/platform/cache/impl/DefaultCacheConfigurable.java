@@ -86,6 +86,11 @@ public final class DefaultCacheConfigurable extends DefaultModuleConfigurable {
             return this;
         }
 
+        public Builder storageWithBinary(boolean storageWithBinary) {
+            configurable.addConfig(ICacheConfig.STORAGE_WITH_BINARY, String.valueOf(storageWithBinary));
+            return this;
+        }
+
         public Builder enabledSubscribeExpired(boolean enabledSubscribeExpired) {
             configurable.addConfig(ICacheConfig.ENABLED_SUBSCRIBE_EXPIRED, String.valueOf(enabledSubscribeExpired));
             return this;
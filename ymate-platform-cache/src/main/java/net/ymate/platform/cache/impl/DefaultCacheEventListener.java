@@ -54,46 +54,62 @@ public class DefaultCacheEventListener implements ICacheEventListener {
         return owner;
     }
 
+    private boolean isEventEnabled() {
+        return owner.getOwner().getEvents().hasListeners(CacheEvent.class);
+    }
+
     @Override
     public void notifyElementRemoved(String cacheName, Object key) {
-        owner.getOwner().getEvents().fireEvent(new CacheEvent(owner, CacheEvent.EVENT.ELEMENT_REMOVED)
-                .addParamExtend(CACHE_NAME, cacheName)
-                .addParamExtend(CACHE_KEY, key));
+        if (isEventEnabled()) {
+            owner.getOwner().getEvents().fireEvent(new CacheEvent(owner, CacheEvent.EVENT.ELEMENT_REMOVED)
+                    .addParamExtend(CACHE_NAME, cacheName)
+                    .addParamExtend(CACHE_KEY, key));
+        }
     }
 
     @Override
     public void notifyElementPut(String cacheName, Object key, Object value) {
-        owner.getOwner().getEvents().fireEvent(new CacheEvent(owner, CacheEvent.EVENT.ELEMENT_PUT)
-                .addParamExtend(CACHE_NAME, cacheName)
-                .addParamExtend(CACHE_KEY, key)
-                .addParamExtend(CACHE_VALUE, value));
+        if (isEventEnabled()) {
+            owner.getOwner().getEvents().fireEvent(new CacheEvent(owner, CacheEvent.EVENT.ELEMENT_PUT)
+                    .addParamExtend(CACHE_NAME, cacheName)
+                    .addParamExtend(CACHE_KEY, key)
+                    .addParamExtend(CACHE_VALUE, value));
+        }
     }
 
     @Override
     public void notifyElementUpdated(String cacheName, Object key, Object value) {
-        owner.getOwner().getEvents().fireEvent(new CacheEvent(owner, CacheEvent.EVENT.ELEMENT_UPDATED)
-                .addParamExtend(CACHE_NAME, cacheName)
-                .addParamExtend(CACHE_KEY, key)
-                .addParamExtend(CACHE_VALUE, value));
+        if (isEventEnabled()) {
+            owner.getOwner().getEvents().fireEvent(new CacheEvent(owner, CacheEvent.EVENT.ELEMENT_UPDATED)
+                    .addParamExtend(CACHE_NAME, cacheName)
+                    .addParamExtend(CACHE_KEY, key)
+                    .addParamExtend(CACHE_VALUE, value));
+        }
     }
 
     @Override
     public void notifyElementExpired(String cacheName, Object key) {
-        owner.getOwner().getEvents().fireEvent(new CacheEvent(owner, CacheEvent.EVENT.ELEMENT_EXPIRED)
-                .addParamExtend(CACHE_NAME, cacheName)
-                .addParamExtend(CACHE_KEY, key));
+        if (isEventEnabled()) {
+            owner.getOwner().getEvents().fireEvent(new CacheEvent(owner, CacheEvent.EVENT.ELEMENT_EXPIRED)
+                    .addParamExtend(CACHE_NAME, cacheName)
+                    .addParamExtend(CACHE_KEY, key));
+        }
     }
 
     @Override
     public void notifyElementEvicted(String cacheName, Object key) {
-        owner.getOwner().getEvents().fireEvent(new CacheEvent(owner, CacheEvent.EVENT.ELEMENT_EVICTED)
-                .addParamExtend(CACHE_NAME, cacheName)
-                .addParamExtend(CACHE_KEY, key));
+        if (isEventEnabled()) {
+            owner.getOwner().getEvents().fireEvent(new CacheEvent(owner, CacheEvent.EVENT.ELEMENT_EVICTED)
+                    .addParamExtend(CACHE_NAME, cacheName)
+                    .addParamExtend(CACHE_KEY, key));
+        }
     }
 
     @Override
     public void notifyRemoveAll(String cacheName) {
-        owner.getOwner().getEvents().fireEvent(new CacheEvent(owner, CacheEvent.EVENT.ELEMENT_REMOVED_ALL)
-                .addParamExtend(CACHE_NAME, cacheName));
+        if (isEventEnabled()) {
+            owner.getOwner().getEvents().fireEvent(new CacheEvent(owner, CacheEvent.EVENT.ELEMENT_REMOVED_ALL)
+                    .addParamExtend(CACHE_NAME, cacheName));
+        }
     }
 }
@@ -17,22 +17,29 @@ package net.ymate.platform.cache.support;
 
 import net.ymate.platform.cache.*;
 import net.ymate.platform.cache.annotation.Cacheable;
-import net.ymate.platform.commons.ReentrantLockHelper;
 import net.ymate.platform.commons.util.ClassUtils;
 import net.ymate.platform.core.beans.annotation.Order;
 import net.ymate.platform.core.beans.proxy.IProxy;
 import net.ymate.platform.core.beans.proxy.IProxyChain;
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ * 方法缓存代理: 缓存命中时无锁直接返回; 未命中时同一作用域内同一缓存键的并发请求将合并为一次加载, 其余请求等待并共享其结果(或异常), 加载完成后即移除加载记录
+ *
  * @author 刘镇 (suninformation@163.com) on 15/11/3 下午6:20
  */
 @Order(-60000)
 public class CacheableProxy implements IProxy {
 
-    private static final ReentrantLockHelper LOCKER = new ReentrantLockHelper();
+    /**
+     * 正在加载中的缓存项
+     */
+    private static final Map<String, Loading> LOADINGS = new ConcurrentHashMap<>();
 
     @Override
     public Object doProxy(IProxyChain proxyChain) throws Throwable {
@@ -40,7 +47,10 @@ public class CacheableProxy implements IProxy {
         if (cacheable == null || !ClassUtils.isNormalMethod(proxyChain.getTargetMethod())) {
             return proxyChain.doProxyChain();
         }
-        ICaches caches = proxyChain.getProxyFactory().getOwner().getModuleManager().getModule(Caches.class);
+        return doProxy(proxyChain, cacheable, proxyChain.getProxyFactory().getOwner().getModuleManager().getModule(Caches.class));
+    }
+
+    Object doProxy(IProxyChain proxyChain, Cacheable cacheable, ICaches caches) throws Throwable {
         Object cacheKey = null;
         // 若缓存key以'#'开头则尝试从方法参数中获取该参数值
         if (StringUtils.startsWith(cacheable.key(), "#")) {
@@ -60,36 +70,88 @@ public class CacheableProxy implements IProxy {
             cacheKey = caches.getConfig().getKeyGenerator().generateKey(proxyChain.getTargetMethod(), proxyChain.getMethodParams());
         }
         //
-        CacheElement cacheElement;
-        ReentrantLock locker = LOCKER.getLocker(cacheKey.toString());
-        locker.lock();
-        try {
-            String cacheName = StringUtils.defaultIfBlank(cacheable.cacheName(), ICacheConfig.DEFAULT_STR);
-            ICacheScopeProcessor cacheScopeProcessor = caches.getConfig().getCacheScopeProcessor();
-            if (!cacheable.scope().equals(ICaches.Scope.DEFAULT) && cacheScopeProcessor != null) {
-                cacheElement = cacheScopeProcessor.getFromCache(caches, cacheable.scope(), cacheName, cacheKey.toString());
+        String cacheName = StringUtils.defaultIfBlank(cacheable.cacheName(), ICacheConfig.DEFAULT_STR);
+        ICacheScopeProcessor cacheScopeProcessor = !cacheable.scope().equals(ICaches.Scope.DEFAULT) ? caches.getConfig().getCacheScopeProcessor() : null;
+        CacheElement cacheElement = getFromCache(caches, cacheable, cacheScopeProcessor, cacheName, cacheKey);
+        if (cacheElement == null || cacheElement.isExpired()) {
+            // 加载键须包含作用域解析后的缓存键(如会话标识), 否则不同会话间将共享彼此的加载结果
+            String loadingKey = cacheScopeProcessor != null
+                    ? cacheScopeProcessor.buildScopeCacheKey(cacheable.scope(), cacheName, cacheKey.toString())
+                    : ICaches.Scope.DEFAULT.name() + ":" + cacheName + ":" + cacheKey;
+            if (loadingKey == null) {
+                // 无法确定作用域缓存键时不合并并发加载
+                cacheElement = doLoad(proxyChain, caches, cacheable, cacheScopeProcessor, cacheName, cacheKey);
             } else {
-                cacheElement = (CacheElement) caches.get(cacheName, cacheKey);
-            }
-            boolean flag = cacheElement == null || cacheElement.isExpired();
-            if (flag) {
-                Object cacheTarget = proxyChain.doProxyChain();
-                if (cacheTarget != null) {
-                    cacheElement = new CacheElement(cacheTarget);
-                    int timeout = cacheable.timeout() > 0 ? cacheable.timeout() : caches.getConfig().getDefaultCacheTimeout();
-                    if (timeout > 0) {
-                        cacheElement.setTimeout(timeout);
+                Loading loading = new Loading();
+                Loading current = LOADINGS.putIfAbsent(loadingKey, loading);
+                if (current != null) {
+                    if (current.owner == Thread.currentThread()) {
+                        // 加载过程中重入同一缓存键时直接执行, 避免等待自身
+                        return proxyChain.doProxyChain();
+                    }
+                    CacheElement loadedElement;
+                    try {
+                        loadedElement = current.future.join();
+                    } catch (CompletionException e) {
+                        throw e.getCause() != null ? e.getCause() : e;
                     }
-                    if (!cacheable.scope().equals(ICaches.Scope.DEFAULT) && cacheScopeProcessor != null) {
-                        cacheScopeProcessor.putInCache(caches, cacheable.scope(), cacheName, cacheKey.toString(), cacheElement);
-                    } else {
-                        caches.put(cacheName, cacheKey, cacheElement);
+                    // 从当前作用域重新读取缓存, 仅当未能读取到(如加载结果为空或已被移除)时才使用加载结果
+                    cacheElement = getFromCache(caches, cacheable, cacheScopeProcessor, cacheName, cacheKey);
+                    if (cacheElement == null || cacheElement.isExpired()) {
+                        cacheElement = loadedElement;
+                    }
+                } else {
+                    try {
+                        // 再次检查缓存, 前一次加载可能恰好在首次读取之后完成
+                        cacheElement = getFromCache(caches, cacheable, cacheScopeProcessor, cacheName, cacheKey);
+                        if (cacheElement == null || cacheElement.isExpired()) {
+                            cacheElement = doLoad(proxyChain, caches, cacheable, cacheScopeProcessor, cacheName, cacheKey);
+                        }
+                        loading.future.complete(cacheElement);
+                    } catch (Throwable e) {
+                        loading.future.completeExceptionally(e);
+                        throw e;
+                    } finally {
+                        LOADINGS.remove(loadingKey, loading);
                     }
                 }
             }
-        } finally {
-            locker.unlock();
         }
         return cacheElement != null ? cacheElement.getObject() : null;
     }
+
+    private static CacheElement doLoad(IProxyChain proxyChain, ICaches caches, Cacheable cacheable, ICacheScopeProcessor cacheScopeProcessor, String cacheName, Object cacheKey) throws Throwable {
+        Object cacheTarget = proxyChain.doProxyChain();
+        if (cacheTarget == null) {
+            return null;
+        }
+        CacheElement cacheElement = new CacheElement(cacheTarget);
+        int timeout = cacheable.timeout() > 0 ? cacheable.timeout() : caches.getConfig().getDefaultCacheTimeout();
+        if (timeout > 0) {
+            cacheElement.setTimeout(timeout);
+        }
+        if (cacheScopeProcessor != null) {
+            cacheScopeProcessor.putInCache(caches, cacheable.scope(), cacheName, cacheKey.toString(), cacheElement);
+        } else {
+            caches.put(cacheName, cacheKey, cacheElement);
+        }
+        return cacheElement;
+    }
+
+    private static CacheElement getFromCache(ICaches caches, Cacheable cacheable, ICacheScopeProcessor cacheScopeProcessor, String cacheName, Object cacheKey) throws CacheException {
+        if (cacheScopeProcessor != null) {
+            return cacheScopeProcessor.getFromCache(caches, cacheable.scope(), cacheName, cacheKey.toString());
+        }
+        return (CacheElement) caches.get(cacheName, cacheKey);
+    }
+
+    /**
+     * 缓存项加载记录
+     */
+    private static final class Loading {
+
+        private final Thread owner = Thread.currentThread();
+
+        private final CompletableFuture<CacheElement> future = new CompletableFuture<>();
+    }
 }
@@ -25,8 +25,11 @@ import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.util.SafeEncoder;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -40,6 +43,11 @@ public class RedisCacheWrapper implements ICache {
 
     private static final int KEY_LENGTH = 2;
 
+    /**
+     * 二进制存储格式标识(Base64编码结果中不会出现0x00字节, 因此可据此区分两种格式的缓存值)
+     */
+    private static final byte[] BINARY_MARKER = {0x00, 0x01};
+
     private final String cacheName;
 
     private IRedis redis;
@@ -92,18 +100,47 @@ public class RedisCacheWrapper implements ICache {
         return DigestUtils.sha1Hex((StringUtils.EMPTY + key).getBytes());
     }
 
-    private String serializeValue(Object value) throws Exception {
-        return Base64.encodeBase64String(owner.getConfig().getSerializer().serialize(value));
+    private byte[] serializeValue(Object value) throws Exception {
+        byte[] bytes = owner.getConfig().getSerializer().serialize(value);
+        if (owner.getConfig().isStorageWithBinary()) {
+            byte[] valueBytes = new byte[BINARY_MARKER.length + bytes.length];
+            System.arraycopy(BINARY_MARKER, 0, valueBytes, 0, BINARY_MARKER.length);
+            System.arraycopy(bytes, 0, valueBytes, BINARY_MARKER.length, bytes.length);
+            return valueBytes;
+        }
+        return Base64.encodeBase64(bytes);
     }
 
-    private Object deserializeValue(String value) throws Exception {
+    private Object deserializeValue(byte[] value) throws Exception {
         if (value == null) {
             return null;
         }
-        byte[] bytes = Base64.decodeBase64(value);
+        byte[] bytes;
+        if (isBinaryValue(value)) {
+            bytes = Arrays.copyOfRange(value, BINARY_MARKER.length, value.length);
+        } else {
+            // 兼容读取采用Base64编码存储的缓存值
+            bytes = Base64.decodeBase64(value);
+        }
         return owner.getConfig().getSerializer().deserialize(bytes, Object.class);
     }
 
+    private static boolean isBinaryValue(byte[] value) {
+        if (value.length < BINARY_MARKER.length) {
+            return false;
+        }
+        for (int idx = 0; idx < BINARY_MARKER.length; idx++) {
+            if (value[idx] != BINARY_MARKER[idx]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] encodeKey(String key) {
+        return SafeEncoder.encode(key);
+    }
+
     @Override
     public Object get(Object key) throws CacheException {
         try (IRedisCommandHolder holder = redis.getDefaultConnectionHolder()) {
@@ -111,12 +148,12 @@ public class RedisCacheWrapper implements ICache {
             String cacheKey = serializeKey(key);
             Object cacheValue;
             if (owner.getConfig().isStorageWithSet()) {
-                cacheValue = deserializeValue(commander.hget(cacheName, cacheKey));
+                cacheValue = deserializeValue(commander.hget(encodeKey(cacheName), encodeKey(cacheKey)));
                 if (owner.getConfig().isEnabledSubscribeExpired() && cacheValue != null && Boolean.TRUE.equals(!commander.exists(cacheName.concat(SEPARATOR).concat(cacheKey)))) {
                     remove(key);
                 }
             } else {
-                cacheValue = deserializeValue(commander.get(cacheName.concat(SEPARATOR).concat(cacheKey)));
+                cacheValue = deserializeValue(commander.get(encodeKey(cacheName.concat(SEPARATOR).concat(cacheKey))));
             }
             return cacheValue;
         } catch (CacheException e) {
@@ -130,7 +167,7 @@ public class RedisCacheWrapper implements ICache {
         try (IRedisCommandHolder holder = redis.getDefaultConnectionHolder()) {
             IRedisCommander commander = holder.getConnection();
             String cacheKey = serializeKey(key);
-            String cacheValue = serializeValue(value);
+            byte[] cacheValue = serializeValue(value);
             if (value instanceof CacheElement) {
                 timeout = ((CacheElement) value).getTimeout();
             }
@@ -139,22 +176,24 @@ public class RedisCacheWrapper implements ICache {
             }
             //
             if (owner.getConfig().isStorageWithSet()) {
-                commander.hset(cacheName, cacheKey, cacheValue);
+                commander.hset(encodeKey(cacheName), encodeKey(cacheKey), cacheValue);
                 //
                 if (owner.getConfig().isEnabledSubscribeExpired() && timeout > 0) {
                     commander.setex(cacheName.concat(SEPARATOR).concat(cacheKey), (long) timeout, StringUtils.EMPTY);
                 }
             } else if (timeout > 0) {
-                commander.setex(cacheName.concat(SEPARATOR).concat(cacheKey), (long) timeout, cacheValue);
+                commander.setex(encodeKey(cacheName.concat(SEPARATOR).concat(cacheKey)), (long) timeout, cacheValue);
             } else {
-                commander.set(cacheName.concat(SEPARATOR).concat(cacheKey), cacheValue);
+                commander.set(encodeKey(cacheName.concat(SEPARATOR).concat(cacheKey)), cacheValue);
             }
             //
             if (cacheEventListener != null) {
+                // 二进制存储模式下事件参数为原始缓存值对象, 否则与以往保持一致, 为Base64编码后的字符串
+                Object eventValue = owner.getConfig().isStorageWithBinary() ? value : new String(cacheValue, StandardCharsets.US_ASCII);
                 if (update) {
-                    cacheEventListener.notifyElementUpdated(cacheName, cacheKey, cacheValue);
+                    cacheEventListener.notifyElementUpdated(cacheName, cacheKey, eventValue);
                 } else {
-                    cacheEventListener.notifyElementPut(cacheName, cacheKey, cacheValue);
+                    cacheEventListener.notifyElementPut(cacheName, cacheKey, eventValue);
                 }
             }
         } catch (CacheException e) {
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.cache.support;
+
+import net.ymate.platform.cache.*;
+import net.ymate.platform.cache.annotation.Cacheable;
+import net.ymate.platform.core.beans.proxy.IProxyChain;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author 刘镇 (suninformation@163.com) on 2024/10/20 18:05
+ * @since 2.1.3
+ */
+public class CacheableProxyTest {
+
+    private static final ThreadLocal<String> SESSION_ID = new ThreadLocal<>();
+
+    private final CacheableProxy cacheableProxy = new CacheableProxy();
+
+    private final Map<Object, Object> storage = new ConcurrentHashMap<>();
+
+    private final AtomicInteger invokeCounts = new AtomicInteger();
+
+    private final CountDownLatch entered = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private ICaches createCaches(ICacheScopeProcessor scopeProcessor) {
+        ICacheConfig config = (ICacheConfig) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ICacheConfig.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getCacheScopeProcessor":
+                    return scopeProcessor;
+                case "getDefaultCacheTimeout":
+                    return 0;
+                default:
+                    return null;
+            }
+        });
+        return (ICaches) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ICaches.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getConfig":
+                    return config;
+                case "get":
+                    return storage.get(args[0] + "|" + args[1]);
+                case "put":
+                    storage.put(args[0] + "|" + args[1], args[2]);
+                    return null;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private Object invoke(ICaches caches, String methodName) throws Throwable {
+        Method method = CacheableProxyTest.class.getDeclaredMethod(methodName);
+        IProxyChain proxyChain = (IProxyChain) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{IProxyChain.class}, (proxy, m, args) -> {
+            switch (m.getName()) {
+                case "getTargetMethod":
+                    return method;
+                case "getMethodParams":
+                    return new Object[0];
+                case "doProxyChain":
+                    try {
+                        return method.invoke(CacheableProxyTest.this);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                default:
+                    return null;
+            }
+        });
+        return cacheableProxy.doProxy(proxyChain, method.getAnnotation(Cacheable.class), caches);
+    }
+
+    private Future<Object> submit(ExecutorService executorService, ICaches caches, String methodName, String sessionId) {
+        return executorService.submit(() -> {
+            SESSION_ID.set(sessionId);
+            try {
+                return invoke(caches, methodName);
+            } catch (Throwable e) {
+                throw new ExecutionException(e);
+            } finally {
+                SESSION_ID.remove();
+            }
+        });
+    }
+
+    private String load() throws InterruptedException {
+        invokeCounts.incrementAndGet();
+        if (entered.getCount() > 0) {
+            // 首个加载者阻塞, 以便其它请求在其加载期间到达
+            entered.countDown();
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+        }
+        return "profile_" + SESSION_ID.get();
+    }
+
+    @Cacheable(key = "profile")
+    public String defaultProfile() throws InterruptedException {
+        return load();
+    }
+
+    @Cacheable(key = "profile", scope = ICaches.Scope.SESSION)
+    public String sessionProfile() throws InterruptedException {
+        return load();
+    }
+
+    @Test
+    public void defaultScopeLoadsOnce() throws Exception {
+        ICaches caches = createCaches(null);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            futures.add(submit(executorService, caches, "defaultProfile", "A"));
+            assertTrue(entered.await(10, TimeUnit.SECONDS));
+            for (int idx = 0; idx < 7; idx++) {
+                futures.add(submit(executorService, caches, "defaultProfile", "B" + idx));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<Object> future : futures) {
+                assertEquals("profile_A", future.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, invokeCounts.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void sessionScopeNotShared() throws Exception {
+        ICaches caches = createCaches(new SessionScopeProcessor(true));
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            Future<Object> sessionA = submit(executorService, caches, "sessionProfile", "A");
+            assertTrue(entered.await(10, TimeUnit.SECONDS));
+            // 其它会话不应等待或共享会话A的加载结果
+            assertEquals("profile_B", submit(executorService, caches, "sessionProfile", "B").get(10, TimeUnit.SECONDS));
+            Future<Object> sessionA2 = submit(executorService, caches, "sessionProfile", "A");
+            Thread.sleep(200);
+            assertFalse(sessionA2.isDone());
+            release.countDown();
+            assertEquals("profile_A", sessionA.get(10, TimeUnit.SECONDS));
+            assertEquals("profile_A", sessionA2.get(10, TimeUnit.SECONDS));
+            assertEquals(2, invokeCounts.get());
+            assertEquals("profile_B", submit(executorService, caches, "sessionProfile", "B").get(10, TimeUnit.SECONDS));
+            assertEquals(2, invokeCounts.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void unknownScopeKeyNotCoalesced() throws Exception {
+        ICaches caches = createCaches(new SessionScopeProcessor(false));
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            Future<Object> sessionA = submit(executorService, caches, "sessionProfile", "A");
+            assertTrue(entered.await(10, TimeUnit.SECONDS));
+            assertEquals("profile_A", submit(executorService, caches, "sessionProfile", "A").get(10, TimeUnit.SECONDS));
+            release.countDown();
+            assertEquals("profile_A", sessionA.get(10, TimeUnit.SECONDS));
+            assertEquals(2, invokeCounts.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * 以当前线程绑定的会话标识区分缓存项的作用域处理器
+     */
+    private static class SessionScopeProcessor implements ICacheScopeProcessor {
+
+        private final boolean scopeCacheKeySupported;
+
+        SessionScopeProcessor(boolean scopeCacheKeySupported) {
+            this.scopeCacheKeySupported = scopeCacheKeySupported;
+        }
+
+        @Override
+        public CacheElement getFromCache(ICaches caches, ICaches.Scope scope, String cacheName, String cacheKey) throws CacheException {
+            return (CacheElement) caches.get(scope.name(), SESSION_ID.get() + "|" + cacheKey);
+        }
+
+        @Override
+        public void putInCache(ICaches caches, ICaches.Scope scope, String cacheName, String cacheKey, CacheElement cacheElement) throws CacheException {
+            caches.put(scope.name(), SESSION_ID.get() + "|" + cacheKey, cacheElement);
+        }
+
+        @Override
+        public String buildScopeCacheKey(ICaches.Scope scope, String cacheName, String cacheKey) {
+            return scopeCacheKeySupported ? scope.name() + ":" + SESSION_ID.get() + "|" + cacheKey : null;
+        }
+    }
+}
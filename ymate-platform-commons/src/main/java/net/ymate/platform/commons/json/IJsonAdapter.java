@@ -15,6 +15,10 @@
  */
 package net.ymate.platform.commons.json;
 
+import org.apache.commons.io.IOUtils;
+
+import java.io.*;
+import java.nio.charset.Charset;
 import java.util.Collection;
 import java.util.Map;
 
@@ -77,4 +81,78 @@ public interface IJsonAdapter {
     <T> T deserialize(byte[] bytes, TypeReferenceWrapper<T> typeRef) throws Exception;
 
     <T> T deserialize(byte[] bytes, boolean snakeCase, TypeReferenceWrapper<T> typeRef) throws Exception;
+
+    //
+
+    /**
+     * 将对象序列化并直接写入字符输出流(调用者负责关闭输出流), 默认实现仍将先构建完整的JSON字符串, 具体适配器应尽量采用流式输出
+     *
+     * @param object        目标对象
+     * @param writer        字符输出流
+     * @param format        是否格式化输出
+     * @param keepNullValue 是否保留空值属性
+     * @param snakeCase     是否采用蛇形命名
+     * @throws IOException 可能产生的异常
+     * @since 2.1.3
+     */
+    default void writeTo(Object object, Writer writer, boolean format, boolean keepNullValue, boolean snakeCase) throws IOException {
+        writer.write(String.valueOf(toJsonString(object, format, keepNullValue, snakeCase)));
+    }
+
+    /**
+     * @since 2.1.3
+     */
+    default void writeTo(Object object, Writer writer) throws IOException {
+        writeTo(object, writer, false, false, false);
+    }
+
+    /**
+     * 将对象序列化并按指定字符集直接写入输出流(写入完毕后刷新但不关闭输出流)
+     *
+     * @param object        目标对象
+     * @param output        输出流
+     * @param charset       字符集
+     * @param format        是否格式化输出
+     * @param keepNullValue 是否保留空值属性
+     * @param snakeCase     是否采用蛇形命名
+     * @throws IOException 可能产生的异常
+     * @since 2.1.3
+     */
+    default void writeTo(Object object, OutputStream output, Charset charset, boolean format, boolean keepNullValue, boolean snakeCase) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, charset));
+        writeTo(object, writer, format, keepNullValue, snakeCase);
+        writer.flush();
+    }
+
+    /**
+     * 从字符输入流中读取并反序列化对象(调用者负责关闭输入流), 默认实现仍将先读取完整的JSON字符串
+     *
+     * @since 2.1.3
+     */
+    default <T> T deserialize(Reader reader, boolean snakeCase, Class<T> clazz) throws Exception {
+        return deserialize(IOUtils.toString(reader), snakeCase, clazz);
+    }
+
+    /**
+     * @since 2.1.3
+     */
+    default <T> T deserialize(Reader reader, boolean snakeCase, TypeReferenceWrapper<T> typeRef) throws Exception {
+        return deserialize(IOUtils.toString(reader), snakeCase, typeRef);
+    }
+
+    /**
+     * 从输入流中按指定字符集读取并反序列化对象(调用者负责关闭输入流)
+     *
+     * @since 2.1.3
+     */
+    default <T> T deserialize(InputStream input, Charset charset, boolean snakeCase, Class<T> clazz) throws Exception {
+        return deserialize(new InputStreamReader(input, charset), snakeCase, clazz);
+    }
+
+    /**
+     * @since 2.1.3
+     */
+    default <T> T deserialize(InputStream input, Charset charset, boolean snakeCase, TypeReferenceWrapper<T> typeRef) throws Exception {
+        return deserialize(new InputStreamReader(input, charset), snakeCase, typeRef);
+    }
 }
@@ -25,7 +25,8 @@ import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import java.io.Serializable;
+import java.io.*;
+import java.nio.charset.Charset;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -201,6 +202,34 @@ public final class JsonWrapper implements Serializable {
         return jsonAdapter.deserialize(bytes, snakeCase, typeRef);
     }
 
+    public static void writeTo(Object object, Writer writer) throws IOException {
+        jsonAdapter.writeTo(object, writer);
+    }
+
+    public static void writeTo(Object object, Writer writer, boolean format, boolean keepNullValue, boolean snakeCase) throws IOException {
+        jsonAdapter.writeTo(object, writer, format, keepNullValue, snakeCase);
+    }
+
+    public static void writeTo(Object object, OutputStream output, Charset charset, boolean format, boolean keepNullValue, boolean snakeCase) throws IOException {
+        jsonAdapter.writeTo(object, output, charset, format, keepNullValue, snakeCase);
+    }
+
+    public static <T> T deserialize(Reader reader, boolean snakeCase, Class<T> clazz) throws Exception {
+        return jsonAdapter.deserialize(reader, snakeCase, clazz);
+    }
+
+    public static <T> T deserialize(Reader reader, boolean snakeCase, TypeReferenceWrapper<T> typeRef) throws Exception {
+        return jsonAdapter.deserialize(reader, snakeCase, typeRef);
+    }
+
+    public static <T> T deserialize(InputStream input, Charset charset, boolean snakeCase, Class<T> clazz) throws Exception {
+        return jsonAdapter.deserialize(input, charset, snakeCase, clazz);
+    }
+
+    public static <T> T deserialize(InputStream input, Charset charset, boolean snakeCase, TypeReferenceWrapper<T> typeRef) throws Exception {
+        return jsonAdapter.deserialize(input, charset, snakeCase, typeRef);
+    }
+
     private final Object object;
 
     public JsonWrapper(IJsonObjectWrapper jsonObjectWrapper) {
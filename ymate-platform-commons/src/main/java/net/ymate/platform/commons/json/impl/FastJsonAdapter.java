@@ -19,16 +19,24 @@ import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
 import com.alibaba.fastjson.PropertyNamingStrategy;
+import com.alibaba.fastjson.parser.DefaultJSONParser;
 import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.parser.JSONReaderScanner;
 import com.alibaba.fastjson.parser.ParserConfig;
 import com.alibaba.fastjson.serializer.JSONSerializer;
 import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializeWriter;
 import com.alibaba.fastjson.serializer.SerializerFeature;
 import net.ymate.platform.commons.json.*;
 import net.ymate.platform.commons.json.support.JsonArrayFastJsonSerializer;
 import net.ymate.platform.commons.json.support.JsonObjectFastJsonSerializer;
 import net.ymate.platform.commons.json.support.JsonWrapperFastJsonSerializer;
+import org.apache.commons.io.input.CloseShieldReader;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 
@@ -184,8 +192,7 @@ public class FastJsonAdapter implements IJsonAdapter {
         return toJsonString(object, format, keepNullValue, false);
     }
 
-    @Override
-    public String toJsonString(Object object, boolean format, boolean keepNullValue, boolean snakeCase) {
+    private static SerializerFeature[] toSerializerFeatures(boolean format, boolean keepNullValue) {
         List<SerializerFeature> serializerFeatures = new ArrayList<>();
         if (format) {
             serializerFeatures.add(SerializerFeature.PrettyFormat);
@@ -199,7 +206,24 @@ public class FastJsonAdapter implements IJsonAdapter {
                     SerializerFeature.WriteNullStringAsEmpty,
                     SerializerFeature.WriteNullNumberAsZero));
         }
-        return JSON.toJSONString(JsonWrapper.unwrap(object), snakeCase ? SNAKE_CASE_SERIALIZE_CONFIG : SerializeConfig.getGlobalInstance(), serializerFeatures.toArray(new SerializerFeature[0]));
+        return serializerFeatures.toArray(new SerializerFeature[0]);
+    }
+
+    @Override
+    public String toJsonString(Object object, boolean format, boolean keepNullValue, boolean snakeCase) {
+        return JSON.toJSONString(JsonWrapper.unwrap(object), snakeCase ? SNAKE_CASE_SERIALIZE_CONFIG : SerializeConfig.getGlobalInstance(), toSerializerFeatures(format, keepNullValue));
+    }
+
+    @Override
+    public void writeTo(Object object, Writer writer, boolean format, boolean keepNullValue, boolean snakeCase) throws IOException {
+        // SerializeWriter关联Writer后, 当缓冲区写满时将直接刷新至目标流而不再扩容
+        SerializeWriter out = new SerializeWriter(writer, JSON.DEFAULT_GENERATE_FEATURE, toSerializerFeatures(format, keepNullValue));
+        try {
+            new JSONSerializer(out, snakeCase ? SNAKE_CASE_SERIALIZE_CONFIG : SerializeConfig.getGlobalInstance()).write(JsonWrapper.unwrap(object));
+            out.flush();
+        } finally {
+            out.close();
+        }
     }
 
     @Override
@@ -255,4 +279,26 @@ public class FastJsonAdapter implements IJsonAdapter {
     public <T> T deserialize(byte[] bytes, boolean snakeCase, TypeReferenceWrapper<T> typeRef) throws Exception {
         return deserialize(new String(bytes, StandardCharsets.UTF_8), snakeCase, typeRef);
     }
+
+    private <T> T doDeserialize(Reader reader, boolean snakeCase, Type type) {
+        // 屏蔽关闭操作, 输入流由调用者负责关闭
+        DefaultJSONParser parser = new DefaultJSONParser(new JSONReaderScanner(CloseShieldReader.wrap(reader), JSON.DEFAULT_PARSER_FEATURE), snakeCase ? SNAKE_CASE_PARSE_CONFIG : ParserConfig.getGlobalInstance());
+        try {
+            T value = parser.parseObject(type);
+            parser.handleResovleTask(value);
+            return value;
+        } finally {
+            parser.close();
+        }
+    }
+
+    @Override
+    public <T> T deserialize(Reader reader, boolean snakeCase, Class<T> clazz) throws Exception {
+        return doDeserialize(reader, snakeCase, clazz);
+    }
+
+    @Override
+    public <T> T deserialize(Reader reader, boolean snakeCase, TypeReferenceWrapper<T> typeRef) throws Exception {
+        return doDeserialize(reader, snakeCase, typeRef.getType());
+    }
 }
@@ -21,6 +21,9 @@ import net.ymate.platform.commons.json.support.JsonArrayGsonSerializer;
 import net.ymate.platform.commons.json.support.JsonObjectGsonSerializer;
 import net.ymate.platform.commons.json.support.JsonWrapperGsonSerializer;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Map;
@@ -37,6 +40,34 @@ public class GsonAdapter implements IJsonAdapter {
             .registerTypeAdapter(IJsonArrayWrapper.class, new JsonArrayGsonSerializer())
             .create();
 
+    /**
+     * 按序列化参数组合缓存的Gson实例(Gson实例是线程安全且不可变的, 无需每次重新构建)
+     */
+    private static final Gson[] CACHED_GSONS = new Gson[8];
+
+    private static Gson getGson(boolean format, boolean keepNullValue, boolean snakeCase) {
+        int idx = (format ? 1 : 0) | (keepNullValue ? 2 : 0) | (snakeCase ? 4 : 0);
+        if (idx == 0) {
+            return GSON;
+        }
+        Gson gson = CACHED_GSONS[idx];
+        if (gson == null) {
+            GsonBuilder gsonBuilder = GSON.newBuilder();
+            if (format) {
+                gsonBuilder.setPrettyPrinting();
+            }
+            if (snakeCase) {
+                gsonBuilder.setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES);
+            }
+            if (keepNullValue) {
+                gsonBuilder.serializeNulls();
+            }
+            gson = gsonBuilder.create();
+            CACHED_GSONS[idx] = gson;
+        }
+        return gson;
+    }
+
     public static JsonElement toJsonElement(Object value) {
         return GSON.toJsonTree(JsonWrapper.unwrap(value));
     }
@@ -139,17 +170,19 @@ public class GsonAdapter implements IJsonAdapter {
 
     @Override
     public String toJsonString(Object object, boolean format, boolean keepNullValue, boolean snakeCase) {
-        GsonBuilder gsonBuilder = GSON.newBuilder();
-        if (format) {
-            gsonBuilder.setPrettyPrinting();
-        }
-        if (snakeCase) {
-            gsonBuilder.setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES);
-        }
-        if (keepNullValue) {
-            gsonBuilder.serializeNulls();
+        return getGson(format, keepNullValue, snakeCase).toJson(JsonWrapper.unwrap(object));
+    }
+
+    @Override
+    public void writeTo(Object object, Writer writer, boolean format, boolean keepNullValue, boolean snakeCase) throws IOException {
+        try {
+            getGson(format, keepNullValue, snakeCase).toJson(JsonWrapper.unwrap(object), writer);
+        } catch (JsonIOException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
         }
-        return gsonBuilder.create().toJson(JsonWrapper.unwrap(object));
     }
 
     @Override
@@ -169,12 +202,7 @@ public class GsonAdapter implements IJsonAdapter {
 
     @Override
     public <T> T deserialize(String jsonStr, boolean snakeCase, Class<T> clazz) throws Exception {
-        if (snakeCase) {
-            return GSON.newBuilder()
-                    .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
-                    .create().fromJson(jsonStr, clazz);
-        }
-        return GSON.fromJson(jsonStr, clazz);
+        return getGson(false, false, snakeCase).fromJson(jsonStr, clazz);
     }
 
     @Override
@@ -194,12 +222,7 @@ public class GsonAdapter implements IJsonAdapter {
 
     @Override
     public <T> T deserialize(String jsonStr, boolean snakeCase, TypeReferenceWrapper<T> typeRef) throws Exception {
-        if (snakeCase) {
-            return GSON.newBuilder()
-                    .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
-                    .create().fromJson(jsonStr, typeRef.getType());
-        }
-        return GSON.fromJson(jsonStr, typeRef.getType());
+        return getGson(false, false, snakeCase).fromJson(jsonStr, typeRef.getType());
     }
 
     @Override
@@ -211,4 +234,14 @@ public class GsonAdapter implements IJsonAdapter {
     public <T> T deserialize(byte[] bytes, boolean snakeCase, TypeReferenceWrapper<T> typeRef) throws Exception {
         return deserialize(new String(bytes, StandardCharsets.UTF_8), snakeCase, typeRef);
     }
+
+    @Override
+    public <T> T deserialize(Reader reader, boolean snakeCase, Class<T> clazz) throws Exception {
+        return getGson(false, false, snakeCase).fromJson(reader, clazz);
+    }
+
+    @Override
+    public <T> T deserialize(Reader reader, boolean snakeCase, TypeReferenceWrapper<T> typeRef) throws Exception {
+        return getGson(false, false, snakeCase).fromJson(reader, typeRef.getType());
+    }
 }
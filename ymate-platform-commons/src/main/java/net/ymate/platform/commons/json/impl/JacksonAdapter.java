@@ -16,6 +16,8 @@
 package net.ymate.platform.commons.json.impl;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.json.JsonReadFeature;
 import com.fasterxml.jackson.databind.*;
@@ -32,9 +34,13 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.io.*;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * @author 刘镇 (suninformation@163.com) on 2020/6/11 3:40 下午
@@ -46,6 +52,12 @@ public class JacksonAdapter implements IJsonAdapter {
 
     public static final JsonMapper OBJECT_MAPPER = createObjectMapper();
 
+    /**
+     * 按序列化参数组合缓存的ObjectMapper实例, 避免每次序列化时复制ObjectMapper及重建其内部序列化器缓存
+     * (通过AtomicReferenceArray发布, 保证其它线程读取到的是已完成配置的实例)
+     */
+    private static final AtomicReferenceArray<ObjectMapper> CACHED_OBJECT_MAPPERS = new AtomicReferenceArray<>(4);
+
     private static JsonMapper createObjectMapper() {
         SimpleModule module = new SimpleModule()
                 .addSerializer(JsonWrapper.class, new JsonWrapperJacksonSerializer.Serializer())
@@ -67,6 +79,40 @@ public class JacksonAdapter implements IJsonAdapter {
                 .build();
     }
 
+    private static ObjectMapper getObjectMapper(boolean keepNullValue, boolean snakeCase) {
+        if (keepNullValue && !snakeCase) {
+            return OBJECT_MAPPER;
+        }
+        int idx = (keepNullValue ? 1 : 0) | (snakeCase ? 2 : 0);
+        ObjectMapper objectMapper = CACHED_OBJECT_MAPPERS.get(idx);
+        if (objectMapper == null) {
+            objectMapper = OBJECT_MAPPER.copy();
+            if (!keepNullValue) {
+                objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+            }
+            if (snakeCase) {
+                objectMapper.setPropertyNamingStrategy(new PropertyNamingStrategies.SnakeCaseStrategy());
+            }
+            // 并发创建时以先发布的实例为准
+            if (!CACHED_OBJECT_MAPPERS.compareAndSet(idx, null, objectMapper)) {
+                objectMapper = CACHED_OBJECT_MAPPERS.get(idx);
+            }
+        }
+        return objectMapper;
+    }
+
+    private static ObjectWriter getObjectWriter(boolean format, boolean keepNullValue, boolean snakeCase) {
+        ObjectMapper objectMapper = getObjectMapper(keepNullValue, snakeCase);
+        ObjectWriter objectWriter = format ? objectMapper.writerWithDefaultPrettyPrinter() : objectMapper.writer();
+        // 输出流由调用者负责关闭
+        return objectWriter.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private static ObjectReader getObjectReader(boolean snakeCase, Type type) {
+        ObjectMapper objectMapper = getObjectMapper(true, snakeCase);
+        return objectMapper.readerFor(objectMapper.constructType(type)).without(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+    }
+
     public static JsonNode toJsonNode(Object value) {
         return OBJECT_MAPPER.valueToTree(JsonWrapper.unwrap(value));
     }
@@ -164,8 +210,7 @@ public class JacksonAdapter implements IJsonAdapter {
     public JsonWrapper toJson(Object object, boolean snakeCase) {
         JsonWrapper jsonWrapper = null;
         if (object != null) {
-            ObjectMapper objectMapper = snakeCase ? OBJECT_MAPPER.copy().setPropertyNamingStrategy(new PropertyNamingStrategies.SnakeCaseStrategy()) : OBJECT_MAPPER;
-            jsonWrapper = parseJsonJsonWrapper(objectMapper.valueToTree(JsonWrapper.unwrap(object)));
+            jsonWrapper = parseJsonJsonWrapper(getObjectMapper(true, snakeCase).valueToTree(JsonWrapper.unwrap(object)));
         }
         return jsonWrapper;
     }
@@ -187,19 +232,8 @@ public class JacksonAdapter implements IJsonAdapter {
 
     @Override
     public String toJsonString(Object object, boolean format, boolean keepNullValue, boolean snakeCase) {
-        ObjectMapper objectMapper = OBJECT_MAPPER.copy();
-        if (!keepNullValue) {
-            objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        }
-        if (snakeCase) {
-            objectMapper.setPropertyNamingStrategy(new PropertyNamingStrategies.SnakeCaseStrategy());
-        }
         try {
-            if (format) {
-                return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(JsonWrapper.unwrap(object));
-            } else {
-                return objectMapper.writeValueAsString(JsonWrapper.unwrap(object));
-            }
+            return getObjectWriter(format, keepNullValue, snakeCase).writeValueAsString(JsonWrapper.unwrap(object));
         } catch (JsonProcessingException e) {
             if (LOG.isWarnEnabled()) {
                 LOG.warn(StringUtils.EMPTY, RuntimeUtils.unwrapThrow(e));
@@ -208,6 +242,21 @@ public class JacksonAdapter implements IJsonAdapter {
         return null;
     }
 
+    @Override
+    public void writeTo(Object object, Writer writer, boolean format, boolean keepNullValue, boolean snakeCase) throws IOException {
+        getObjectWriter(format, keepNullValue, snakeCase).writeValue(writer, JsonWrapper.unwrap(object));
+    }
+
+    @Override
+    public void writeTo(Object object, OutputStream output, Charset charset, boolean format, boolean keepNullValue, boolean snakeCase) throws IOException {
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            // UTF-8编码时直接由Jackson输出字节, 省去字符到字节的二次编码
+            getObjectWriter(format, keepNullValue, snakeCase).writeValue(output, JsonWrapper.unwrap(object));
+        } else {
+            IJsonAdapter.super.writeTo(object, output, charset, format, keepNullValue, snakeCase);
+        }
+    }
+
     @Override
     public byte[] serialize(Object object) throws Exception {
         return serialize(object, false);
@@ -225,8 +274,7 @@ public class JacksonAdapter implements IJsonAdapter {
 
     @Override
     public <T> T deserialize(String jsonStr, boolean snakeCase, Class<T> clazz) throws Exception {
-        ObjectMapper objectMapper = snakeCase ? OBJECT_MAPPER.copy().setPropertyNamingStrategy(new PropertyNamingStrategies.SnakeCaseStrategy()) : OBJECT_MAPPER;
-        return objectMapper.readValue(jsonStr, clazz);
+        return getObjectMapper(true, snakeCase).readValue(jsonStr, clazz);
     }
 
     @Override
@@ -246,7 +294,7 @@ public class JacksonAdapter implements IJsonAdapter {
 
     @Override
     public <T> T deserialize(String jsonStr, boolean snakeCase, TypeReferenceWrapper<T> typeRef) throws Exception {
-        ObjectMapper objectMapper = snakeCase ? OBJECT_MAPPER.copy().setPropertyNamingStrategy(new PropertyNamingStrategies.SnakeCaseStrategy()) : OBJECT_MAPPER;
+        ObjectMapper objectMapper = getObjectMapper(true, snakeCase);
         return objectMapper.readValue(jsonStr, objectMapper.constructType(typeRef.getType()));
     }
 
@@ -259,4 +307,30 @@ public class JacksonAdapter implements IJsonAdapter {
     public <T> T deserialize(byte[] bytes, boolean snakeCase, TypeReferenceWrapper<T> typeRef) throws Exception {
         return deserialize(new String(bytes, StandardCharsets.UTF_8), snakeCase, typeRef);
     }
+
+    @Override
+    public <T> T deserialize(Reader reader, boolean snakeCase, Class<T> clazz) throws Exception {
+        return getObjectReader(snakeCase, clazz).readValue(reader);
+    }
+
+    @Override
+    public <T> T deserialize(Reader reader, boolean snakeCase, TypeReferenceWrapper<T> typeRef) throws Exception {
+        return getObjectReader(snakeCase, typeRef.getType()).readValue(reader);
+    }
+
+    @Override
+    public <T> T deserialize(InputStream input, Charset charset, boolean snakeCase, Class<T> clazz) throws Exception {
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            return getObjectReader(snakeCase, clazz).readValue(input);
+        }
+        return IJsonAdapter.super.deserialize(input, charset, snakeCase, clazz);
+    }
+
+    @Override
+    public <T> T deserialize(InputStream input, Charset charset, boolean snakeCase, TypeReferenceWrapper<T> typeRef) throws Exception {
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            return getObjectReader(snakeCase, typeRef.getType()).readValue(input);
+        }
+        return IJsonAdapter.super.deserialize(input, charset, snakeCase, typeRef);
+    }
 }
@@ -29,6 +29,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
 import java.net.URL;
 import java.net.URLClassLoader;
@@ -59,6 +62,13 @@ public class ClassUtils {
     @SuppressWarnings("rawtypes")
     private static final Map<Class<?>, ExtensionLoader> EXTENSION_LOADERS = new ConcurrentHashMap<>();
 
+    private static final ClassValue<BeanMetadata> BEAN_METADATAS = new ClassValue<BeanMetadata>() {
+        @Override
+        protected BeanMetadata computeValue(Class<?> type) {
+            return new BeanMetadata(type);
+        }
+    };
+
     public static final Set<String> EXCLUDED_METHOD_NAMES = Collections.unmodifiableSet(Arrays.stream(Object.class.getDeclaredMethods()).map(Method::getName).collect(Collectors.toSet()));
 
     /**
@@ -623,6 +633,15 @@ public class ClassUtils {
         return new BeanWrapper<>(target);
     }
 
+    /**
+     * @param clazz 目标类型
+     * @return 返回目标类型的属性元数据描述(按类型缓存, 仅首次访问时构建)
+     * @since 2.1.3
+     */
+    public static BeanMetadata getBeanMetadata(Class<?> clazz) {
+        return BEAN_METADATAS.get(clazz);
+    }
+
     /**
      * 内部类加载器
      */
@@ -757,6 +776,262 @@ public class ClassUtils {
         boolean filter(String fieldName, Object fieldValue);
     }
 
+    /**
+     * 类属性元数据描述(不可变), 按类型缓存, 通过预先生成的方法句柄读写成员属性
+     *
+     * @author 刘镇 (suninformation@163.com) on 2024/10/09 10:18
+     * @since 2.1.3
+     */
+    public static final class BeanMetadata {
+
+        private static final MethodHandle FIELD_GETTER;
+
+        private static final MethodHandle FIELD_SETTER;
+
+        static {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                FIELD_GETTER = lookup.findVirtual(Field.class, "get", MethodType.methodType(Object.class, Object.class));
+                FIELD_SETTER = lookup.findVirtual(Field.class, "set", MethodType.methodType(void.class, Object.class, Object.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private final Class<?> targetClass;
+
+        private final Map<String, Field> fieldMap;
+
+        private final Map<String, Method> methodMap;
+
+        private final Map<String, MethodHandle> fieldGetters;
+
+        private final Map<String, MethodHandle> fieldSetters;
+
+        private final Map<String, MethodHandle> methodInvokers;
+
+        /**
+         * set方法参数类型, 用于在调用前检查参数值
+         */
+        private final Map<String, Class<?>> setterParamTypes;
+
+        BeanMetadata(Class<?> targetClass) {
+            this.targetClass = targetClass;
+            //
+            Map<String, Field> fields = new LinkedHashMap<>();
+            ClassUtils.getFields(targetClass, true).stream()
+                    .filter((field) -> !Modifier.isStatic(field.getModifiers()))
+                    .forEachOrdered((field) -> fields.put(field.getName(), field));
+            Map<String, Method> methods = new LinkedHashMap<>();
+            ClassUtils.getMethods(targetClass, true).stream()
+                    .filter(ClassUtils::isNormalMethod)
+                    .forEachOrdered(method -> methods.put(method.getName(), method));
+            this.fieldMap = Collections.unmodifiableMap(fields);
+            this.methodMap = Collections.unmodifiableMap(methods);
+            //
+            this.fieldGetters = new HashMap<>(fields.size());
+            this.fieldSetters = new HashMap<>(fields.size());
+            fields.forEach((name, field) -> {
+                boolean accessible;
+                try {
+                    field.setAccessible(true);
+                    accessible = true;
+                } catch (RuntimeException e) {
+                    // 无法取消访问检查(如受模块系统保护的类)时, 将在读写时由反射抛出访问异常
+                    accessible = false;
+                }
+                MethodHandle getter = null;
+                MethodHandle setter = null;
+                if (accessible) {
+                    MethodHandles.Lookup lookup = MethodHandles.lookup();
+                    try {
+                        getter = lookup.unreflectGetter(field);
+                    } catch (IllegalAccessException ignored) {
+                    }
+                    try {
+                        setter = lookup.unreflectSetter(field);
+                    } catch (IllegalAccessException ignored) {
+                        // final成员无法生成赋值句柄, 仍通过反射处理
+                    }
+                }
+                this.fieldGetters.put(name, (getter != null ? getter : FIELD_GETTER.bindTo(field))
+                        .asType(MethodType.methodType(Object.class, Object.class)));
+                this.fieldSetters.put(name, (setter != null ? setter : FIELD_SETTER.bindTo(field))
+                        .asType(MethodType.methodType(void.class, Object.class, Object.class)));
+            });
+            //
+            this.methodInvokers = new HashMap<>();
+            this.setterParamTypes = new HashMap<>();
+            methods.forEach((name, method) -> {
+                int paramCount = method.getParameterCount();
+                boolean setter = paramCount == 1 && name.startsWith("set");
+                boolean getter = paramCount == 0 && (name.startsWith("get") || name.startsWith("is"));
+                if (setter || getter) {
+                    MethodHandle methodHandle = null;
+                    try {
+                        methodHandle = MethodHandles.lookup().unreflect(method);
+                    } catch (IllegalAccessException e) {
+                        try {
+                            method.setAccessible(true);
+                            methodHandle = MethodHandles.lookup().unreflect(method);
+                        } catch (IllegalAccessException | RuntimeException ignored) {
+                        }
+                    }
+                    if (methodHandle != null) {
+                        if (setter) {
+                            this.setterParamTypes.put(name, method.getParameterTypes()[0]);
+                        }
+                        this.methodInvokers.put(name, setter
+                                ? methodHandle.asType(MethodType.methodType(void.class, Object.class, Object.class))
+                                : methodHandle.asType(MethodType.methodType(Object.class, Object.class)));
+                    }
+                }
+            });
+        }
+
+        public Class<?> getTargetClass() {
+            return targetClass;
+        }
+
+        public Map<String, Field> getFieldMap() {
+            return fieldMap;
+        }
+
+        public Map<String, Method> getMethodMap() {
+            return methodMap;
+        }
+
+        public Field getField(String fieldName) {
+            return fieldMap.get(fieldName);
+        }
+
+        public Method getMethod(String methodName) {
+            return methodMap.get(methodName);
+        }
+
+        private static IllegalArgumentException wrapArgumentException(Field field, RuntimeException e) {
+            return new IllegalArgumentException(String.format("Can not set %s field %s.%s: %s", field.getType().getName(), field.getDeclaringClass().getName(), field.getName(), e.getMessage()), e);
+        }
+
+        /**
+         * 读取目标对象成员属性值
+         *
+         * @param target 目标对象
+         * @param field  成员属性
+         * @return 返回属性值
+         * @throws IllegalAccessException 无访问权限时抛出
+         */
+        public Object getValue(Object target, Field field) throws IllegalAccessException {
+            MethodHandle getter = field == fieldMap.get(field.getName()) ? fieldGetters.get(field.getName()) : null;
+            if (getter == null) {
+                return field.get(target);
+            }
+            try {
+                return getter.invokeExact(target);
+            } catch (IllegalAccessException | RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            }
+        }
+
+        /**
+         * 设置目标对象成员属性值(不进行类型转换)
+         *
+         * @param target 目标对象
+         * @param field  成员属性
+         * @param value  属性值
+         * @throws IllegalAccessException 无访问权限时抛出
+         */
+        public void setValue(Object target, Field field, Object value) throws IllegalAccessException {
+            MethodHandle setter = field == fieldMap.get(field.getName()) ? fieldSetters.get(field.getName()) : null;
+            if (setter == null) {
+                field.set(target, value);
+                return;
+            }
+            try {
+                setter.invokeExact(target, value);
+            } catch (IllegalAccessException | IllegalArgumentException | Error e) {
+                throw e;
+            } catch (ClassCastException | NullPointerException e) {
+                // 与反射赋值保持一致, 类型不匹配或为基本类型赋空值时抛出IllegalArgumentException
+                throw wrapArgumentException(field, e);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            }
+        }
+
+        /**
+         * 调用目标对象的无参get或is方法
+         *
+         * @param target     目标对象
+         * @param methodName 方法名称
+         * @return 返回方法执行结果
+         * @throws IllegalAccessException    无访问权限时抛出
+         * @throws InvocationTargetException 方法执行异常时抛出
+         */
+        Object invokeGetter(Object target, String methodName) throws IllegalAccessException, InvocationTargetException {
+            MethodHandle getter = methodInvokers.get(methodName);
+            if (getter == null) {
+                Method method = methodMap.get(methodName);
+                return method != null && method.getParameterCount() == 0 ? method.invoke(target) : null;
+            }
+            checkTarget(methodMap.get(methodName), target);
+            try {
+                return getter.invokeExact(target);
+            } catch (Throwable e) {
+                // 参数已在调用前完成检查, 此处异常均来自目标方法
+                throw new InvocationTargetException(e);
+            }
+        }
+
+        /**
+         * 调用目标对象的单参数set方法
+         *
+         * @param target     目标对象
+         * @param methodName 方法名称
+         * @param value      参数值
+         * @return 若方法存在则返回true
+         * @throws IllegalAccessException    无访问权限时抛出
+         * @throws InvocationTargetException 方法执行异常时抛出
+         */
+        boolean invokeSetter(Object target, String methodName, Object value) throws IllegalAccessException, InvocationTargetException {
+            MethodHandle setter = methodInvokers.get(methodName);
+            if (setter == null) {
+                Method method = methodMap.get(methodName);
+                if (method != null && method.getParameterCount() == 1) {
+                    method.invoke(target, value);
+                    return true;
+                }
+                return false;
+            }
+            checkTarget(methodMap.get(methodName), target);
+            Class<?> paramType = setterParamTypes.get(methodName);
+            if (value == null ? paramType.isPrimitive() : !(paramType.isPrimitive() ? org.apache.commons.lang3.ClassUtils.isAssignable(value.getClass(), paramType, true) : paramType.isInstance(value))) {
+                // 与反射调用保持一致, 参数类型不匹配或为基本类型参数传递空值时抛出IllegalArgumentException
+                throw new IllegalArgumentException(String.format("Argument type mismatch for method %s.%s(%s): %s", targetClass.getName(), methodName, paramType.getName(), value == null ? "null" : value.getClass().getName()));
+            }
+            try {
+                setter.invokeExact(target, value);
+            } catch (Throwable e) {
+                // 参数已在调用前完成检查, 此处异常均来自目标方法
+                throw new InvocationTargetException(e);
+            }
+            return true;
+        }
+
+        private static void checkTarget(Method method, Object target) {
+            if (target == null) {
+                throw new NullPointerException("target");
+            }
+            if (!method.getDeclaringClass().isInstance(target)) {
+                throw new IllegalArgumentException(String.format("Object of type %s is not an instance of declaring class %s", target.getClass().getName(), method.getDeclaringClass().getName()));
+            }
+        }
+    }
+
     /**
      * 类对象包裹器，赋予对象简单的属性操作能力
      *
@@ -767,97 +1042,98 @@ public class ClassUtils {
 
         private final T target;
 
-        private final Map<String, Method> methodMap = new LinkedHashMap<>();
-
-        private final Map<String, Field> fieldMap = new LinkedHashMap<>();
+        private final BeanMetadata metadata;
 
         BeanWrapper(T target) {
             this.target = target;
-            //
-            ClassUtils.getFields(target.getClass(), true).stream()
-                    .filter((field) -> !Modifier.isStatic(field.getModifiers()))
-                    .peek((field) -> field.setAccessible(true))
-                    .forEachOrdered((field) -> this.fieldMap.put(field.getName(), field));
-            ClassUtils.getMethods(target.getClass(), true).stream()
-                    .filter(ClassUtils::isNormalMethod)
-                    .forEachOrdered(method -> this.methodMap.put(method.getName(), method));
+            this.metadata = getBeanMetadata(target.getClass());
         }
 
         public T getTargetObject() {
             return target;
         }
 
+        /**
+         * @return 返回目标对象类型的属性元数据描述
+         * @since 2.1.3
+         */
+        public BeanMetadata getMetadata() {
+            return metadata;
+        }
+
         public Map<String, Field> getFieldMap() {
-            return Collections.unmodifiableMap(fieldMap);
+            return metadata.getFieldMap();
         }
 
         public Set<String> getFieldNames() {
-            return fieldMap.keySet();
+            return metadata.getFieldMap().keySet();
         }
 
         public Annotation[] getFieldAnnotations(String fieldName) {
-            Field field = fieldMap.get(fieldName);
+            Field field = metadata.getField(fieldName);
             return field == null ? null : field.getAnnotations();
         }
 
         public Collection<Field> getFields() {
-            return fieldMap.values();
+            return metadata.getFieldMap().values();
         }
 
         public Field getField(String fieldName) {
-            return fieldMap.get(fieldName);
+            return metadata.getField(fieldName);
         }
 
         public Class<?> getFieldType(String fieldName) {
-            return fieldMap.get(fieldName).getType();
+            return metadata.getField(fieldName).getType();
         }
 
         public Collection<Method> getMethods() {
-            return methodMap.values();
+            return metadata.getMethodMap().values();
         }
 
         public Method getMethod(String methodName) {
-            return methodMap.get(methodName);
+            return metadata.getMethod(methodName);
         }
 
         public BeanWrapper<T> setValue(String fieldName, Object value) throws IllegalAccessException, InvocationTargetException {
-            Field field = fieldMap.get(fieldName);
+            Field field = metadata.getField(fieldName);
             if (field != null) {
-                field.set(target, BlurObject.bind(value).toObjectValue(field.getType()));
+                metadata.setValue(target, field, BlurObject.bind(value).toObjectValue(field.getType()));
             } else {
                 // 尝试通过set方法进行赋值
-                Method method = methodMap.get(String.format("set%s", StringUtils.capitalize(fieldName)));
+                Method method = metadata.getMethod(String.format("set%s", StringUtils.capitalize(fieldName)));
                 if (method != null && method.getParameterCount() == 1) {
-                    method.invoke(target, BlurObject.bind(value).toObjectValue(method.getParameters()[0].getType()));
+                    metadata.invokeSetter(target, method.getName(), BlurObject.bind(value).toObjectValue(method.getParameterTypes()[0]));
                 }
             }
             return this;
         }
 
         public BeanWrapper<T> setValue(Field field, Object value) throws IllegalAccessException {
-            field.set(target, BlurObject.bind(value).toObjectValue(field.getType()));
+            metadata.setValue(target, field, BlurObject.bind(value).toObjectValue(field.getType()));
             return this;
         }
 
         public Object getValue(String fieldName) throws IllegalAccessException, InvocationTargetException {
-            Field field = fieldMap.get(fieldName);
+            Field field = metadata.getField(fieldName);
             if (field != null) {
-                return field.get(target);
+                return metadata.getValue(target, field);
             }
             // 尝试通过get或is方法取值
             String capFieldName = StringUtils.capitalize(fieldName);
-            Method method = methodMap.get(String.format("get%s", capFieldName));
+            String methodName = String.format("get%s", capFieldName);
+            Method method = metadata.getMethod(methodName);
             if (method == null) {
-                method = methodMap.get(String.format("is%s", capFieldName));
+                methodName = String.format("is%s", capFieldName);
+                method = metadata.getMethod(methodName);
             }
             if (method != null && method.getParameterCount() == 0) {
-                return method.invoke(target);
+                return metadata.invokeGetter(target, methodName);
             }
             return null;
         }
 
         public Object getValue(Field field) throws IllegalAccessException {
-            return field.get(target);
+            return metadata.getValue(target, field);
         }
 
         public BeanWrapper<T> fromMap(Map<String, Object> map) {
@@ -884,14 +1160,14 @@ public class ClassUtils {
 
         public Map<String, Object> toMap(IFieldValueFilter filter) {
             Map<String, Object> returnValues = new HashMap<>(16);
-            fieldMap.values().forEach(field -> {
+            metadata.getFieldMap().values().forEach(field -> {
                 try {
-                    Object fValue = getValue(field.getName());
+                    Object fValue = getValue(field);
                     if (filter != null && filter.filter(field.getName(), fValue)) {
                         return;
                     }
                     returnValues.put(field.getName(), fValue);
-                } catch (IllegalAccessException | InvocationTargetException ignored) {
+                } catch (IllegalAccessException ignored) {
                     // 当赋值发生异常时，忽略当前值
                 }
             });
@@ -18,9 +18,12 @@ package net.ymate.platform.commons.util;
 import net.ymate.platform.commons.lang.BlurObject;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -29,6 +32,9 @@ import java.util.regex.Pattern;
  * 例: I am ${name},and sex is ${sex}. <br>
  * name=Henry,sex=M <br>
  * result:I am Henry,and sex is M.
+ * <p>
+ * 表达式字符串首次绑定时将被解析为由文本段和变量段组成的模板并按字符串缓存, 变量赋值仅记录变量值,
+ * 获取结果时通过单次遍历完成渲染; 当变量名称为正则表达式或变量值中包含'$'、'{'字符时将退回至逐个正则替换的处理方式.
  *
  * @author 刘镇 (suninformation@163.com) on 2010-12-20 上午11:37:00
  */
@@ -38,6 +44,24 @@ public final class ExpressionUtils {
 
     private final static String PRE = "\\$\\{";
     private final static String SUF = "}";
+
+    private final static String VAR_PREFIX = "${";
+
+    private final static String LINE_TERMINATORS = "\n\r\u0085\u2028\u2029";
+
+    private final static String REGEX_META_CHARS = "\\^$.|?*+()[]{}";
+
+    /**
+     * 已编译模板缓存的最大数量, 超出后新模板将不再被缓存
+     */
+    private final static int MAX_CACHED_TEMPLATES = 4096;
+
+    private final static Map<String, Template> TEMPLATES = new ConcurrentHashMap<>();
+
+    private Template template;
+
+    private Map<String, String> values;
+
     private String result;
 
     /**
@@ -48,14 +72,56 @@ public final class ExpressionUtils {
         return new ExpressionUtils(expressionStr);
     }
 
+    /**
+     * 编译表达式字符串, 编译结果按表达式字符串缓存
+     *
+     * @param expressionStr 目标字符串
+     * @return 返回已编译的模板对象, 若表达式中存在无法确定的变量定义(如变量名称为空或嵌套变量)则返回null
+     * @since 2.1.3
+     */
+    public static Template compile(String expressionStr) {
+        if (expressionStr == null) {
+            return null;
+        }
+        Template template = TEMPLATES.get(expressionStr);
+        if (template == null) {
+            template = Template.parse(expressionStr);
+            if (template != null && TEMPLATES.size() < MAX_CACHED_TEMPLATES) {
+                TEMPLATES.putIfAbsent(expressionStr, template);
+            }
+        }
+        return template;
+    }
+
     private ExpressionUtils(String expressionStr) {
-        this.result = expressionStr;
+        this.template = compile(expressionStr);
+        if (this.template == null) {
+            this.result = expressionStr;
+        }
+    }
+
+    private static boolean isPlainKey(String key) {
+        return StringUtils.isNotEmpty(key) && !StringUtils.containsAny(key, REGEX_META_CHARS);
+    }
+
+    /**
+     * 将已编译模板的当前渲染结果转为字符串, 后续操作均采用正则替换方式
+     */
+    private void materialize(boolean clean) {
+        if (template != null) {
+            this.result = template.render(values, clean);
+            this.template = null;
+            this.values = null;
+        }
     }
 
     /**
      * @return 获取结果
      */
     public String getResult() {
+        if (template != null) {
+            this.result = template.render(values, false);
+        }
         return this.result;
     }
 
@@ -68,6 +134,17 @@ public final class ExpressionUtils {
      */
     public ExpressionUtils set(String key, String value) {
         if (value != null) {
+            if (template != null) {
+                if (isPlainKey(key) && !StringUtils.containsAny(value, VAR_PREFIX)) {
+                    if (values == null) {
+                        values = new HashMap<>(16);
+                    }
+                    // 变量一经替换即不再存在, 重复赋值无效
+                    values.putIfAbsent(key, value);
+                    return this;
+                }
+                materialize(false);
+            }
             String namePattern = PRE + key + SUF;
             this.result = this.result.replaceAll(namePattern, Matcher.quoteReplacement(value));
         }
@@ -89,6 +166,9 @@ public final class ExpressionUtils {
      * @return 返回expressionStr中变量名称集合, 返回的数量将受set方法影响
      */
     public List<String> getVariables() {
+        if (template != null) {
+            return template.getVariables(values);
+        }
         List<String> vars = new ArrayList<>();
         Matcher match = PATTERN.matcher(this.result);
         boolean resultFlag = match.find();
@@ -105,6 +185,142 @@ public final class ExpressionUtils {
      * @return 清理所有变量并返回当前表达式工具类实例
      */
     public ExpressionUtils clean() {
+        if (template != null) {
+            materialize(true);
+            return this;
+        }
         return set("(.+?)", StringUtils.EMPTY);
     }
+
+    /**
+     * 已编译的表达式模板(线程安全, 可重复使用)
+     *
+     * @since 2.1.3
+     */
+    public static final class Template {
+
+        /**
+         * 模板段集合, 偶数索引为文本段, 奇数索引为变量名称
+         */
+        private final String[] segments;
+
+        private final int literalLength;
+
+        static Template parse(String expressionStr) {
+            List<String> segments = new ArrayList<>();
+            int literalLength = 0;
+            int pos = 0;
+            int length = expressionStr.length();
+            while (pos < length) {
+                int start = expressionStr.indexOf(VAR_PREFIX, pos);
+                int end = start < 0 ? -1 : expressionStr.indexOf(SUF, start + VAR_PREFIX.length());
+                if (end < 0) {
+                    break;
+                }
+                String name = expressionStr.substring(start + VAR_PREFIX.length(), end);
+                if (name.isEmpty() || name.contains(VAR_PREFIX) || StringUtils.containsAny(name, LINE_TERMINATORS)) {
+                    return null;
+                }
+                String literal = expressionStr.substring(pos, start);
+                // 变量前后紧邻'$'或'{'时, 替换后可能组成新的变量, 此时无法通过单次渲染保证与逐个替换的结果一致
+                if (StringUtils.endsWith(literal, "$") || (!segments.isEmpty() && literal.startsWith("{"))) {
+                    return null;
+                }
+                segments.add(literal);
+                segments.add(name);
+                literalLength += start - pos;
+                pos = end + SUF.length();
+            }
+            String literal = expressionStr.substring(pos);
+            if (!segments.isEmpty() && literal.startsWith("{")) {
+                return null;
+            }
+            segments.add(literal);
+            literalLength += length - pos;
+            return new Template(segments.toArray(new String[0]), literalLength);
+        }
+
+        private Template(String[] segments, int literalLength) {
+            this.segments = segments;
+            this.literalLength = literalLength;
+        }
+
+        /**
+         * @param values 已赋值变量映射, 可以为空
+         * @return 返回模板中未赋值的变量名称集合(按出现顺序, 允许重复)
+         */
+        public List<String> getVariables(Map<String, ?> values) {
+            List<String> vars = new ArrayList<>();
+            for (int idx = 1; idx < segments.length; idx += 2) {
+                if (values == null || !values.containsKey(segments[idx])) {
+                    vars.add(segments[idx]);
+                }
+            }
+            return vars;
+        }
+
+        /**
+         * 渲染模板, 未赋值的变量将保持原样输出
+         *
+         * @param values 变量值映射
+         * @return 返回渲染结果
+         */
+        public String render(Map<String, ?> values) {
+            return render(values, false);
+        }
+
+        /**
+         * @param values 变量值映射
+         * @param clean  是否清理未赋值的变量
+         * @return 返回渲染结果
+         */
+        public String render(Map<String, ?> values, boolean clean) {
+            if (segments.length == 1) {
+                return segments[0];
+            }
+            StringBuilder builder = new StringBuilder(literalLength + 16 * (segments.length >> 1));
+            render(values, clean, builder);
+            return builder.toString();
+        }
+
+        /**
+         * 渲染模板并追加至目标对象
+         *
+         * @param values 变量值映射
+         * @param clean  是否清理未赋值的变量
+         * @param target 目标对象
+         */
+        public void render(Map<String, ?> values, boolean clean, StringBuilder target) {
+            try {
+                render(values, clean, (Appendable) target);
+            } catch (IOException e) {
+                // StringBuilder不会抛出IO异常
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * 渲染模板并追加至目标对象
+         *
+         * @param values 变量值映射
+         * @param clean  是否清理未赋值的变量
+         * @param target 目标对象
+         * @throws IOException 写入目标对象时可能产生的异常
+         */
+        public void render(Map<String, ?> values, boolean clean, Appendable target) throws IOException {
+            for (int idx = 0; idx < segments.length; idx++) {
+                String segment = segments[idx];
+                if ((idx & 1) == 0) {
+                    target.append(segment);
+                } else {
+                    Object value = values == null ? null : values.get(segment);
+                    if (value != null) {
+                        target.append(value instanceof String ? (String) value : BlurObject.bind(value).toStringValue());
+                    } else if (!clean) {
+                        target.append(VAR_PREFIX).append(segment).append(SUF);
+                    }
+                }
+            }
+        }
+    }
 }
@@ -23,9 +23,16 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
+
 /**
  * @author 刘镇 (suninformation@163.com) on 2022/9/2 16:03
  * @since 2.1.2
@@ -52,6 +59,7 @@ public class JsonWrapperTest {
             testJsonNodeWrapper(jsonAdapter);
             testJsonWrapper(jsonAdapter);
             testJsonSerialize(jsonAdapter);
+            testJsonStreaming(jsonAdapter);
         }
     }
 
@@ -167,6 +175,27 @@ public class JsonWrapperTest {
         LOG.info("newUser: " + newUser);
     }
 
+    private void testJsonStreaming(IJsonAdapter jsonAdapter) throws Exception {
+        User user = new User();
+        user.setName("suninformation");
+        user.setAge(20);
+        user.setRealName("有理想的鱼");
+        // 流式输出结果应与字符串输出结果一致
+        StringWriter writer = new StringWriter();
+        jsonAdapter.writeTo(user, writer, false, false, true);
+        assertEquals(jsonAdapter.toJsonString(user, false, false, true), writer.toString());
+        //
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        jsonAdapter.writeTo(user, output, StandardCharsets.UTF_8, false, true, false);
+        String jsonStr = new String(output.toByteArray(), StandardCharsets.UTF_8);
+        assertEquals(jsonAdapter.toJsonString(user, false, true, false), jsonStr);
+        // 流式读取
+        User newUser = jsonAdapter.deserialize(new StringReader(writer.toString()), true, User.class);
+        assertEquals(user.toString(), newUser.toString());
+        List<User> newUsers = jsonAdapter.deserialize(new ByteArrayInputStream(("[" + jsonStr + "]").getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8, false, new TypeReferenceWrapper<List<User>>() {
+        });
+        assertEquals(user.toString(), newUsers.get(0).toString());
+    }
 
     static class User {
 
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.commons.util;
+
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author 刘镇 (suninformation@163.com) on 2024/10/20 15:36
+ * @since 2.1.3
+ */
+public class BeanWrapperTest {
+
+    @Test
+    public void getAndSetValue() throws Exception {
+        ClassUtils.BeanWrapper<SubBean> wrapper = ClassUtils.wrapper(new SubBean());
+        wrapper.setValue("name", "ymp").setValue("age", "18").setValue("remark", "sub");
+        assertEquals("ymp", wrapper.getValue("name"));
+        assertEquals(18, wrapper.getValue("age"));
+        assertEquals("sub", wrapper.getValue("remark"));
+        assertEquals(18, wrapper.getTargetObject().getAge());
+        // 无成员属性时通过set/get方法读写
+        wrapper.setValue("nickName", "y");
+        assertEquals("Y", wrapper.getValue("nickName"));
+        assertTrue((Boolean) wrapper.getValue("enabled"));
+    }
+
+    @Test
+    public void inheritedAndOverriddenProperties() throws Exception {
+        ClassUtils.BeanWrapper<SubBean> wrapper = ClassUtils.wrapper(new SubBean());
+        assertTrue(wrapper.getFieldNames().contains("name"));
+        assertTrue(wrapper.getFieldNames().contains("remark"));
+        wrapper.setValue("name", "ymp");
+        assertEquals("ymp", wrapper.getTargetObject().getName());
+        // 被子类重写的方法应调用子类实现
+        ClassUtils.BeanMetadata metadata = wrapper.getMetadata();
+        assertEquals("sub:ymp", metadata.invokeGetter(wrapper.getTargetObject(), "getTitle"));
+        metadata.invokeSetter(wrapper.getTargetObject(), "setNickName", "y");
+        assertEquals("Y", wrapper.getTargetObject().getNickName());
+    }
+
+    @Test
+    public void argumentErrors() throws Exception {
+        SubBean bean = new SubBean();
+        ClassUtils.BeanMetadata metadata = ClassUtils.wrapper(bean).getMetadata();
+        try {
+            metadata.invokeSetter(bean, "setLevel", "abc");
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            metadata.invokeSetter(bean, "setLevel", null);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            metadata.invokeGetter(new Object(), "getTitle");
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        // 基本类型参数允许包装类型及拓宽转换
+        metadata.invokeSetter(bean, "setLevel", 5);
+        assertEquals(5L, bean.getLevel());
+        // 目标方法自身抛出的异常仍包装为InvocationTargetException
+        try {
+            metadata.invokeSetter(bean, "setNickName", "");
+            fail();
+        } catch (InvocationTargetException e) {
+            assertTrue(e.getTargetException() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void primitiveNullValue() throws Exception {
+        ClassUtils.BeanWrapper<SubBean> wrapper = ClassUtils.wrapper(new SubBean());
+        wrapper.setValue("age", 10).setValue("age", null);
+        assertEquals(0, wrapper.getTargetObject().getAge());
+        wrapper.setValue("level", 3L).setValue("level", null);
+        assertEquals(0L, wrapper.getTargetObject().getLevel());
+        try {
+            wrapper.getMetadata().setValue(wrapper.getTargetObject(), wrapper.getField("age"), null);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void duplicate() {
+        SubBean source = new SubBean();
+        source.setName("ymp");
+        source.setAge(20);
+        source.setRemark("sub");
+        source.setNickName("y");
+        SubBean dist = ClassUtils.wrapper(source).duplicate(new SubBean());
+        assertEquals("ymp", dist.getName());
+        assertEquals(20, dist.getAge());
+        assertEquals("sub", dist.getRemark());
+        // 不同类型对象间按名称拷贝并转换类型
+        OtherBean other = ClassUtils.wrapper(source).duplicate(new OtherBean());
+        assertEquals("ymp", other.name);
+        assertEquals("20", other.age);
+        // 过滤器生效
+        SubBean filtered = ClassUtils.wrapper(source).duplicate(new SubBean(), (fieldName, fieldValue) -> "name".equals(fieldName));
+        assertNull(filtered.getName());
+        assertEquals(20, filtered.getAge());
+    }
+
+    public static class BaseBean {
+
+        private String name;
+
+        private int age;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public String getTitle() {
+            return name;
+        }
+
+        public boolean isEnabled() {
+            return false;
+        }
+    }
+
+    public static class SubBean extends BaseBean {
+
+        private String remark;
+
+        private transient String nick;
+
+        private transient long lvl;
+
+        public String getRemark() {
+            return remark;
+        }
+
+        public void setRemark(String remark) {
+            this.remark = remark;
+        }
+
+        public String getNickName() {
+            return nick;
+        }
+
+        public void setNickName(String nickName) {
+            if (nickName.isEmpty()) {
+                throw new IllegalStateException("nickName");
+            }
+            this.nick = nickName.toUpperCase().equals(nickName) ? nickName : nickName.toUpperCase();
+        }
+
+        public long getLevel() {
+            return lvl;
+        }
+
+        public void setLevel(long level) {
+            this.lvl = level;
+        }
+
+        @Override
+        public String getTitle() {
+            return "sub:" + getName();
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+    }
+
+    public static class OtherBean {
+
+        private String name;
+
+        private String age;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.commons.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author 刘镇 (suninformation@163.com) on 2024/10/10 09:42
+ * @since 2.1.3
+ */
+public class ExpressionUtilsTest {
+
+    @Test
+    public void set() {
+        ExpressionUtils expression = ExpressionUtils.bind("I am ${name}, and sex is ${sex}. ${name}!");
+        assertEquals(Arrays.asList("name", "sex", "name"), expression.getVariables());
+        expression.set("name", "Henry").set("name", "Other");
+        assertEquals(Collections.singletonList("sex"), expression.getVariables());
+        assertEquals("I am Henry, and sex is ${sex}. Henry!", expression.getResult());
+        assertEquals("I am Henry, and sex is . Henry!", expression.clean().getResult());
+    }
+
+    @Test
+    public void setWithSpecialValue() {
+        // 变量值中包含新变量时将在后续赋值中被继续替换
+        ExpressionUtils expression = ExpressionUtils.bind("[${sql}][${time}]")
+                .set("sql", "SELECT '${time}' $1")
+                .set("time", "10ms");
+        assertEquals("[SELECT '10ms' $1][10ms]", expression.getResult());
+    }
+
+    @Test
+    public void compile() {
+        ExpressionUtils.Template template = ExpressionUtils.compile("SELECT ${fields} FROM ${table_name} ${where}");
+        assertNotNull(template);
+        assertSame(template, ExpressionUtils.compile("SELECT ${fields} FROM ${table_name} ${where}"));
+        Map<String, Object> values = new HashMap<>();
+        values.put("fields", "*");
+        values.put("table_name", "user");
+        assertEquals("SELECT * FROM user ${where}", template.render(values));
+        assertEquals("SELECT * FROM user ", template.render(values, true));
+        assertNull(ExpressionUtils.compile("${a${b}}"));
+    }
+}
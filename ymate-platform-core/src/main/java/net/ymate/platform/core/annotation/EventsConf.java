@@ -53,4 +53,10 @@ public @interface EventsConf {
      * @return 线程队列大小
      */
     int threadQueueSize() default 0;
+
+    /**
+     * @return 异步事件执行策略
+     * @since 2.1.3
+     */
+    Events.ASYNC_STRATEGY asyncStrategy() default Events.ASYNC_STRATEGY.POOL;
 }
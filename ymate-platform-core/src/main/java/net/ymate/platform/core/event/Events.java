@@ -46,6 +46,29 @@ public final class Events {
         ASYNC
     }
 
+    /**
+     * 异步事件执行策略枚举
+     *
+     * @since 2.1.3
+     */
+    public enum ASYNC_STRATEGY {
+
+        /**
+         * POOL    - 线程池执行(默认), 队列已满时拒绝执行
+         */
+        POOL,
+
+        /**
+         * BATCH   - 有界队列(多生产者单消费者)由单一线程按批次顺序执行, 队列已满时由触发事件的线程直接执行
+         */
+        BATCH,
+
+        /**
+         * VIRTUAL - 每个异步事件使用独立的虚拟线程执行(需JDK21及以上版本, 否则采用POOL策略)
+         */
+        VIRTUAL
+    }
+
     private final IEventConfig eventConfig;
 
     public Events(IApplication owner) {
@@ -69,6 +92,9 @@ public final class Events {
                 if (config.getThreadQueueSize() <= 0) {
                     config.setThreadQueueSize(eventsConfAnn.threadQueueSize());
                 }
+                if (config.getAsyncStrategy() == null) {
+                    config.setAsyncStrategy(eventsConfAnn.asyncStrategy());
+                }
             }
         }
         this.eventConfig = config;
@@ -119,6 +145,18 @@ public final class Events {
         return this.eventConfig.getEventProvider().unregisterListener(eventClass, listenerClass);
     }
 
+    /**
+     * 判断指定事件类型是否已注册且存在监听器, 调用者可据此在构建事件上下文对象之前提前结束
+     *
+     * @param eventClass 事件类型
+     * @return 返回true表示触发该类型事件将会被处理
+     * @since 2.1.3
+     */
+    @SuppressWarnings("unchecked")
+    public boolean hasListeners(Class<? extends IEvent> eventClass) {
+        return this.eventConfig.getEventProvider().hasListeners(eventClass);
+    }
+
     @SuppressWarnings({"rawtypes", "unchecked"})
     public <CONTEXT extends AbstractEventContext> Events fireEvent(CONTEXT context) {
         this.eventConfig.getEventProvider().fireEvent(context);
@@ -35,6 +35,8 @@ public interface IEventConfig {
 
     String THREAD_QUEUE_SIZE = "thread_queue_size";
 
+    String ASYNC_STRATEGY = "async_strategy";
+
     /**
      * 初始化
      */
@@ -82,4 +84,12 @@ public interface IEventConfig {
      * @return 返回线程队列大小
      */
     int getThreadQueueSize();
+
+    /**
+     * 获取异步事件执行策略，取值范围：POOL-线程池，BATCH-有界队列批量执行，VIRTUAL-虚拟线程，默认为POOL
+     *
+     * @return 返回异步事件执行策略
+     * @since 2.1.3
+     */
+    Events.ASYNC_STRATEGY getAsyncStrategy();
 }
@@ -97,6 +97,17 @@ public interface IEventProvider<T, E extends Enum<E>, EVENT extends Class<? exte
     @SuppressWarnings("rawtypes")
     boolean unregisterListener(EVENT eventClass, Class<? extends IEventListener> listenerClass);
 
+    /**
+     * 判断指定事件类型是否已注册且存在监听器
+     *
+     * @param eventClass 事件类型
+     * @return 返回true表示触发该类型事件将会被处理
+     * @since 2.1.3
+     */
+    default boolean hasListeners(EVENT eventClass) {
+        return true;
+    }
+
     /**
      * 触发事件
      *
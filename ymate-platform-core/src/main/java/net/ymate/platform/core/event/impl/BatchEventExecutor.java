@@ -0,0 +1,132 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.core.event.impl;
+
+import net.ymate.platform.commons.util.RuntimeUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量异步事件执行器: 多个触发线程将任务放入有界队列, 由单一消费线程每次批量取出(一次加锁)并按提交顺序依次执行,
+ * 适用于数量较多且处理较轻量的异步事件监听器; 队列已满时任务将由提交线程直接执行, 不会丢失事件.
+ *
+ * @author 刘镇 (suninformation@163.com) on 2024/10/18 14:05
+ * @since 2.1.3
+ */
+final class BatchEventExecutor extends AbstractExecutorService {
+
+    private static final Log LOG = LogFactory.getLog(BatchEventExecutor.class);
+
+    private static final int MAX_BATCH_SIZE = 64;
+
+    private final BlockingQueue<Runnable> queue;
+
+    private final Thread worker;
+
+    private final CountDownLatch terminated = new CountDownLatch(1);
+
+    private volatile boolean shutdown;
+
+    BatchEventExecutor(int queueCapacity, ThreadFactory threadFactory) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.worker = threadFactory.newThread(this::consume);
+        this.worker.start();
+    }
+
+    private void consume() {
+        List<Runnable> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        try {
+            while (!shutdown || !queue.isEmpty()) {
+                if (queue.drainTo(batch, MAX_BATCH_SIZE) == 0) {
+                    Runnable task = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (task == null) {
+                        continue;
+                    }
+                    batch.add(task);
+                }
+                for (Runnable task : batch) {
+                    runSafely(task);
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            terminated.countDown();
+        }
+    }
+
+    private static void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable e) {
+            if (LOG.isWarnEnabled()) {
+                LOG.warn(StringUtils.EMPTY, RuntimeUtils.unwrapThrow(e));
+            }
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException("command");
+        }
+        if (shutdown || Thread.currentThread() == worker || !queue.offer(command)) {
+            // 已关闭、在消费线程中再次触发或队列已满时直接执行, 避免死锁及事件丢失
+            runSafely(command);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        List<Runnable> tasks = new ArrayList<>();
+        queue.drainTo(tasks);
+        worker.interrupt();
+        return tasks.isEmpty() ? Collections.emptyList() : tasks;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminated.getCount() == 0;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return terminated.await(timeout, unit);
+    }
+}
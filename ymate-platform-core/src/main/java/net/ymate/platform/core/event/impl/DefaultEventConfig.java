@@ -41,6 +41,8 @@ public final class DefaultEventConfig implements IEventConfig {
 
     private int threadQueueSize;
 
+    private Events.ASYNC_STRATEGY asyncStrategy;
+
     private boolean initialized;
 
     public static DefaultEventConfig defaultConfig() {
@@ -70,6 +72,10 @@ public final class DefaultEventConfig implements IEventConfig {
                 this.threadPoolSize = configReader.getInt(THREAD_POOL_SIZE);
                 this.threadMaxPoolSize = configReader.getInt(THREAD_MAX_POOL_SIZE);
                 this.threadQueueSize = configReader.getInt(THREAD_QUEUE_SIZE);
+                String asyncStrategyStr = configReader.getString(ASYNC_STRATEGY);
+                if (StringUtils.isNotBlank(asyncStrategyStr)) {
+                    this.asyncStrategy = Events.ASYNC_STRATEGY.valueOf(asyncStrategyStr.toUpperCase());
+                }
             }
         }
     }
@@ -84,6 +90,7 @@ public final class DefaultEventConfig implements IEventConfig {
             this.threadPoolSize = threadPoolSize > 0 ? threadPoolSize : Runtime.getRuntime().availableProcessors();
             this.threadMaxPoolSize = threadMaxPoolSize > 0 ? threadMaxPoolSize : 200;
             this.threadQueueSize = threadQueueSize > 0 ? threadQueueSize : 1024;
+            this.asyncStrategy = asyncStrategy != null ? asyncStrategy : Events.ASYNC_STRATEGY.POOL;
             //
             initialized = true;
         }
@@ -151,6 +158,17 @@ public final class DefaultEventConfig implements IEventConfig {
         }
     }
 
+    @Override
+    public Events.ASYNC_STRATEGY getAsyncStrategy() {
+        return asyncStrategy;
+    }
+
+    public void setAsyncStrategy(Events.ASYNC_STRATEGY asyncStrategy) {
+        if (!initialized) {
+            this.asyncStrategy = asyncStrategy;
+        }
+    }
+
     public static final class Builder {
 
         private final DefaultEventConfig config = new DefaultEventConfig();
@@ -184,6 +202,11 @@ public final class DefaultEventConfig implements IEventConfig {
             return this;
         }
 
+        public Builder asyncStrategy(Events.ASYNC_STRATEGY asyncStrategy) {
+            config.setAsyncStrategy(asyncStrategy);
+            return this;
+        }
+
         public DefaultEventConfig build() {
             return config;
         }
@@ -18,19 +18,20 @@ package net.ymate.platform.core.event.impl;
 import net.ymate.platform.commons.impl.DefaultThreadFactory;
 import net.ymate.platform.commons.util.ThreadUtils;
 import net.ymate.platform.core.event.*;
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * 默认事件管理提供者接口实现
+ * <p>
+ * 每个事件类型的注册状态及同步、异步监听器以不可变数组形式保存, 注册或解注册时整体替换(写时复制), 触发事件时仅需一次哈希查找且无需加锁,
+ * 对于未注册或无监听器的事件类型将在不产生任何对象分配的情况下直接返回.
  *
  * @param <T>       事件所有者类型
  * @param <E>       事件枚举
@@ -44,13 +45,9 @@ public final class DefaultEventProvider<T, E extends Enum<E>, EVENT extends Clas
 
     private IEventConfig eventConfig;
 
-    private ExecutorService executorService;
+    private volatile ExecutorService executorService;
 
-    private List<EVENT> events = new CopyOnWriteArrayList<>();
-
-    private Map<EVENT, List<IEventListener<CONTEXT>>> asyncListeners = new ConcurrentHashMap<>();
-
-    private Map<EVENT, List<IEventListener<CONTEXT>>> normalListeners = new ConcurrentHashMap<>();
+    private final ConcurrentMap<EVENT, EventListeners> registry = new ConcurrentHashMap<>();
 
     private boolean initialized;
 
@@ -59,16 +56,39 @@ public final class DefaultEventProvider<T, E extends Enum<E>, EVENT extends Clas
         if (!initialized) {
             this.eventConfig = eventConfig;
             //
-            int corePoolSize = eventConfig.getThreadPoolSize() > 0 ? eventConfig.getThreadPoolSize() : Runtime.getRuntime().availableProcessors();
-            int maxPoolSize = eventConfig.getThreadMaxPoolSize() > 0 ? eventConfig.getThreadMaxPoolSize() : 200;
-            int queueSize = eventConfig.getThreadQueueSize() > 0 ? eventConfig.getThreadQueueSize() : 1024;
-            //
-            executorService = ThreadUtils.newThreadExecutor(corePoolSize, maxPoolSize, 0L, queueSize, DefaultThreadFactory.create("event-pool-"));
+            executorService = createExecutorService(eventConfig);
             //
             initialized = true;
         }
     }
 
+    private static ExecutorService createExecutorService(IEventConfig eventConfig) {
+        int queueSize = eventConfig.getThreadQueueSize() > 0 ? eventConfig.getThreadQueueSize() : 1024;
+        Events.ASYNC_STRATEGY asyncStrategy = eventConfig.getAsyncStrategy() != null ? eventConfig.getAsyncStrategy() : Events.ASYNC_STRATEGY.POOL;
+        switch (asyncStrategy) {
+            case BATCH:
+                return new BatchEventExecutor(queueSize, DefaultThreadFactory.create("event-batch-"));
+            case VIRTUAL:
+                try {
+                    // 通过反射调用以保持对JDK8的兼容
+                    return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                } catch (ReflectiveOperationException e) {
+                    if (LOG.isWarnEnabled()) {
+                        LOG.warn("Virtual threads are not supported by the current JVM, fall back to POOL async strategy.");
+                    }
+                    return createPoolExecutorService(eventConfig, queueSize);
+                }
+            default:
+                return createPoolExecutorService(eventConfig, queueSize);
+        }
+    }
+
+    private static ExecutorService createPoolExecutorService(IEventConfig eventConfig, int queueSize) {
+        int corePoolSize = eventConfig.getThreadPoolSize() > 0 ? eventConfig.getThreadPoolSize() : Runtime.getRuntime().availableProcessors();
+        int maxPoolSize = eventConfig.getThreadMaxPoolSize() > 0 ? eventConfig.getThreadMaxPoolSize() : 200;
+        return ThreadUtils.newThreadExecutor(corePoolSize, maxPoolSize, 0L, queueSize, DefaultThreadFactory.create("event-pool-"));
+    }
+
     @Override
     public boolean isInitialized() {
         return initialized;
@@ -84,101 +104,157 @@ public final class DefaultEventProvider<T, E extends Enum<E>, EVENT extends Clas
         if (initialized) {
             initialized = false;
             //
-            if (executorService != null) {
-                executorService.shutdown();
-                executorService = null;
+            ExecutorService executor = executorService;
+            executorService = null;
+            if (executor != null) {
+                executor.shutdown();
             }
-            events = null;
-            asyncListeners = null;
-            normalListeners = null;
+            registry.clear();
         }
     }
 
     @Override
     public void registerEvent(EVENT eventClass) {
-        if (!events.contains(eventClass)) {
-            events.add(eventClass);
-        } else if (LOG.isWarnEnabled()) {
-            LOG.warn(String.format("Event class [%s] duplicate registration is not allowed.", eventClass));
-        }
+        registry.compute(eventClass, (key, listeners) -> {
+            if (listeners == null) {
+                return EventListeners.EMPTY.withRegistered(true);
+            } else if (listeners.registered) {
+                if (LOG.isWarnEnabled()) {
+                    LOG.warn(String.format("Event class [%s] duplicate registration is not allowed.", eventClass));
+                }
+                return listeners;
+            }
+            return listeners.withRegistered(true);
+        });
     }
 
     @Override
     public boolean unregisterEvent(EVENT eventClass) {
-        return events.remove(eventClass);
+        boolean[] flag = new boolean[1];
+        registry.computeIfPresent(eventClass, (key, listeners) -> {
+            flag[0] = listeners.registered;
+            return listeners.withRegistered(false);
+        });
+        return flag[0];
     }
 
-    private void registerEventListener(Map<EVENT, List<IEventListener<CONTEXT>>> listenersMap, EVENT eventClass, IEventListener<CONTEXT> eventListener) {
-        if (listenersMap.containsKey(eventClass)) {
-            List<IEventListener<CONTEXT>> listeners = listenersMap.get(eventClass);
-            if (!listeners.contains(eventListener)) {
-                listeners.add(eventListener);
-            } else if (LOG.isWarnEnabled()) {
-                LOG.warn(String.format("EventListener object [%s] duplicate registration is not allowed.", eventListener.getClass()));
-            }
-        } else {
-            List<IEventListener<CONTEXT>> listeners = new ArrayList<>();
-            listeners.add(eventListener);
-            listenersMap.put(eventClass, listeners);
-        }
+    @Override
+    public void registerListener(EVENT eventClass, IEventListener<CONTEXT> eventListener) {
+        registerListener(eventConfig.getDefaultMode(), eventClass, eventListener);
     }
 
-    @SuppressWarnings("rawtypes")
-    private boolean unregisterEventListener(Map<EVENT, List<IEventListener<CONTEXT>>> listenersMap, EVENT eventClass, Class<? extends IEventListener> listenerClass) {
-        boolean flag = false;
-        List<IEventListener<CONTEXT>> listeners = listenersMap.get(eventClass);
-        if (listeners != null) {
-            for (IEventListener<CONTEXT> item : listeners) {
-                if (item.getClass().equals(listenerClass)) {
-                    listeners.remove(item);
-                    flag = true;
-                    break;
+    @Override
+    public void registerListener(Events.MODE mode, EVENT eventClass, IEventListener<CONTEXT> eventListener) {
+        boolean async = mode == Events.MODE.ASYNC;
+        registry.compute(eventClass, (key, listeners) -> {
+            if (listeners == null) {
+                listeners = EventListeners.EMPTY;
+            }
+            if (ArrayUtils.contains(async ? listeners.asyncListeners : listeners.normalListeners, eventListener)) {
+                if (LOG.isWarnEnabled()) {
+                    LOG.warn(String.format("EventListener object [%s] duplicate registration is not allowed.", eventListener.getClass()));
                 }
+                return listeners;
             }
-        }
-        return flag;
+            return async ? listeners.withAsyncListeners(ArrayUtils.add(listeners.asyncListeners, eventListener)) : listeners.withNormalListeners(ArrayUtils.add(listeners.normalListeners, eventListener));
+        });
     }
 
     @Override
-    public void registerListener(EVENT eventClass, IEventListener<CONTEXT> eventListener) {
-        registerListener(eventConfig.getDefaultMode(), eventClass, eventListener);
+    @SuppressWarnings("rawtypes")
+    public boolean unregisterListener(EVENT eventClass, Class<? extends IEventListener> listenerClass) {
+        boolean[] flag = new boolean[1];
+        registry.computeIfPresent(eventClass, (key, listeners) -> {
+            int idx = indexOf(listeners.asyncListeners, listenerClass);
+            if (idx >= 0) {
+                flag[0] = true;
+                return listeners.withAsyncListeners(ArrayUtils.remove(listeners.asyncListeners, idx));
+            }
+            idx = indexOf(listeners.normalListeners, listenerClass);
+            if (idx >= 0) {
+                flag[0] = true;
+                return listeners.withNormalListeners(ArrayUtils.remove(listeners.normalListeners, idx));
+            }
+            return listeners;
+        });
+        return flag[0];
     }
 
-    @Override
-    public void registerListener(Events.MODE mode, EVENT eventClass, IEventListener<CONTEXT> eventListener) {
-        if (mode == Events.MODE.ASYNC) {
-            registerEventListener(asyncListeners, eventClass, eventListener);
-        } else {
-            registerEventListener(normalListeners, eventClass, eventListener);
+    @SuppressWarnings("rawtypes")
+    private static int indexOf(IEventListener[] listeners, Class<? extends IEventListener> listenerClass) {
+        for (int idx = 0; idx < listeners.length; idx++) {
+            if (listeners[idx].getClass().equals(listenerClass)) {
+                return idx;
+            }
         }
+        return -1;
     }
 
     @Override
-    @SuppressWarnings("rawtypes")
-    public boolean unregisterListener(EVENT eventClass, Class<? extends IEventListener> listenerClass) {
-        return unregisterEventListener(asyncListeners, eventClass, listenerClass) || unregisterEventListener(normalListeners, eventClass, listenerClass);
+    public boolean hasListeners(EVENT eventClass) {
+        EventListeners listeners = registry.get(eventClass);
+        return listeners != null && listeners.fireable;
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public void fireEvent(final CONTEXT context) {
-        EVENT eventKey = (EVENT) context.getEventClass();
-        if (events.contains(eventKey)) {
-            // 先执行同步事件
-            Collection<IEventListener<CONTEXT>> listeners = normalListeners.get(eventKey);
-            if (listeners != null && !listeners.isEmpty()) {
-                for (IEventListener<CONTEXT> listener : listeners) {
-                    if (listener.handle(context)) {
-                        // 返回值若为true则表示终止同步事件广播并结束执行
-                        break;
-                    }
-                }
+        EventListeners listeners = registry.get(context.getEventClass());
+        if (listeners == null || !listeners.fireable) {
+            return;
+        }
+        // 先执行同步事件
+        for (IEventListener<CONTEXT> listener : listeners.normalListeners) {
+            if (listener.handle(context)) {
+                // 返回值若为true则表示终止同步事件广播并结束执行
+                break;
             }
-            // 再触发异步事件
-            listeners = asyncListeners.get(eventKey);
-            if (listeners != null && !listeners.isEmpty()) {
-                listeners.stream().filter(listener -> executorService != null).forEach(listener -> executorService.execute(() -> listener.handle(context)));
+        }
+        // 再触发异步事件
+        ExecutorService executor = executorService;
+        if (executor != null) {
+            for (IEventListener<CONTEXT> listener : listeners.asyncListeners) {
+                executor.execute(() -> listener.handle(context));
             }
         }
     }
+
+    /**
+     * 事件类型的注册状态及监听器集合(不可变)
+     */
+    @SuppressWarnings("rawtypes")
+    private static final class EventListeners {
+
+        static final EventListeners EMPTY = new EventListeners(false, new IEventListener[0], new IEventListener[0]);
+
+        final boolean registered;
+
+        final IEventListener[] normalListeners;
+
+        final IEventListener[] asyncListeners;
+
+        /**
+         * 事件类型已注册且至少存在一个监听器
+         */
+        final boolean fireable;
+
+        EventListeners(boolean registered, IEventListener[] normalListeners, IEventListener[] asyncListeners) {
+            this.registered = registered;
+            this.normalListeners = normalListeners;
+            this.asyncListeners = asyncListeners;
+            this.fireable = registered && (normalListeners.length > 0 || asyncListeners.length > 0);
+        }
+
+        EventListeners withRegistered(boolean registered) {
+            return new EventListeners(registered, normalListeners, asyncListeners);
+        }
+
+        EventListeners withNormalListeners(IEventListener[] normalListeners) {
+            return new EventListeners(registered, normalListeners, asyncListeners);
+        }
+
+        EventListeners withAsyncListeners(IEventListener[] asyncListeners) {
+            return new EventListeners(registered, normalListeners, asyncListeners);
+        }
+    }
 }
@@ -143,6 +143,15 @@ public abstract class AbstractLogAdapter extends AbstractLogger {
         buildEx(info, e, level);
     }
 
+    @Override
+    public void log(StackTraceElement location, String info, Throwable e, LogLevel level) {
+        if (tryCheckAndInitLogImpl()) {
+            logger.log(location, info, e, level);
+        } else {
+            buildEx(info, e, level);
+        }
+    }
+
     @Override
     public void trace(String info) {
         if (isTraceEnabled()) {
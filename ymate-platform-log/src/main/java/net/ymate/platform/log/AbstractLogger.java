@@ -15,9 +15,9 @@
  */
 package net.ymate.platform.log;
 
-import net.ymate.platform.commons.util.DateTimeUtils;
 import net.ymate.platform.commons.util.NetworkUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.ThreadContext;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -31,6 +31,8 @@ public abstract class AbstractLogger implements ILogger {
 
     private static final Map<String, String> SIMPLIFIED_PACKAGE_NAMES = new ConcurrentHashMap<>();
 
+    private static final String CALLER_INFO_VAR = "${callerInfo}";
+
     /**
      * 堆栈深度，向上寻找堆栈长度
      */
@@ -51,9 +53,49 @@ public abstract class AbstractLogger implements ILogger {
     protected abstract void logWrite(LogLevel level, LogInfo content);
 
     protected void buildEx(String info, Throwable e, LogLevel level) {
+        // 仅当日志格式模板引用调用者信息时才追溯调用堆栈, 索引0为当前方法
+        buildEx(info, e, level, isCallerInfoRequired() ? CallerLocator.locate(depth) : null);
+    }
+
+    /**
+     * 构建并输出日志
+     *
+     * @param info     日志内容
+     * @param e        异常对象
+     * @param level    日志级别
+     * @param location 调用位置, 由调用者直接提供时将不再追溯调用堆栈
+     * @since 2.1.3
+     */
+    protected void buildEx(String info, Throwable e, LogLevel level, StackTraceElement location) {
+        ILog logOwner = Logs.get();
+        AsyncLogDispatcher dispatcher = logOwner != null ? logOwner.getAsyncDispatcher() : null;
         Thread currentThread = Thread.currentThread();
-        LogInfo logInfo = new LogInfo(getLoggerName(), level, NetworkUtils.IP.getHostName(), currentThread.getName(), String.valueOf(currentThread.getId()), buildMakeCallerInfo(), info, buildMakeStackInfo(e),
-                DateTimeUtils.formatTime(System.currentTimeMillis(), DateTimeUtils.YYYY_MM_DD_HH_MM_SS_SSS));
+        if (dispatcher != null) {
+            // 异步模式下调用线程仅采集最少的现场信息(调用位置、线程及上下文快照), 格式化及写入交由后台线程完成
+            Map<String, String> contextMap = ThreadContext.isEmpty() ? null : ThreadContext.getImmutableContext();
+            if (dispatcher.dispatch(this, level, info, e, location, currentThread, contextMap)) {
+                return;
+            }
+        }
+        LogInfo logInfo = new LogInfo(getLoggerName(), level, NetworkUtils.IP.getHostName(), currentThread.getName(), String.valueOf(currentThread.getId()), buildMakeCallerInfo(location), info, buildMakeStackInfo(e), null);
+        // 时间戳延迟至输出时格式化
+        logInfo.setTimestamp(System.currentTimeMillis());
+        doWrite(level, logInfo);
+    }
+
+    /**
+     * 由异步日志分发器后台线程回调, 根据调用线程采集的现场信息构建日志内容并写入
+     *
+     * @param event 日志事件
+     */
+    void buildEx(AsyncLogDispatcher.LogEvent event) {
+        LogInfo logInfo = new LogInfo(getLoggerName(), event.level, NetworkUtils.IP.getHostName(), event.threadName, String.valueOf(event.threadId), buildMakeCallerInfo(event.location), event.info, buildMakeStackInfo(event.throwable), null);
+        logInfo.setTimestamp(event.timestamp);
+        logInfo.setContextMap(event.contextMap);
+        doWrite(event.level, logInfo);
+    }
+
+    private void doWrite(LogLevel level, LogInfo logInfo) {
         // 判断是否输出到控制台
         ILog logOwner = Logs.get();
         ILogConfig logConfig = logOwner != null ? logOwner.getConfig() : null;
@@ -64,19 +106,33 @@ public abstract class AbstractLogger implements ILogger {
         logWrite(level, logInfo);
     }
 
+    /**
+     * 判断当前日志格式模板是否引用了调用者信息
+     *
+     * @return 返回true表示需要获取调用位置
+     * @since 2.1.3
+     */
+    protected boolean isCallerInfoRequired() {
+        ILog logOwner = Logs.get();
+        ILogConfig logConfig = logOwner != null ? logOwner.getConfig() : null;
+        return depth >= 0 && StringUtils.contains(StringUtils.defaultIfBlank(logConfig != null ? logConfig.getLogFormat() : null, LogInfo.DEFAULT_LOG_FORMAT), CALLER_INFO_VAR);
+    }
+
     /**
      * 获取调用者信息
      *
      * @return 找到的堆栈信息，格式为：className.methodName:lineNumber，如果找不到则返回NO_STACK_TRACE:-1
      */
     public String buildMakeCallerInfo() {
-        StackTraceElement[] stacks = new Throwable().getStackTrace();
         // 追溯到对应的调用行，如果对应行不存在，则不给出无法确定行号的输出
-        if (depth >= 0 && stacks.length > 1 + depth) {
-            StackTraceElement element = stacks[1 + depth];
+        return buildMakeCallerInfo(depth >= 0 ? CallerLocator.locate(1 + depth) : null);
+    }
+
+    private String buildMakeCallerInfo(StackTraceElement element) {
+        if (element != null) {
             return buildSimplePackageName(element.getClassName()) + "." + element.getMethodName() + ":" + element.getLineNumber();
         }
-        return "NO_STACK_TRACE:-1";
+        return isCallerInfoRequired() ? "NO_STACK_TRACE:-1" : StringUtils.EMPTY;
     }
 
     public String buildSimplePackageName(String originPackageName) {
@@ -0,0 +1,408 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.log;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步日志分发器: 基于预分配环形缓冲区的多生产者单消费者队列, 调用线程仅采集日志事件(调用位置、线程信息、上下文快照等)并发布至缓冲区槽位,
+ * 由单一后台线程按顺序完成格式化及写入, 从而将格式化与IO开销移出业务线程.
+ * <p>
+ * 缓冲区槽位在创建时一次性分配并循环复用, 后台线程处理完成后清空槽位引用; 缓冲区已满时根据配置的策略阻塞等待或丢弃日志事件.
+ * 关闭时将停止接收新事件并等待缓冲区中已发布的事件全部写入完成.
+ *
+ * @author 刘镇 (suninformation@163.com) on 2024/10/17 10:26
+ * @since 2.1.3
+ */
+public final class AsyncLogDispatcher implements AutoCloseable {
+
+    /**
+     * 后台线程自旋及让出CPU的次数, 超过后将根据等待策略进入休眠或阻塞状态
+     */
+    private static final int SPIN_TRIES = 100;
+
+    private static final int YIELD_TRIES = 200;
+
+    private static final long SLEEP_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final long CLOSE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private final LogEvent[] slots;
+
+    private final int mask;
+
+    private final WaitStrategy waitStrategy;
+
+    private final QueueFullPolicy queueFullPolicy;
+
+    private final LogLevel discardLevel;
+
+    /**
+     * 生产者已申请的下一个序号
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * 后台线程下一个待处理的序号(仅由后台线程更新, 采用延迟写入以降低每条事件的内存屏障开销)
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    private volatile boolean running;
+
+    /**
+     * 后台线程是否处于阻塞等待状态(仅BLOCKING策略)
+     */
+    private volatile boolean waiting;
+
+    private final LongAdder discardedCount = new LongAdder();
+
+    private final Thread consumer;
+
+    private Thread shutdownHook;
+
+    public AsyncLogDispatcher(int bufferSize, WaitStrategy waitStrategy, QueueFullPolicy queueFullPolicy, LogLevel discardLevel) {
+        int capacity = 1;
+        while (capacity < bufferSize && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        this.slots = new LogEvent[capacity];
+        for (int idx = 0; idx < capacity; idx++) {
+            slots[idx] = new LogEvent();
+        }
+        this.mask = capacity - 1;
+        this.waitStrategy = waitStrategy != null ? waitStrategy : WaitStrategy.BLOCKING;
+        this.queueFullPolicy = queueFullPolicy != null ? queueFullPolicy : QueueFullPolicy.BLOCK;
+        this.discardLevel = discardLevel != null ? discardLevel : LogLevel.INFO;
+        //
+        this.consumer = new Thread(this::consume, "ymp-log-async");
+        this.consumer.setDaemon(true);
+    }
+
+    public synchronized AsyncLogDispatcher start() {
+        if (!running && consumer.getState() == Thread.State.NEW) {
+            running = true;
+            consumer.start();
+            // 确保进程退出前缓冲区中的日志被写入
+            shutdownHook = new Thread(this::close, "ymp-log-async-shutdown");
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        }
+        return this;
+    }
+
+    /**
+     * 发布日志事件
+     *
+     * @param logger    日志记录器
+     * @param level     日志级别
+     * @param info      日志内容
+     * @param throwable 异常对象
+     * @param location  调用位置, 可以为空
+     * @param thread    调用线程
+     * @param context   线程上下文快照
+     * @return 若事件已被发布或按策略丢弃则返回true, 返回false表示调用者需同步写入(如分发器已关闭或在后台线程中等待缓冲区空间)
+     */
+    boolean dispatch(AbstractLogger logger, LogLevel level, String info, Throwable throwable, StackTraceElement location, Thread thread, Map<String, String> context) {
+        if (!running) {
+            return false;
+        }
+        long sequence = claim(level, thread);
+        if (sequence < 0) {
+            return sequence == -1;
+        }
+        LogEvent event = slots[(int) sequence & mask];
+        event.logger = logger;
+        event.level = level;
+        event.info = info;
+        event.throwable = throwable;
+        event.location = location;
+        event.threadName = thread.getName();
+        event.threadId = thread.getId();
+        event.timestamp = System.currentTimeMillis();
+        event.contextMap = context;
+        // 发布: 序号的volatile写入保证之前的字段赋值对后台线程可见
+        event.sequence = sequence;
+        if (waiting) {
+            LockSupport.unpark(consumer);
+        }
+        return true;
+    }
+
+    /**
+     * @return 返回有效序号; -1表示事件已被丢弃; -2表示需由调用者同步写入
+     */
+    private long claim(LogLevel level, Thread thread) {
+        int tries = 0;
+        while (true) {
+            long sequence = tail.get();
+            if (sequence - head.get() < slots.length) {
+                if (tail.compareAndSet(sequence, sequence + 1)) {
+                    return sequence;
+                }
+                continue;
+            }
+            if (!running || thread == consumer) {
+                // 后台线程自身产生的日志(如写入过程中的异常)不能等待自己释放空间
+                return -2;
+            }
+            if (queueFullPolicy == QueueFullPolicy.DISCARD || (queueFullPolicy == QueueFullPolicy.DISCARD_BELOW_LEVEL && level.getLevel() >= discardLevel.getLevel())) {
+                discardedCount.increment();
+                return -1;
+            }
+            if (waiting) {
+                LockSupport.unpark(consumer);
+            }
+            if (++tries < SPIN_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(SLEEP_NANOS);
+            }
+        }
+    }
+
+    private void consume() {
+        long next = head.get();
+        int idle = 0;
+        while (true) {
+            LogEvent event = slots[(int) next & mask];
+            if (event.sequence == next) {
+                process(event);
+                head.lazySet(++next);
+                idle = 0;
+            } else if (!running && next == tail.get()) {
+                break;
+            } else {
+                idle = idle(idle, event, next);
+            }
+        }
+    }
+
+    private int idle(int counter, LogEvent event, long next) {
+        switch (waitStrategy) {
+            case BUSY_SPIN:
+                return counter;
+            case YIELDING:
+                if (counter >= SPIN_TRIES) {
+                    Thread.yield();
+                }
+                break;
+            case SLEEPING:
+                if (counter >= YIELD_TRIES) {
+                    LockSupport.parkNanos(SLEEP_NANOS);
+                } else if (counter >= SPIN_TRIES) {
+                    Thread.yield();
+                }
+                break;
+            default:
+                if (counter >= YIELD_TRIES) {
+                    waiting = true;
+                    // 设置等待标识后再次检查, 避免错过生产者在此期间发布的事件
+                    if (event.sequence != next && running) {
+                        LockSupport.parkNanos(this, PARK_NANOS);
+                    }
+                    waiting = false;
+                } else if (counter >= SPIN_TRIES) {
+                    Thread.yield();
+                }
+        }
+        return counter + 1;
+    }
+
+    /**
+     * 处理后台线程退出后仍在发布过程中的事件(生产者在分发器关闭前已通过状态检查)
+     */
+    private void drain() {
+        long next = head.get();
+        long deadline = System.nanoTime() + PARK_NANOS;
+        while (next < tail.get()) {
+            LogEvent event = slots[(int) next & mask];
+            if (event.sequence == next) {
+                process(event);
+                head.lazySet(++next);
+            } else if (System.nanoTime() - deadline > 0) {
+                break;
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    private void process(LogEvent event) {
+        try {
+            event.logger.buildEx(event);
+        } catch (Throwable e) {
+            // 此处无法再通过日志输出, 仅打印至标准错误输出
+            System.err.println(StringUtils.trimToEmpty(e.getMessage()));
+            e.printStackTrace();
+        } finally {
+            event.clear();
+        }
+    }
+
+    /**
+     * @return 返回缓冲区中等待写入的事件数量
+     */
+    public long size() {
+        return tail.get() - head.get();
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * @return 返回因缓冲区已满而被丢弃的事件数量
+     */
+    public long getDiscardedCount() {
+        return discardedCount.sum();
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public QueueFullPolicy getQueueFullPolicy() {
+        return queueFullPolicy;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 停止接收新事件并等待缓冲区中的事件全部写入完成(最长等待10秒), 之后产生的日志将由调用线程同步写入
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            if (shutdownHook != null && Thread.currentThread() != shutdownHook) {
+                try {
+                    Runtime.getRuntime().removeShutdownHook(shutdownHook);
+                } catch (IllegalStateException ignored) {
+                    // 进程正在退出
+                }
+            }
+        }
+        LockSupport.unpark(consumer);
+        if (Thread.currentThread() != consumer) {
+            try {
+                consumer.join(CLOSE_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (!consumer.isAlive()) {
+                drain();
+            }
+        }
+        long discarded = discardedCount.sum();
+        if (discarded > 0) {
+            System.err.printf("AsyncLogDispatcher discarded %d log event(s) while the buffer was full.%n", discarded);
+        }
+    }
+
+    /**
+     * 日志事件(缓冲区槽位), 由调用线程填充, 后台线程处理后清空以便复用
+     */
+    static final class LogEvent {
+
+        volatile long sequence = -1;
+
+        AbstractLogger logger;
+
+        LogLevel level;
+
+        String info;
+
+        Throwable throwable;
+
+        StackTraceElement location;
+
+        String threadName;
+
+        long threadId;
+
+        long timestamp;
+
+        Map<String, String> contextMap;
+
+        void clear() {
+            logger = null;
+            info = null;
+            throwable = null;
+            location = null;
+            threadName = null;
+            contextMap = null;
+        }
+    }
+
+    /**
+     * 后台线程在缓冲区为空时的等待策略
+     */
+    public enum WaitStrategy {
+
+        /**
+         * 短暂自旋后阻塞, 由生产者唤醒, CPU占用最低(默认)
+         */
+        BLOCKING,
+
+        /**
+         * 短暂自旋及让出CPU后周期性休眠, 无需生产者唤醒
+         */
+        SLEEPING,
+
+        /**
+         * 自旋后持续让出CPU, 延迟较低但会占用CPU
+         */
+        YIELDING,
+
+        /**
+         * 持续自旋, 延迟最低但将独占一个CPU核心
+         */
+        BUSY_SPIN
+    }
+
+    /**
+     * 缓冲区已满时的处理策略
+     */
+    public enum QueueFullPolicy {
+
+        /**
+         * 调用线程等待缓冲区空间(默认), 不丢失日志
+         */
+        BLOCK,
+
+        /**
+         * 直接丢弃日志事件
+         */
+        DISCARD,
+
+        /**
+         * 丢弃不高于指定级别(如INFO、DEBUG、TRACE)的日志事件, 更高级别的事件仍等待缓冲区空间
+         */
+        DISCARD_BELOW_LEVEL
+    }
+}
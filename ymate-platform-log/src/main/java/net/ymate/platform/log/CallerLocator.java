@@ -0,0 +1,96 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.log;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * 调用位置定位器: 在JDK9及以上版本中采用StackWalker按需遍历有限数量的栈帧(无需构建完整的异常堆栈), 否则回退为基于Throwable的堆栈获取方式
+ * <p>
+ * 由于需兼容JDK8编译及运行, StackWalker通过方法句柄调用.
+ *
+ * @author 刘镇 (suninformation@163.com) on 2024/10/17 15:40
+ * @since 2.1.3
+ */
+final class CallerLocator {
+
+    private static final Object WALKER;
+
+    private static final MethodHandle WALK;
+
+    private static final MethodHandle TO_STACK_TRACE_ELEMENT;
+
+    static {
+        Object walker = null;
+        MethodHandle walk = null;
+        MethodHandle toStackTraceElement = null;
+        try {
+            Class<?> walkerClass = Class.forName("java.lang.StackWalker");
+            Class<?> frameClass = Class.forName("java.lang.StackWalker$StackFrame");
+            // walk方法为调用者敏感方法, 需使用具有完整访问权限的Lookup对象
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            walker = lookup.findStatic(walkerClass, "getInstance", MethodType.methodType(walkerClass)).invoke();
+            walk = lookup.findVirtual(walkerClass, "walk", MethodType.methodType(Object.class, Function.class)).bindTo(walker);
+            toStackTraceElement = lookup.findVirtual(frameClass, "toStackTraceElement", MethodType.methodType(StackTraceElement.class))
+                    .asType(MethodType.methodType(StackTraceElement.class, Object.class));
+        } catch (Throwable ignored) {
+            // JDK8: 不支持StackWalker
+            walker = null;
+            walk = null;
+            toStackTraceElement = null;
+        }
+        WALKER = walker;
+        WALK = walk;
+        TO_STACK_TRACE_ELEMENT = toStackTraceElement;
+    }
+
+    /**
+     * 获取调用位置
+     *
+     * @param index 栈帧索引, 0表示调用本方法的方法, 1表示其上一级调用者, 以此类推
+     * @return 返回对应的栈帧元素, 若栈深度不足则返回null
+     */
+    static StackTraceElement locate(int index) {
+        if (index < 0) {
+            return null;
+        }
+        if (WALKER != null) {
+            try {
+                // 首个栈帧为本方法, 方法句柄调用产生的隐藏帧不会出现在遍历结果中
+                return (StackTraceElement) WALK.invoke((Function<Stream<Object>, StackTraceElement>) frames -> frames.skip(index + 1L).findFirst().map(CallerLocator::toStackTraceElement).orElse(null));
+            } catch (Throwable e) {
+                return null;
+            }
+        }
+        StackTraceElement[] stacks = new Throwable().getStackTrace();
+        return stacks.length > index + 1 ? stacks[index + 1] : null;
+    }
+
+    private static StackTraceElement toStackTraceElement(Object frame) {
+        try {
+            return (StackTraceElement) TO_STACK_TRACE_ELEMENT.invoke(frame);
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    private CallerLocator() {
+    }
+}
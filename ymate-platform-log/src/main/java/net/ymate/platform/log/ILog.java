@@ -75,4 +75,14 @@ public interface ILog extends IDestroyable {
      * @throws Exception 可能产生的任何异常
      */
     ILogger getLogger(Class<?> clazz) throws Exception;
+
+    /**
+     * 获取异步日志分发器
+     *
+     * @return 若未开启异步日志输出则返回null
+     * @since 2.1.3
+     */
+    default AsyncLogDispatcher getAsyncDispatcher() {
+        return null;
+    }
 }
@@ -52,6 +52,18 @@ public interface ILogConfig extends IInitialization<ILog> {
 
     String FORMAT_PADDED_OUTPUT = "format_padded_output";
 
+    String ASYNC_ENABLED = "async_enabled";
+
+    String ASYNC_BUFFER_SIZE = "async_buffer_size";
+
+    String ASYNC_WAIT_STRATEGY = "async_wait_strategy";
+
+    String ASYNC_QUEUE_FULL_POLICY = "async_queue_full_policy";
+
+    String ASYNC_DISCARD_LEVEL = "async_discard_level";
+
+    int DEFAULT_ASYNC_BUFFER_SIZE = 8192;
+
     /**
      * 获取日志记录器配置文件
      *
@@ -114,4 +126,44 @@ public interface ILogConfig extends IInitialization<ILog> {
      * @return 日志记录器是否采用格式化填充输出
      */
     boolean isFormatPaddedOutput();
+
+    /**
+     * 是否开启异步日志输出, 开启后调用线程仅负责采集日志事件并放入环形缓冲区, 由后台线程完成格式化及写入
+     *
+     * @return 返回true表示开启
+     * @since 2.1.3
+     */
+    boolean isAsyncEnabled();
+
+    /**
+     * 获取异步日志环形缓冲区大小(将向上取整为2的幂), 默认值: 8192
+     *
+     * @return 返回缓冲区大小
+     * @since 2.1.3
+     */
+    int getAsyncBufferSize();
+
+    /**
+     * 获取异步日志后台线程的等待策略, 默认值: BLOCKING
+     *
+     * @return 返回等待策略
+     * @since 2.1.3
+     */
+    AsyncLogDispatcher.WaitStrategy getAsyncWaitStrategy();
+
+    /**
+     * 获取异步日志缓冲区已满时的处理策略, 默认值: BLOCK
+     *
+     * @return 返回缓冲区已满时的处理策略
+     * @since 2.1.3
+     */
+    AsyncLogDispatcher.QueueFullPolicy getAsyncQueueFullPolicy();
+
+    /**
+     * 获取缓冲区已满时允许丢弃的日志级别(该级别及更低级别的日志将被丢弃), 仅在策略为DISCARD_BELOW_LEVEL时有效, 默认值: INFO
+     *
+     * @return 返回日志级别
+     * @since 2.1.3
+     */
+    LogLevel getAsyncDiscardLevel();
 }
@@ -114,6 +114,19 @@ public interface ILogger {
      */
     void log(String info, Throwable e, LogLevel level);
 
+    /**
+     * 输出日志(由调用者直接提供调用位置, 无需追溯调用堆栈)
+     *
+     * @param location 调用位置
+     * @param info     日志内容
+     * @param e        异常对象
+     * @param level    日志级别
+     * @since 2.1.3
+     */
+    default void log(StackTraceElement location, String info, Throwable e, LogLevel level) {
+        log(info, e, level);
+    }
+
     //
 
     /**
@@ -15,12 +15,9 @@
  */
 package net.ymate.platform.log;
 
-import net.ymate.platform.commons.util.ExpressionUtils;
-import org.apache.commons.lang3.StringUtils;
-import org.apache.logging.log4j.ThreadContext;
+import net.ymate.platform.commons.util.DateTimeUtils;
 
 import java.io.Serializable;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -32,33 +29,6 @@ public class LogInfo implements Serializable {
 
     public static final String DEFAULT_LOG_FORMAT = "${dateTime} ${level} [${hostName}] [${threadName}] [${threadId}:${callerInfo}] ${logContent}";
 
-    private static volatile int SIMPLIFIED_PACKAGE_NAME_MAX_LENGTH;
-
-    private static volatile int SIMPLIFIED_THREAD_NAME_MAX_LENGTH;
-
-    private static volatile int SIMPLIFIED_THREAD_ID_MAX_LENGTH;
-
-    private static synchronized int safeGetAndSetPackageNameMaxLength(int currentLength) {
-        if (currentLength > SIMPLIFIED_PACKAGE_NAME_MAX_LENGTH) {
-            SIMPLIFIED_PACKAGE_NAME_MAX_LENGTH = currentLength;
-        }
-        return SIMPLIFIED_PACKAGE_NAME_MAX_LENGTH;
-    }
-
-    private static synchronized int safeGetAndSetThreadNameMaxLength(int currentLength) {
-        if (currentLength > SIMPLIFIED_THREAD_NAME_MAX_LENGTH) {
-            SIMPLIFIED_THREAD_NAME_MAX_LENGTH = currentLength;
-        }
-        return SIMPLIFIED_THREAD_NAME_MAX_LENGTH;
-    }
-
-    private static synchronized int safeGetAndSetThreadIdMaxLength(int currentLength) {
-        if (currentLength > SIMPLIFIED_THREAD_ID_MAX_LENGTH) {
-            SIMPLIFIED_THREAD_ID_MAX_LENGTH = currentLength;
-        }
-        return SIMPLIFIED_THREAD_ID_MAX_LENGTH;
-    }
-
     private String logName;
 
     private LogLevel level;
@@ -77,6 +47,16 @@ public class LogInfo implements Serializable {
 
     private String createTime;
 
+    /**
+     * 日志产生时间(毫秒), 大于零时格式化输出将直接使用该值而无需预先格式化createTime
+     */
+    private long timestamp;
+
+    /**
+     * 日志事件产生时的线程上下文快照(异步输出时由调用线程采集), 为空时将使用当前线程上下文
+     */
+    private transient Map<String, String> contextMap;
+
     public LogInfo(String logName, LogLevel level, String hostName, String threadName, String threadId, String callerInfo, String logContent, String stackInfo, String createTime) {
         this.logName = logName;
         this.level = level;
@@ -154,6 +134,9 @@ public class LogInfo implements Serializable {
     }
 
     public String getCreateTime() {
+        if (createTime == null && timestamp > 0) {
+            createTime = DateTimeUtils.formatTime(timestamp, DateTimeUtils.YYYY_MM_DD_HH_MM_SS_SSS);
+        }
         return createTime;
     }
 
@@ -161,6 +144,22 @@ public class LogInfo implements Serializable {
         this.createTime = createTime;
     }
 
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public Map<String, String> getContextMap() {
+        return contextMap;
+    }
+
+    public void setContextMap(Map<String, String> contextMap) {
+        this.contextMap = contextMap;
+    }
+
     @Override
     public String toString() {
         return toString(null, false);
@@ -174,27 +173,6 @@ public class LogInfo implements Serializable {
      * @return 返回格式化日志内容
      */
     public String toString(String logFormat, boolean padded) {
-        ExpressionUtils expressionUtils = ExpressionUtils.bind(StringUtils.defaultIfBlank(logFormat, DEFAULT_LOG_FORMAT))
-                .set("dateTime", createTime)
-                .set("level", level.getDisplayName())
-                .set("hostName", hostName)
-                .set("threadName", padded ? StringUtils.rightPad(threadName, safeGetAndSetThreadNameMaxLength(threadName.length()), StringUtils.SPACE) : threadName)
-                .set("threadId", padded ? StringUtils.rightPad(threadId, safeGetAndSetThreadIdMaxLength(threadId.length()), StringUtils.SPACE) : threadId)
-                .set("callerInfo", padded ? StringUtils.rightPad(callerInfo, safeGetAndSetPackageNameMaxLength(callerInfo.length()), StringUtils.SPACE) : callerInfo)
-                .set("logContent", logContent);
-        List<String> vars = expressionUtils.getVariables();
-        if (!vars.isEmpty()) {
-            Map<String, String> contextMap = ThreadContext.getContext();
-            if (!contextMap.isEmpty()) {
-                vars.forEach(var -> expressionUtils.set(var, contextMap.get(var)));
-            }
-        }
-        String logStr = expressionUtils.clean().getResult();
-        StringBuilder stringBuilder = new StringBuilder(StringUtils.trimToEmpty(logStr));
-        if (StringUtils.isNotBlank(stackInfo)) {
-            stringBuilder.append(" - ").append(stackInfo);
-        }
-        //
-        return StringUtils.trim(stringBuilder.toString());
+        return LogLayout.compile(logFormat).format(this, padded);
     }
 }
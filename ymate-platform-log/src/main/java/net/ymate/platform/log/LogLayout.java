@@ -0,0 +1,236 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.log;
+
+import net.ymate.platform.commons.util.DateTimeUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.ThreadContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 已编译的日志格式模板: 格式模板仅在首次使用时解析为字段渲染器序列, 输出时直接将各字段追加至目标缓冲区,
+ * 时间戳按秒缓存已格式化的部分(仅追加毫秒数), 配合可复用的缓冲区使用时稳定状态下不产生额外的对象分配.
+ *
+ * @author 刘镇 (suninformation@163.com) on 2024/10/18 09:52
+ * @since 2.1.3
+ */
+public final class LogLayout {
+
+    private static final Map<String, LogLayout> LAYOUTS = new ConcurrentHashMap<>();
+
+    private static final String VAR_PREFIX = "${";
+
+    private static final String VAR_SUFFIX = "}";
+
+    private static final String STACK_INFO_SEPARATOR = " - ";
+
+    private static final AtomicInteger PACKAGE_NAME_MAX_LENGTH = new AtomicInteger();
+
+    private static final AtomicInteger THREAD_NAME_MAX_LENGTH = new AtomicInteger();
+
+    private static final AtomicInteger THREAD_ID_MAX_LENGTH = new AtomicInteger();
+
+    private static volatile CachedSecond cachedSecond;
+
+    private final Renderer[] renderers;
+
+    /**
+     * 获取日志格式模板对应的已编译对象(相同模板仅编译一次)
+     *
+     * @param logFormat 日志格式模板, 为空时使用默认模板
+     * @return 返回已编译的日志格式模板
+     */
+    public static LogLayout compile(String logFormat) {
+        String format = StringUtils.defaultIfBlank(logFormat, LogInfo.DEFAULT_LOG_FORMAT);
+        LogLayout layout = LAYOUTS.get(format);
+        if (layout == null) {
+            layout = LAYOUTS.computeIfAbsent(format, LogLayout::new);
+        }
+        return layout;
+    }
+
+    private LogLayout(String logFormat) {
+        List<Renderer> renderers = new ArrayList<>();
+        int pos = 0;
+        while (pos < logFormat.length()) {
+            int start = logFormat.indexOf(VAR_PREFIX, pos);
+            int end = start < 0 ? -1 : logFormat.indexOf(VAR_SUFFIX, start + VAR_PREFIX.length());
+            if (end < 0) {
+                break;
+            }
+            if (start > pos) {
+                renderers.add(literal(logFormat.substring(pos, start)));
+            }
+            renderers.add(variable(logFormat.substring(start + VAR_PREFIX.length(), end)));
+            pos = end + VAR_SUFFIX.length();
+        }
+        if (pos < logFormat.length()) {
+            renderers.add(literal(logFormat.substring(pos)));
+        }
+        this.renderers = renderers.toArray(new Renderer[0]);
+    }
+
+    private static Renderer literal(String text) {
+        return (info, padded, target) -> target.append(text);
+    }
+
+    private static Renderer variable(String name) {
+        switch (name) {
+            case "dateTime":
+                return (info, padded, target) -> {
+                    if (info.getTimestamp() > 0) {
+                        appendTimestamp(info.getTimestamp(), target);
+                    } else {
+                        append(info.getCreateTime(), target);
+                    }
+                };
+            case "level":
+                return (info, padded, target) -> target.append(info.getLevel().getDisplayName());
+            case "hostName":
+                return (info, padded, target) -> append(info.getHostName(), target);
+            case "threadName":
+                return (info, padded, target) -> append(info.getThreadName(), padded ? THREAD_NAME_MAX_LENGTH : null, target);
+            case "threadId":
+                return (info, padded, target) -> append(info.getThreadId(), padded ? THREAD_ID_MAX_LENGTH : null, target);
+            case "callerInfo":
+                return (info, padded, target) -> append(info.getCallerInfo(), padded ? PACKAGE_NAME_MAX_LENGTH : null, target);
+            case "logContent":
+                return (info, padded, target) -> append(info.getLogContent(), target);
+            default:
+                // 其它变量从线程上下文中获取, 异步输出时使用日志事件产生时采集的上下文快照
+                return (info, padded, target) -> {
+                    Map<String, String> contextMap = info.getContextMap();
+                    append(contextMap != null ? contextMap.get(name) : ThreadContext.get(name), target);
+                };
+        }
+    }
+
+    private static void append(String value, StringBuilder target) {
+        if (value != null) {
+            target.append(value);
+        }
+    }
+
+    /**
+     * 追加字段值, 并按已出现过的最大长度以空格向右填充
+     */
+    private static void append(String value, AtomicInteger maxLength, StringBuilder target) {
+        if (value == null) {
+            return;
+        }
+        target.append(value);
+        if (maxLength != null) {
+            int length = value.length();
+            int max = maxLength.get();
+            while (length > max && !maxLength.compareAndSet(max, length)) {
+                max = maxLength.get();
+            }
+            for (int idx = length; idx < max; idx++) {
+                target.append(' ');
+            }
+        }
+    }
+
+    /**
+     * 以yyyy-MM-dd HH:mm:ss.SSS格式追加时间戳, 秒级部分将被缓存直至时间进入下一秒
+     */
+    static void appendTimestamp(long timestamp, StringBuilder target) {
+        long second = Math.floorDiv(timestamp, 1000L);
+        CachedSecond cached = cachedSecond;
+        if (cached == null || cached.second != second) {
+            cached = new CachedSecond(second, DateTimeUtils.formatTime(second * 1000L, DateTimeUtils.YYYY_MM_DD_HH_MM_SS));
+            cachedSecond = cached;
+        }
+        int millis = (int) Math.floorMod(timestamp, 1000L);
+        target.append(cached.formatted).append('.');
+        if (millis < 100) {
+            target.append('0');
+        }
+        if (millis < 10) {
+            target.append('0');
+        }
+        target.append(millis);
+    }
+
+    /**
+     * 将日志内容按格式模板追加至目标缓冲区(首尾空白字符将被去除)
+     *
+     * @param info   日志内容
+     * @param padded 否采用格式化填充
+     * @param target 目标缓冲区
+     */
+    public void format(LogInfo info, boolean padded, StringBuilder target) {
+        int offset = target.length();
+        for (Renderer renderer : renderers) {
+            renderer.render(info, padded, target);
+        }
+        String stackInfo = info.getStackInfo();
+        if (StringUtils.isNotBlank(stackInfo)) {
+            trimTrailing(target, offset);
+            target.append(STACK_INFO_SEPARATOR).append(stackInfo);
+        }
+        trimTrailing(target, offset);
+        int start = offset;
+        while (start < target.length() && target.charAt(start) <= ' ') {
+            start++;
+        }
+        if (start > offset) {
+            target.delete(offset, start);
+        }
+    }
+
+    /**
+     * @param info   日志内容
+     * @param padded 否采用格式化填充
+     * @return 返回格式化后的日志内容
+     */
+    public String format(LogInfo info, boolean padded) {
+        StringBuilder builder = new StringBuilder(256);
+        format(info, padded, builder);
+        return builder.toString();
+    }
+
+    private static void trimTrailing(StringBuilder target, int offset) {
+        int end = target.length();
+        while (end > offset && target.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        target.setLength(end);
+    }
+
+    @FunctionalInterface
+    private interface Renderer {
+
+        void render(LogInfo info, boolean padded, StringBuilder target);
+    }
+
+    private static final class CachedSecond {
+
+        private final long second;
+
+        private final String formatted;
+
+        CachedSecond(long second, String formatted) {
+            this.second = second;
+            this.formatted = formatted;
+        }
+    }
+}
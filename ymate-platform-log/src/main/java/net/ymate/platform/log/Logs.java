@@ -82,6 +82,8 @@ public final class Logs implements ILog {
 
     private ILogger logger;
 
+    private AsyncLogDispatcher asyncDispatcher;
+
     public static ILog get() {
         return INSTANCE;
     }
@@ -113,6 +115,15 @@ public final class Logs implements ILog {
                 LOG.info(String.format("-- ALLOW_CONSOLE_OUTPUT: %s", config.isAllowConsoleOutput()));
                 LOG.info(String.format("-- FORMAT_PADDED_OUTPUT: %s", config.isFormatPaddedOutput()));
                 LOG.info(String.format("-- SIMPLIFIED_PACKAGE_NAME: %s", config.isSimplifiedPackageName()));
+                LOG.info(String.format("-- ASYNC_ENABLED: %s", config.isAsyncEnabled()));
+                if (config.isAsyncEnabled()) {
+                    LOG.info(String.format("-- ASYNC_BUFFER_SIZE: %d", config.getAsyncBufferSize()));
+                    LOG.info(String.format("-- ASYNC_WAIT_STRATEGY: %s", config.getAsyncWaitStrategy()));
+                    LOG.info(String.format("-- ASYNC_QUEUE_FULL_POLICY: %s", config.getAsyncQueueFullPolicy()));
+                }
+            }
+            if (config.isAsyncEnabled()) {
+                asyncDispatcher = new AsyncLogDispatcher(config.getAsyncBufferSize(), config.getAsyncWaitStrategy(), config.getAsyncQueueFullPolicy(), config.getAsyncDiscardLevel()).start();
             }
             initialized = config.isInitialized();
             //
@@ -129,6 +140,11 @@ public final class Logs implements ILog {
     public void close() {
         if (initialized) {
             initialized = false;
+            // 先停止异步分发器并写入缓冲区中剩余的日志, 再销毁日志记录器
+            if (asyncDispatcher != null) {
+                asyncDispatcher.close();
+                asyncDispatcher = null;
+            }
             //
             LOGGER_CACHE.values().forEach(ILogger::destroy);
             //
@@ -142,6 +158,11 @@ public final class Logs implements ILog {
         return config;
     }
 
+    @Override
+    public AsyncLogDispatcher getAsyncDispatcher() {
+        return asyncDispatcher;
+    }
+
     @Override
     public ILogger getLogger() {
         return logger;
@@ -15,7 +15,9 @@
  */
 package net.ymate.platform.log.annotation;
 
+import net.ymate.platform.log.AsyncLogDispatcher;
 import net.ymate.platform.log.ILogger;
+import net.ymate.platform.log.LogLevel;
 import org.apache.commons.lang3.StringUtils;
 
 import java.lang.annotation.*;
@@ -73,4 +75,34 @@ public @interface LogConf {
      * @return 日志记录器接口实现类
      */
     Class<? extends ILogger> loggerClass() default ILogger.class;
+
+    /**
+     * @return 是否开启异步日志输出
+     * @since 2.1.3
+     */
+    boolean asyncEnabled() default false;
+
+    /**
+     * @return 异步日志环形缓冲区大小
+     * @since 2.1.3
+     */
+    int asyncBufferSize() default 0;
+
+    /**
+     * @return 异步日志后台线程的等待策略
+     * @since 2.1.3
+     */
+    AsyncLogDispatcher.WaitStrategy asyncWaitStrategy() default AsyncLogDispatcher.WaitStrategy.BLOCKING;
+
+    /**
+     * @return 异步日志缓冲区已满时的处理策略
+     * @since 2.1.3
+     */
+    AsyncLogDispatcher.QueueFullPolicy asyncQueueFullPolicy() default AsyncLogDispatcher.QueueFullPolicy.BLOCK;
+
+    /**
+     * @return 缓冲区已满时允许丢弃的日志级别
+     * @since 2.1.3
+     */
+    LogLevel asyncDiscardLevel() default LogLevel.INFO;
 }
@@ -20,9 +20,7 @@ import net.ymate.platform.commons.util.FileUtils;
 import net.ymate.platform.commons.util.RuntimeUtils;
 import net.ymate.platform.core.configuration.IConfigReader;
 import net.ymate.platform.core.module.IModuleConfigurer;
-import net.ymate.platform.log.ILog;
-import net.ymate.platform.log.ILogConfig;
-import net.ymate.platform.log.ILogger;
+import net.ymate.platform.log.*;
 import net.ymate.platform.log.annotation.LogConf;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
@@ -59,6 +57,16 @@ public final class DefaultLogConfig implements ILogConfig {
 
     private boolean formatPaddedOutput;
 
+    private boolean asyncEnabled;
+
+    private int asyncBufferSize;
+
+    private AsyncLogDispatcher.WaitStrategy asyncWaitStrategy;
+
+    private AsyncLogDispatcher.QueueFullPolicy asyncQueueFullPolicy;
+
+    private LogLevel asyncDiscardLevel;
+
     private boolean initialized;
 
     public static DefaultLogConfig defaultConfig() {
@@ -109,6 +117,12 @@ public final class DefaultLogConfig implements ILogConfig {
         allowConsoleOutput = configReader.getBoolean(ALLOW_OUTPUT_CONSOLE, confAnn != null && confAnn.allowConsoleOutput());
         simplifiedPackageName = configReader.getBoolean(SIMPLIFIED_PACKAGE_NAME, confAnn != null && confAnn.simplifiedPackageName());
         formatPaddedOutput = configReader.getBoolean(FORMAT_PADDED_OUTPUT, confAnn != null && confAnn.formatPaddedOutput());
+        //
+        asyncEnabled = configReader.getBoolean(ASYNC_ENABLED, confAnn != null && confAnn.asyncEnabled());
+        asyncBufferSize = configReader.getInt(ASYNC_BUFFER_SIZE, confAnn == null ? 0 : confAnn.asyncBufferSize());
+        asyncWaitStrategy = AsyncLogDispatcher.WaitStrategy.valueOf(configReader.getString(ASYNC_WAIT_STRATEGY, confAnn == null ? AsyncLogDispatcher.WaitStrategy.BLOCKING.name() : confAnn.asyncWaitStrategy().name()).toUpperCase());
+        asyncQueueFullPolicy = AsyncLogDispatcher.QueueFullPolicy.valueOf(configReader.getString(ASYNC_QUEUE_FULL_POLICY, confAnn == null ? AsyncLogDispatcher.QueueFullPolicy.BLOCK.name() : confAnn.asyncQueueFullPolicy().name()).toUpperCase());
+        asyncDiscardLevel = LogLevel.parse(configReader.getString(ASYNC_DISCARD_LEVEL, confAnn == null ? null : confAnn.asyncDiscardLevel().getName()));
     }
 
     @Override
@@ -148,9 +162,35 @@ public final class DefaultLogConfig implements ILogConfig {
                 defaultLoggerName = DEFAULT_STR;
             }
             //
+            if (asyncBufferSize <= 0) {
+                asyncBufferSize = DEFAULT_ASYNC_BUFFER_SIZE;
+            }
+            if (asyncWaitStrategy == null) {
+                asyncWaitStrategy = AsyncLogDispatcher.WaitStrategy.BLOCKING;
+            }
+            if (asyncQueueFullPolicy == null) {
+                asyncQueueFullPolicy = AsyncLogDispatcher.QueueFullPolicy.BLOCK;
+            }
+            if (asyncDiscardLevel == null) {
+                asyncDiscardLevel = LogLevel.INFO;
+            }
+            //
             if (this.loggerClass == null) {
                 this.loggerClass = ClassUtils.getExtensionLoader(ILogger.class).getExtensionClass();
-                if (this.loggerClass == null) {
+                if (asyncBufferSize <= 0) {
+                asyncBufferSize = DEFAULT_ASYNC_BUFFER_SIZE;
+            }
+            if (asyncWaitStrategy == null) {
+                asyncWaitStrategy = AsyncLogDispatcher.WaitStrategy.BLOCKING;
+            }
+            if (asyncQueueFullPolicy == null) {
+                asyncQueueFullPolicy = AsyncLogDispatcher.QueueFullPolicy.BLOCK;
+            }
+            if (asyncDiscardLevel == null) {
+                asyncDiscardLevel = LogLevel.INFO;
+            }
+            //
+            if (this.loggerClass == null) {
                     this.loggerClass = DefaultLogger.class;
                 }
             }
@@ -263,6 +303,61 @@ public final class DefaultLogConfig implements ILogConfig {
         }
     }
 
+    @Override
+    public boolean isAsyncEnabled() {
+        return asyncEnabled;
+    }
+
+    public void setAsyncEnabled(boolean asyncEnabled) {
+        if (!initialized) {
+            this.asyncEnabled = asyncEnabled;
+        }
+    }
+
+    @Override
+    public int getAsyncBufferSize() {
+        return asyncBufferSize;
+    }
+
+    public void setAsyncBufferSize(int asyncBufferSize) {
+        if (!initialized) {
+            this.asyncBufferSize = asyncBufferSize;
+        }
+    }
+
+    @Override
+    public AsyncLogDispatcher.WaitStrategy getAsyncWaitStrategy() {
+        return asyncWaitStrategy;
+    }
+
+    public void setAsyncWaitStrategy(AsyncLogDispatcher.WaitStrategy asyncWaitStrategy) {
+        if (!initialized) {
+            this.asyncWaitStrategy = asyncWaitStrategy;
+        }
+    }
+
+    @Override
+    public AsyncLogDispatcher.QueueFullPolicy getAsyncQueueFullPolicy() {
+        return asyncQueueFullPolicy;
+    }
+
+    public void setAsyncQueueFullPolicy(AsyncLogDispatcher.QueueFullPolicy asyncQueueFullPolicy) {
+        if (!initialized) {
+            this.asyncQueueFullPolicy = asyncQueueFullPolicy;
+        }
+    }
+
+    @Override
+    public LogLevel getAsyncDiscardLevel() {
+        return asyncDiscardLevel;
+    }
+
+    public void setAsyncDiscardLevel(LogLevel asyncDiscardLevel) {
+        if (!initialized) {
+            this.asyncDiscardLevel = asyncDiscardLevel;
+        }
+    }
+
     public final static class Builder {
 
         private final DefaultLogConfig config = new DefaultLogConfig();
@@ -317,6 +412,31 @@ public final class DefaultLogConfig implements ILogConfig {
             return this;
         }
 
+        public Builder asyncEnabled(boolean asyncEnabled) {
+            config.setAsyncEnabled(asyncEnabled);
+            return this;
+        }
+
+        public Builder asyncBufferSize(int asyncBufferSize) {
+            config.setAsyncBufferSize(asyncBufferSize);
+            return this;
+        }
+
+        public Builder asyncWaitStrategy(AsyncLogDispatcher.WaitStrategy asyncWaitStrategy) {
+            config.setAsyncWaitStrategy(asyncWaitStrategy);
+            return this;
+        }
+
+        public Builder asyncQueueFullPolicy(AsyncLogDispatcher.QueueFullPolicy asyncQueueFullPolicy) {
+            config.setAsyncQueueFullPolicy(asyncQueueFullPolicy);
+            return this;
+        }
+
+        public Builder asyncDiscardLevel(LogLevel asyncDiscardLevel) {
+            config.setAsyncDiscardLevel(asyncDiscardLevel);
+            return this;
+        }
+
         public DefaultLogConfig build() {
             return config;
         }
@@ -35,12 +35,26 @@ public class DefaultLogger extends AbstractLogger {
 
     private static volatile boolean loggerInitialized;
 
+    private static final int BUFFER_INITIAL_SIZE = 512;
+
+    /**
+     * 缓冲区容量超过该值时不再保留, 避免个别超长日志使线程长期占用大块内存
+     */
+    private static final int BUFFER_MAX_RETAINED_SIZE = 8192;
+
+    /**
+     * 线程内复用的日志内容缓冲区, 避免每条日志创建新的字符串
+     */
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(BUFFER_INITIAL_SIZE));
+
     private Logger logger;
 
     private String loggerName;
 
     private ILogConfig config;
 
+    private LogLayout layout;
+
     private boolean initialized;
 
     public DefaultLogger() {
@@ -49,7 +63,22 @@ public class DefaultLogger extends AbstractLogger {
     @Override
     protected void logWrite(LogLevel level, LogInfo content) {
         if (logger != null) {
-            logger.log(LogLevel.parse(level), config != null ? content.toString(config.getLogFormat(), config.isFormatPaddedOutput()) : content.toString());
+            StringBuilder buffer = BUFFER.get();
+            if (buffer.length() > 0) {
+                // 缓冲区正在使用中(如在日志写入过程中再次输出日志)
+                buffer = new StringBuilder(BUFFER_INITIAL_SIZE);
+            }
+            try {
+                layout.format(content, config != null && config.isFormatPaddedOutput(), buffer);
+                // 以CharSequence方式传递, 由Log4J直接从缓冲区编码输出
+                logger.log(LogLevel.parse(level), buffer);
+            } finally {
+                if (buffer.capacity() > BUFFER_MAX_RETAINED_SIZE) {
+                    BUFFER.remove();
+                } else {
+                    buffer.setLength(0);
+                }
+            }
         }
     }
 
@@ -125,6 +154,7 @@ public class DefaultLogger extends AbstractLogger {
                 }
             }
             logger = LogManager.getLogger(StringUtils.defaultIfBlank(loggerName, config.getDefaultLoggerName()));
+            layout = LogLayout.compile(config.getLogFormat());
             initialized = true;
         }
         return this;
@@ -175,6 +205,16 @@ public class DefaultLogger extends AbstractLogger {
         buildEx(info, e, level);
     }
 
+    @Override
+    public void log(StackTraceElement location, String info, Throwable e, LogLevel level) {
+        if (level == null) {
+            level = LogLevel.ALL;
+        }
+        if (isLogEnabled(level)) {
+            buildEx(info, e, level, location);
+        }
+    }
+
     @Override
     public void trace(String info) {
         buildEx(info, null, LogLevel.INFO);
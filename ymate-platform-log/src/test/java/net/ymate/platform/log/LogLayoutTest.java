@@ -0,0 +1,85 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.log;
+
+import net.ymate.platform.commons.util.DateTimeUtils;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author 刘镇 (suninformation@163.com) on 2024/10/18 11:20
+ * @since 2.1.3
+ */
+public class LogLayoutTest {
+
+    private static final long TIMESTAMP = 1729219205007L;
+
+    private static LogInfo createLogInfo(String stackInfo) {
+        LogInfo logInfo = new LogInfo("default", LogLevel.INFO, "localhost", "main", "1", "n.y.p.l.LogLayoutTest.format:42", "Hello, ${world}!", stackInfo, null);
+        logInfo.setTimestamp(TIMESTAMP);
+        return logInfo;
+    }
+
+    @Test
+    public void format() {
+        String dateTime = DateTimeUtils.formatTime(TIMESTAMP, DateTimeUtils.YYYY_MM_DD_HH_MM_SS_SSS);
+        LogInfo logInfo = createLogInfo(null);
+        assertEquals(dateTime + " [INFO ] [localhost] [main] [1:n.y.p.l.LogLayoutTest.format:42] Hello, ${world}!", logInfo.toString());
+        assertEquals(dateTime, logInfo.getCreateTime());
+        //
+        logInfo = createLogInfo("java.lang.IllegalStateException: \n\tat Foo.bar(Foo.java:1)\n");
+        assertEquals("[INFO ] Hello, ${world}! - java.lang.IllegalStateException: \n\tat Foo.bar(Foo.java:1)", logInfo.toString("  ${level} ${logContent} ${none}  ", false));
+        // 未定义变量从上下文中获取
+        logInfo = createLogInfo(null);
+        logInfo.setContextMap(Collections.singletonMap("traceId", "abc"));
+        assertEquals("abc|[INFO ]|", logInfo.toString("${traceId}|${level}|${none}", false));
+        // 填充输出时按已出现的最大长度对齐
+        assertEquals("[main-thread]", LogLayout.compile("[${threadName}]").format(new LogInfo(null, LogLevel.INFO, null, "main-thread", "1", "", null, null, null), true));
+        assertEquals("[main       ]", LogLayout.compile("[${threadName}]").format(createLogInfo(null), true));
+    }
+
+    @Test
+    public void steadyStateAllocation() {
+        java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        Assume.assumeTrue(allocationBean.isThreadAllocatedMemorySupported());
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+        //
+        LogLayout layout = LogLayout.compile(null);
+        LogInfo logInfo = createLogInfo(null);
+        StringBuilder buffer = new StringBuilder(512);
+        for (int idx = 0; idx < 50000; idx++) {
+            buffer.setLength(0);
+            layout.format(logInfo, true, buffer);
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = allocationBean.getThreadAllocatedBytes(threadId);
+        int count = 100000;
+        for (int idx = 0; idx < count; idx++) {
+            buffer.setLength(0);
+            layout.format(logInfo, true, buffer);
+        }
+        long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+        // 允许测量过程自身产生的少量分配, 但平均每条日志必须为零
+        assertTrue("Allocated " + allocated + " bytes for " + count + " events", allocated < count / 100);
+    }
+}
@@ -18,6 +18,7 @@ package net.ymate.platform.persistence.jdbc;
 import net.ymate.platform.core.beans.annotation.Ignored;
 import net.ymate.platform.core.persistence.*;
 import net.ymate.platform.core.persistence.base.IEntity;
+import net.ymate.platform.persistence.jdbc.base.IResultSetCursor;
 import net.ymate.platform.persistence.jdbc.base.IResultSetHandler;
 import net.ymate.platform.persistence.jdbc.query.BatchSQL;
 import net.ymate.platform.persistence.jdbc.query.EntitySQL;
@@ -271,6 +272,33 @@ public interface IDatabaseSession extends ISession<IDatabaseConnectionHolder> {
     @Deprecated
     <T extends IEntity> T find(EntitySQL<T> entity, Serializable id, IShardingable shardingable) throws Exception;
 
+    /**
+     * 以游标方式执行SQL查询(逐行读取结果集而非一次性加载至内存), 调用方必须在当前会话关闭前关闭游标,
+     * 结果集数据处理器须支持逐行处理(即实现prepare和handleRow方法, 继承自AbstractResultSetHandler的处理器均已实现), 否则将抛出UnsupportedOperationException异常
+     *
+     * @param <T>       指定结果集数据类型
+     * @param sql       SQL语句对象
+     * @param handler   结果集数据处理器
+     * @param fetchSize 每次从数据库获取的记录数, 小于等于0表示采用数据库方言默认设置
+     * @return 返回结果集游标对象
+     * @throws Exception 可能产生的异常
+     * @since 2.1.3
+     */
+    <T> IResultSetCursor<T> openCursor(SQL sql, IResultSetHandler<T> handler, int fetchSize) throws Exception;
+
+    /**
+     * 以游标方式执行实体查询(逐行读取结果集而非一次性加载至内存), 调用方必须在当前会话关闭前关闭游标
+     *
+     * @param <T>       指定实体类型
+     * @param entity    实体查询对象
+     * @param where     查询条件, 可以为空
+     * @param fetchSize 每次从数据库获取的记录数, 小于等于0表示采用数据库方言默认设置
+     * @return 返回结果集游标对象
+     * @throws Exception 可能产生的异常
+     * @since 2.1.3
+     */
+    <T extends IEntity> IResultSetCursor<T> openCursor(EntitySQL<T> entity, Where where, int fetchSize) throws Exception;
+
     /**
      * 执行SQL查询
      *
@@ -82,22 +82,32 @@ public abstract class AbstractOperator implements IOperator {
                 time.stop();
                 this.expenseTime = time.getTime();
                 //
-                if (LOG.isInfoEnabled()) {
-                    IDatabaseDataSourceConfig dataSourceConfig = this.connectionHolder.getDataSourceConfig();
-                    if (hasEx || dataSourceConfig.isShowSql()) {
-                        String logStr = ExpressionUtils.bind("[${sql}]${param}[${count}][${time}]")
-                                .set("sql", StringUtils.defaultIfBlank(this.sql, "@NULL"))
-                                .set("param", serializeParameters())
-                                .set("count", String.valueOf(effectCounts))
-                                .set("time", this.expenseTime + "ms").getResult();
-                        if (dataSourceConfig.isStackTraces()) {
-                            StringBuilder stackBuilder = new StringBuilder(logStr);
-                            doAppendStackTraces(dataSourceConfig, stackBuilder);
-                            LOG.info(stackBuilder.toString());
-                        } else {
-                            LOG.info(logStr);
-                        }
-                    }
+                doLogIfNeed(effectCounts);
+            }
+        }
+    }
+
+    /**
+     * 输出SQL执行日志(当发生异常或开启显示SQL时)
+     *
+     * @param effectCounts 影响行数
+     * @since 2.1.3
+     */
+    protected void doLogIfNeed(int effectCounts) {
+        if (LOG.isInfoEnabled()) {
+            IDatabaseDataSourceConfig dataSourceConfig = this.connectionHolder.getDataSourceConfig();
+            if (hasEx || dataSourceConfig.isShowSql()) {
+                String logStr = ExpressionUtils.bind("[${sql}]${param}[${count}][${time}]")
+                        .set("sql", StringUtils.defaultIfBlank(this.sql, "@NULL"))
+                        .set("param", serializeParameters())
+                        .set("count", String.valueOf(effectCounts))
+                        .set("time", this.expenseTime + "ms").getResult();
+                if (dataSourceConfig.isStackTraces()) {
+                    StringBuilder stackBuilder = new StringBuilder(logStr);
+                    doAppendStackTraces(dataSourceConfig, stackBuilder);
+                    LOG.info(stackBuilder.toString());
+                } else {
+                    LOG.info(logStr);
                 }
             }
         }
@@ -34,6 +34,13 @@ public abstract class AbstractResultSetHandler<T> implements IResultSetHandler<T
 
     @Override
     public List<T> handle(ResultSet resultSet) throws Exception {
+        prepare(resultSet);
+        //
+        return processResult(resultSet);
+    }
+
+    @Override
+    public void prepare(ResultSet resultSet) throws Exception {
         // 分析结果集字段信息
         ResultSetMetaData metaData = resultSet.getMetaData();
         columnCount = metaData.getColumnCount();
@@ -41,8 +48,11 @@ public abstract class AbstractResultSetHandler<T> implements IResultSetHandler<T
         for (int idx = 0; idx < columnCount; idx++) {
             columnMetas[idx] = new ColumnMeta(metaData.getColumnLabel(idx + 1), metaData.getColumnType(idx + 1));
         }
-        //
-        return processResult(resultSet);
+    }
+
+    @Override
+    public T handleRow(ResultSet resultSet) throws Exception {
+        return processResultRow(resultSet);
     }
 
     protected List<T> processResult(ResultSet resultSet) throws Exception {
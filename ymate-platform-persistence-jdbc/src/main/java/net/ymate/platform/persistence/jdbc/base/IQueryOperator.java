@@ -48,4 +48,19 @@ public interface IQueryOperator<T> extends IOperator {
      * @return 返回结果集最大记录数
      */
     int getMaxRow();
+
+    /**
+     * 以游标方式执行查询，返回的游标对象基于未关闭的结果集逐行读取数据，调用方必须负责关闭游标，
+     * 并确保游标关闭前当前数据库连接未被释放
+     * <p>
+     * 游标方式要求结果集数据处理器实现{@link IResultSetHandler#prepare(java.sql.ResultSet)}和{@link IResultSetHandler#handleRow(java.sql.ResultSet)}方法
+     * (继承自{@link AbstractResultSetHandler}的处理器均已实现), 否则将在执行查询前抛出{@link UnsupportedOperationException}异常
+     * </p>
+     *
+     * @param fetchSize 每次从数据库获取的记录数，小于等于0表示由驱动决定(部分数据库方言将采用其特定的流式读取设置)
+     * @return 返回结果集游标对象
+     * @throws Exception 可能产生的异常
+     * @since 2.1.3
+     */
+    IResultSetCursor<T> openCursor(int fetchSize) throws Exception;
 }
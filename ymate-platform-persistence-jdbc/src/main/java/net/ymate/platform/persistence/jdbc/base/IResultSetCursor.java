@@ -0,0 +1,62 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.base;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 结果集游标接口定义，基于数据库连接上未关闭的结果集逐行读取数据，无需将全部结果加载至内存，
+ * 使用完毕后(或遍历结束后)必须调用close方法释放结果集、语句对象并恢复连接状态
+ *
+ * @param <T> 元素类型
+ * @author 刘镇 (suninformation@163.com) on 2024/10/11 13:52
+ * @since 2.1.3
+ */
+public interface IResultSetCursor<T> extends Iterator<T>, AutoCloseable {
+
+    /**
+     * 获取已读取的记录数
+     *
+     * @return 返回已读取的记录数
+     */
+    int getFetchedCount();
+
+    /**
+     * 判断游标是否已关闭
+     *
+     * @return 返回true表示已关闭
+     */
+    boolean isClosed();
+
+    /**
+     * 关闭游标(重复调用无副作用)
+     */
+    @Override
+    void close();
+
+    /**
+     * 将游标转换为顺序流，关闭流时将同时关闭游标
+     *
+     * @return 返回顺序流对象
+     */
+    default Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false).onClose(this::close);
+    }
+}
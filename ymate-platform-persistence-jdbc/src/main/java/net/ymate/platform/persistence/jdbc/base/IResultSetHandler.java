@@ -44,4 +44,30 @@ public interface IResultSetHandler<T> {
      * @throws Exception 可能产生的异常
      */
     List<T> handle(ResultSet resultSet) throws Exception;
+
+    /**
+     * 分析结果集字段信息, 以游标方式逐行处理结果集前调用
+     * <p>
+     * 默认实现不支持逐行处理, 直接实现本接口的处理器若需用于游标查询(如: IQueryOperator#openCursor)则必须同时重写本方法及handleRow方法
+     * </p>
+     *
+     * @param resultSet 查询结果集
+     * @throws Exception 可能产生的异常
+     * @since 2.1.3
+     */
+    default void prepare(ResultSet resultSet) throws Exception {
+        throw new UnsupportedOperationException(String.format("Result set handler [%s] does not support row-by-row processing.", getClass().getName()));
+    }
+
+    /**
+     * 处理结果集当前行数据(需先调用prepare方法)
+     *
+     * @param resultSet 查询结果集，切勿对其进行游标移动等操作，仅约定用于提取当前行字段数据
+     * @return 返回当前行数据对象
+     * @throws Exception 可能产生的异常
+     * @since 2.1.3
+     */
+    default T handleRow(ResultSet resultSet) throws Exception {
+        throw new UnsupportedOperationException(String.format("Result set handler [%s] does not support row-by-row processing.", getClass().getName()));
+    }
 }
@@ -22,11 +22,10 @@ import net.ymate.platform.persistence.jdbc.base.*;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
+import java.sql.*;
 import java.util.Collections;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * 数据库查询操作器接口实现
@@ -107,6 +106,82 @@ public class DefaultQueryOperator<T> extends AbstractOperator implements IQueryO
         }
     }
 
+    @Override
+    public IResultSetCursor<T> openCursor(int fetchSize) throws Exception {
+        if (this.executed) {
+            throw new IllegalStateException("Query operator has been executed.");
+        }
+        doCheckRowHandlingSupported();
+        long startTime = System.currentTimeMillis();
+        Connection connection = this.getConnectionHolder().getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        PreparedStatement statement = null;
+        ResultSet result = null;
+        AccessorEventContext eventContext = null;
+        try {
+            IAccessor accessor = new BaseAccessor(this.getAccessorConfig());
+            statement = accessor.getPreparedStatement(connection, this.getSQL());
+            if (this.maxRow > 0) {
+                statement.setMaxRows(this.maxRow);
+            }
+            this.getConnectionHolder().getDialect().prepareCursorStatement(connection, statement, fetchSize);
+            doSetParameters(statement);
+            if (this.getAccessorConfig() != null) {
+                eventContext = new AccessorEventContext(statement, Type.OPT.QUERY);
+                this.getAccessorConfig().beforeStatementExecution(eventContext);
+            }
+            result = statement.executeQuery();
+            this.getResultSetHandler().prepare(result);
+            this.executed = true;
+            return new ResultSetCursor(connection, autoCommit, statement, result, startTime);
+        } catch (Exception ex) {
+            hasEx = true;
+            this.expenseTime = System.currentTimeMillis() - startTime;
+            doLogIfNeed(0);
+            doCloseQuietly(connection, autoCommit, statement, result);
+            throw ex;
+        } finally {
+            doAfterStatementExecutionIfNeed(eventContext);
+        }
+    }
+
+    /**
+     * 检查结果集数据处理器是否支持逐行处理, 避免在已执行查询(并可能已调整连接状态)后才发现不支持
+     */
+    private void doCheckRowHandlingSupported() throws NoSuchMethodException {
+        Class<?> handlerClass = this.getResultSetHandler().getClass();
+        if (handlerClass.getMethod("prepare", ResultSet.class).getDeclaringClass() == IResultSetHandler.class
+                || handlerClass.getMethod("handleRow", ResultSet.class).getDeclaringClass() == IResultSetHandler.class) {
+            throw new UnsupportedOperationException(String.format("Result set handler [%s] does not support row-by-row processing.", handlerClass.getName()));
+        }
+    }
+
+    private void doCloseQuietly(Connection connection, boolean autoCommit, Statement statement, ResultSet result) {
+        try {
+            if (result != null) {
+                result.close();
+            }
+            if (statement != null) {
+                statement.close();
+            }
+        } catch (SQLException e) {
+            if (LOG.isWarnEnabled()) {
+                LOG.warn(e.getMessage(), RuntimeUtils.unwrapThrow(e));
+            }
+        }
+        try {
+            // 恢复由数据库方言修改的自动提交状态
+            if (autoCommit && !connection.isClosed() && !connection.getAutoCommit()) {
+                connection.commit();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            if (LOG.isWarnEnabled()) {
+                LOG.warn(e.getMessage(), RuntimeUtils.unwrapThrow(e));
+            }
+        }
+    }
+
     @Override
     public IResultSetHandler<T> getResultSetHandler() {
         return resultSetHandler;
@@ -121,4 +196,94 @@ public class DefaultQueryOperator<T> extends AbstractOperator implements IQueryO
     public int getMaxRow() {
         return maxRow;
     }
+
+    /**
+     * 基于未关闭结果集的游标实现
+     */
+    private class ResultSetCursor implements IResultSetCursor<T> {
+
+        private final Connection connection;
+
+        private final boolean autoCommit;
+
+        private final Statement statement;
+
+        private final ResultSet resultSet;
+
+        private final long startTime;
+
+        private int fetchedCount;
+
+        private boolean fetched;
+
+        private boolean hasNext;
+
+        private boolean closed;
+
+        ResultSetCursor(Connection connection, boolean autoCommit, Statement statement, ResultSet resultSet, long startTime) {
+            this.connection = connection;
+            this.autoCommit = autoCommit;
+            this.statement = statement;
+            this.resultSet = resultSet;
+            this.startTime = startTime;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (closed) {
+                return false;
+            }
+            if (!fetched) {
+                try {
+                    hasNext = resultSet.next();
+                    fetched = true;
+                } catch (SQLException e) {
+                    hasEx = true;
+                    close();
+                    throw new RuntimeException(e.getMessage(), e);
+                }
+                if (!hasNext) {
+                    close();
+                }
+            }
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            fetched = false;
+            try {
+                T row = getResultSetHandler().handleRow(resultSet);
+                fetchedCount++;
+                return row;
+            } catch (Exception e) {
+                hasEx = true;
+                close();
+                throw new RuntimeException(e.getMessage(), RuntimeUtils.unwrapThrow(e));
+            }
+        }
+
+        @Override
+        public int getFetchedCount() {
+            return fetchedCount;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                doCloseQuietly(connection, autoCommit, statement, resultSet);
+                expenseTime = System.currentTimeMillis() - startTime;
+                doLogIfNeed(fetchedCount);
+            }
+        }
+    }
 }
@@ -18,14 +18,27 @@ package net.ymate.platform.persistence.jdbc.base.impl;
 import net.ymate.platform.commons.lang.BlurObject;
 import net.ymate.platform.commons.util.ClassUtils;
 import net.ymate.platform.core.persistence.IValueRenderer;
+import net.ymate.platform.core.persistence.annotation.ValueRenderer;
 import net.ymate.platform.core.persistence.base.EntityMeta;
 import net.ymate.platform.core.persistence.base.IEntity;
 import net.ymate.platform.core.persistence.base.PropertyMeta;
 import net.ymate.platform.persistence.jdbc.base.AbstractResultSetHandler;
 
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.math.BigDecimal;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 采用实体类存储数据的结果集数据处理接口实现
@@ -36,10 +49,19 @@ import java.sql.ResultSet;
 @SuppressWarnings("rawtypes")
 public class EntityResultSetHandler<T extends IEntity> extends AbstractResultSetHandler<T> {
 
+    /**
+     * 缓存的行映射计划数量上限, 超出后新编译的计划将不再缓存(通常仅在大量动态拼接字段的查询场景下出现)
+     */
+    private static final int MAX_ROW_MAPPERS = 2048;
+
+    private static final Map<String, RowMapper<?>> ROW_MAPPERS = new ConcurrentHashMap<>();
+
     private final Class<T> entityClass;
 
     private final EntityMeta entityMeta;
 
+    private RowMapper<T> rowMapper;
+
     @SuppressWarnings("unchecked")
     public EntityResultSetHandler() {
         this.entityClass = (Class<T>) ClassUtils.getParameterizedTypes(getClass()).get(0);
@@ -53,26 +75,258 @@ public class EntityResultSetHandler<T extends IEntity> extends AbstractResultSet
 
     @Override
     @SuppressWarnings("unchecked")
+    public void prepare(ResultSet resultSet) throws Exception {
+        super.prepare(resultSet);
+        // 按实体类型及结果集字段布局获取(或编译)行映射计划, 每次查询仅执行一次
+        StringBuilder keyBuilder = new StringBuilder(entityClass.getName());
+        for (int idx = 0; idx < getColumnCount(); idx++) {
+            ColumnMeta columnMeta = getColumnMeta(idx);
+            keyBuilder.append('|').append(columnMeta.getName()).append(':').append(columnMeta.getType());
+        }
+        String key = keyBuilder.toString();
+        RowMapper<T> mapper = (RowMapper<T>) ROW_MAPPERS.get(key);
+        if (mapper == null) {
+            mapper = new RowMapper<>(entityClass, entityMeta, this);
+            if (ROW_MAPPERS.size() < MAX_ROW_MAPPERS) {
+                ROW_MAPPERS.putIfAbsent(key, mapper);
+            }
+        }
+        this.rowMapper = mapper;
+    }
+
+    @Override
     protected T processResultRow(ResultSet resultSet) throws Exception {
-        ClassUtils.BeanWrapper<T> targetWrapper = ClassUtils.wrapper(entityClass.newInstance());
-        Object primaryKeyObject = null;
-        if (entityMeta.isMultiplePrimaryKey()) {
-            primaryKeyObject = entityMeta.getPrimaryKeyClass().newInstance();
+        return rowMapper.map(resultSet);
+    }
+
+    /**
+     * 字段值读取器
+     */
+    @FunctionalInterface
+    interface ColumnReader {
+
+        /**
+         * 读取当前行指定索引的字段值
+         *
+         * @param resultSet 数据结果集对象
+         * @param index     字段索引(从1开始)
+         * @return 返回已转换为目标属性类型的字段值
+         * @throws SQLException 可能产生的异常
+         */
+        Object read(ResultSet resultSet, int index) throws SQLException;
+    }
+
+    /**
+     * 根据属性类型及字段SQL类型选择字段值读取器, 仅在类型明确兼容时使用ResultSet的类型化读取方法, 否则仍通过BlurObject进行转换以保持原有行为
+     *
+     * @param fieldType 属性类型
+     * @param sqlType   字段SQL类型
+     * @return 返回字段值读取器
+     */
+    static ColumnReader createColumnReader(Class<?> fieldType, int sqlType) {
+        boolean primitive = fieldType.isPrimitive();
+        switch (sqlType) {
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                if (String.class.equals(fieldType)) {
+                    return ResultSet::getString;
+                }
+                break;
+            case Types.BIGINT:
+                if (Long.class.equals(fieldType) || long.class.equals(fieldType)) {
+                    return primitive ? (rs, idx) -> rs.getLong(idx) : (rs, idx) -> {
+                        long value = rs.getLong(idx);
+                        return rs.wasNull() ? null : value;
+                    };
+                }
+                break;
+            case Types.INTEGER:
+            case Types.SMALLINT:
+            case Types.TINYINT:
+                if (Long.class.equals(fieldType) || long.class.equals(fieldType)) {
+                    return primitive ? (rs, idx) -> rs.getLong(idx) : (rs, idx) -> {
+                        long value = rs.getLong(idx);
+                        return rs.wasNull() ? null : value;
+                    };
+                } else if (Integer.class.equals(fieldType) || int.class.equals(fieldType)) {
+                    return primitive ? (rs, idx) -> rs.getInt(idx) : (rs, idx) -> {
+                        int value = rs.getInt(idx);
+                        return rs.wasNull() ? null : value;
+                    };
+                }
+                break;
+            case Types.DOUBLE:
+            case Types.FLOAT:
+                if (Double.class.equals(fieldType) || double.class.equals(fieldType)) {
+                    return primitive ? (rs, idx) -> rs.getDouble(idx) : (rs, idx) -> {
+                        double value = rs.getDouble(idx);
+                        return rs.wasNull() ? null : value;
+                    };
+                }
+                break;
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                if (BigDecimal.class.equals(fieldType)) {
+                    return ResultSet::getBigDecimal;
+                }
+                break;
+            case Types.BOOLEAN:
+                if (Boolean.class.equals(fieldType) || boolean.class.equals(fieldType)) {
+                    return primitive ? (rs, idx) -> rs.getBoolean(idx) : (rs, idx) -> {
+                        boolean value = rs.getBoolean(idx);
+                        return rs.wasNull() ? null : value;
+                    };
+                }
+                break;
+            case Types.TIMESTAMP:
+                if (Timestamp.class.equals(fieldType) || java.util.Date.class.equals(fieldType)) {
+                    return ResultSet::getTimestamp;
+                }
+                break;
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+                if (byte[].class.equals(fieldType)) {
+                    return ResultSet::getBytes;
+                }
+                break;
+            default:
+        }
+        return (rs, idx) -> BlurObject.bind(rs.getObject(idx)).toObjectValue(fieldType);
+    }
+
+    /**
+     * 行映射计划: 由实体类型与结果集字段布局决定, 编译后缓存复用, 字段索引与属性赋值句柄的绑定关系在编译时确定
+     *
+     * @param <T> 实体类型
+     */
+    static final class RowMapper<T extends IEntity> {
+
+        private final Class<T> entityClass;
+
+        private final Class<?> primaryKeyClass;
+
+        private final MethodHandle entityConstructor;
+
+        private final MethodHandle primaryKeyConstructor;
+
+        private final ColumnBinding[] bindings;
+
+        private final boolean valueRendererPresent;
+
+        RowMapper(Class<T> entityClass, EntityMeta entityMeta, EntityResultSetHandler<T> handler) {
+            this.entityClass = entityClass;
+            this.primaryKeyClass = entityMeta.isMultiplePrimaryKey() ? entityMeta.getPrimaryKeyClass() : null;
+            this.entityConstructor = constructor(entityClass);
+            this.primaryKeyConstructor = primaryKeyClass != null ? constructor(primaryKeyClass) : null;
             //
-            targetWrapper.getTargetObject().setId((Serializable) primaryKeyObject);
+            List<ColumnBinding> bindingList = new ArrayList<>(handler.getColumnCount());
+            boolean hasValueRenderer = false;
+            for (int idx = 0; idx < handler.getColumnCount(); idx++) {
+                ColumnMeta columnMeta = handler.getColumnMeta(idx);
+                PropertyMeta propertyMeta = entityMeta.getPropertyByName(columnMeta.getName());
+                if (propertyMeta != null) {
+                    Field field = propertyMeta.getField();
+                    boolean valueRenderer = field.isAnnotationPresent(ValueRenderer.class);
+                    hasValueRenderer |= valueRenderer;
+                    bindingList.add(new ColumnBinding(idx + 1, field, createColumnReader(field.getType(), columnMeta.getType()),
+                            entityMeta.isMultiplePrimaryKey() && entityMeta.isPrimaryKey(propertyMeta.getName()), valueRenderer));
+                }
+            }
+            this.bindings = bindingList.toArray(new ColumnBinding[0]);
+            this.valueRendererPresent = hasValueRenderer;
         }
-        for (int idx = 0; idx < getColumnCount(); idx++) {
-            PropertyMeta propertyMeta = entityMeta.getPropertyByName(getColumnMeta(idx).getName());
-            if (propertyMeta != null) {
-                Field field = propertyMeta.getField();
-                Object fieldValue = IValueRenderer.processValueRenderer(targetWrapper, field, BlurObject.bind(resultSet.getObject(idx + 1)).toObjectValue(field.getType()));
-                if (entityMeta.isPrimaryKey(propertyMeta.getName()) && entityMeta.isMultiplePrimaryKey()) {
-                    propertyMeta.getField().set(primaryKeyObject, fieldValue);
-                } else {
-                    propertyMeta.getField().set(targetWrapper.getTargetObject(), fieldValue);
+
+        private static MethodHandle constructor(Class<?> targetClass) {
+            try {
+                return MethodHandles.publicLookup().findConstructor(targetClass, MethodType.methodType(void.class)).asType(MethodType.methodType(Object.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                // 无法生成构造句柄时仍通过反射创建实例, 以保持原有的异常行为
+                return null;
+            }
+        }
+
+        private static Object newInstance(MethodHandle constructor, Class<?> targetClass) throws Exception {
+            if (constructor == null) {
+                return targetClass.newInstance();
+            }
+            try {
+                return constructor.invokeExact();
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        T map(ResultSet resultSet) throws Exception {
+            T target = (T) newInstance(entityConstructor, entityClass);
+            Object primaryKeyObject = null;
+            if (primaryKeyClass != null) {
+                primaryKeyObject = newInstance(primaryKeyConstructor, primaryKeyClass);
+                target.setId((Serializable) primaryKeyObject);
+            }
+            ClassUtils.BeanWrapper<T> targetWrapper = valueRendererPresent ? ClassUtils.wrapper(target) : null;
+            for (ColumnBinding binding : bindings) {
+                Object fieldValue = binding.reader.read(resultSet, binding.index);
+                if (binding.valueRenderer) {
+                    fieldValue = IValueRenderer.processValueRenderer(targetWrapper, binding.field, fieldValue);
                 }
+                binding.set(binding.primaryKey ? primaryKeyObject : target, fieldValue);
+            }
+            return target;
+        }
+    }
+
+    static final class ColumnBinding {
+
+        private final int index;
+
+        private final Field field;
+
+        private final MethodHandle setter;
+
+        private final ColumnReader reader;
+
+        private final boolean primaryKey;
+
+        private final boolean valueRenderer;
+
+        ColumnBinding(int index, Field field, ColumnReader reader, boolean primaryKey, boolean valueRenderer) {
+            this.index = index;
+            this.field = field;
+            this.reader = reader;
+            this.primaryKey = primaryKey;
+            this.valueRenderer = valueRenderer;
+            MethodHandle methodHandle = null;
+            try {
+                methodHandle = MethodHandles.lookup().unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class));
+            } catch (IllegalAccessException ignored) {
+                // final成员无法生成赋值句柄, 仍通过反射处理
+            }
+            this.setter = methodHandle;
+        }
+
+        void set(Object target, Object value) throws IllegalAccessException {
+            if (setter == null) {
+                field.set(target, value);
+                return;
+            }
+            try {
+                setter.invokeExact(target, value);
+            } catch (ClassCastException | NullPointerException e) {
+                // 与反射赋值保持一致, 类型不匹配或为基本类型赋空值时抛出IllegalArgumentException
+                throw new IllegalArgumentException(String.format("Can not set %s field %s.%s: %s", field.getType().getName(), field.getDeclaringClass().getName(), field.getName(), e.getMessage()), e);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
             }
         }
-        return targetWrapper.getTargetObject();
     }
 }
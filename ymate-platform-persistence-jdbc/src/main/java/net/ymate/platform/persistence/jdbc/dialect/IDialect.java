@@ -22,6 +22,7 @@ import net.ymate.platform.core.persistence.IShardingable;
 import net.ymate.platform.core.persistence.base.EntityMeta;
 import net.ymate.platform.core.persistence.base.IEntity;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.List;
@@ -110,6 +111,21 @@ public interface IDialect {
      */
     Map<String, Object> getGeneratedKey(Statement statement, List<String> autoincrementKeys) throws SQLException;
 
+    /**
+     * 为以游标方式(流式)读取结果集设置语句对象及连接参数, 如: MySQL需设置fetchSize为Integer.MIN_VALUE, PostgreSQL需关闭自动提交等
+     *
+     * @param connection 数据库连接对象(对其自动提交状态的修改将在游标关闭时恢复)
+     * @param statement  语句对象
+     * @param fetchSize  每次从数据库获取的记录数, 小于等于0表示采用默认值
+     * @throws SQLException 可能产生的异常
+     * @since 2.1.3
+     */
+    default void prepareCursorStatement(Connection connection, Statement statement, int fetchSize) throws SQLException {
+        if (fetchSize > 0) {
+            statement.setFetchSize(fetchSize);
+        }
+    }
+
     /**
      * 获取下一序列值的SQL语句
      *
@@ -18,6 +18,11 @@ package net.ymate.platform.persistence.jdbc.dialect.impl;
 import net.ymate.platform.core.persistence.base.Type;
 import net.ymate.platform.persistence.jdbc.annotation.Dialect;
 import net.ymate.platform.persistence.jdbc.dialect.AbstractDialect;
+import org.apache.commons.lang3.StringUtils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
 
 /**
  * MySQL数据库方言接口实现
@@ -35,4 +40,15 @@ public class MySQLDialect extends AbstractDialect {
     public String getName() {
         return Type.DATABASE.MYSQL;
     }
+
+    @Override
+    public void prepareCursorStatement(Connection connection, Statement statement, int fetchSize) throws SQLException {
+        // MySQL驱动仅在fetchSize为Integer.MIN_VALUE时逐行流式读取(否则将一次性加载全部结果),
+        // 若连接已开启useCursorFetch则采用服务端游标并按指定数量分批读取
+        if (fetchSize > 0 && StringUtils.containsIgnoreCase(connection.getMetaData().getURL(), "useCursorFetch=true")) {
+            statement.setFetchSize(fetchSize);
+        } else {
+            statement.setFetchSize(Integer.MIN_VALUE);
+        }
+    }
 }
@@ -19,6 +19,10 @@ import net.ymate.platform.core.persistence.base.Type;
 import net.ymate.platform.persistence.jdbc.annotation.Dialect;
 import net.ymate.platform.persistence.jdbc.dialect.AbstractDialect;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
 /**
  * PostgreSQL数据库方言接口实现
  *
@@ -27,6 +31,8 @@ import net.ymate.platform.persistence.jdbc.dialect.AbstractDialect;
 @Dialect(value = Type.DATABASE.POSTGRESQL, driverClass = "org.postgresql.Driver")
 public class PostgreSQLDialect extends AbstractDialect {
 
+    private static final int DEFAULT_CURSOR_FETCH_SIZE = 1000;
+
     public PostgreSQLDialect() {
         super("\"", "\"");
     }
@@ -45,4 +51,12 @@ public class PostgreSQLDialect extends AbstractDialect {
         return String.format("%s LIMIT %d OFFSET %d", originSql, pageSize, limit);
     }
 
+    @Override
+    public void prepareCursorStatement(Connection connection, Statement statement, int fetchSize) throws SQLException {
+        // PostgreSQL驱动仅在关闭自动提交且fetchSize大于0时才会采用服务端游标分批读取
+        if (connection.getAutoCommit()) {
+            connection.setAutoCommit(false);
+        }
+        statement.setFetchSize(fetchSize > 0 ? fetchSize : DEFAULT_CURSOR_FETCH_SIZE);
+    }
 }
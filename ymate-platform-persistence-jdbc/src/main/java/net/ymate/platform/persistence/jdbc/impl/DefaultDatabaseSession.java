@@ -124,7 +124,9 @@ public class DefaultDatabaseSession extends AbstractSession<IDatabaseConnectionH
             }
         }
         //
-        owner.getOwner().getEvents().fireEvent(new DatabaseEvent(owner, event).setEventSource(eventContext));
+        if (owner.getOwner().getEvents().hasListeners(DatabaseEvent.class)) {
+            owner.getOwner().getEvents().fireEvent(new DatabaseEvent(owner, event).setEventSource(eventContext));
+        }
     }
 
     private String doForUpdateIfNeed(String sqlStr, IDBLocker dbLocker) {
@@ -290,6 +292,39 @@ public class DefaultDatabaseSession extends AbstractSession<IDatabaseConnectionH
         return queryOperator.getResultSet().isEmpty() ? null : queryOperator.getResultSet().get(0);
     }
 
+    private <T> IResultSetCursor<T> doOpenCursor(Params params, IQueryOperator<T> queryOperator, int fetchSize) throws Exception {
+        if (params != null && !params.params().isEmpty()) {
+            params.params().forEach(queryOperator::addParameter);
+        }
+        SessionEventContext eventContext = new SessionEventContext(queryOperator, Type.OPT.QUERY);
+        if (getSessionEventListener() != null) {
+            getSessionEventListener().onQueryBefore(eventContext);
+        }
+        IResultSetCursor<T> cursor = queryOperator.openCursor(fetchSize);
+        if (getSessionEventListener() != null) {
+            getSessionEventListener().onQueryAfter(eventContext);
+        }
+        if (owner.getOwner().getEvents().hasListeners(DatabaseEvent.class)) {
+            owner.getOwner().getEvents().fireEvent(new DatabaseEvent(owner, DatabaseEvent.EVENT.QUERY_AFTER).setEventSource(eventContext));
+        }
+        return cursor;
+    }
+
+    @Override
+    public <T> IResultSetCursor<T> openCursor(SQL sql, IResultSetHandler<T> handler, int fetchSize) throws Exception {
+        return doOpenCursor(sql.params(), new DefaultQueryOperator<>(sql.toString(), connectionHolder, handler), fetchSize);
+    }
+
+    @Override
+    public <T extends IEntity> IResultSetCursor<T> openCursor(EntitySQL<T> entity, Where where, int fetchSize) throws Exception {
+        String sqlStr = dialect.buildSelectSql(entity.entityClass(), tablePrefix, entity.shardingable(), doGetNotExcludedFields(EntityMeta.load(entity.entityClass()), entity.fields(), false, true));
+        if (where != null) {
+            sqlStr = sqlStr.concat(StringUtils.SPACE).concat(where.toString());
+        }
+        IQueryOperator<T> queryOperator = new DefaultQueryOperator<>(doForUpdateIfNeed(sqlStr, entity.forUpdate()), this.connectionHolder, new EntityResultSetHandler<>(entity.entityClass()));
+        return doOpenCursor(where != null ? where.params() : null, queryOperator, fetchSize);
+    }
+
     @Override
     public <T> T findFirst(SQL sql, IResultSetHandler<T> handler) throws Exception {
         String sqlStr = dialect.buildPagedQuerySql(sql.toString(), 1, 1);
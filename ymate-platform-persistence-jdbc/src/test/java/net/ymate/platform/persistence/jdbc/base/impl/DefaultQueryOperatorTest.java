@@ -0,0 +1,179 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.base.impl;
+
+import net.ymate.platform.persistence.jdbc.IDatabaseConnectionHolder;
+import net.ymate.platform.persistence.jdbc.IDatabaseDataSourceConfig;
+import net.ymate.platform.persistence.jdbc.base.AbstractResultSetHandler;
+import net.ymate.platform.persistence.jdbc.base.IResultSetCursor;
+import net.ymate.platform.persistence.jdbc.base.IResultSetHandler;
+import net.ymate.platform.persistence.jdbc.dialect.impl.H2Dialect;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author 刘镇 (suninformation@163.com) on 2024/10/20 16:42
+ * @since 2.1.3
+ */
+public class DefaultQueryOperatorTest {
+
+    private static final int ROW_COUNT = 100_000;
+
+    private Connection connection;
+
+    private final List<Statement> statements = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:cursor_test;LAZY_QUERY_EXECUTION=TRUE", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE t_item (id INT PRIMARY KEY, name VARCHAR(32))");
+            statement.execute("INSERT INTO t_item SELECT X, CONCAT('item_', X) FROM SYSTEM_RANGE(1, " + ROW_COUNT + ")");
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    private IDatabaseConnectionHolder createConnectionHolder() {
+        // 记录由操作器创建的语句对象, 用于检查游标关闭后是否被释放
+        Connection trackedConnection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+            Object result = method.invoke(connection, args);
+            if (result instanceof Statement) {
+                statements.add((Statement) result);
+            }
+            return result;
+        });
+        IDatabaseDataSourceConfig dataSourceConfig = (IDatabaseDataSourceConfig) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{IDatabaseDataSourceConfig.class}, (proxy, method, args) -> method.getReturnType() == boolean.class ? false : null);
+        H2Dialect dialect = new H2Dialect();
+        return (IDatabaseConnectionHolder) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{IDatabaseConnectionHolder.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getConnection":
+                    return trackedConnection;
+                case "getDialect":
+                    return dialect;
+                case "getDataSourceConfig":
+                    return dataSourceConfig;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    @Test
+    public void openCursor() throws Exception {
+        CountingHandler handler = new CountingHandler();
+        DefaultQueryOperator<Object[]> operator = new DefaultQueryOperator<>("SELECT id, name FROM t_item ORDER BY id", createConnectionHolder(), handler);
+        IResultSetCursor<Object[]> cursor = operator.openCursor(100);
+        assertEquals(1, statements.size());
+        Statement statement = statements.get(0);
+        // 打开游标时不应预先处理任何行
+        assertEquals(0, handler.rows.get());
+        int count = 0;
+        while (cursor.hasNext()) {
+            Object[] row = cursor.next();
+            count++;
+            // 每次迭代仅处理当前一行数据
+            assertEquals(count, handler.rows.get());
+            assertEquals(count, ((Number) row[0]).intValue());
+            if (count == 10) {
+                assertFalse(statement.isClosed());
+            }
+        }
+        assertEquals(ROW_COUNT, count);
+        assertEquals(ROW_COUNT, cursor.getFetchedCount());
+        // 遍历结束后自动关闭游标并释放语句对象
+        assertTrue(cursor.isClosed());
+        assertTrue(statement.isClosed());
+        assertFalse(connection.isClosed());
+    }
+
+    @Test
+    public void closeCursorEarly() throws Exception {
+        DefaultQueryOperator<Object[]> operator = new DefaultQueryOperator<>("SELECT id, name FROM t_item", createConnectionHolder(), new CountingHandler());
+        IResultSetCursor<Object[]> cursor = operator.openCursor(0);
+        Statement statement = statements.get(0);
+        cursor.next();
+        cursor.next();
+        cursor.close();
+        assertTrue(cursor.isClosed());
+        assertTrue(statement.isClosed());
+        assertFalse(cursor.hasNext());
+        assertEquals(2, cursor.getFetchedCount());
+        // 重复关闭无副作用
+        cursor.close();
+        try {
+            operator.openCursor(0);
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+    }
+
+    @Test
+    public void streamClosesCursor() throws Exception {
+        DefaultQueryOperator<Object[]> operator = new DefaultQueryOperator<>("SELECT id, name FROM t_item", createConnectionHolder(), new CountingHandler());
+        IResultSetCursor<Object[]> cursor = operator.openCursor(500);
+        try (Stream<Object[]> stream = cursor.stream()) {
+            assertEquals(5, stream.limit(5).count());
+        }
+        assertTrue(cursor.isClosed());
+        assertTrue(statements.get(0).isClosed());
+    }
+
+    @Test
+    public void unsupportedHandler() throws Exception {
+        IResultSetHandler<Object[]> handler = resultSet -> Collections.emptyList();
+        DefaultQueryOperator<Object[]> operator = new DefaultQueryOperator<>("SELECT id, name FROM t_item", createConnectionHolder(), handler);
+        try {
+            operator.openCursor(0);
+            fail();
+        } catch (UnsupportedOperationException ignored) {
+        }
+        // 不支持逐行处理时不应执行查询
+        assertTrue(statements.isEmpty());
+    }
+
+    private static class CountingHandler extends AbstractResultSetHandler<Object[]> {
+
+        private final AtomicInteger rows = new AtomicInteger();
+
+        @Override
+        protected Object[] processResultRow(ResultSet resultSet) throws Exception {
+            rows.incrementAndGet();
+            Object[] row = new Object[getColumnCount()];
+            for (int idx = 0; idx < getColumnCount(); idx++) {
+                row[idx] = resultSet.getObject(idx + 1);
+            }
+            return row;
+        }
+    }
+}
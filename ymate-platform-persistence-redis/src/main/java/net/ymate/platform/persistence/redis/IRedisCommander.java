@@ -71,6 +71,22 @@ public interface IRedisCommander extends BinaryJedisClusterCommands, MultiKeyBin
      */
     Object getOriginJedis();
 
+    /**
+     * 打开批量命令管道(集群模式下将按槽位自动分组至对应节点), 使用完毕后需关闭
+     *
+     * @return 返回批量命令管道对象
+     * @since 2.1.3
+     */
+    IRedisPipeline openPipeline();
+
+    /**
+     * 打开事务(MULTI/EXEC)批量命令管道, 通过sync方法提交事务, 未提交而关闭时将放弃事务; 集群模式下事务内所有键须位于同一槽位, 分片模式不支持
+     *
+     * @return 返回事务批量命令管道对象
+     * @since 2.1.3
+     */
+    IRedisPipeline openTransaction();
+
     @Override
     @Deprecated
     default String restore(byte[] key, int ttl, byte[] serializedValue) {
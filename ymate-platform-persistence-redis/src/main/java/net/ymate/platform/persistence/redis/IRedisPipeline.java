@@ -0,0 +1,110 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.redis;
+
+import net.ymate.platform.core.beans.annotation.Ignored;
+import redis.clients.jedis.PipelineBase;
+import redis.clients.jedis.Response;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Redis批量命令管道接口, 命令在提交前仅进入队列, 由sync方法一次性发送并读取全部响应, 从而避免逐条命令的网络往返
+ * <p>
+ * 示例:
+ * <pre>
+ * try (IRedisPipeline pipeline = commander.openPipeline()) {
+ *     Response&lt;String&gt; result = pipeline.queue("key", p -&gt; p.set("key", "value"));
+ *     pipeline.sync();
+ *     result.get();
+ * }
+ * </pre>
+ * 集群模式下将根据命令所操作的键自动按槽位分组至对应节点连接, 因此队列命令时必须提供键; 事务模式下所有键须位于同一槽位.
+ *
+ * @author 刘镇 (suninformation@163.com) on 2024/10/12 10:05
+ * @since 2.1.3
+ */
+@Ignored
+public interface IRedisPipeline extends Closeable {
+
+    /**
+     * 判断当前是否为事务(MULTI/EXEC)模式
+     *
+     * @return 若是则返回true
+     */
+    boolean isTransactional();
+
+    /**
+     * 将命令加入队列
+     *
+     * @param key     命令所操作的键(集群模式下用于计算槽位, 不可为空)
+     * @param command 命令回调, 通过管道对象执行具体命令并返回其响应对象
+     * @param <T>     响应结果类型
+     * @return 返回响应对象, 调用sync方法后方可获取其结果
+     */
+    <T> Response<T> queue(String key, Function<PipelineBase, Response<T>> command);
+
+    /**
+     * 将命令加入队列
+     *
+     * @param key     命令所操作的键(集群模式下用于计算槽位, 不可为空)
+     * @param command 命令回调, 通过管道对象执行具体命令并返回其响应对象
+     * @param <T>     响应结果类型
+     * @return 返回响应对象, 调用sync方法后方可获取其结果
+     */
+    <T> Response<T> queue(byte[] key, Function<PipelineBase, Response<T>> command);
+
+    /**
+     * 将无键命令加入队列(集群模式不支持)
+     *
+     * @param command 命令回调, 通过管道对象执行具体命令并返回其响应对象
+     * @param <T>     响应结果类型
+     * @return 返回响应对象, 调用sync方法后方可获取其结果
+     */
+    default <T> Response<T> queue(Function<PipelineBase, Response<T>> command) {
+        return queue((String) null, command);
+    }
+
+    /**
+     * @return 返回当前队列中尚未提交的命令数量
+     */
+    int getQueuedCount();
+
+    /**
+     * 提交队列中的全部命令并读取响应(事务模式下执行EXEC), 之后可通过各命令的响应对象获取结果
+     */
+    void sync();
+
+    /**
+     * 提交队列中的全部命令并按加入队列的顺序返回全部结果, 执行失败的命令以其异常对象作为结果
+     *
+     * @return 返回结果集合
+     */
+    List<Object> syncAndReturnAll();
+
+    /**
+     * 放弃队列中尚未提交的命令: 事务模式下执行DISCARD; 非事务模式下命令可能已写入连接缓冲区, 将读取并忽略其响应
+     */
+    void discard();
+
+    /**
+     * 关闭管道: 非事务模式下将提交队列中剩余的命令, 事务模式下将放弃尚未提交的命令, 并释放管道占用的连接
+     */
+    @Override
+    void close();
+}
@@ -16,6 +16,7 @@
 package net.ymate.platform.persistence.redis.support;
 
 import net.ymate.platform.persistence.redis.IRedisCommander;
+import net.ymate.platform.persistence.redis.IRedisPipeline;
 import org.apache.commons.lang.NullArgumentException;
 import redis.clients.jedis.*;
 import redis.clients.jedis.args.*;
@@ -3648,4 +3649,13 @@ public class JedisClusterCommander implements IRedisCommander {
         return jedisCluster;
     }
 
+    @Override
+    public IRedisPipeline openPipeline() {
+        return new JedisClusterPipeline(jedisCluster, false);
+    }
+
+    @Override
+    public IRedisPipeline openTransaction() {
+        return new JedisClusterPipeline(jedisCluster, true);
+    }
 }
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.redis.support;
+
+import net.ymate.platform.persistence.redis.IRedisPipeline;
+import org.apache.commons.lang.NullArgumentException;
+import redis.clients.jedis.*;
+import redis.clients.jedis.exceptions.JedisClusterOperationException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.util.JedisClusterCRC16;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 集群模式下的Redis批量命令管道实现, 根据键计算槽位并将命令分组至对应节点的连接管道, 提交时逐节点批量发送并读取响应
+ * <p>
+ * 注意: 若提交期间集群拓扑发生变化, 受影响命令的响应将以重定向异常(MOVED/ASK)形式返回, 需由调用者自行重试.
+ *
+ * @author 刘镇 (suninformation@163.com) on 2024/10/12 11:20
+ * @since 2.1.3
+ */
+public class JedisClusterPipeline implements IRedisPipeline {
+
+    private final JedisCluster jedisCluster;
+
+    private final boolean transactional;
+
+    /**
+     * 槽位与节点管道映射
+     */
+    private final Map<Integer, NodePipeline> slotPipelines = new HashMap<>();
+
+    /**
+     * 节点地址与节点管道映射(多个槽位可能位于同一节点, 共享同一连接)
+     */
+    private final Map<String, NodePipeline> nodePipelines = new LinkedHashMap<>();
+
+    /**
+     * 按加入队列顺序记录的响应对象
+     */
+    private final List<Response<?>> responses = new ArrayList<>();
+
+    private int transactionSlot = -1;
+
+    private boolean closed;
+
+    public JedisClusterPipeline(JedisCluster jedisCluster, boolean transactional) {
+        if (jedisCluster == null) {
+            throw new NullArgumentException("jedisCluster");
+        }
+        this.jedisCluster = jedisCluster;
+        this.transactional = transactional;
+    }
+
+    @Override
+    public boolean isTransactional() {
+        return transactional;
+    }
+
+    @Override
+    public <T> Response<T> queue(String key, Function<PipelineBase, Response<T>> command) {
+        if (key == null) {
+            throw new JedisClusterOperationException("No way to dispatch this command to Redis Cluster because it has no key.");
+        }
+        return doQueue(JedisClusterCRC16.getSlot(key), command);
+    }
+
+    @Override
+    public <T> Response<T> queue(byte[] key, Function<PipelineBase, Response<T>> command) {
+        if (key == null) {
+            throw new JedisClusterOperationException("No way to dispatch this command to Redis Cluster because it has no key.");
+        }
+        return doQueue(JedisClusterCRC16.getSlot(key), command);
+    }
+
+    private <T> Response<T> doQueue(int slot, Function<PipelineBase, Response<T>> command) {
+        if (closed) {
+            throw new IllegalStateException("Pipeline has been closed.");
+        }
+        if (transactional) {
+            if (transactionSlot < 0) {
+                transactionSlot = slot;
+            } else if (transactionSlot != slot) {
+                throw new JedisDataException("CROSSSLOT Keys in transaction don't hash to the same slot.");
+            }
+        }
+        NodePipeline nodePipeline = slotPipelines.get(slot);
+        if (nodePipeline == null) {
+            Jedis jedis = jedisCluster.getConnectionFromSlot(slot);
+            String nodeKey = jedis.getClient().getHost() + ":" + jedis.getClient().getPort();
+            nodePipeline = nodePipelines.get(nodeKey);
+            if (nodePipeline == null) {
+                nodePipeline = new NodePipeline(jedis, transactional);
+                nodePipelines.put(nodeKey, nodePipeline);
+            } else {
+                jedis.close();
+            }
+            slotPipelines.put(slot, nodePipeline);
+        }
+        Response<T> response = command.apply(nodePipeline.pipeline);
+        responses.add(response);
+        return response;
+    }
+
+    @Override
+    public int getQueuedCount() {
+        return responses.size();
+    }
+
+    @Override
+    public void sync() {
+        syncAndReturnAll();
+    }
+
+    @Override
+    public List<Object> syncAndReturnAll() {
+        if (closed) {
+            throw new IllegalStateException("Pipeline has been closed.");
+        }
+        if (responses.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Object> results;
+        if (transactional) {
+            results = ((Transaction) nodePipelines.values().iterator().next().pipeline).exec();
+            closed = true;
+            releaseConnections();
+        } else {
+            for (NodePipeline nodePipeline : nodePipelines.values()) {
+                ((Pipeline) nodePipeline.pipeline).sync();
+            }
+            results = new ArrayList<>(responses.size());
+            for (Response<?> response : responses) {
+                try {
+                    results.add(response.get());
+                } catch (JedisDataException e) {
+                    results.add(e);
+                }
+            }
+        }
+        responses.clear();
+        return results;
+    }
+
+    @Override
+    public void discard() {
+        if (!closed) {
+            if (transactional) {
+                if (!nodePipelines.isEmpty()) {
+                    ((Transaction) nodePipelines.values().iterator().next().pipeline).discard();
+                }
+                closed = true;
+                releaseConnections();
+            } else if (!responses.isEmpty()) {
+                syncAndReturnAll();
+            }
+        }
+        responses.clear();
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            try {
+                if (transactional) {
+                    discard();
+                } else {
+                    sync();
+                }
+            } finally {
+                closed = true;
+                releaseConnections();
+            }
+        }
+    }
+
+    private void releaseConnections() {
+        nodePipelines.values().forEach(nodePipeline -> nodePipeline.jedis.close());
+        nodePipelines.clear();
+        slotPipelines.clear();
+    }
+
+    private static class NodePipeline {
+
+        private final Jedis jedis;
+
+        private final PipelineBase pipeline;
+
+        NodePipeline(Jedis jedis, boolean transactional) {
+            this.jedis = jedis;
+            this.pipeline = transactional ? jedis.multi() : jedis.pipelined();
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package net.ymate.platform.persistence.redis.support;
 
 import net.ymate.platform.persistence.redis.IRedisCommander;
+import net.ymate.platform.persistence.redis.IRedisPipeline;
 import org.apache.commons.lang.NullArgumentException;
 import redis.clients.jedis.*;
 import redis.clients.jedis.args.*;
@@ -3649,4 +3650,14 @@ public class JedisCommander implements IRedisCommander {
     public Object getOriginJedis() {
         return jedis;
     }
+
+    @Override
+    public IRedisPipeline openPipeline() {
+        return new JedisPipeline(jedis.pipelined());
+    }
+
+    @Override
+    public IRedisPipeline openTransaction() {
+        return new JedisPipeline(jedis.multi());
+    }
 }
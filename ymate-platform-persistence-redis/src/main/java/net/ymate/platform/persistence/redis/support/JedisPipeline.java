@@ -0,0 +1,140 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.redis.support;
+
+import net.ymate.platform.persistence.redis.IRedisPipeline;
+import org.apache.commons.lang.NullArgumentException;
+import redis.clients.jedis.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 基于单一连接(或分片连接)的Redis批量命令管道实现, 适用于正常、哨兵及分片模式
+ *
+ * @author 刘镇 (suninformation@163.com) on 2024/10/12 10:48
+ * @since 2.1.3
+ */
+public class JedisPipeline implements IRedisPipeline {
+
+    private final PipelineBase pipeline;
+
+    private int queuedCount;
+
+    private boolean closed;
+
+    public JedisPipeline(Pipeline pipeline) {
+        this((PipelineBase) pipeline);
+    }
+
+    public JedisPipeline(Transaction transaction) {
+        this((PipelineBase) transaction);
+    }
+
+    public JedisPipeline(ShardedJedisPipeline pipeline) {
+        this((PipelineBase) pipeline);
+    }
+
+    private JedisPipeline(PipelineBase pipeline) {
+        if (pipeline == null) {
+            throw new NullArgumentException("pipeline");
+        }
+        this.pipeline = pipeline;
+    }
+
+    @Override
+    public boolean isTransactional() {
+        return pipeline instanceof Transaction;
+    }
+
+    @Override
+    public <T> Response<T> queue(String key, Function<PipelineBase, Response<T>> command) {
+        return doQueue(command);
+    }
+
+    @Override
+    public <T> Response<T> queue(byte[] key, Function<PipelineBase, Response<T>> command) {
+        return doQueue(command);
+    }
+
+    private <T> Response<T> doQueue(Function<PipelineBase, Response<T>> command) {
+        if (closed) {
+            throw new IllegalStateException("Pipeline has been closed.");
+        }
+        Response<T> response = command.apply(pipeline);
+        queuedCount++;
+        return response;
+    }
+
+    @Override
+    public int getQueuedCount() {
+        return queuedCount;
+    }
+
+    @Override
+    public void sync() {
+        syncAndReturnAll();
+    }
+
+    @Override
+    public List<Object> syncAndReturnAll() {
+        if (closed) {
+            throw new IllegalStateException("Pipeline has been closed.");
+        }
+        if (queuedCount == 0 && !isTransactional()) {
+            return Collections.emptyList();
+        }
+        List<Object> results;
+        if (pipeline instanceof Transaction) {
+            Transaction transaction = (Transaction) pipeline;
+            results = transaction.exec();
+            // EXEC之后连接已退出事务状态, 后续命令需在新事务中执行
+            closed = true;
+        } else if (pipeline instanceof Pipeline) {
+            results = ((Pipeline) pipeline).syncAndReturnAll();
+        } else {
+            results = ((ShardedJedisPipeline) pipeline).syncAndReturnAll();
+        }
+        queuedCount = 0;
+        return results;
+    }
+
+    @Override
+    public void discard() {
+        if (pipeline instanceof Transaction) {
+            if (!closed) {
+                ((Transaction) pipeline).discard();
+                closed = true;
+            }
+        } else if (queuedCount > 0) {
+            syncAndReturnAll();
+        }
+        queuedCount = 0;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            if (pipeline instanceof Transaction) {
+                discard();
+            } else {
+                sync();
+                closed = true;
+            }
+        }
+    }
+}
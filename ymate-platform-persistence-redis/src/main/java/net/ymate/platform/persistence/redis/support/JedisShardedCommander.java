@@ -16,6 +16,7 @@
 package net.ymate.platform.persistence.redis.support;
 
 import net.ymate.platform.persistence.redis.IRedisCommander;
+import net.ymate.platform.persistence.redis.IRedisPipeline;
 import org.apache.commons.lang.NullArgumentException;
 import redis.clients.jedis.*;
 import redis.clients.jedis.args.*;
@@ -3646,4 +3647,14 @@ public class JedisShardedCommander implements IRedisCommander {
     public Object getOriginJedis() {
         return shardedJedis;
     }
+
+    @Override
+    public IRedisPipeline openPipeline() {
+        return new JedisPipeline(shardedJedis.pipelined());
+    }
+
+    @Override
+    public IRedisPipeline openTransaction() {
+        throw new UnsupportedOperationException();
+    }
 }
@@ -21,7 +21,7 @@ import net.ymate.platform.commons.impl.DefaultSpeedListener;
 import net.ymate.platform.commons.impl.DefaultThreadFactory;
 import net.ymate.platform.commons.util.DateTimeUtils;
 import net.ymate.platform.commons.util.ThreadUtils;
-import net.ymate.platform.serv.impl.DefaultSessionIdleChecker;
+import net.ymate.platform.serv.impl.HashedWheelSessionIdleChecker;
 import net.ymate.platform.serv.nio.INioCodec;
 import net.ymate.platform.serv.nio.INioSession;
 import org.apache.commons.lang.NullArgumentException;
@@ -198,6 +198,9 @@ public abstract class AbstractSessionManager<SESSION_WRAPPER extends ISessionWra
      */
     protected void putSessionWrapper(SESSION_ID sessionId, SESSION_WRAPPER sessionWrapper) {
         sessionWrappers.put(sessionId, sessionWrapper);
+        if (idleTimeInMillis > 0 && idleChecker != null && idleChecker.isInitialized()) {
+            idleChecker.sessionRegistered(sessionWrapper, idleTimeInMillis);
+        }
     }
 
     /**
@@ -207,7 +210,11 @@ public abstract class AbstractSessionManager<SESSION_WRAPPER extends ISessionWra
      * @return 返回被移除的会话对象, 若不存在则返回null
      */
     protected SESSION_WRAPPER removeSessionWrapper(SESSION_ID sessionId) {
-        return sessionWrappers.remove(sessionId);
+        SESSION_WRAPPER sessionWrapper = sessionWrappers.remove(sessionId);
+        if (sessionWrapper != null && idleChecker != null && idleChecker.isInitialized()) {
+            idleChecker.sessionRemoved(sessionWrapper);
+        }
+        return sessionWrapper;
     }
 
     /**
@@ -238,6 +245,15 @@ public abstract class AbstractSessionManager<SESSION_WRAPPER extends ISessionWra
                 }
             }
         }
+        // 空闲检查器需在服务启动前完成初始化, 以便接收全部会话注册事件
+        if (idleTimeInMillis > 0) {
+            if (idleChecker == null) {
+                idleChecker = new HashedWheelSessionIdleChecker<>();
+            }
+            if (!idleChecker.isInitialized()) {
+                idleChecker.initialize(this);
+            }
+        }
         server.start();
         if (speedometer == null && speedListener != null) {
             if (interval > 0) {
@@ -252,14 +268,7 @@ public abstract class AbstractSessionManager<SESSION_WRAPPER extends ISessionWra
                     .start(speedListener != null ? speedListener : new DefaultSpeedListener(speedometer));
         }
         //
-        if (idleTimeInMillis > 0) {
-            if (idleChecker == null) {
-                idleChecker = new DefaultSessionIdleChecker<>();
-            }
-            if (!idleChecker.isInitialized()) {
-                idleChecker.initialize(this);
-            }
-            //
+        if (idleTimeInMillis > 0 && idleChecker.isPeriodic()) {
             idleCheckExecutorService = ThreadUtils.newScheduledThreadPool(1, DefaultThreadFactory.create(String.format("%sServer-SessionIdleChecker", StringUtils.capitalize(StringUtils.defaultIfBlank(serverCfg.getServerName(), server.listener().getClass().getSimpleName())))));
             idleCheckExecutorService.scheduleWithFixedDelay(() -> idleChecker.processIdleSession(sessionWrappers, idleTimeInMillis), DateTimeUtils.SECOND, DateTimeUtils.SECOND, TimeUnit.MILLISECONDS);
         }
@@ -276,5 +285,8 @@ public abstract class AbstractSessionManager<SESSION_WRAPPER extends ISessionWra
         if (server != null && server.isStarted()) {
             server.close();
         }
+        if (idleChecker != null && idleChecker.isInitialized()) {
+            idleChecker.close();
+        }
     }
 }
@@ -85,6 +85,17 @@ public interface IListener<SESSION extends INioSession> {
      */
     void onExceptionCaught(Throwable e, SESSION session) throws IOException;
 
+    /**
+     * 会话可写状态变化事件处理方法, 当待发送数据量超过写缓冲区高水位线时变为不可写, 回落至低水位线以下时恢复为可写
+     *
+     * @param writable 当前是否可写
+     * @param session  会话对象
+     * @throws IOException 可能产生的异常
+     * @since 2.1.3
+     */
+    default void onWritabilityChanged(boolean writable, SESSION session) throws IOException {
+    }
+
     /**
      * 断线重连事件处理方法
      *
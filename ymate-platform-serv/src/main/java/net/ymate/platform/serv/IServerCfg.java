@@ -15,6 +15,7 @@
  */
 package net.ymate.platform.serv;
 
+import javax.net.ssl.SSLContext;
 import java.util.Map;
 
 /**
@@ -94,6 +95,62 @@ public interface IServerCfg {
      */
     int getSelectorCount();
 
+    /**
+     * 获取接收连接的选择器数量(仅对TCP协议有效), 大于1时将在支持SO_REUSEPORT的平台上为每个接收器绑定独立的监听通道, 由内核在多个接收器间分配新连接, 其值不超过选择器数量, 默认为 1
+     *
+     * @return 返回接收器数量
+     * @since 2.1.3
+     */
+    int getAcceptorCount();
+
+    /**
+     * 获取监听通道等待接收的连接队列长度(仅对TCP协议有效), 默认为 1024
+     *
+     * @return 返回连接队列长度
+     * @since 2.1.3
+     */
+    int getBacklog();
+
+    /**
+     * 是否按会话顺序分发消息(同一会话接收到的消息将严格按接收顺序依次处理), 默认为 false
+     *
+     * @return 返回true表示按会话顺序分发消息
+     * @since 2.1.3
+     */
+    boolean isOrderedDispatch();
+
+    /**
+     * 获取按会话顺序分发消息时每个会话等待处理的消息队列大小, 队列满时将暂停读取该会话数据, 默认为 256
+     *
+     * @return 返回会话消息队列大小
+     * @since 2.1.3
+     */
+    int getSessionQueueSize();
+
+    /**
+     * 获取写缓冲区高水位线(字节), 会话待发送数据量超过该值时将被标记为不可写, 默认为 65536
+     *
+     * @return 返回写缓冲区高水位线
+     * @since 2.1.3
+     */
+    int getWriteBufferHighWaterMark();
+
+    /**
+     * 获取写缓冲区低水位线(字节), 不可写的会话待发送数据量回落至该值以下时将恢复为可写, 默认为 32768
+     *
+     * @return 返回写缓冲区低水位线
+     * @since 2.1.3
+     */
+    int getWriteBufferLowWaterMark();
+
+    /**
+     * 获取用于建立TLS安全连接的SSL上下文对象, 为空表示不启用TLS(仅对TCP协议有效)
+     *
+     * @return 返回SSL上下文对象
+     * @since 2.1.3
+     */
+    SSLContext getSslContext();
+
     /**
      * 获取 服务端自定义参数映射
      *
@@ -56,4 +56,33 @@ public interface ISessionIdleChecker<SESSION_WRAPPER extends ISessionWrapper<?,
      * @param idleTimeInMillis 会话空闲时间毫秒值
      */
     void processIdleSession(Map<SESSION_ID, SESSION_WRAPPER> sessions, long idleTimeInMillis);
+
+    /**
+     * 是否需要由会话管理器周期性(每秒)调用processIdleSession方法执行全量空闲会话检查
+     *
+     * @return 返回false表示由检查器自行调度, 此时将通过sessionRegistered和sessionRemoved方法获取会话变化
+     * @since 2.1.3
+     */
+    default boolean isPeriodic() {
+        return true;
+    }
+
+    /**
+     * 会话注册到会话管理器后调用
+     *
+     * @param sessionWrapper   会话包装器对象
+     * @param idleTimeInMillis 会话空闲时间毫秒值
+     * @since 2.1.3
+     */
+    default void sessionRegistered(SESSION_WRAPPER sessionWrapper, long idleTimeInMillis) {
+    }
+
+    /**
+     * 会话从会话管理器中移除后调用
+     *
+     * @param sessionWrapper 会话包装器对象
+     * @since 2.1.3
+     */
+    default void sessionRemoved(SESSION_WRAPPER sessionWrapper) {
+    }
 }
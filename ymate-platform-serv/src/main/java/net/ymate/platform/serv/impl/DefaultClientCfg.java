@@ -18,6 +18,7 @@ package net.ymate.platform.serv.impl;
 import net.ymate.platform.serv.IClientCfg;
 import org.apache.commons.lang3.StringUtils;
 
+import javax.net.ssl.SSLContext;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -49,6 +50,16 @@ public final class DefaultClientCfg implements IClientCfg {
 
     private int heartbeatInterval;
 
+    private boolean orderedDispatch;
+
+    private int sessionQueueSize;
+
+    private int writeBufferHighWaterMark;
+
+    private int writeBufferLowWaterMark;
+
+    private SSLContext sslContext;
+
     private final Map<String, String> params = new HashMap<>();
 
     private DefaultClientCfg() {
@@ -99,6 +110,31 @@ public final class DefaultClientCfg implements IClientCfg {
         return heartbeatInterval;
     }
 
+    @Override
+    public boolean isOrderedDispatch() {
+        return orderedDispatch;
+    }
+
+    @Override
+    public int getSessionQueueSize() {
+        return sessionQueueSize;
+    }
+
+    @Override
+    public int getWriteBufferHighWaterMark() {
+        return writeBufferHighWaterMark;
+    }
+
+    @Override
+    public int getWriteBufferLowWaterMark() {
+        return writeBufferLowWaterMark;
+    }
+
+    @Override
+    public SSLContext getSslContext() {
+        return sslContext;
+    }
+
     @Override
     public Map<String, String> getParams() {
         return Collections.unmodifiableMap(params);
@@ -169,6 +205,31 @@ public final class DefaultClientCfg implements IClientCfg {
             return this;
         }
 
+        public Builder orderedDispatch(boolean orderedDispatch) {
+            clientCfg.orderedDispatch = orderedDispatch;
+            return this;
+        }
+
+        public Builder sessionQueueSize(int sessionQueueSize) {
+            clientCfg.sessionQueueSize = sessionQueueSize;
+            return this;
+        }
+
+        public Builder writeBufferHighWaterMark(int writeBufferHighWaterMark) {
+            clientCfg.writeBufferHighWaterMark = writeBufferHighWaterMark;
+            return this;
+        }
+
+        public Builder writeBufferLowWaterMark(int writeBufferLowWaterMark) {
+            clientCfg.writeBufferLowWaterMark = writeBufferLowWaterMark;
+            return this;
+        }
+
+        public Builder sslContext(SSLContext sslContext) {
+            clientCfg.sslContext = sslContext;
+            return this;
+        }
+
         public Builder params(String key, String value) {
             clientCfg.params.put(key, value);
             return this;
@@ -18,6 +18,7 @@ package net.ymate.platform.serv.impl;
 import net.ymate.platform.serv.IServerCfg;
 import org.apache.commons.lang3.StringUtils;
 
+import javax.net.ssl.SSLContext;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -51,6 +52,20 @@ public final class DefaultServerCfg implements IServerCfg {
 
     private int selectorCount;
 
+    private int acceptorCount;
+
+    private int backlog;
+
+    private boolean orderedDispatch;
+
+    private int sessionQueueSize;
+
+    private int writeBufferHighWaterMark;
+
+    private int writeBufferLowWaterMark;
+
+    private SSLContext sslContext;
+
     private final Map<String, String> params = new HashMap<>();
 
     private DefaultServerCfg() {
@@ -106,6 +121,41 @@ public final class DefaultServerCfg implements IServerCfg {
         return selectorCount;
     }
 
+    @Override
+    public int getAcceptorCount() {
+        return acceptorCount;
+    }
+
+    @Override
+    public int getBacklog() {
+        return backlog;
+    }
+
+    @Override
+    public boolean isOrderedDispatch() {
+        return orderedDispatch;
+    }
+
+    @Override
+    public int getSessionQueueSize() {
+        return sessionQueueSize;
+    }
+
+    @Override
+    public int getWriteBufferHighWaterMark() {
+        return writeBufferHighWaterMark;
+    }
+
+    @Override
+    public int getWriteBufferLowWaterMark() {
+        return writeBufferLowWaterMark;
+    }
+
+    @Override
+    public SSLContext getSslContext() {
+        return sslContext;
+    }
+
     @Override
     public Map<String, String> getParams() {
         return Collections.unmodifiableMap(params);
@@ -181,6 +231,41 @@ public final class DefaultServerCfg implements IServerCfg {
             return this;
         }
 
+        public Builder acceptorCount(int acceptorCount) {
+            serverCfg.acceptorCount = acceptorCount;
+            return this;
+        }
+
+        public Builder backlog(int backlog) {
+            serverCfg.backlog = backlog;
+            return this;
+        }
+
+        public Builder orderedDispatch(boolean orderedDispatch) {
+            serverCfg.orderedDispatch = orderedDispatch;
+            return this;
+        }
+
+        public Builder sessionQueueSize(int sessionQueueSize) {
+            serverCfg.sessionQueueSize = sessionQueueSize;
+            return this;
+        }
+
+        public Builder writeBufferHighWaterMark(int writeBufferHighWaterMark) {
+            serverCfg.writeBufferHighWaterMark = writeBufferHighWaterMark;
+            return this;
+        }
+
+        public Builder writeBufferLowWaterMark(int writeBufferLowWaterMark) {
+            serverCfg.writeBufferLowWaterMark = writeBufferLowWaterMark;
+            return this;
+        }
+
+        public Builder sslContext(SSLContext sslContext) {
+            serverCfg.sslContext = sslContext;
+            return this;
+        }
+
         public Builder params(String key, String value) {
             serverCfg.params.put(key, value);
             return this;
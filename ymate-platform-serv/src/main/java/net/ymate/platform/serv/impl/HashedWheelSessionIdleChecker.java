@@ -0,0 +1,190 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.serv.impl;
+
+import net.ymate.platform.commons.impl.DefaultThreadFactory;
+import net.ymate.platform.serv.ISessionIdleChecker;
+import net.ymate.platform.serv.ISessionManager;
+import net.ymate.platform.serv.ISessionWrapper;
+import net.ymate.platform.serv.support.HashedWheelTimer;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于哈希时间轮的会话空闲检查器: 为每个会话注册一个在其可能到达空闲时间时触发的定时任务, 触发时若会话仍处于活动状态则按剩余时间重新注册,
+ * 会话活动(touch)本身不涉及任何定时任务操作, 避免了每秒对全部会话的遍历
+ *
+ * @param <SESSION_WRAPPER> 会话包装类型
+ * @param <SESSION_ID>      会话标识类型
+ * @param <MESSAGE_TYPE>    消息类型
+ * @author 刘镇 (suninformation@163.com) on 2024/10/16 11:05
+ * @since 2.1.3
+ */
+public class HashedWheelSessionIdleChecker<SESSION_WRAPPER extends ISessionWrapper<?, ?>, SESSION_ID extends Serializable, MESSAGE_TYPE> implements ISessionIdleChecker<SESSION_WRAPPER, SESSION_ID, MESSAGE_TYPE> {
+
+    private final Map<Object, IdleTask> idleTasks = new ConcurrentHashMap<>();
+
+    private final long tickDuration;
+
+    private final int ticksPerWheel;
+
+    private ISessionManager<SESSION_WRAPPER, SESSION_ID, MESSAGE_TYPE> sessionManager;
+
+    private volatile HashedWheelTimer timer;
+
+    private boolean initialized;
+
+    public HashedWheelSessionIdleChecker() {
+        this(100, 512);
+    }
+
+    /**
+     * @param tickDuration  时间轮每次推进的时间间隔(毫秒)
+     * @param ticksPerWheel 时间轮槽位数量
+     */
+    public HashedWheelSessionIdleChecker(long tickDuration, int ticksPerWheel) {
+        this.tickDuration = tickDuration;
+        this.ticksPerWheel = ticksPerWheel;
+    }
+
+    @Override
+    public void initialize(ISessionManager<SESSION_WRAPPER, SESSION_ID, MESSAGE_TYPE> sessionManager) {
+        this.sessionManager = sessionManager;
+        this.timer = new HashedWheelTimer(DefaultThreadFactory.create("SessionIdleChecker-Wheel-"), tickDuration, TimeUnit.MILLISECONDS, ticksPerWheel);
+        initialized = true;
+    }
+
+    @Override
+    public ISessionManager<SESSION_WRAPPER, SESSION_ID, MESSAGE_TYPE> getSessionManager() {
+        return sessionManager;
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    @Override
+    public boolean isPeriodic() {
+        return false;
+    }
+
+    @Override
+    public void processIdleSession(Map<SESSION_ID, SESSION_WRAPPER> sessions, long idleTimeInMillis) {
+        // 由时间轮驱动, 无需全量检查
+    }
+
+    @Override
+    public void sessionRegistered(SESSION_WRAPPER sessionWrapper, long idleTimeInMillis) {
+        if (initialized && sessionWrapper.getId() != null) {
+            IdleTask idleTask = new IdleTask(sessionWrapper, idleTimeInMillis);
+            IdleTask prevTask = idleTasks.put(sessionWrapper.getId(), idleTask);
+            if (prevTask != null) {
+                prevTask.cancel();
+            }
+            idleTask.schedule(idleTask.threshold);
+        }
+    }
+
+    @Override
+    public void sessionRemoved(SESSION_WRAPPER sessionWrapper) {
+        if (sessionWrapper.getId() != null) {
+            IdleTask idleTask = idleTasks.remove(sessionWrapper.getId());
+            if (idleTask != null) {
+                idleTask.cancel();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (initialized) {
+            initialized = false;
+            HashedWheelTimer currentTimer = timer;
+            timer = null;
+            currentTimer.close();
+            idleTasks.clear();
+            sessionManager = null;
+        }
+    }
+
+    /**
+     * 会话空闲检查任务, 每个会话仅创建一次, 重新调度时复用
+     */
+    private final class IdleTask implements Runnable {
+
+        private final SESSION_WRAPPER sessionWrapper;
+
+        private final long threshold;
+
+        private volatile HashedWheelTimer.Timeout timeout;
+
+        private volatile boolean cancelled;
+
+        IdleTask(SESSION_WRAPPER sessionWrapper, long idleTimeInMillis) {
+            this.sessionWrapper = sessionWrapper;
+            // 判断时将设置的空闲时间毫秒值扩大10%(与DefaultSessionIdleChecker保持一致)
+            this.threshold = (long) (idleTimeInMillis + idleTimeInMillis * 0.1);
+        }
+
+        void schedule(long delay) {
+            HashedWheelTimer currentTimer = timer;
+            if (currentTimer != null && !cancelled) {
+                try {
+                    timeout = currentTimer.newTimeout(this, delay, TimeUnit.MILLISECONDS);
+                } catch (IllegalStateException ignored) {
+                    // 检查器已关闭
+                }
+                if (cancelled) {
+                    cancel();
+                }
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            HashedWheelTimer.Timeout currentTimeout = timeout;
+            if (currentTimeout != null) {
+                currentTimeout.cancel();
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void run() {
+            ISessionManager<SESSION_WRAPPER, SESSION_ID, MESSAGE_TYPE> manager = sessionManager;
+            if (cancelled || manager == null) {
+                return;
+            }
+            if (manager.sessionWrapper((SESSION_ID) sessionWrapper.getId()) != sessionWrapper) {
+                idleTasks.remove(sessionWrapper.getId(), this);
+                return;
+            }
+            long elapsed = System.currentTimeMillis() - sessionWrapper.getLastTouchTime();
+            if (elapsed >= threshold) {
+                idleTasks.remove(sessionWrapper.getId(), this);
+                //
+                manager.closeSessionWrapper(sessionWrapper);
+                manager.getSessionListener().onSessionIdleRemoved(sessionWrapper);
+            } else {
+                schedule(threshold - elapsed);
+            }
+        }
+    }
+}
@@ -20,9 +20,12 @@ import net.ymate.platform.commons.util.ThreadUtils;
 import net.ymate.platform.serv.IClientCfg;
 import net.ymate.platform.serv.IListener;
 import net.ymate.platform.serv.IServerCfg;
+import net.ymate.platform.serv.nio.support.ByteBufferPool;
 import org.apache.commons.lang.NullArgumentException;
 import org.apache.commons.lang3.StringUtils;
 
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
 import java.io.IOException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionHandler;
@@ -48,6 +51,8 @@ public abstract class AbstractNioEventGroup<CODEC extends INioCodec, LISTENER ex
 
     private int bufferSize = 4096;
 
+    private final ByteBufferPool bufferPool;
+
     private int executorCount;
 
     private long keepAliveTime;
@@ -58,6 +63,16 @@ public abstract class AbstractNioEventGroup<CODEC extends INioCodec, LISTENER ex
 
     private int connectionTimeout = 30;
 
+    private boolean orderedDispatch;
+
+    private int sessionQueueSize = 256;
+
+    private int writeBufferHighWaterMark = 64 * 1024;
+
+    private int writeBufferLowWaterMark = 32 * 1024;
+
+    private final SSLContext sslContext;
+
     private boolean started;
 
     private boolean server;
@@ -67,6 +82,8 @@ public abstract class AbstractNioEventGroup<CODEC extends INioCodec, LISTENER ex
         if (cfg.getBufferSize() > 0) {
             bufferSize = cfg.getBufferSize();
         }
+        sslContext = cfg.getSslContext();
+        bufferPool = new ByteBufferPool(buildBufferPoolChunkSize());
         executorCount = cfg.getExecutorCount();
         if (executorCount <= 0) {
             executorCount = Runtime.getRuntime().availableProcessors();
@@ -80,6 +97,11 @@ public abstract class AbstractNioEventGroup<CODEC extends INioCodec, LISTENER ex
         if (threadQueueSize <= 0) {
             threadQueueSize = 1024;
         }
+        orderedDispatch = cfg.isOrderedDispatch();
+        if (cfg.getSessionQueueSize() > 0) {
+            sessionQueueSize = cfg.getSessionQueueSize();
+        }
+        initWriteBufferWaterMark(cfg.getWriteBufferHighWaterMark(), cfg.getWriteBufferLowWaterMark());
         //
         this.codec = codec;
         this.listener = listener;
@@ -92,9 +114,16 @@ public abstract class AbstractNioEventGroup<CODEC extends INioCodec, LISTENER ex
         if (cfg.getBufferSize() > 0) {
             bufferSize = cfg.getBufferSize();
         }
+        sslContext = cfg.getSslContext();
+        bufferPool = new ByteBufferPool(buildBufferPoolChunkSize());
         //
         executorCount = threadMaxPoolSize = Math.max(cfg.getExecutorCount(), 1);
         threadQueueSize = Integer.MAX_VALUE;
+        orderedDispatch = cfg.isOrderedDispatch();
+        if (cfg.getSessionQueueSize() > 0) {
+            sessionQueueSize = cfg.getSessionQueueSize();
+        }
+        initWriteBufferWaterMark(cfg.getWriteBufferHighWaterMark(), cfg.getWriteBufferLowWaterMark());
         //
         this.codec = codec;
         this.listener = listener;
@@ -105,6 +134,29 @@ public abstract class AbstractNioEventGroup<CODEC extends INioCodec, LISTENER ex
         session = sessionCreate(cfg);
     }
 
+    /**
+     * 启用TLS时TLS记录的解密/加密缓冲区同样由缓冲区池分配, 因此缓冲区块大小需能够容纳一个完整的TLS记录
+     */
+    private int buildBufferPoolChunkSize() {
+        if (sslContext == null) {
+            return bufferSize;
+        }
+        SSLSession sslSession = sslContext.createSSLEngine().getSession();
+        return Math.max(bufferSize, Math.max(sslSession.getPacketBufferSize(), sslSession.getApplicationBufferSize()));
+    }
+
+    private void initWriteBufferWaterMark(int highWaterMark, int lowWaterMark) {
+        if (highWaterMark > 0) {
+            writeBufferHighWaterMark = highWaterMark;
+        }
+        if (lowWaterMark > 0) {
+            writeBufferLowWaterMark = lowWaterMark;
+        }
+        if (writeBufferLowWaterMark > writeBufferHighWaterMark) {
+            writeBufferLowWaterMark = writeBufferHighWaterMark >> 1;
+        }
+    }
+
     protected String buildThreadNamePrefix(String suffix) {
         if (StringUtils.isBlank(name)) {
             throw new NullArgumentException(isServer() ? "serverName" : "clientName");
@@ -196,6 +248,11 @@ public abstract class AbstractNioEventGroup<CODEC extends INioCodec, LISTENER ex
         return bufferSize;
     }
 
+    @Override
+    public ByteBufferPool bufferPool() {
+        return bufferPool;
+    }
+
     @Override
     public int executorCount() {
         return executorCount;
@@ -206,6 +263,31 @@ public abstract class AbstractNioEventGroup<CODEC extends INioCodec, LISTENER ex
         return connectionTimeout;
     }
 
+    @Override
+    public boolean isOrderedDispatch() {
+        return orderedDispatch;
+    }
+
+    @Override
+    public int sessionQueueSize() {
+        return sessionQueueSize;
+    }
+
+    @Override
+    public int writeBufferHighWaterMark() {
+        return writeBufferHighWaterMark;
+    }
+
+    @Override
+    public int writeBufferLowWaterMark() {
+        return writeBufferLowWaterMark;
+    }
+
+    @Override
+    public SSLContext sslContext() {
+        return sslContext;
+    }
+
     @Override
     public ExecutorService executorService() {
         return executorService;
@@ -25,7 +25,9 @@ import java.io.IOException;
 import java.nio.channels.*;
 import java.util.Iterator;
 import java.util.Queue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * @param <LISTENER> 监听器类型
@@ -35,9 +37,20 @@ public abstract class AbstractNioEventProcessor<LISTENER extends IListener<INioS
 
     private static final Log LOG = LogFactory.getLog(AbstractNioEventProcessor.class);
 
-    private final Queue<Object[]> registeredQueues = new LinkedBlockingQueue<>();
+    /**
+     * 单次接收事件最多接收的连接数量, 避免连接风暴时长期阻塞其它通道事件
+     */
+    private static final int MAX_ACCEPTS_PER_EVENT = 64;
+
+    /**
+     * 待执行任务队列(如通道注册、会话关闭等): 多线程无锁入队, 仅由当前事件处理器线程出队执行
+     */
+    private final Queue<Runnable> taskQueue = new ConcurrentLinkedQueue<>();
 
-    private final Queue<INioSession> closedQueues = new LinkedBlockingQueue<>();
+    /**
+     * 是否已唤醒选择器, 用于合并多个线程的唤醒请求
+     */
+    private final AtomicBoolean wakenUp = new AtomicBoolean();
 
     private final INioEventGroup<LISTENER> eventGroup;
 
@@ -45,13 +58,19 @@ public abstract class AbstractNioEventProcessor<LISTENER extends IListener<INioS
 
     private final long selectTimeout;
 
-    private boolean running;
+    private volatile boolean running;
 
+    /**
+     * @param name          线程名称
+     * @param eventGroup    事件组
+     * @param selectTimeout 选择器等待超时时间(毫秒), 小于等于0表示一直等待直至有事件到达或被唤醒
+     * @throws IOException 可能产生的I/O异常
+     */
     public AbstractNioEventProcessor(String name, INioEventGroup<LISTENER> eventGroup, long selectTimeout) throws IOException {
         super(name);
         this.eventGroup = eventGroup;
         selector = Selector.open();
-        this.selectTimeout = selectTimeout <= 0 ? 500L : selectTimeout;
+        this.selectTimeout = Math.max(selectTimeout, 0L);
     }
 
     @Override
@@ -67,8 +86,13 @@ public abstract class AbstractNioEventProcessor<LISTENER extends IListener<INioS
     public void run() {
         try {
             while (running) {
-                selector.select(selectTimeout);
-                processRegisteredQueues();
+                wakenUp.set(false);
+                if (!taskQueue.isEmpty()) {
+                    selector.selectNow();
+                } else {
+                    selector.select(selectTimeout);
+                }
+                runTasks();
                 Iterator<SelectionKey> keyIterator = selector.selectedKeys().iterator();
                 while (keyIterator.hasNext()) {
                     SelectionKey selectionKey = keyIterator.next();
@@ -88,12 +112,12 @@ public abstract class AbstractNioEventProcessor<LISTENER extends IListener<INioS
                             } else if (selectionKey.isWritable()) {
                                 onWriteEvent(selectionKey);
                             }
-                        } catch (IOException e) {
+                        } catch (IOException | RuntimeException e) {
+                            // 单个会话处理过程中的运行时异常同样仅关闭该会话, 避免事件处理器线程退出而导致其它会话停滞
                             onExceptionEvent(selectionKey, e);
                         }
                     }
                 }
-                processClosedQueues();
             }
         } catch (IOException e) {
             if (running) {
@@ -110,6 +134,7 @@ public abstract class AbstractNioEventProcessor<LISTENER extends IListener<INioS
     public void interrupt() {
         try {
             running = false;
+            selector.wakeup();
             join();
             selector.close();
         } catch (IOException | InterruptedException e) {
@@ -125,6 +150,24 @@ public abstract class AbstractNioEventProcessor<LISTENER extends IListener<INioS
         interrupt();
     }
 
+    /**
+     * 提交由当前事件处理器线程执行的任务, 任务将在下一次选择操作后按提交顺序执行
+     *
+     * @param task 任务
+     * @since 2.1.3
+     */
+    public void execute(Runnable task) {
+        taskQueue.offer(task);
+        wakeup();
+    }
+
+    @Override
+    public void wakeup() {
+        if (Thread.currentThread() != this && wakenUp.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+    }
+
     @Override
     public void registerEvent(SelectableChannel channel, int ops, INioSession session) throws IOException {
         if (Thread.currentThread() == this) {
@@ -139,55 +182,52 @@ public abstract class AbstractNioEventProcessor<LISTENER extends IListener<INioS
                 eventGroup.listener().onSessionRegistered(session);
             }
         } else {
-            registeredQueues.offer(new Object[]{channel, ops, session});
-            selector.wakeup();
+            execute(() -> {
+                if (!channel.isOpen()) {
+                    return;
+                }
+                try {
+                    SelectionKey selectionKey = channel.register(selector, ops, session);
+                    if (session != null) {
+                        session.selectionKey(selectionKey);
+                        session.status(INioSession.Status.CONNECTED);
+                        //
+                        eventGroup.listener().onSessionRegistered(session);
+                    }
+                } catch (IOException e) {
+                    if (LOG.isErrorEnabled()) {
+                        LOG.error(StringUtils.EMPTY, RuntimeUtils.unwrapThrow(e));
+                    }
+                }
+            });
         }
     }
 
     @Override
     public void unregisterEvent(INioSession session) {
-        if (closedQueues.contains(session)) {
-            return;
-        }
-        closedQueues.add(session);
-        selector.wakeup();
-    }
-
-    @Override
-    public Selector selector() {
-        return selector;
-    }
-
-    private void processRegisteredQueues() {
-        Object[] element;
-        while ((element = registeredQueues.poll()) != null) {
+        // 会话关闭操作是幂等的, 重复提交无需去重
+        execute(() -> {
             try {
-                SelectableChannel channel = (SelectableChannel) element[0];
-                if (!channel.isOpen()) {
-                    continue;
-                }
-                INioSession session = (INioSession) element[2];
-                SelectionKey selectionKey = channel.register(selector, (Integer) element[1], session);
-                if (session != null) {
-                    session.selectionKey(selectionKey);
-                    session.status(INioSession.Status.CONNECTED);
-                    //
-                    eventGroup.listener().onSessionRegistered(session);
-                }
+                session.closeNow();
             } catch (IOException e) {
                 if (LOG.isErrorEnabled()) {
                     LOG.error(StringUtils.EMPTY, RuntimeUtils.unwrapThrow(e));
                 }
             }
-        }
+        });
+    }
+
+    @Override
+    public Selector selector() {
+        return selector;
     }
 
-    private void processClosedQueues() {
-        INioSession session;
-        while ((session = closedQueues.poll()) != null) {
+    private void runTasks() {
+        Runnable task;
+        while ((task = taskQueue.poll()) != null) {
             try {
-                session.closeNow();
-            } catch (IOException e) {
+                task.run();
+            } catch (RuntimeException e) {
                 if (LOG.isErrorEnabled()) {
                     LOG.error(StringUtils.EMPTY, RuntimeUtils.unwrapThrow(e));
                 }
@@ -211,15 +251,21 @@ public abstract class AbstractNioEventProcessor<LISTENER extends IListener<INioS
         } else {
             session.status(INioSession.Status.ERROR);
         }
-        eventGroup.executorService().submit(() -> {
-            try {
-                eventGroup.listener().onExceptionCaught(e, session);
-            } catch (IOException ex) {
-                if (LOG.isErrorEnabled()) {
-                    LOG.error(StringUtils.EMPTY, RuntimeUtils.unwrapThrow(ex));
+        try {
+            eventGroup.executorService().submit(() -> {
+                try {
+                    eventGroup.listener().onExceptionCaught(e, session);
+                } catch (IOException ex) {
+                    if (LOG.isErrorEnabled()) {
+                        LOG.error(StringUtils.EMPTY, RuntimeUtils.unwrapThrow(ex));
+                    }
                 }
+            });
+        } catch (RejectedExecutionException ex) {
+            if (LOG.isWarnEnabled()) {
+                LOG.warn(StringUtils.EMPTY, RuntimeUtils.unwrapThrow(e));
             }
-        });
+        }
         if (session != null) {
             try {
                 session.close();
@@ -240,13 +286,39 @@ public abstract class AbstractNioEventProcessor<LISTENER extends IListener<INioS
      */
     protected abstract INioSession buildNioSession(INioEventGroup<LISTENER> eventGroup, SelectableChannel channel);
 
-    private void onAcceptedEvent(SelectionKey key) throws IOException {
-        SocketChannel channel = ((ServerSocketChannel) key.channel()).accept();
-        channel.configureBlocking(false);
-        INioSession session = buildNioSession(eventGroup, channel);
-        session.selectionKey(key);
-        session.status(INioSession.Status.CONNECTED);
-        eventGroup.listener().onSessionAccepted(session);
+    private void onAcceptedEvent(SelectionKey key) {
+        ServerSocketChannel serverChannel = (ServerSocketChannel) key.channel();
+        for (int idx = 0; idx < MAX_ACCEPTS_PER_EVENT; idx++) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (IOException e) {
+                // 接收失败(如文件句柄耗尽)不应导致监听通道被关闭, 等待下次接收事件重试
+                if (LOG.isWarnEnabled()) {
+                    LOG.warn(StringUtils.EMPTY, RuntimeUtils.unwrapThrow(e));
+                }
+                break;
+            }
+            if (channel == null) {
+                break;
+            }
+            try {
+                channel.configureBlocking(false);
+                INioSession session = buildNioSession(eventGroup, channel);
+                session.selectionKey(key);
+                session.status(INioSession.Status.CONNECTED);
+                eventGroup.listener().onSessionAccepted(session);
+            } catch (IOException e) {
+                if (LOG.isWarnEnabled()) {
+                    LOG.warn(StringUtils.EMPTY, RuntimeUtils.unwrapThrow(e));
+                }
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // 忽略关闭异常
+                }
+            }
+        }
     }
 
     private void onConnectedEvent(SelectionKey key) throws IOException {
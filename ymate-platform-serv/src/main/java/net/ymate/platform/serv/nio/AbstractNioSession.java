@@ -21,6 +21,9 @@ import net.ymate.platform.serv.IListener;
 import net.ymate.platform.serv.nio.support.ByteBufferBuilder;
 import net.ymate.platform.serv.nio.support.NioEventProcessor;
 import net.ymate.platform.serv.nio.support.NioSession;
+import net.ymate.platform.serv.nio.support.PooledByteBuffer;
+import net.ymate.platform.serv.nio.support.SerialExecutor;
+import net.ymate.platform.serv.nio.support.SslHandler;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -28,13 +31,19 @@ import org.apache.commons.logging.LogFactory;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
 import java.nio.channels.DatagramChannel;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 /**
  * @param <LISTENER> 监听器类型
@@ -46,13 +55,35 @@ public abstract class AbstractNioSession<LISTENER extends IListener<INioSession>
 
     private static final Log LOG = LogFactory.getLog(NioSession.class);
 
+    /**
+     * 单次聚集写操作最多提交的缓冲区数量
+     */
+    private static final int MAX_GATHERING_SIZE = 64;
+
     private final String id = UUIDUtils.UUID();
 
     private long lastTouchTime = System.currentTimeMillis();
 
     private final ConcurrentMap<String, Object> attributes = new ConcurrentHashMap<>();
 
-    private final Queue<ByteBuffer> byteBufferQueue = new LinkedBlockingQueue<>();
+    /**
+     * 待发送数据队列: 多线程无锁入队, 仅由事件处理器线程出队写入通道
+     */
+    private final Queue<ByteBuffer> byteBufferQueue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 待发送数据字节数
+     */
+    private final AtomicLong pendingWriteBytes = new AtomicLong();
+
+    private final AtomicBoolean writable = new AtomicBoolean(true);
+
+    /**
+     * 最近一次通知监听器的可写状态
+     */
+    private final AtomicBoolean notifiedWritable = new AtomicBoolean(true);
+
+    private ByteBuffer[] gatheringBuffers;
 
     private final CountDownLatch countDownLatch = new CountDownLatch(1);
 
@@ -62,12 +93,42 @@ public abstract class AbstractNioSession<LISTENER extends IListener<INioSession>
 
     private SelectionKey selectionKey;
 
+    /**
+     * 当前选择键所属的事件处理器(首次使用时根据选择键查找)
+     */
+    private NioEventProcessor<?> eventProcessor;
+
     private ByteBufferBuilder bufferBuilder;
 
-    private Status status;
+    /**
+     * 尚未完成解码的剩余数据(写模式, 有效数据位于[0, position)区间)
+     */
+    private PooledByteBuffer pendingBuffer;
+
+    private volatile Status status;
 
     private final boolean udp;
 
+    /**
+     * 按会话顺序分发消息时使用的串行执行器(首次分发消息时创建)
+     */
+    private volatile SerialExecutor serialExecutor;
+
+    /**
+     * 会话状态锁: 关注事件可能同时被发送线程、恢复读取的工作线程及事件处理器线程修改, 其读-改-写过程及读取暂停状态的变更均须在此锁内完成, 以免丢失变更
+     */
+    private final Object lock = new Object();
+
+    /**
+     * 是否因会话消息队列已满而暂停读取
+     */
+    private volatile boolean readSuspended;
+
+    /**
+     * TLS处理器(启用TLS时于首次读写时创建)
+     */
+    private volatile SslHandler sslHandler;
+
     public AbstractNioSession(INioEventGroup<LISTENER> eventGroup, SelectableChannel channel) {
         this.eventGroup = eventGroup;
         this.channel = channel;
@@ -133,6 +194,11 @@ public abstract class AbstractNioSession<LISTENER extends IListener<INioSession>
         this.bufferBuilder = bufferBuilder;
     }
 
+    @Override
+    public boolean isWritable() {
+        return writable.get();
+    }
+
     @Override
     public boolean isUdp() {
         return udp;
@@ -174,11 +240,10 @@ public abstract class AbstractNioSession<LISTENER extends IListener<INioSession>
         if (selectionKey == null) {
             return;
         }
-        NioEventProcessor<?> eventProcessor = eventGroup.processor(selectionKey);
+        NioEventProcessor<?> eventProcessor = eventProcessor();
         if (eventProcessor != null) {
             eventGroup.listener().onBeforeSessionClosed(this);
             eventProcessor.unregisterEvent(this);
-            selectionKey.selector().wakeup();
         }
     }
 
@@ -187,15 +252,32 @@ public abstract class AbstractNioSession<LISTENER extends IListener<INioSession>
         if (status() == Status.CLOSED) {
             return;
         }
+        NioEventProcessor<?> processor = eventProcessor();
+        boolean inEventLoop = processor == null || processor == Thread.currentThread();
+        if (!inEventLoop && processor.isAlive()) {
+            // 读写过程(剩余数据缓冲区、TLS处理器等)仅在事件处理器线程中进行, 为避免竞争, 其它线程发起的关闭操作统一转交至事件处理器线程执行
+            processor.unregisterEvent(this);
+            return;
+        }
         status(Status.CLOSED);
         if (selectionKey != null) {
             selectionKey.cancel();
             selectionKey = null;
         }
+        SslHandler handler = sslHandler;
+        if (handler != null && channel != null) {
+            handler.close((SocketChannel) channel);
+        }
         if (channel != null) {
             channel.close();
         }
-        eventGroup.executorService().submit(() -> {
+        PooledByteBuffer pendingBuf = pendingBuffer;
+        pendingBuffer = null;
+        // 仅在事件处理器线程中归还剩余数据缓冲区, 事件处理器已停止而由其它线程直接关闭时交由GC回收
+        if (pendingBuf != null && inEventLoop) {
+            pendingBuf.release();
+        }
+        Runnable closedTask = () -> {
             try {
                 eventGroup.listener().onAfterSessionClosed(AbstractNioSession.this);
             } catch (IOException ex) {
@@ -203,7 +285,14 @@ public abstract class AbstractNioSession<LISTENER extends IListener<INioSession>
                     LOG.error(StringUtils.EMPTY, RuntimeUtils.unwrapThrow(ex));
                 }
             }
-        });
+        };
+        // 顺序分发模式下会话关闭事件需排在尚未处理的消息之后
+        SerialExecutor executor = serialExecutor;
+        if (executor != null) {
+            executor.execute(closedTask);
+        } else {
+            eventGroup.executorService().submit(closedTask);
+        }
     }
 
     @Override
@@ -221,6 +310,34 @@ public abstract class AbstractNioSession<LISTENER extends IListener<INioSession>
         return selectionKey;
     }
 
+    /**
+     * @return 返回当前选择键所属的事件处理器, 若会话尚未注册则返回null
+     * @since 2.1.3
+     */
+    protected NioEventProcessor<?> eventProcessor() {
+        SelectionKey key = selectionKey;
+        if (key == null) {
+            return null;
+        }
+        NioEventProcessor<?> processor = eventProcessor;
+        if (processor == null || processor.selector() != key.selector()) {
+            processor = eventProcessor = eventGroup.processor(key);
+        }
+        return processor;
+    }
+
+    /**
+     * 唤醒事件处理器使关注事件的变化立即生效, 多个线程的唤醒请求将被合并
+     */
+    private void wakeup(SelectionKey key) {
+        NioEventProcessor<?> processor = eventProcessor();
+        if (processor != null) {
+            processor.wakeup();
+        } else {
+            key.selector().wakeup();
+        }
+    }
+
     @Override
     public boolean connectSync(long time) {
         try {
@@ -240,6 +357,11 @@ public abstract class AbstractNioSession<LISTENER extends IListener<INioSession>
 
     //
 
+    /**
+     * @param buffer 缓冲区
+     * @deprecated 自2.1.3版本起读取过程基于缓冲区池实现, 剩余数据由processReceived方法自行管理
+     */
+    @Deprecated
     protected void bufferReset(ByteBufferBuilder buffer) {
         if (buffer != null && buffer.remaining() > 0) {
             int len = buffer.remaining();
@@ -251,8 +373,129 @@ public abstract class AbstractNioSession<LISTENER extends IListener<INioSession>
         }
     }
 
+    /**
+     * @return 返回当前会话的串行执行器, 若未开启按会话顺序分发消息则返回null
+     * @since 2.1.3
+     */
+    protected SerialExecutor serialExecutor() {
+        SerialExecutor executor = serialExecutor;
+        if (executor == null && eventGroup.isOrderedDispatch()) {
+            synchronized (lock) {
+                executor = serialExecutor;
+                if (executor == null) {
+                    executor = serialExecutor = new SerialExecutor(eventGroup.executorService(), eventGroup.sessionQueueSize(), this::resumeRead);
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * @return 返回true表示当前会话已暂停读取
+     * @since 2.1.3
+     */
+    protected boolean isReadSuspended() {
+        return readSuspended;
+    }
+
+    /**
+     * 暂停读取会话数据(取消关注读事件), 直至会话消息队列回落至容量的一半
+     *
+     * @since 2.1.3
+     */
+    protected void suspendRead() {
+        SerialExecutor executor = serialExecutor;
+        if (executor == null) {
+            return;
+        }
+        synchronized (lock) {
+            if (readSuspended || !executor.isFull()) {
+                return;
+            }
+            SelectionKey key = selectionKey;
+            if (key == null || !key.isValid()) {
+                return;
+            }
+            readSuspended = true;
+            interestOps(key, 0, SelectionKey.OP_READ);
+            // 设置暂停标识前消息可能已被处理完毕, 此时恢复监听器不会被再次触发, 故需重新检查
+            if (executor.isBelowLowWaterMark()) {
+                readSuspended = false;
+                interestOps(key, SelectionKey.OP_READ, 0);
+            }
+        }
+    }
+
+    /**
+     * 恢复读取会话数据
+     *
+     * @since 2.1.3
+     */
+    protected void resumeRead() {
+        if (!readSuspended) {
+            return;
+        }
+        synchronized (lock) {
+            if (!readSuspended) {
+                return;
+            }
+            readSuspended = false;
+            SelectionKey key = selectionKey;
+            if (interestOps(key, SelectionKey.OP_READ, 0)) {
+                wakeup(key);
+            }
+        }
+    }
+
+    /**
+     * 修改当前会话选择键关注的事件
+     *
+     * @param add    需增加关注的事件
+     * @param remove 需取消关注的事件
+     * @return 若选择键有效且已完成修改则返回true
+     * @since 2.1.3
+     */
+    protected boolean interestOps(int add, int remove) {
+        return interestOps(selectionKey, add, remove);
+    }
+
+    private boolean interestOps(SelectionKey key, int add, int remove) {
+        if (key == null) {
+            return false;
+        }
+        synchronized (lock) {
+            if (!key.isValid()) {
+                return false;
+            }
+            try {
+                int ops = key.interestOps();
+                int newOps = (ops & ~remove) | add;
+                if (readSuspended) {
+                    newOps &= ~SelectionKey.OP_READ;
+                }
+                if (newOps != ops) {
+                    key.interestOps(newOps);
+                }
+                return true;
+            } catch (CancelledKeyException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return 返回当前会话的TLS处理器, 若未启用TLS则返回null
+     * @since 2.1.3
+     */
+    protected SslHandler sslHandler() {
+        if (sslHandler == null && !udp && eventGroup.sslContext() != null) {
+            sslHandler = SslHandler.create(eventGroup.sslContext(), !eventGroup.isServer(), remoteSocketAddress(), eventGroup.bufferPool(), received -> processReceived(received, null));
+        }
+        return sslHandler;
+    }
+
     protected void postMessageReceived(final Object message) {
-        eventGroup.executorService().submit(() -> {
+        Runnable task = () -> {
             try {
                 eventGroup.listener().onMessageReceived(message, AbstractNioSession.this);
             } catch (IOException e) {
@@ -268,65 +511,176 @@ public abstract class AbstractNioSession<LISTENER extends IListener<INioSession>
                     }
                 }
             }
-        });
+        };
+        SerialExecutor executor = serialExecutor();
+        if (executor != null) {
+            executor.execute(task);
+            if (executor.isFull()) {
+                suspendRead();
+            }
+        } else {
+            eventGroup.executorService().submit(task);
+        }
+    }
+
+    /**
+     * 对新接收的数据进行解码并提交解码后的消息: 若不存在上次剩余的数据则直接在接收缓冲区上解码(无复制), 否则将新数据追加至剩余数据后再解码;
+     * 解码后不足一个完整消息的剩余数据将被保存至从缓冲区池中申请的缓冲区, 等待后续数据到达
+     *
+     * @param received       新接收的数据(读模式), 方法返回后其内容不再被引用
+     * @param messageWrapper 消息包装函数, 可以为空
+     * @throws IOException 解码过程中出现的异常(如帧长度超出限制)将被包装为IO异常
+     */
+    protected void processReceived(ByteBuffer received, Function<Object, Object> messageWrapper) throws IOException {
+        // 仅读取一次剩余数据缓冲区字段, 处理过程中通过局部变量维护, 结束时(包括发生异常时)再写回
+        PooledByteBuffer pendingBuf = pendingBuffer;
+        try {
+            ByteBuffer source = received;
+            if (pendingBuf != null) {
+                ByteBuffer pending = pendingBuf.buffer();
+                if (pending.remaining() < received.remaining()) {
+                    PooledByteBuffer newBuffer = eventGroup.bufferPool().allocate(Math.max(pending.position() + received.remaining(), pending.capacity() << 1));
+                    pending.flip();
+                    newBuffer.buffer().put(pending);
+                    pendingBuf.release();
+                    pendingBuf = newBuffer;
+                    pending = newBuffer.buffer();
+                }
+                pending.put(received);
+                pending.flip();
+                source = pending;
+            }
+            ByteBufferBuilder sourceBuilder = ByteBufferBuilder.wrap(source);
+            while (source.hasRemaining()) {
+                sourceBuilder.mark();
+                Object message;
+                try {
+                    message = eventGroup.codec().decode(sourceBuilder);
+                } catch (RuntimeException e) {
+                    throw new IOException(e.getMessage(), e);
+                }
+                if (message == null) {
+                    sourceBuilder.reset();
+                    break;
+                }
+                postMessageReceived(messageWrapper != null ? messageWrapper.apply(message) : message);
+            }
+            if (source.hasRemaining()) {
+                if (source == received) {
+                    pendingBuf = eventGroup.bufferPool().allocate(Math.max(received.remaining(), eventGroup.bufferSize()));
+                    pendingBuf.buffer().put(received);
+                } else {
+                    source.compact();
+                }
+            } else if (pendingBuf != null) {
+                pendingBuf.release();
+                pendingBuf = null;
+            }
+        } finally {
+            pendingBuffer = pendingBuf;
+        }
     }
 
     @Override
     public void read() throws IOException {
-        if (bufferBuilder == null) {
-            bufferBuilder = ByteBufferBuilder.allocate(eventGroup.bufferSize());
+        SslHandler handler = sslHandler();
+        if (handler != null) {
+            sslRead(handler);
+            return;
         }
-        ByteBuffer buffer = ByteBuffer.allocate(eventGroup.bufferSize());
-        int len;
-        while ((len = ((SocketChannel) channel()).read(buffer)) > 0) {
-            buffer.flip();
-            bufferBuilder.append(buffer.array(), buffer.position(), buffer.remaining());
-            buffer.clear();
+        PooledByteBuffer readBuffer = eventGroup.bufferPool().allocateDirect(eventGroup.bufferSize());
+        try {
+            ByteBuffer buffer = readBuffer.buffer();
+            int len;
+            do {
+                len = ((SocketChannel) channel()).read(buffer);
+                if (buffer.position() > 0) {
+                    buffer.flip();
+                    processReceived(buffer, null);
+                    buffer.clear();
+                }
+            } while (len > 0 && !readSuspended);
+            if (len < 0) {
+                close();
+            }
+        } finally {
+            readBuffer.release();
         }
+    }
+
+    private void sslRead(SslHandler handler) throws IOException {
+        SocketChannel socketChannel = (SocketChannel) channel();
+        int len;
+        do {
+            len = handler.read(socketChannel);
+        } while (len > 0 && !readSuspended);
         if (len < 0) {
             close();
             return;
         }
-        ByteBufferBuilder copiedBuffer = bufferBuilder.duplicate().flip();
-        while (true) {
-            copiedBuffer.mark();
-            Object message;
-            if (copiedBuffer.remaining() > 0) {
-                message = eventGroup.codec().decode(copiedBuffer);
-            } else {
-                message = null;
-            }
-            if (message == null) {
-                copiedBuffer.reset();
-                bufferReset(copiedBuffer);
-                break;
-            } else {
-                postMessageReceived(message);
-            }
+        // 存在未发送完的握手数据, 或握手刚完成且已有待发送数据时需关注写事件
+        if (handler.hasPendingOutput() || handler.isHandshakeFinished() && !byteBufferQueue.isEmpty()) {
+            interestOps(SelectionKey.OP_WRITE, 0);
         }
     }
 
     @Override
     public void write() throws IOException {
-        synchronized (byteBufferQueue) {
-            while (true) {
-                ByteBuffer buffer = byteBufferQueue.peek();
-                if (buffer == null) {
-                    if (selectionKey != null) {
-                        selectionKey.interestOps(SelectionKey.OP_READ);
-                    }
-                    break;
-                } else {
-                    int len = ((SocketChannel) channel()).write(buffer);
-                    if (len == 0 && buffer.remaining() > 0) {
-                        break;
-                    }
-                    if (buffer.remaining() == 0) {
-                        byteBufferQueue.remove();
+        GatheringByteChannel gatheringChannel = (GatheringByteChannel) channel();
+        SslHandler handler = sslHandler();
+        if (handler != null) {
+            if (!handler.isHandshakeFinished()) {
+                handler.handshake(gatheringChannel);
+                if (!handler.isHandshakeFinished()) {
+                    // 握手期间待发送数据暂留在队列中, 等待握手完成后再加密发送
+                    if (handler.hasPendingOutput()) {
+                        interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE, 0);
                     } else {
-                        break;
+                        interestOps(SelectionKey.OP_READ, SelectionKey.OP_WRITE);
                     }
+                    return;
                 }
+            } else if (!handler.flush(gatheringChannel)) {
+                return;
+            }
+        }
+        if (gatheringBuffers == null) {
+            gatheringBuffers = new ByteBuffer[MAX_GATHERING_SIZE];
+        }
+        while (true) {
+            int count = 0;
+            for (ByteBuffer buffer : byteBufferQueue) {
+                gatheringBuffers[count++] = buffer;
+                if (count == MAX_GATHERING_SIZE) {
+                    break;
+                }
+            }
+            if (count == 0) {
+                interestOps(SelectionKey.OP_READ, SelectionKey.OP_WRITE);
+                // 取消关注写事件的同时可能有新数据入队, 需重新检查以免其滞留
+                if (!byteBufferQueue.isEmpty()) {
+                    interestOps(SelectionKey.OP_WRITE, 0);
+                }
+                break;
+            }
+            long len;
+            if (handler != null) {
+                len = handler.write(gatheringChannel, gatheringBuffers, 0, count);
+            } else {
+                len = count == 1 ? gatheringChannel.write(gatheringBuffers[0]) : gatheringChannel.write(gatheringBuffers, 0, count);
+            }
+            int completed = 0;
+            while (completed < count && !gatheringBuffers[completed].hasRemaining()) {
+                byteBufferQueue.poll();
+                completed++;
+            }
+            Arrays.fill(gatheringBuffers, 0, count, null);
+            if (len > 0) {
+                decrementPendingWriteBytes(len);
+            }
+            if (completed < count || handler != null && handler.hasPendingOutput()) {
+                // 通道发送缓冲区已满, 等待下次写事件
+                break;
             }
         }
     }
@@ -336,14 +690,58 @@ public abstract class AbstractNioSession<LISTENER extends IListener<INioSession>
         if (selectionKey() != null) {
             ByteBufferBuilder msgBuffer = eventGroup.codec().encode(message);
             if (msgBuffer != null) {
-                if (byteBufferQueue.offer(msgBuffer.buffer())) {
-                    selectionKey.interestOps(selectionKey.interestOps() | SelectionKey.OP_WRITE);
-                    selectionKey.selector().wakeup();
+                ByteBuffer buffer = msgBuffer.buffer();
+                incrementPendingWriteBytes(buffer.remaining());
+                SelectionKey key = selectionKey;
+                if (byteBufferQueue.offer(buffer) && interestOps(key, SelectionKey.OP_WRITE, 0)) {
+                    wakeup(key);
                 }
             }
         }
     }
 
+    private void incrementPendingWriteBytes(long size) {
+        if (pendingWriteBytes.addAndGet(size) > eventGroup.writeBufferHighWaterMark() && writable.compareAndSet(true, false)) {
+            // 与写入线程竞争时待发送数据可能已回落至低水位线以下, 需重新检查以免会话一直保持不可写状态
+            if (pendingWriteBytes.get() < eventGroup.writeBufferLowWaterMark()) {
+                writable.compareAndSet(false, true);
+            }
+            postWritabilityChanged();
+        }
+    }
+
+    private void decrementPendingWriteBytes(long size) {
+        if (pendingWriteBytes.addAndGet(-size) < eventGroup.writeBufferLowWaterMark() && writable.compareAndSet(false, true)) {
+            if (pendingWriteBytes.get() > eventGroup.writeBufferHighWaterMark()) {
+                writable.compareAndSet(true, false);
+            }
+            postWritabilityChanged();
+        }
+    }
+
+    private void postWritabilityChanged() {
+        Runnable task = () -> {
+            // 仅通知与上次通知不同的当前状态: 多次快速变化将被合并, 顺序分发模式下通知必然交替出现且最后一次通知与最终状态一致
+            boolean current = writable.get();
+            if (!notifiedWritable.compareAndSet(!current, current)) {
+                return;
+            }
+            try {
+                eventGroup.listener().onWritabilityChanged(current, AbstractNioSession.this);
+            } catch (IOException e) {
+                if (LOG.isWarnEnabled()) {
+                    LOG.warn(StringUtils.EMPTY, RuntimeUtils.unwrapThrow(e));
+                }
+            }
+        };
+        SerialExecutor executor = serialExecutor();
+        if (executor != null) {
+            executor.execute(task);
+        } else {
+            eventGroup.executorService().submit(task);
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
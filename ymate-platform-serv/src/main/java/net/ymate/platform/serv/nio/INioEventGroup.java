@@ -16,8 +16,10 @@
 package net.ymate.platform.serv.nio;
 
 import net.ymate.platform.serv.IListener;
+import net.ymate.platform.serv.nio.support.ByteBufferPool;
 import net.ymate.platform.serv.nio.support.NioEventProcessor;
 
+import javax.net.ssl.SSLContext;
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.channels.SelectionKey;
@@ -101,6 +103,14 @@ public interface INioEventGroup<LISTENER extends IListener<INioSession>> extends
      */
     int bufferSize();
 
+    /**
+     * 缓冲区池
+     *
+     * @return 返回缓冲区池对象
+     * @since 2.1.3
+     */
+    ByteBufferPool bufferPool();
+
     /**
      * 执行线程数量
      *
@@ -115,6 +125,46 @@ public interface INioEventGroup<LISTENER extends IListener<INioSession>> extends
      */
     int connectionTimeout();
 
+    /**
+     * 是否按会话顺序分发消息
+     *
+     * @return 返回true表示同一会话的消息将按接收顺序依次处理
+     * @since 2.1.3
+     */
+    boolean isOrderedDispatch();
+
+    /**
+     * 按会话顺序分发消息时每个会话的消息队列大小
+     *
+     * @return 返回会话消息队列大小
+     * @since 2.1.3
+     */
+    int sessionQueueSize();
+
+    /**
+     * 写缓冲区高水位线(字节)
+     *
+     * @return 返回写缓冲区高水位线
+     * @since 2.1.3
+     */
+    int writeBufferHighWaterMark();
+
+    /**
+     * 写缓冲区低水位线(字节)
+     *
+     * @return 返回写缓冲区低水位线
+     * @since 2.1.3
+     */
+    int writeBufferLowWaterMark();
+
+    /**
+     * 用于建立TLS安全连接的SSL上下文对象
+     *
+     * @return 返回SSL上下文对象, 为空表示未启用TLS
+     * @since 2.1.3
+     */
+    SSLContext sslContext();
+
     /**
      * 执行线程池
      *
@@ -51,6 +51,15 @@ public interface INioEventProcessor<SESSION extends INioSession> extends AutoClo
      */
     Selector selector();
 
+    /**
+     * 唤醒阻塞在选择操作上的事件处理器线程(如关注事件变化后需要立即生效)
+     *
+     * @since 2.1.3
+     */
+    default void wakeup() {
+        selector().wakeup();
+    }
+
     /**
      * 启动
      */
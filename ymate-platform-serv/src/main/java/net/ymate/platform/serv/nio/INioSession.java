@@ -174,6 +174,14 @@ public interface INioSession extends Serializable, Closeable {
      */
     void finishConnect();
 
+    /**
+     * 判断当前会话是否可写, 当待发送数据量超过写缓冲区高水位线时返回false, 此时调用者应暂停发送直至可写状态恢复
+     *
+     * @return 返回true表示可写
+     * @since 2.1.3
+     */
+    boolean isWritable();
+
     /**
      * 判断是否为UDP会话
      *
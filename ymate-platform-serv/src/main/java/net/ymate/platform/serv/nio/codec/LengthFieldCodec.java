@@ -0,0 +1,253 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.serv.nio.codec;
+
+import net.ymate.platform.serv.nio.AbstractNioCodec;
+import net.ymate.platform.serv.nio.support.ByteBufferBuilder;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 基于长度字段的帧编/解码器, 适用于以固定长度字段描述消息长度的二进制协议, 帧结构如下:
+ * <pre>
+ * +--------------------+--------------------+------------------------------+
+ * | 头部(lengthField-  | 长度字段(1/2/4/8   | 消息体(长度 = 长度字段值 +     |
+ * | Offset字节)        | 字节, 无符号)      | lengthAdjustment)            |
+ * +--------------------+--------------------+------------------------------+
+ * </pre>
+ * 解码时直接在会话接收缓冲区上读取长度字段(不移动读取位置), 长度字段可读后立即校验帧长度, 超出maxFrameLength时将抛出TooLongFrameException,
+ * 无需等待并缓存整个帧; 完整帧到达后去除前initialBytesToStrip个字节, 并将其余部分以缓冲区视图的方式交由decodeFrame方法处理.
+ * <p>
+ * 默认构造的实例(4字节大端长度字段, 解码时去除长度字段)与ByteArrayCodec的帧格式兼容.
+ *
+ * @author 刘镇 (suninformation@163.com) on 2024/10/16 16:05
+ * @since 2.1.3
+ */
+public class LengthFieldCodec extends AbstractNioCodec {
+
+    private final int maxFrameLength;
+
+    private final int lengthFieldOffset;
+
+    private final int lengthFieldLength;
+
+    private final int lengthFieldEndOffset;
+
+    private final int lengthAdjustment;
+
+    private final int initialBytesToStrip;
+
+    private final ByteOrder byteOrder;
+
+    public LengthFieldCodec() {
+        this(8 * 1024 * 1024, 4);
+    }
+
+    /**
+     * @param maxFrameLength    最大帧长度(包含头部及长度字段)
+     * @param lengthFieldLength 长度字段字节数(1/2/4/8), 解码时将去除长度字段
+     */
+    public LengthFieldCodec(int maxFrameLength, int lengthFieldLength) {
+        this(maxFrameLength, 0, lengthFieldLength, 0, lengthFieldLength, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * @param maxFrameLength      最大帧长度(包含头部及长度字段)
+     * @param lengthFieldOffset   长度字段偏移量
+     * @param lengthFieldLength   长度字段字节数(1/2/4/8)
+     * @param lengthAdjustment    长度修正值, 用于长度字段值除消息体外还包含其它部分(如头部及长度字段本身)的情况
+     * @param initialBytesToStrip 解码时从帧起始位置去除的字节数
+     * @param byteOrder           长度字段字节序
+     */
+    public LengthFieldCodec(int maxFrameLength, int lengthFieldOffset, int lengthFieldLength, int lengthAdjustment, int initialBytesToStrip, ByteOrder byteOrder) {
+        if (maxFrameLength <= 0) {
+            throw new IllegalArgumentException("maxFrameLength must be a positive integer: " + maxFrameLength);
+        }
+        if (lengthFieldOffset < 0) {
+            throw new IllegalArgumentException("lengthFieldOffset must be a non-negative integer: " + lengthFieldOffset);
+        }
+        if (lengthFieldLength != 1 && lengthFieldLength != 2 && lengthFieldLength != 4 && lengthFieldLength != 8) {
+            throw new IllegalArgumentException("lengthFieldLength must be either 1, 2, 4 or 8: " + lengthFieldLength);
+        }
+        if (initialBytesToStrip < 0) {
+            throw new IllegalArgumentException("initialBytesToStrip must be a non-negative integer: " + initialBytesToStrip);
+        }
+        if (lengthFieldOffset > maxFrameLength - lengthFieldLength) {
+            throw new IllegalArgumentException(String.format("maxFrameLength (%d) must be equal to or greater than lengthFieldOffset (%d) + lengthFieldLength (%d).", maxFrameLength, lengthFieldOffset, lengthFieldLength));
+        }
+        this.maxFrameLength = maxFrameLength;
+        this.lengthFieldOffset = lengthFieldOffset;
+        this.lengthFieldLength = lengthFieldLength;
+        this.lengthFieldEndOffset = lengthFieldOffset + lengthFieldLength;
+        this.lengthAdjustment = lengthAdjustment;
+        this.initialBytesToStrip = initialBytesToStrip;
+        this.byteOrder = byteOrder == null ? ByteOrder.BIG_ENDIAN : byteOrder;
+    }
+
+    public int getMaxFrameLength() {
+        return maxFrameLength;
+    }
+
+    public int getLengthFieldOffset() {
+        return lengthFieldOffset;
+    }
+
+    public int getLengthFieldLength() {
+        return lengthFieldLength;
+    }
+
+    public int getLengthAdjustment() {
+        return lengthAdjustment;
+    }
+
+    public int getInitialBytesToStrip() {
+        return initialBytesToStrip;
+    }
+
+    public ByteOrder getByteOrder() {
+        return byteOrder;
+    }
+
+    /**
+     * 编码: 依次写入头部(由encodeHeader方法填充)、长度字段(字段值 = 消息内容长度 - lengthAdjustment)及消息内容
+     */
+    @Override
+    public ByteBufferBuilder encode(Object message) {
+        byte[] bytes = messageToBytes(message);
+        if (bytes == null) {
+            return null;
+        }
+        long length = (long) bytes.length - lengthAdjustment;
+        if (length < 0) {
+            throw new IllegalArgumentException(String.format("Adjusted frame length (%d) is less than zero.", length));
+        }
+        if ((long) lengthFieldEndOffset + bytes.length > maxFrameLength) {
+            throw new TooLongFrameException(String.format("Frame length exceeds %d: %d", maxFrameLength, (long) lengthFieldEndOffset + bytes.length));
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(lengthFieldEndOffset + bytes.length).order(byteOrder);
+        if (lengthFieldOffset > 0) {
+            ByteBuffer header = buffer.slice();
+            header.limit(lengthFieldOffset);
+            encodeHeader(message, header.order(byteOrder));
+            buffer.position(lengthFieldOffset);
+        }
+        switch (lengthFieldLength) {
+            case 1:
+                if (length >= 256) {
+                    throw new IllegalArgumentException("Length does not fit into a byte: " + length);
+                }
+                buffer.put((byte) length);
+                break;
+            case 2:
+                if (length >= 65536) {
+                    throw new IllegalArgumentException("Length does not fit into a short integer: " + length);
+                }
+                buffer.putShort((short) length);
+                break;
+            case 4:
+                buffer.putInt((int) length);
+                break;
+            default:
+                buffer.putLong(length);
+        }
+        buffer.put(bytes).flip();
+        return ByteBufferBuilder.wrap(buffer);
+    }
+
+    /**
+     * 填充长度字段之前的头部内容(仅当lengthFieldOffset大于0时调用), 子类可重写此方法写入协议头部(如魔数、版本号等)
+     *
+     * @param message 待编码的消息对象
+     * @param header  头部缓冲区视图(容量为lengthFieldOffset字节, 初始内容均为0), 未写入的部分保持为0, 默认实现不写入任何内容
+     */
+    protected void encodeHeader(Object message, ByteBuffer header) {
+    }
+
+    @Override
+    public Object decode(ByteBufferBuilder source) {
+        ByteBuffer buffer = source.buffer();
+        if (buffer.remaining() < lengthFieldEndOffset) {
+            return null;
+        }
+        int start = buffer.position();
+        long frameLength = getUnadjustedFrameLength(buffer, start + lengthFieldOffset);
+        if (frameLength < 0) {
+            throw new IllegalStateException("Negative pre-adjustment length field: " + frameLength);
+        }
+        frameLength += lengthAdjustment + lengthFieldEndOffset;
+        if (frameLength < lengthFieldEndOffset) {
+            throw new IllegalStateException(String.format("Adjusted frame length (%d) is less than lengthFieldEndOffset: %d", frameLength, lengthFieldEndOffset));
+        }
+        if (frameLength > maxFrameLength) {
+            // 在接收完整帧之前拒绝, 避免缓存超长数据
+            throw new TooLongFrameException(String.format("Adjusted frame length exceeds %d: %d", maxFrameLength, frameLength));
+        }
+        int frameLengthInt = (int) frameLength;
+        if (buffer.remaining() < frameLengthInt) {
+            return null;
+        }
+        if (initialBytesToStrip > frameLengthInt) {
+            throw new IllegalStateException(String.format("Adjusted frame length (%d) is less than initialBytesToStrip: %d", frameLength, initialBytesToStrip));
+        }
+        int frameEnd = start + frameLengthInt;
+        int limit = buffer.limit();
+        buffer.limit(frameEnd);
+        buffer.position(start + initialBytesToStrip);
+        try {
+            return decodeFrame(buffer);
+        } finally {
+            buffer.limit(limit);
+            buffer.position(frameEnd);
+        }
+    }
+
+    /**
+     * 读取长度字段原始值(绝对位置读取, 不影响缓冲区读取位置)
+     *
+     * @param buffer 缓冲区
+     * @param offset 长度字段在缓冲区中的绝对位置
+     * @return 返回长度字段原始值
+     */
+    protected long getUnadjustedFrameLength(ByteBuffer buffer, int offset) {
+        boolean reverse = buffer.order() != byteOrder;
+        switch (lengthFieldLength) {
+            case 1:
+                return buffer.get(offset) & 0xFF;
+            case 2:
+                short shortValue = buffer.getShort(offset);
+                return (reverse ? Short.reverseBytes(shortValue) : shortValue) & 0xFFFF;
+            case 4:
+                int intValue = buffer.getInt(offset);
+                return (reverse ? Integer.reverseBytes(intValue) : intValue) & 0xFFFFFFFFL;
+            default:
+                long longValue = buffer.getLong(offset);
+                return reverse ? Long.reverseBytes(longValue) : longValue;
+        }
+    }
+
+    /**
+     * 处理完整的帧内容, 子类可重写此方法直接解析帧内容以避免复制
+     *
+     * @param frame 帧内容视图(读模式, 有效数据位于[position, limit)区间), 仅在方法执行期间有效, 不可被保存或异步访问
+     * @return 返回解码后的消息对象, 默认返回帧内容的字节数组副本
+     */
+    protected Object decodeFrame(ByteBuffer frame) {
+        byte[] bytes = new byte[frame.remaining()];
+        frame.get(bytes);
+        return bytes;
+    }
+}
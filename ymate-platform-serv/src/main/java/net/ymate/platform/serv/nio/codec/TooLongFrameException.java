@@ -0,0 +1,29 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.serv.nio.codec;
+
+/**
+ * 帧长度超出限制异常
+ *
+ * @author 刘镇 (suninformation@163.com) on 2024/10/16 16:20
+ * @since 2.1.3
+ */
+public class TooLongFrameException extends RuntimeException {
+
+    public TooLongFrameException(String message) {
+        super(message);
+    }
+}
@@ -18,6 +18,7 @@ package net.ymate.platform.serv.nio.datagram;
 import net.ymate.platform.serv.nio.AbstractNioSession;
 import net.ymate.platform.serv.nio.support.ByteBufferBuilder;
 import net.ymate.platform.serv.nio.support.NioEventGroup;
+import net.ymate.platform.serv.nio.support.PooledByteBuffer;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
@@ -48,15 +49,6 @@ public class NioUdpSession extends AbstractNioSession<AbstractNioUdpListener> {
         this.socketAddress = socketAddress;
     }
 
-    private int channelRead(ByteBuffer buffer) throws IOException {
-        SocketAddress address = ((DatagramChannel) channel()).receive(buffer);
-        if (address != null) {
-            attr(SocketAddress.class.getName(), address);
-            return buffer().remaining();
-        }
-        return 0;
-    }
-
     private int channelWrite(DatagramChannel channel, ByteBuffer buffer) throws IOException {
         if (channel != null) {
             return channel.write(buffer);
@@ -80,38 +72,22 @@ public class NioUdpSession extends AbstractNioSession<AbstractNioUdpListener> {
 
     @Override
     public void read() throws IOException {
-        if (buffer() == null) {
-            buffer(ByteBufferBuilder.allocate(eventGroup().bufferSize()));
-        }
-        ByteBuffer dataByteBuffer = ByteBuffer.allocate(eventGroup().bufferSize());
-        //
-        int length;
-        while ((length = channelRead(dataByteBuffer)) > 0) {
-            dataByteBuffer.flip();
-            buffer().append(dataByteBuffer.array(), dataByteBuffer.position(), dataByteBuffer.remaining());
-            dataByteBuffer.clear();
-        }
-        if (length < 0) {
-            close();
-            return;
-        }
-        ByteBufferBuilder copiedBuffer = buffer().duplicate().flip();
-        while (true) {
-            copiedBuffer.mark();
-            NioUdpMessageWrapper<?> message;
-            InetSocketAddress address = attr(SocketAddress.class.getName());
-            if (address != null && copiedBuffer.remaining() > 0) {
-                message = new NioUdpMessageWrapper<>(address, eventGroup().codec().decode(copiedBuffer));
-            } else {
-                message = null;
-            }
-            if (message == null) {
-                copiedBuffer.reset();
-                bufferReset(copiedBuffer);
-                break;
-            } else {
-                postMessageReceived(message);
+        PooledByteBuffer readBuffer = eventGroup().bufferPool().allocateDirect(eventGroup().bufferSize());
+        try {
+            ByteBuffer buffer = readBuffer.buffer();
+            SocketAddress address;
+            // 逐个数据报接收并解码, 解码后的消息与其来源地址对应
+            while (!isReadSuspended() && (address = ((DatagramChannel) channel()).receive(buffer)) != null) {
+                attr(SocketAddress.class.getName(), address);
+                buffer.flip();
+                if (buffer.hasRemaining()) {
+                    InetSocketAddress socketAddress = (InetSocketAddress) address;
+                    processReceived(buffer, message -> new NioUdpMessageWrapper<>(socketAddress, message));
+                }
+                buffer.clear();
             }
+        } finally {
+            readBuffer.release();
         }
     }
 
@@ -121,7 +97,7 @@ public class NioUdpSession extends AbstractNioSession<AbstractNioUdpListener> {
             while (true) {
                 NioUdpMessageWrapper<ByteBuffer> messageWrapper = writeQueue.peek();
                 if (messageWrapper == null) {
-                    selectionKey().interestOps(SelectionKey.OP_READ);
+                    interestOps(SelectionKey.OP_READ, SelectionKey.OP_WRITE);
                     break;
                 } else {
                     DatagramChannel channel = null;
@@ -159,8 +135,9 @@ public class NioUdpSession extends AbstractNioSession<AbstractNioUdpListener> {
             ByteBufferBuilder messageBuffer = eventGroup().codec().encode(message);
             if (messageBuffer != null) {
                 if (writeQueue.offer(new NioUdpMessageWrapper<>(socketAddress, messageBuffer.buffer()))) {
-                    selectionKey().interestOps(selectionKey().interestOps() | SelectionKey.OP_WRITE);
-                    selectionKey().selector().wakeup();
+                    if (interestOps(SelectionKey.OP_WRITE, 0)) {
+                        selectionKey().selector().wakeup();
+                    }
                 }
             }
         }
@@ -66,8 +66,9 @@ public final class ByteBufferBuilder {
                 } else {
                     newBuffer = ByteBuffer.allocate(currentSize);
                 }
-                newBuffer.put(byteBuffer.array());
-                newBuffer.position(byteBuffer.position());
+                ByteBuffer oldBuffer = byteBuffer.duplicate();
+                oldBuffer.flip();
+                newBuffer.put(oldBuffer);
                 byteBuffer = newBuffer;
             }
         }
@@ -117,7 +118,7 @@ public final class ByteBufferBuilder {
     }
 
     public ByteBufferBuilder append(ByteBuffer buffer) {
-        bufferSafety(buffer.capacity());
+        bufferSafety(buffer.remaining());
         byteBuffer.put(buffer);
         return this;
     }
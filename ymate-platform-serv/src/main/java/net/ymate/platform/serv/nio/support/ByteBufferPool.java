@@ -0,0 +1,108 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.serv.nio.support;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * 缓冲区池, 按线程缓存固定容量(即事件组缓冲区大小)的直接缓冲区及堆缓冲区, 由事件处理器线程在读取数据时借用并通过引用计数归还
+ * <p>
+ * 超过固定容量的缓冲区申请将直接分配且不会被缓存; 缓冲区在哪个线程中释放即归还至该线程的缓存, 缓存数量达到上限后多余的缓冲区将交由GC回收.
+ *
+ * @author 刘镇 (suninformation@163.com) on 2024/10/14 09:32
+ * @since 2.1.3
+ */
+public final class ByteBufferPool {
+
+    private static final int DEFAULT_MAX_CACHED_PER_THREAD = 32;
+
+    private final int chunkSize;
+
+    private final int maxCachedPerThread;
+
+    private final ThreadLocal<Cache> caches = ThreadLocal.withInitial(Cache::new);
+
+    public ByteBufferPool(int chunkSize) {
+        this(chunkSize, DEFAULT_MAX_CACHED_PER_THREAD);
+    }
+
+    public ByteBufferPool(int chunkSize, int maxCachedPerThread) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be greater than 0.");
+        }
+        this.chunkSize = chunkSize;
+        this.maxCachedPerThread = Math.max(maxCachedPerThread, 0);
+    }
+
+    /**
+     * @return 返回可被缓存的缓冲区容量
+     */
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * 申请堆缓冲区
+     *
+     * @param capacity 最小容量
+     * @return 返回引用计数为1的缓冲区对象
+     */
+    public PooledByteBuffer allocate(int capacity) {
+        return allocate(capacity, false);
+    }
+
+    /**
+     * 申请直接缓冲区
+     *
+     * @param capacity 最小容量
+     * @return 返回引用计数为1的缓冲区对象
+     */
+    public PooledByteBuffer allocateDirect(int capacity) {
+        return allocate(capacity, true);
+    }
+
+    private PooledByteBuffer allocate(int capacity, boolean direct) {
+        if (capacity > chunkSize) {
+            return new PooledByteBuffer(null, direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity));
+        }
+        Cache cache = caches.get();
+        ByteBuffer buffer = direct ? cache.directBuffers.pollLast() : cache.heapBuffers.pollLast();
+        if (buffer == null) {
+            buffer = direct ? ByteBuffer.allocateDirect(chunkSize) : ByteBuffer.allocate(chunkSize);
+        }
+        return new PooledByteBuffer(this, buffer);
+    }
+
+    void recycle(ByteBuffer buffer) {
+        if (buffer.capacity() != chunkSize) {
+            return;
+        }
+        buffer.clear();
+        Cache cache = caches.get();
+        ArrayDeque<ByteBuffer> buffers = buffer.isDirect() ? cache.directBuffers : cache.heapBuffers;
+        if (buffers.size() < maxCachedPerThread) {
+            buffers.offerLast(buffer);
+        }
+    }
+
+    private static final class Cache {
+
+        private final ArrayDeque<ByteBuffer> directBuffers = new ArrayDeque<>();
+
+        private final ArrayDeque<ByteBuffer> heapBuffers = new ArrayDeque<>();
+    }
+}
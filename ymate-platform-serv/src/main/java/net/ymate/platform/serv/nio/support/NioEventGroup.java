@@ -15,6 +15,7 @@
  */
 package net.ymate.platform.serv.nio.support;
 
+import net.ymate.platform.commons.util.RuntimeUtils;
 import net.ymate.platform.serv.IClientCfg;
 import net.ymate.platform.serv.IListener;
 import net.ymate.platform.serv.IServerCfg;
@@ -22,11 +23,18 @@ import net.ymate.platform.serv.nio.AbstractNioEventGroup;
 import net.ymate.platform.serv.nio.INioCodec;
 import net.ymate.platform.serv.nio.INioEventGroup;
 import net.ymate.platform.serv.nio.INioSession;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.net.SocketOption;
+import java.net.StandardSocketOptions;
+import java.nio.channels.NetworkChannel;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
@@ -39,10 +47,26 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class NioEventGroup<LISTENER extends IListener<INioSession>> extends AbstractNioEventGroup<INioCodec, LISTENER, INioSession> implements INioEventGroup<LISTENER> {
 
+    private static final Log LOG = LogFactory.getLog(NioEventGroup.class);
+
+    /**
+     * SO_REUSEPORT选项(JDK9及以上版本提供), 当前运行环境不支持时为null
+     */
+    private static final SocketOption<Boolean> SO_REUSEPORT = lookupReusePortOption();
+
     private SelectableChannel selectableChannel;
 
+    /**
+     * 除主监听通道之外的其它接收器监听通道
+     */
+    private final List<SelectableChannel> acceptorChannels = new ArrayList<>();
+
     private int selectorCount = 1;
 
+    private int acceptorCount = 1;
+
+    private int backlog = 1024;
+
     private List<NioEventProcessor<LISTENER>> eventProcessors;
 
     private final AtomicInteger handlerCount = new AtomicInteger(0);
@@ -50,20 +74,63 @@ public class NioEventGroup<LISTENER extends IListener<INioSession>> extends Abst
     public NioEventGroup(IServerCfg cfg, LISTENER listener, INioCodec codec) throws IOException {
         super(cfg, listener, codec);
         //
-        selectableChannel = channelCreate(cfg);
         if (cfg.getSelectorCount() > 0) {
             selectorCount = cfg.getSelectorCount();
         }
+        if (cfg.getAcceptorCount() > 1) {
+            acceptorCount = Math.min(cfg.getAcceptorCount(), selectorCount);
+        }
+        if (cfg.getBacklog() > 0) {
+            backlog = cfg.getBacklog();
+        }
+        selectableChannel = channelCreate(cfg);
+        if (selectableChannel instanceof ServerSocketChannel) {
+            for (int idx = 1; idx < acceptorCount; idx++) {
+                acceptorChannels.add(channelCreate(cfg));
+            }
+        }
     }
 
     public NioEventGroup(IClientCfg cfg, LISTENER listener, INioCodec codec) throws IOException {
         super(cfg, listener, codec);
     }
 
+    private static SocketOption<Boolean> lookupReusePortOption() {
+        try {
+            @SuppressWarnings("unchecked")
+            SocketOption<Boolean> option = (SocketOption<Boolean>) StandardSocketOptions.class.getField("SO_REUSEPORT").get(null);
+            return option;
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 为通道开启SO_REUSEPORT选项(须在绑定前设置)
+     *
+     * @param channel 通道
+     * @return 返回false表示当前平台不支持该选项
+     * @throws IOException 可能产生的I/O异常
+     * @since 2.1.3
+     */
+    protected static boolean reusePort(NetworkChannel channel) throws IOException {
+        if (SO_REUSEPORT == null || !channel.supportedOptions().contains(SO_REUSEPORT)) {
+            return false;
+        }
+        channel.setOption(SO_REUSEPORT, true);
+        return true;
+    }
+
     protected SelectableChannel channelCreate(IServerCfg cfg) throws IOException {
         ServerSocketChannel socketChannel = ServerSocketChannel.open();
         socketChannel.configureBlocking(false);
-        socketChannel.socket().bind(new InetSocketAddress(cfg.getServerHost(), cfg.getPort()));
+        if (acceptorCount > 1 && !reusePort(socketChannel)) {
+            if (LOG.isWarnEnabled()) {
+                LOG.warn(String.format("SO_REUSEPORT is not supported on this platform, acceptorCount %d is reduced to 1.", acceptorCount));
+            }
+            acceptorCount = 1;
+        }
+        socketChannel.socket().bind(new InetSocketAddress(cfg.getServerHost(), cfg.getPort()), backlog);
         return socketChannel;
     }
 
@@ -97,6 +164,14 @@ public class NioEventGroup<LISTENER extends IListener<INioSession>> extends Abst
         return selectorCount;
     }
 
+    /**
+     * @return 返回接收器数量
+     * @since 2.1.3
+     */
+    protected int acceptorCount() {
+        return acceptorCount;
+    }
+
     protected List<NioEventProcessor<LISTENER>> processors() {
         return eventProcessors;
     }
@@ -113,7 +188,11 @@ public class NioEventGroup<LISTENER extends IListener<INioSession>> extends Abst
 
     protected void registerEvent() throws IOException {
         if (isServer()) {
-            processor().registerEvent(selectableChannel, SelectionKey.OP_ACCEPT, null);
+            // 每个接收器监听通道由不同的事件处理器负责接收连接
+            eventProcessors.get(0).registerEvent(selectableChannel, SelectionKey.OP_ACCEPT, null);
+            for (int idx = 0; idx < acceptorChannels.size(); idx++) {
+                eventProcessors.get((idx + 1) % selectorCount).registerEvent(acceptorChannels.get(idx), SelectionKey.OP_ACCEPT, null);
+            }
         } else {
             processor().registerEvent(selectableChannel, SelectionKey.OP_CONNECT, session());
             if (connectionTimeout() > 0) {
@@ -131,13 +210,30 @@ public class NioEventGroup<LISTENER extends IListener<INioSession>> extends Abst
             selectableChannel.close();
             selectableChannel = null;
         }
+        for (SelectableChannel acceptorChannel : acceptorChannels) {
+            try {
+                acceptorChannel.close();
+            } catch (IOException e) {
+                if (LOG.isWarnEnabled()) {
+                    LOG.warn(StringUtils.EMPTY, RuntimeUtils.unwrapThrow(e));
+                }
+            }
+        }
+        acceptorChannels.clear();
         //
         super.stop();
     }
 
     @Override
     public NioEventProcessor<LISTENER> processor(SelectionKey key) {
-        return eventProcessors.stream().filter(processor -> key.selector() == processor.selector()).findFirst().orElse(null);
+        Selector selector = key.selector();
+        for (int idx = 0; idx < eventProcessors.size(); idx++) {
+            NioEventProcessor<LISTENER> processor = eventProcessors.get(idx);
+            if (processor.selector() == selector) {
+                return processor;
+            }
+        }
+        return null;
     }
 
     @Override
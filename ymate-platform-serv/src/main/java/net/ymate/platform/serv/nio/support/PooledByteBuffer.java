@@ -0,0 +1,88 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.serv.nio.support;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 采用引用计数管理的池化缓冲区, 当引用计数归零时缓冲区将被归还至所属缓冲区池
+ *
+ * @author 刘镇 (suninformation@163.com) on 2024/10/14 09:50
+ * @since 2.1.3
+ */
+public final class PooledByteBuffer {
+
+    private final ByteBufferPool pool;
+
+    private final ByteBuffer buffer;
+
+    private final AtomicInteger refCnt = new AtomicInteger(1);
+
+    PooledByteBuffer(ByteBufferPool pool, ByteBuffer buffer) {
+        this.pool = pool;
+        this.buffer = buffer;
+    }
+
+    public ByteBuffer buffer() {
+        if (refCnt.get() <= 0) {
+            throw new IllegalStateException("Buffer has been released.");
+        }
+        return buffer;
+    }
+
+    /**
+     * @return 返回当前引用计数
+     */
+    public int refCnt() {
+        return refCnt.get();
+    }
+
+    /**
+     * 增加引用计数
+     *
+     * @return 返回当前对象
+     */
+    public PooledByteBuffer retain() {
+        int count;
+        do {
+            count = refCnt.get();
+            if (count <= 0) {
+                throw new IllegalStateException("Buffer has been released.");
+            }
+        } while (!refCnt.compareAndSet(count, count + 1));
+        return this;
+    }
+
+    /**
+     * 减少引用计数, 归零时缓冲区将被归还至缓冲区池且不可再被使用
+     *
+     * @return 若缓冲区已被归还则返回true
+     */
+    public boolean release() {
+        int count = refCnt.decrementAndGet();
+        if (count == 0) {
+            if (pool != null) {
+                pool.recycle(buffer);
+            }
+            return true;
+        } else if (count < 0) {
+            refCnt.incrementAndGet();
+            throw new IllegalStateException("Buffer has been released.");
+        }
+        return false;
+    }
+}
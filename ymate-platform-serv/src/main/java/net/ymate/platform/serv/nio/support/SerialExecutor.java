@@ -0,0 +1,199 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.serv.nio.support;
+
+import net.ymate.platform.commons.util.RuntimeUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 串行执行器: 将任务按提交顺序依次交由共享线程池执行, 同一时刻最多占用一个工作线程, 多个串行执行器可复用同一线程池而无需为每个会话创建线程
+ * <p>
+ * 队列容量为软上限: 当队列中任务数量达到容量时offer方法将返回false, 由调用者决定是否暂停生产(如暂停读取通道数据),
+ * 当任务数量回落至容量的一半时将回调恢复监听器.
+ * <p>
+ * 当共享线程池饱和而拒绝调度时, 将由提交任务(或完成上一批次任务)的线程直接执行当前批次任务.
+ *
+ * @author 刘镇 (suninformation@163.com) on 2024/10/15 10:12
+ * @since 2.1.3
+ */
+public final class SerialExecutor implements Executor {
+
+    private static final Log LOG = LogFactory.getLog(SerialExecutor.class);
+
+    /**
+     * 每次调度最多连续执行的任务数量, 避免单个执行器长期占用工作线程
+     */
+    private static final int MAX_BATCH_SIZE = 64;
+
+    private final Executor executor;
+
+    private final int capacity;
+
+    private final int lowWaterMark;
+
+    private final Runnable resumeListener;
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private final Runnable drainTask = this::drain;
+
+    public SerialExecutor(Executor executor, int capacity) {
+        this(executor, capacity, null);
+    }
+
+    /**
+     * @param executor       共享线程池
+     * @param capacity       队列容量(软上限)
+     * @param resumeListener 队列任务数量回落至容量一半及以下时的回调, 在工作线程中执行, 可以为空
+     */
+    public SerialExecutor(Executor executor, int capacity, Runnable resumeListener) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor must not be null.");
+        }
+        this.executor = executor;
+        this.capacity = capacity > 0 ? capacity : Integer.MAX_VALUE;
+        this.lowWaterMark = this.capacity >> 1;
+        this.resumeListener = resumeListener;
+    }
+
+    /**
+     * 尝试添加任务
+     *
+     * @param task 任务
+     * @return 若队列已满则返回false且任务不会被添加
+     */
+    public boolean offer(Runnable task) {
+        if (size.get() >= capacity) {
+            return false;
+        }
+        enqueue(task);
+        return true;
+    }
+
+    /**
+     * 添加任务(忽略队列容量限制)
+     *
+     * @param task 任务
+     */
+    @Override
+    public void execute(Runnable task) {
+        enqueue(task);
+    }
+
+    /**
+     * @return 返回队列中等待执行的任务数量
+     */
+    public int size() {
+        return size.get();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return 若队列中任务数量已达到容量则返回true
+     */
+    public boolean isFull() {
+        return size.get() >= capacity;
+    }
+
+    /**
+     * @return 若队列中任务数量不高于容量的一半则返回true
+     */
+    public boolean isBelowLowWaterMark() {
+        return size.get() <= lowWaterMark;
+    }
+
+    private void enqueue(Runnable task) {
+        if (task == null) {
+            throw new NullPointerException("task");
+        }
+        tasks.offer(task);
+        size.incrementAndGet();
+        schedule();
+    }
+
+    private void schedule() {
+        while (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(drainTask);
+                return;
+            } catch (RejectedExecutionException e) {
+                if (executor instanceof ExecutorService && ((ExecutorService) executor).isShutdown()) {
+                    // 线程池已关闭, 任务仍保留在队列中且不再执行
+                    scheduled.set(false);
+                    throw e;
+                }
+                // 线程池饱和时由调用线程直接执行本批次任务(仍持有调度标记, 因此不会破坏串行顺序),
+                // 避免任务滞留在队列中而无人调度(如会话已暂停读取时将永远无法恢复)
+                if (!runBatch()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void drain() {
+        if (runBatch()) {
+            schedule();
+        }
+    }
+
+    /**
+     * 执行一个批次的任务并释放调度标记
+     *
+     * @return 若队列中仍有待执行的任务则返回true
+     */
+    private boolean runBatch() {
+        try {
+            for (int idx = 0; idx < MAX_BATCH_SIZE; idx++) {
+                Runnable task = tasks.poll();
+                if (task == null) {
+                    break;
+                }
+                size.decrementAndGet();
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    if (LOG.isWarnEnabled()) {
+                        LOG.warn(StringUtils.EMPTY, RuntimeUtils.unwrapThrow(e));
+                    }
+                }
+                if (resumeListener != null && size.get() <= lowWaterMark) {
+                    resumeListener.run();
+                }
+            }
+        } finally {
+            scheduled.set(false);
+        }
+        return !tasks.isEmpty();
+    }
+}
@@ -0,0 +1,390 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.serv.nio.support;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 基于SSLEngine的TLS处理器, 负责会话的握手、解密与加密, 仅在事件处理器线程中使用(非线程安全)
+ * <p>
+ * 实现要点:
+ * <ul>
+ * <li>接收、发送的TLS记录及解密后的应用数据均使用缓冲区池中的缓冲区, 且仅在存在未处理完的数据时才被会话持有, 空闲会话不占用缓冲区;</li>
+ * <li>握手过程中的委托任务直接在当前线程中执行;</li>
+ * <li>握手完成后不再接受重新协商(TLSv1.3中的密钥更新、会话票据等握手后消息除外), 收到重新协商请求时将抛出SSLException并关闭会话;</li>
+ * <li>客户端使用对端主机名与端口创建SSLEngine, 以便复用SSLContext中缓存的会话(会话票据)实现简化握手.</li>
+ * </ul>
+ *
+ * @author 刘镇 (suninformation@163.com) on 2024/10/17 09:36
+ * @since 2.1.3
+ */
+public final class SslHandler {
+
+    private static final String PROTOCOL_TLS13 = "TLSv1.3";
+
+    private static final ByteBuffer[] EMPTY_BUFFERS = new ByteBuffer[]{ByteBuffer.allocate(0)};
+
+    private final SSLEngine engine;
+
+    private final ByteBufferPool bufferPool;
+
+    private final Receiver receiver;
+
+    /**
+     * 尚未解密的TLS记录(写模式, 有效数据位于[0, position)区间)
+     */
+    private PooledByteBuffer netInBuffer;
+
+    /**
+     * 尚未发送的TLS记录(写模式, 有效数据位于[0, position)区间)
+     */
+    private PooledByteBuffer netOutBuffer;
+
+    private boolean handshakeStarted;
+
+    private boolean handshakeFinished;
+
+    /**
+     * 握手完成后是否允许处理握手消息(仅TLSv1.3的握手后消息)
+     */
+    private boolean postHandshakeAllowed;
+
+    /**
+     * 创建TLS处理器
+     *
+     * @param sslContext    SSL上下文对象
+     * @param clientMode    是否为客户端模式
+     * @param remoteAddress 对端地址, 客户端模式下用于会话复用及SNI, 可以为空
+     * @param bufferPool    缓冲区池, 其缓冲区块大小应能容纳一个完整的TLS记录
+     * @param receiver      解密后的应用数据接收器
+     * @return 返回TLS处理器对象
+     */
+    public static SslHandler create(SSLContext sslContext, boolean clientMode, InetSocketAddress remoteAddress, ByteBufferPool bufferPool, Receiver receiver) {
+        SSLEngine engine;
+        if (clientMode && remoteAddress != null) {
+            engine = sslContext.createSSLEngine(remoteAddress.getHostString(), remoteAddress.getPort());
+        } else {
+            engine = sslContext.createSSLEngine();
+        }
+        engine.setUseClientMode(clientMode);
+        return new SslHandler(engine, bufferPool, receiver);
+    }
+
+    public SslHandler(SSLEngine engine, ByteBufferPool bufferPool, Receiver receiver) {
+        this.engine = engine;
+        this.bufferPool = bufferPool;
+        this.receiver = receiver;
+    }
+
+    public SSLEngine engine() {
+        return engine;
+    }
+
+    /**
+     * @return 返回true表示握手已完成
+     */
+    public boolean isHandshakeFinished() {
+        return handshakeFinished;
+    }
+
+    /**
+     * @return 返回true表示存在尚未发送的TLS记录
+     */
+    public boolean hasPendingOutput() {
+        return netOutBuffer != null;
+    }
+
+    /**
+     * 开始(或继续)握手并尽可能发送握手数据
+     *
+     * @param channel 通道
+     * @throws IOException 可能产生的IO异常
+     */
+    public void handshake(WritableByteChannel channel) throws IOException {
+        beginHandshake();
+        if (!handshakeFinished) {
+            processHandshake(engine.getHandshakeStatus(), channel);
+        }
+        flush(channel);
+    }
+
+    /**
+     * 从通道读取一次数据并解密, 解密后的应用数据将交由接收器处理, 握手过程中产生的数据将尽可能立即发送
+     *
+     * @param channel 通道
+     * @return 返回本次从通道读取的字节数, 若通道已到达流末尾或对端已关闭TLS连接则返回-1
+     * @throws IOException 可能产生的IO异常
+     */
+    public int read(ByteChannel channel) throws IOException {
+        beginHandshake();
+        if (netInBuffer == null) {
+            netInBuffer = bufferPool.allocateDirect(engine.getSession().getPacketBufferSize());
+        } else if (!netInBuffer.buffer().hasRemaining()) {
+            // 缓冲区已满但仍不足一个完整的TLS记录
+            netInBuffer = grow(netInBuffer, engine.getSession().getPacketBufferSize(), true);
+        }
+        ByteBuffer netIn = netInBuffer.buffer();
+        int len = channel.read(netIn);
+        if (netIn.position() > 0) {
+            netIn.flip();
+            try {
+                if (unwrap(netIn, channel)) {
+                    len = -1;
+                }
+            } finally {
+                netIn.compact();
+                if (netIn.position() == 0) {
+                    netInBuffer.release();
+                    netInBuffer = null;
+                }
+            }
+        }
+        if (len >= 0) {
+            flush(channel);
+        }
+        return len;
+    }
+
+    /**
+     * 加密并发送应用数据, 直至数据全部加密或通道发送缓冲区已满
+     *
+     * @param channel 通道
+     * @param srcs    待发送的应用数据
+     * @param offset  起始索引
+     * @param length  缓冲区数量
+     * @return 返回本次已被加密的应用数据字节数(已加密但尚未发送的数据由处理器持有, 可通过hasPendingOutput方法判断)
+     * @throws IOException 可能产生的IO异常
+     */
+    public long write(WritableByteChannel channel, ByteBuffer[] srcs, int offset, int length) throws IOException {
+        long consumed = 0;
+        while (flush(channel) && hasRemaining(srcs, offset, length)) {
+            SSLEngineResult result = wrap(srcs, offset, length, channel);
+            if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+                throw new SSLException("SSLEngine is closed.");
+            }
+            consumed += result.bytesConsumed();
+            processHandshake(result.getHandshakeStatus(), channel);
+        }
+        return consumed;
+    }
+
+    /**
+     * 发送尚未发送的TLS记录
+     *
+     * @param channel 通道
+     * @return 返回true表示已全部发送
+     * @throws IOException 可能产生的IO异常
+     */
+    public boolean flush(WritableByteChannel channel) throws IOException {
+        if (netOutBuffer == null) {
+            return true;
+        }
+        ByteBuffer netOut = netOutBuffer.buffer();
+        netOut.flip();
+        try {
+            while (netOut.hasRemaining()) {
+                if (channel.write(netOut) == 0) {
+                    break;
+                }
+            }
+        } finally {
+            netOut.compact();
+        }
+        if (netOut.position() == 0) {
+            netOutBuffer.release();
+            netOutBuffer = null;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 关闭TLS连接: 尝试向对端发送close_notify消息(不等待其发送完成)并将持有的缓冲区归还至缓冲区池, 与其它方法一样须在事件处理器线程中调用
+     *
+     * @param channel 通道
+     */
+    public void close(WritableByteChannel channel) {
+        engine.closeOutbound();
+        try {
+            if (handshakeStarted && channel.isOpen()) {
+                wrap(EMPTY_BUFFERS, 0, 1, channel);
+                flush(channel);
+            }
+        } catch (IOException | RuntimeException ignored) {
+            // 连接即将关闭, 忽略发送close_notify过程中的异常
+        }
+        if (netInBuffer != null) {
+            netInBuffer.release();
+            netInBuffer = null;
+        }
+        if (netOutBuffer != null) {
+            netOutBuffer.release();
+            netOutBuffer = null;
+        }
+    }
+
+    private void beginHandshake() throws SSLException {
+        if (!handshakeStarted) {
+            handshakeStarted = true;
+            engine.beginHandshake();
+        }
+    }
+
+    /**
+     * @return 返回true表示对端已关闭TLS连接
+     */
+    private boolean unwrap(ByteBuffer netIn, WritableByteChannel channel) throws IOException {
+        PooledByteBuffer appInBuffer = bufferPool.allocate(engine.getSession().getApplicationBufferSize());
+        try {
+            while (true) {
+                ByteBuffer appIn = appInBuffer.buffer();
+                SSLEngineResult result = engine.unwrap(netIn, appIn);
+                switch (result.getStatus()) {
+                    case BUFFER_OVERFLOW:
+                        if (appIn.position() > 0) {
+                            deliver(appIn);
+                        } else {
+                            appInBuffer = grow(appInBuffer, engine.getSession().getApplicationBufferSize(), false);
+                        }
+                        continue;
+                    case BUFFER_UNDERFLOW:
+                        deliver(appIn);
+                        return false;
+                    case CLOSED:
+                        deliver(appIn);
+                        return true;
+                    default:
+                }
+                SSLEngineResult.HandshakeStatus handshakeStatus = result.getHandshakeStatus();
+                if (handshakeFinished && !postHandshakeAllowed && isHandshaking(handshakeStatus)) {
+                    throw new SSLException("TLS renegotiation is not supported.");
+                }
+                processHandshake(handshakeStatus, channel);
+                if (!netIn.hasRemaining() || result.bytesConsumed() == 0 && !isHandshaking(engine.getHandshakeStatus())) {
+                    break;
+                }
+            }
+            deliver(appInBuffer.buffer());
+            return false;
+        } finally {
+            appInBuffer.release();
+        }
+    }
+
+    private SSLEngineResult wrap(ByteBuffer[] srcs, int offset, int length, WritableByteChannel channel) throws IOException {
+        while (true) {
+            if (netOutBuffer == null) {
+                netOutBuffer = bufferPool.allocateDirect(engine.getSession().getPacketBufferSize());
+            }
+            SSLEngineResult result = engine.wrap(srcs, offset, length, netOutBuffer.buffer());
+            if (result.getStatus() != SSLEngineResult.Status.BUFFER_OVERFLOW) {
+                return result;
+            }
+            // 先尝试发送已有数据以腾出空间, 仍然不足时(如握手消息连续产生)扩展缓冲区
+            if (netOutBuffer.buffer().position() == 0 || !flush(channel)) {
+                netOutBuffer = grow(netOutBuffer, netOutBuffer.buffer().position() + engine.getSession().getPacketBufferSize(), true);
+            }
+        }
+    }
+
+    private void processHandshake(SSLEngineResult.HandshakeStatus handshakeStatus, WritableByteChannel channel) throws IOException {
+        while (true) {
+            switch (handshakeStatus) {
+                case NEED_TASK:
+                    Runnable task;
+                    while ((task = engine.getDelegatedTask()) != null) {
+                        task.run();
+                    }
+                    handshakeStatus = engine.getHandshakeStatus();
+                    break;
+                case NEED_WRAP:
+                    SSLEngineResult result = wrap(EMPTY_BUFFERS, 0, 1, channel);
+                    if (result.getStatus() == SSLEngineResult.Status.CLOSED && result.bytesProduced() == 0) {
+                        return;
+                    }
+                    handshakeStatus = result.getHandshakeStatus();
+                    break;
+                case FINISHED:
+                case NOT_HANDSHAKING:
+                    if (!handshakeFinished) {
+                        handshakeFinished = true;
+                        postHandshakeAllowed = PROTOCOL_TLS13.equals(engine.getSession().getProtocol());
+                    }
+                    return;
+                default:
+                    // NEED_UNWRAP: 等待对端数据
+                    return;
+            }
+        }
+    }
+
+    private void deliver(ByteBuffer appIn) throws IOException {
+        if (appIn.position() > 0) {
+            appIn.flip();
+            try {
+                receiver.received(appIn);
+            } finally {
+                appIn.clear();
+            }
+        }
+    }
+
+    private PooledByteBuffer grow(PooledByteBuffer buffer, int minCapacity, boolean direct) {
+        ByteBuffer source = buffer.buffer();
+        int capacity = Math.max(minCapacity, source.capacity() << 1);
+        PooledByteBuffer newBuffer = direct ? bufferPool.allocateDirect(capacity) : bufferPool.allocate(capacity);
+        source.flip();
+        newBuffer.buffer().put(source);
+        buffer.release();
+        return newBuffer;
+    }
+
+    private static boolean isHandshaking(SSLEngineResult.HandshakeStatus handshakeStatus) {
+        return handshakeStatus != SSLEngineResult.HandshakeStatus.NOT_HANDSHAKING && handshakeStatus != SSLEngineResult.HandshakeStatus.FINISHED;
+    }
+
+    private static boolean hasRemaining(ByteBuffer[] buffers, int offset, int length) {
+        for (int idx = offset; idx < offset + length; idx++) {
+            if (buffers[idx].hasRemaining()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 解密后的应用数据接收器
+     */
+    @FunctionalInterface
+    public interface Receiver {
+
+        /**
+         * 接收解密后的应用数据
+         *
+         * @param data 应用数据(读模式), 方法返回后其内容不再被引用
+         * @throws IOException 可能产生的IO异常
+         */
+        void received(ByteBuffer data) throws IOException;
+    }
+}
@@ -0,0 +1,418 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.serv.support;
+
+import net.ymate.platform.commons.util.RuntimeUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 哈希时间轮定时器: 将定时任务按到期时间散列至环形数组的各个槽位中, 由单一工作线程按固定间隔推进时间轮并执行当前槽位中已到期的任务,
+ * 任务的添加与取消均为O(1)操作且不依赖锁, 适用于会话空闲检查、心跳发送及断线重连延时等大量且精度要求不高(以tick为单位)的定时场景.
+ *
+ * @author 刘镇 (suninformation@163.com) on 2024/10/16 09:30
+ * @since 2.1.3
+ */
+public final class HashedWheelTimer implements AutoCloseable {
+
+    private static final Log LOG = LogFactory.getLog(HashedWheelTimer.class);
+
+    private static final int STATE_INIT = 0;
+
+    private static final int STATE_STARTED = 1;
+
+    private static final int STATE_SHUTDOWN = 2;
+
+    /**
+     * 每个tick最多从待添加队列中转移的任务数量, 避免大量任务同时添加时工作线程长时间无法推进时间轮
+     */
+    private static final int MAX_TRANSFER_PER_TICK = 100000;
+
+    private final AtomicInteger state = new AtomicInteger(STATE_INIT);
+
+    private final Thread workerThread;
+
+    private final long tickDuration;
+
+    private final Bucket[] wheel;
+
+    private final int mask;
+
+    private final Executor taskExecutor;
+
+    private final Queue<Timeout> pendingQueue = new ConcurrentLinkedQueue<>();
+
+    private final Queue<Timeout> cancelledQueue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong pendingTimeouts = new AtomicLong();
+
+    private final CountDownLatch startTimeInitialized = new CountDownLatch(1);
+
+    private volatile long startTime;
+
+    private long tick;
+
+    public HashedWheelTimer(ThreadFactory threadFactory, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        this(threadFactory, tickDuration, unit, ticksPerWheel, null);
+    }
+
+    /**
+     * @param threadFactory 工作线程工厂
+     * @param tickDuration  时间轮每次推进的时间间隔
+     * @param unit          时间单位
+     * @param ticksPerWheel 时间轮槽位数量(将被调整为2的幂)
+     * @param taskExecutor  到期任务执行器, 若为空则在工作线程中直接执行(此时任务应尽可能短小)
+     */
+    public HashedWheelTimer(ThreadFactory threadFactory, long tickDuration, TimeUnit unit, int ticksPerWheel, Executor taskExecutor) {
+        if (threadFactory == null) {
+            throw new IllegalArgumentException("threadFactory must not be null.");
+        }
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be greater than 0: " + tickDuration);
+        }
+        if (ticksPerWheel <= 0 || ticksPerWheel > 1 << 30) {
+            throw new IllegalArgumentException("ticksPerWheel must be in (0, 2^30]: " + ticksPerWheel);
+        }
+        int wheelSize = 1;
+        while (wheelSize < ticksPerWheel) {
+            wheelSize <<= 1;
+        }
+        this.wheel = new Bucket[wheelSize];
+        for (int idx = 0; idx < wheelSize; idx++) {
+            wheel[idx] = new Bucket();
+        }
+        this.mask = wheelSize - 1;
+        this.tickDuration = Math.max(unit.toNanos(tickDuration), TimeUnit.MILLISECONDS.toNanos(1));
+        this.taskExecutor = taskExecutor;
+        this.workerThread = threadFactory.newThread(this::doWork);
+    }
+
+    /**
+     * 添加定时任务
+     *
+     * @param task  任务
+     * @param delay 延迟时间
+     * @param unit  时间单位
+     * @return 返回任务句柄, 可用于取消任务
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        if (task == null) {
+            throw new NullPointerException("task");
+        }
+        start();
+        long deadline = System.nanoTime() + unit.toNanos(Math.max(delay, 0)) - startTime;
+        if (delay > 0 && deadline < 0) {
+            // 防止溢出
+            deadline = Long.MAX_VALUE;
+        }
+        Timeout timeout = new Timeout(this, task, deadline);
+        pendingTimeouts.incrementAndGet();
+        pendingQueue.offer(timeout);
+        return timeout;
+    }
+
+    /**
+     * @return 返回尚未到期且未被取消的任务数量(近似值)
+     */
+    public long pendingTimeouts() {
+        return pendingTimeouts.get();
+    }
+
+    public boolean isStarted() {
+        return state.get() == STATE_STARTED;
+    }
+
+    private void start() {
+        switch (state.get()) {
+            case STATE_INIT:
+                if (state.compareAndSet(STATE_INIT, STATE_STARTED)) {
+                    workerThread.start();
+                }
+                break;
+            case STATE_STARTED:
+                break;
+            default:
+                throw new IllegalStateException("HashedWheelTimer has been closed.");
+        }
+        while (startTime == 0) {
+            try {
+                startTimeInitialized.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (state.getAndSet(STATE_SHUTDOWN) == STATE_STARTED) {
+            boolean interrupted = false;
+            while (workerThread.isAlive()) {
+                workerThread.interrupt();
+                try {
+                    workerThread.join(100);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                // 恢复当前线程的中断状态
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void doWork() {
+        long now = System.nanoTime();
+        // startTime为0表示尚未初始化
+        startTime = now == 0 ? 1 : now;
+        startTimeInitialized.countDown();
+        do {
+            long deadline = waitForNextTick();
+            if (deadline > 0) {
+                processCancelledTimeouts();
+                transferTimeoutsToBuckets();
+                wheel[(int) (tick & mask)].expireTimeouts(deadline);
+                tick++;
+            }
+        } while (state.get() == STATE_STARTED);
+        pendingQueue.clear();
+        cancelledQueue.clear();
+        for (Bucket bucket : wheel) {
+            bucket.clear();
+        }
+        pendingTimeouts.set(0);
+    }
+
+    private long waitForNextTick() {
+        long deadline = tickDuration * (tick + 1);
+        while (true) {
+            long currentTime = System.nanoTime() - startTime;
+            long sleepTimeMillis = (deadline - currentTime + 999999) / 1000000;
+            if (sleepTimeMillis <= 0) {
+                return currentTime == Long.MIN_VALUE ? -Long.MAX_VALUE : currentTime;
+            }
+            try {
+                Thread.sleep(sleepTimeMillis);
+            } catch (InterruptedException e) {
+                if (state.get() == STATE_SHUTDOWN) {
+                    return Long.MIN_VALUE;
+                }
+            }
+        }
+    }
+
+    private void transferTimeoutsToBuckets() {
+        for (int idx = 0; idx < MAX_TRANSFER_PER_TICK; idx++) {
+            Timeout timeout = pendingQueue.poll();
+            if (timeout == null) {
+                break;
+            }
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickDuration;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            // 已过期的任务放入当前槽位以便立即执行
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void processCancelledTimeouts() {
+        Timeout timeout;
+        while ((timeout = cancelledQueue.poll()) != null) {
+            timeout.remove();
+        }
+    }
+
+    /**
+     * 定时任务句柄
+     */
+    public static final class Timeout {
+
+        private static final int ST_INIT = 0;
+
+        private static final int ST_CANCELLED = 1;
+
+        private static final int ST_EXPIRED = 2;
+
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE_UPDATER = AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final HashedWheelTimer timer;
+
+        private final Runnable task;
+
+        private final long deadline;
+
+        private volatile int state = ST_INIT;
+
+        /**
+         * 剩余圈数, 仅由工作线程访问
+         */
+        private long remainingRounds;
+
+        private Timeout next;
+
+        private Timeout prev;
+
+        private Bucket bucket;
+
+        /**
+         * 是否已从计数中移除, 避免重复扣减, 仅由工作线程访问
+         */
+        private boolean removed;
+
+        Timeout(HashedWheelTimer timer, Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * 取消任务
+         *
+         * @return 若任务已到期或已被取消则返回false
+         */
+        public boolean cancel() {
+            if (!STATE_UPDATER.compareAndSet(this, ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            // 由工作线程在下一个tick时从槽位中移除
+            timer.cancelledQueue.offer(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state == ST_CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == ST_EXPIRED;
+        }
+
+        void remove() {
+            if (bucket != null) {
+                bucket.remove(this);
+            } else if (!removed) {
+                removed = true;
+                timer.pendingTimeouts.decrementAndGet();
+            }
+        }
+
+        void expire() {
+            if (!STATE_UPDATER.compareAndSet(this, ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            try {
+                if (timer.taskExecutor != null) {
+                    timer.taskExecutor.execute(task);
+                } else {
+                    task.run();
+                }
+            } catch (Throwable e) {
+                if (LOG.isWarnEnabled()) {
+                    LOG.warn(StringUtils.EMPTY, RuntimeUtils.unwrapThrow(e));
+                }
+            }
+        }
+    }
+
+    /**
+     * 时间轮槽位, 以双向链表存储任务, 仅由工作线程访问
+     */
+    private static final class Bucket {
+
+        private Timeout head;
+
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expireTimeouts(long deadline) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    next = remove(timeout);
+                    if (timeout.deadline <= deadline) {
+                        timeout.expire();
+                    } else {
+                        // 正常情况下不会出现, 重新放回待添加队列以免任务丢失
+                        timeout.removed = false;
+                        timeout.timer.pendingTimeouts.incrementAndGet();
+                        timeout.timer.pendingQueue.offer(timeout);
+                    }
+                } else if (timeout.isCancelled()) {
+                    next = remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        Timeout remove(Timeout timeout) {
+            Timeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                if (timeout == tail) {
+                    head = tail = null;
+                } else {
+                    head = next;
+                }
+            } else if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+            timeout.removed = true;
+            timeout.timer.pendingTimeouts.decrementAndGet();
+            return next;
+        }
+
+        void clear() {
+            head = tail = null;
+        }
+    }
+}
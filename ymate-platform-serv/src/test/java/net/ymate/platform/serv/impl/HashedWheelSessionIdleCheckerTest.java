@@ -0,0 +1,165 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.serv.impl;
+
+import net.ymate.platform.serv.ISessionListener;
+import net.ymate.platform.serv.ISessionManager;
+import net.ymate.platform.serv.ISessionWrapper;
+import net.ymate.platform.serv.nio.INioSession;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author 刘镇 (suninformation@163.com) on 2024/10/26 17:20
+ * @since 2.1.3
+ */
+public class HashedWheelSessionIdleCheckerTest {
+
+    private static final long IDLE_TIME = 200;
+
+    private final Map<String, TestSessionWrapper> sessions = new ConcurrentHashMap<>();
+
+    private final Set<String> closedSessions = ConcurrentHashMap.newKeySet();
+
+    private final Set<String> idleRemovedSessions = ConcurrentHashMap.newKeySet();
+
+    private final CountDownLatch idleLatch = new CountDownLatch(1);
+
+    private HashedWheelSessionIdleChecker<TestSessionWrapper, String, Object> idleChecker;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        ISessionListener<TestSessionWrapper> sessionListener = sessionWrapper -> {
+            idleRemovedSessions.add(sessionWrapper.getId());
+            idleLatch.countDown();
+        };
+        ISessionManager<TestSessionWrapper, String, Object> sessionManager = (ISessionManager<TestSessionWrapper, String, Object>) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ISessionManager.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "sessionWrapper":
+                    return sessions.get((String) args[0]);
+                case "closeSessionWrapper":
+                    TestSessionWrapper sessionWrapper = (TestSessionWrapper) args[0];
+                    sessions.remove(sessionWrapper.getId(), sessionWrapper);
+                    closedSessions.add(sessionWrapper.getId());
+                    return null;
+                case "getSessionListener":
+                    return sessionListener;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        idleChecker = new HashedWheelSessionIdleChecker<>(10, 64);
+        idleChecker.initialize(sessionManager);
+    }
+
+    @After
+    public void tearDown() {
+        idleChecker.close();
+    }
+
+    private TestSessionWrapper register(String id) {
+        TestSessionWrapper sessionWrapper = new TestSessionWrapper(id);
+        sessions.put(id, sessionWrapper);
+        idleChecker.sessionRegistered(sessionWrapper, IDLE_TIME);
+        return sessionWrapper;
+    }
+
+    @Test
+    public void processIdleSession() throws Exception {
+        register("idle");
+        TestSessionWrapper active = register("active");
+        long deadline = System.currentTimeMillis() + IDLE_TIME * 3;
+        while (System.currentTimeMillis() < deadline) {
+            active.touch();
+            Thread.sleep(IDLE_TIME / 4);
+        }
+        assertTrue(idleLatch.await(1, TimeUnit.SECONDS));
+        // 空闲会话被关闭, 活动会话保持连接
+        assertTrue(closedSessions.contains("idle"));
+        assertTrue(idleRemovedSessions.contains("idle"));
+        assertFalse(sessions.containsKey("idle"));
+        assertFalse(closedSessions.contains("active"));
+        assertTrue(sessions.containsKey("active"));
+    }
+
+    @Test
+    public void sessionRemoved() throws Exception {
+        TestSessionWrapper sessionWrapper = register("removed");
+        idleChecker.sessionRemoved(sessionWrapper);
+        Thread.sleep(IDLE_TIME * 2);
+        // 移除后不再触发空闲检查
+        assertTrue(closedSessions.isEmpty());
+        assertTrue(idleRemovedSessions.isEmpty());
+    }
+
+    private static class TestSessionWrapper implements ISessionWrapper<INioSession, String> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String id;
+
+        private volatile long lastTouchTime = System.currentTimeMillis();
+
+        TestSessionWrapper(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public INioSession getSession() {
+            return null;
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return null;
+        }
+
+        @Override
+        public <T> T getAttribute(String attrKey) {
+            return null;
+        }
+
+        @Override
+        public void addAttribute(String attrKey, Object attrValue) {
+        }
+
+        @Override
+        public void touch() {
+            lastTouchTime = System.currentTimeMillis();
+        }
+
+        @Override
+        public long getLastTouchTime() {
+            return lastTouchTime;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.serv.nio.codec;
+
+import net.ymate.platform.serv.nio.support.ByteBufferBuilder;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author 刘镇 (suninformation@163.com) on 2024/10/16 17:10
+ * @since 2.1.3
+ */
+public class LengthFieldCodecTest {
+
+    private static final int[] LENGTH_FIELD_LENGTHS = {1, 2, 4, 8};
+
+    /**
+     * 按照与会话相同的方式(解码剩余数据保留至下次数据到达)分段输入数据并解码
+     */
+    private static List<byte[]> decodeInChunks(LengthFieldCodec codec, byte[] stream, Random random) {
+        List<byte[]> messages = new ArrayList<>();
+        ByteBuffer pending = ByteBuffer.allocate(stream.length);
+        int offset = 0;
+        while (offset < stream.length) {
+            int chunkSize = Math.min(stream.length - offset, 1 + random.nextInt(random.nextBoolean() ? 8 : 512));
+            pending.put(stream, offset, chunkSize);
+            offset += chunkSize;
+            pending.flip();
+            ByteBufferBuilder source = ByteBufferBuilder.wrap(pending);
+            while (pending.hasRemaining()) {
+                int position = pending.position();
+                Object message = codec.decode(source);
+                if (message == null) {
+                    // 数据不完整时不得移动读取位置
+                    assertEquals(position, pending.position());
+                    break;
+                }
+                messages.add((byte[]) message);
+            }
+            pending.compact();
+        }
+        assertEquals(0, pending.position());
+        return messages;
+    }
+
+    private static byte[] buildFrame(int headerLength, int lengthFieldLength, ByteOrder byteOrder, long lengthValue, byte[] body) {
+        ByteBuffer buffer = ByteBuffer.allocate(headerLength + lengthFieldLength + body.length).order(byteOrder);
+        for (int idx = 0; idx < headerLength; idx++) {
+            buffer.put((byte) (0xA0 + idx));
+        }
+        switch (lengthFieldLength) {
+            case 1:
+                buffer.put((byte) lengthValue);
+                break;
+            case 2:
+                buffer.putShort((short) lengthValue);
+                break;
+            case 4:
+                buffer.putInt((int) lengthValue);
+                break;
+            default:
+                buffer.putLong(lengthValue);
+        }
+        return buffer.put(body).array();
+    }
+
+    @Test
+    public void fragmentedFrames() {
+        Random random = new Random(20241016L);
+        for (int round = 0; round < 200; round++) {
+            int lengthFieldLength = LENGTH_FIELD_LENGTHS[random.nextInt(LENGTH_FIELD_LENGTHS.length)];
+            int headerLength = random.nextInt(4);
+            // 长度字段值是否包含头部及长度字段本身
+            boolean includesHeader = random.nextBoolean();
+            int lengthAdjustment = includesHeader ? -(headerLength + lengthFieldLength) : 0;
+            ByteOrder byteOrder = random.nextBoolean() ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+            LengthFieldCodec codec = new LengthFieldCodec(1024, headerLength, lengthFieldLength, lengthAdjustment, headerLength + lengthFieldLength, byteOrder);
+            //
+            List<byte[]> expected = new ArrayList<>();
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            int frameCount = 1 + random.nextInt(50);
+            for (int idx = 0; idx < frameCount; idx++) {
+                byte[] body = new byte[random.nextInt(lengthFieldLength == 1 ? 200 : 900)];
+                random.nextBytes(body);
+                expected.add(body);
+                long lengthValue = includesHeader ? body.length + headerLength + lengthFieldLength : body.length;
+                byte[] frame = buildFrame(headerLength, lengthFieldLength, byteOrder, lengthValue, body);
+                stream.write(frame, 0, frame.length);
+            }
+            List<byte[]> messages = decodeInChunks(codec, stream.toByteArray(), random);
+            assertEquals(expected.size(), messages.size());
+            for (int idx = 0; idx < expected.size(); idx++) {
+                assertArrayEquals(expected.get(idx), messages.get(idx));
+            }
+        }
+    }
+
+    @Test
+    public void encodeAndDecode() {
+        Random random = new Random(1024L);
+        for (int lengthFieldLength : LENGTH_FIELD_LENGTHS) {
+            for (ByteOrder byteOrder : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+                LengthFieldCodec codec = new LengthFieldCodec(4096, 0, lengthFieldLength, -lengthFieldLength, lengthFieldLength, byteOrder);
+                ByteArrayOutputStream stream = new ByteArrayOutputStream();
+                List<byte[]> expected = new ArrayList<>();
+                for (int idx = 0; idx < 20; idx++) {
+                    byte[] body = new byte[random.nextInt(200)];
+                    random.nextBytes(body);
+                    expected.add(body);
+                    ByteBuffer encoded = codec.encode(body).buffer();
+                    assertEquals(lengthFieldLength + body.length, encoded.remaining());
+                    stream.write(encoded.array(), encoded.position(), encoded.remaining());
+                }
+                List<byte[]> messages = decodeInChunks(codec, stream.toByteArray(), random);
+                assertEquals(expected.size(), messages.size());
+                for (int idx = 0; idx < expected.size(); idx++) {
+                    assertArrayEquals(expected.get(idx), messages.get(idx));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void encodeAndDecodeWithHeader() {
+        Random random = new Random(2048L);
+        for (int lengthFieldLength : LENGTH_FIELD_LENGTHS) {
+            for (ByteOrder byteOrder : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+                int headerLength = 1 + random.nextInt(4);
+                // 默认头部内容全部为0
+                LengthFieldCodec codec = new LengthFieldCodec(4096, headerLength, lengthFieldLength, -(headerLength + lengthFieldLength), headerLength + lengthFieldLength, byteOrder);
+                ByteArrayOutputStream stream = new ByteArrayOutputStream();
+                List<byte[]> expected = new ArrayList<>();
+                for (int idx = 0; idx < 20; idx++) {
+                    byte[] body = new byte[random.nextInt(200)];
+                    random.nextBytes(body);
+                    expected.add(body);
+                    ByteBuffer encoded = codec.encode(body).buffer();
+                    assertEquals(headerLength + lengthFieldLength + body.length, encoded.remaining());
+                    for (int pos = 0; pos < headerLength; pos++) {
+                        assertEquals(0, encoded.get(encoded.position() + pos));
+                    }
+                    stream.write(encoded.array(), encoded.position(), encoded.remaining());
+                }
+                List<byte[]> messages = decodeInChunks(codec, stream.toByteArray(), random);
+                assertEquals(expected.size(), messages.size());
+                for (int idx = 0; idx < expected.size(); idx++) {
+                    assertArrayEquals(expected.get(idx), messages.get(idx));
+                }
+            }
+        }
+        // 由子类写入头部内容, 解码时保留头部
+        LengthFieldCodec codec = new LengthFieldCodec(1024, 3, 2, 0, 0, ByteOrder.BIG_ENDIAN) {
+            @Override
+            protected void encodeHeader(Object message, ByteBuffer header) {
+                assertEquals(3, header.remaining());
+                header.put((byte) 0xCA).putShort((short) 0xFEBA);
+            }
+        };
+        byte[] body = "Hello".getBytes();
+        byte[] frame = (byte[]) codec.decode(codec.encode(body));
+        assertArrayEquals(new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, 0, 5, 'H', 'e', 'l', 'l', 'o'}, frame);
+    }
+
+    @Test
+    public void compatibleWithByteArrayCodec() {
+        ByteBufferBuilder encoded = new ByteArrayCodec().encode("Hello".getBytes());
+        assertArrayEquals("Hello".getBytes(), (byte[]) new LengthFieldCodec().decode(encoded));
+        assertFalse(encoded.buffer().hasRemaining());
+    }
+
+    @Test
+    public void tooLongFrame() {
+        LengthFieldCodec codec = new LengthFieldCodec(64, 4);
+        // 仅收到长度字段即可拒绝, 无需等待帧内容
+        ByteBufferBuilder source = ByteBufferBuilder.wrap(ByteBuffer.wrap(new byte[]{0, 0, 0x10, 0}));
+        try {
+            codec.decode(source);
+            fail();
+        } catch (TooLongFrameException ignored) {
+        }
+        // 无符号长度值超出int范围
+        source = ByteBufferBuilder.wrap(ByteBuffer.wrap(new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF}));
+        try {
+            codec.decode(source);
+            fail();
+        } catch (TooLongFrameException ignored) {
+        }
+        // 长度字段尚不完整
+        source = ByteBufferBuilder.wrap(ByteBuffer.wrap(new byte[]{0, 0, 0x10}));
+        assertNull(codec.decode(source));
+        assertEquals(0, source.position());
+    }
+
+    @Test
+    public void corruptedFrame() {
+        LengthFieldCodec codec = new LengthFieldCodec(64, 0, 8, 0, 8, ByteOrder.BIG_ENDIAN);
+        ByteBuffer buffer = ByteBuffer.allocate(8).putLong(-1L);
+        buffer.flip();
+        ByteBufferBuilder source = ByteBufferBuilder.wrap(buffer);
+        try {
+            codec.decode(source);
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+        codec = new LengthFieldCodec(64, 0, 2, -4, 2, ByteOrder.BIG_ENDIAN);
+        source = ByteBufferBuilder.wrap(ByteBuffer.wrap(new byte[]{0, 1, 0}));
+        try {
+            codec.decode(source);
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.serv.nio.server;
+
+import net.ymate.platform.serv.IServerCfg;
+import net.ymate.platform.serv.Servs;
+import net.ymate.platform.serv.impl.DefaultServerCfg;
+import net.ymate.platform.serv.nio.INioSession;
+import net.ymate.platform.serv.nio.codec.ByteArrayCodec;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author 刘镇 (suninformation@163.com) on 2024/10/20 20:15
+ * @since 2.1.3
+ */
+public class WriteBufferWaterMarkTest {
+
+    private static final String HOST = "127.0.0.1";
+
+    private static final int PORT = 18282;
+
+    private static final int HIGH_WATER_MARK = 64 * 1024;
+
+    private static final int LOW_WATER_MARK = 16 * 1024;
+
+    private static final int SENDER_COUNT = 4;
+
+    private static final int MESSAGE_COUNT = 64;
+
+    private static final int MESSAGE_SIZE = 16 * 1024;
+
+    private final BlockingQueue<Boolean> writabilityChanges = new LinkedBlockingQueue<>();
+
+    private final ExecutorService senders = Executors.newFixedThreadPool(SENDER_COUNT);
+
+    private NioServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        IServerCfg serverCfg = DefaultServerCfg.builder()
+                .serverName("WaterMarkServer")
+                .serverHost(HOST)
+                .port(PORT)
+                .orderedDispatch(true)
+                .writeBufferHighWaterMark(HIGH_WATER_MARK)
+                .writeBufferLowWaterMark(LOW_WATER_MARK).build();
+        server = Servs.createServer(serverCfg, new ByteArrayCodec(), new NioServerListener() {
+            @Override
+            public void onMessageReceived(Object message, INioSession session) throws IOException {
+                // 多个线程同时发送, 同时事件处理器线程在写入时修改关注事件
+                for (int idx = 0; idx < SENDER_COUNT; idx++) {
+                    byte tag = (byte) idx;
+                    senders.execute(() -> {
+                        try {
+                            for (int count = 0; count < MESSAGE_COUNT; count++) {
+                                byte[] bytes = new byte[MESSAGE_SIZE];
+                                bytes[0] = tag;
+                                session.send(bytes);
+                            }
+                        } catch (IOException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    });
+                }
+            }
+
+            @Override
+            public void onWritabilityChanged(boolean writable, INioSession session) throws IOException {
+                writabilityChanges.offer(writable);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        senders.shutdownNow();
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void writabilityChanged() throws Exception {
+        try (Socket socket = new Socket()) {
+            socket.setReceiveBufferSize(8 * 1024);
+            socket.setSoTimeout(10000);
+            socket.connect(new InetSocketAddress(HOST, PORT), 5000);
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.writeInt(1);
+            out.write(1);
+            out.flush();
+            // 客户端暂不读取, 待发送数据超过高水位线
+            assertEquals(Boolean.FALSE, writabilityChanges.poll(10, TimeUnit.SECONDS));
+            // 读取全部数据, 任一关注事件变更丢失都将导致数据滞留而读取超时
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            int[] counts = new int[SENDER_COUNT];
+            for (int idx = 0; idx < SENDER_COUNT * MESSAGE_COUNT; idx++) {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                assertEquals(MESSAGE_SIZE, bytes.length);
+                counts[bytes[0]]++;
+            }
+            for (int count : counts) {
+                assertEquals(MESSAGE_COUNT, count);
+            }
+            // 待发送数据回落至低水位线以下后恢复可写, 顺序分发模式下可写状态通知交替出现且以可写结束
+            List<Boolean> changes = new ArrayList<>();
+            changes.add(Boolean.FALSE);
+            Boolean change;
+            while ((change = writabilityChanges.poll(changes.get(changes.size() - 1) ? 500 : 10000, TimeUnit.MILLISECONDS)) != null) {
+                changes.add(change);
+            }
+            for (int idx = 0; idx < changes.size(); idx++) {
+                assertEquals(idx % 2 != 0, changes.get(idx));
+            }
+            assertEquals(Boolean.TRUE, changes.get(changes.size() - 1));
+        }
+    }
+}
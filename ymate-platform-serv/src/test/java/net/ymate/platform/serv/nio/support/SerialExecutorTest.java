@@ -0,0 +1,179 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.serv.nio.support;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author 刘镇 (suninformation@163.com) on 2024/10/15 14:20
+ * @since 2.1.3
+ */
+public class SerialExecutorTest {
+
+    private ExecutorService executorService;
+
+    @Before
+    public void setUp() {
+        executorService = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void execute() throws Exception {
+        int executorCount = 16;
+        int taskCount = 10000;
+        CountDownLatch latch = new CountDownLatch(executorCount * taskCount);
+        List<List<Integer>> results = new ArrayList<>();
+        List<SerialExecutor> executors = new ArrayList<>();
+        AtomicInteger[] running = new AtomicInteger[executorCount];
+        AtomicInteger overlapped = new AtomicInteger();
+        for (int idx = 0; idx < executorCount; idx++) {
+            results.add(new ArrayList<>());
+            running[idx] = new AtomicInteger();
+            executors.add(new SerialExecutor(executorService, 0));
+        }
+        for (int taskIdx = 0; taskIdx < taskCount; taskIdx++) {
+            for (int idx = 0; idx < executorCount; idx++) {
+                List<Integer> result = results.get(idx);
+                AtomicInteger counter = running[idx];
+                int value = taskIdx;
+                executors.get(idx).execute(() -> {
+                    // 同一串行执行器的任务不会被并发执行, 因此无需同步即可按序写入
+                    if (counter.incrementAndGet() > 1) {
+                        overlapped.incrementAndGet();
+                    }
+                    result.add(value);
+                    counter.decrementAndGet();
+                    latch.countDown();
+                });
+            }
+        }
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        for (List<Integer> result : results) {
+            assertEquals(taskCount, result.size());
+            for (int idx = 0; idx < taskCount; idx++) {
+                assertEquals(idx, result.get(idx).intValue());
+            }
+        }
+        assertEquals(0, overlapped.get());
+    }
+
+    @Test
+    public void offer() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch resumed = new CountDownLatch(1);
+        SerialExecutor executor = new SerialExecutor(executorService, 4, resumed::countDown);
+        assertTrue(executor.offer(() -> {
+            started.countDown();
+            try {
+                blocker.await();
+            } catch (InterruptedException ignored) {
+            }
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // 首个任务已被取出执行, 不再占用队列容量
+        for (int idx = 0; idx < executor.capacity(); idx++) {
+            assertTrue(executor.offer(() -> {
+            }));
+        }
+        assertTrue(executor.isFull());
+        assertFalse(executor.offer(() -> {
+        }));
+        assertEquals(1, resumed.getCount());
+        blocker.countDown();
+        assertTrue(resumed.await(5, TimeUnit.SECONDS));
+        assertTrue(executor.isBelowLowWaterMark());
+    }
+
+    @Test
+    public void saturated() throws Exception {
+        ThreadPoolExecutor saturatedExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1), new ThreadPoolExecutor.AbortPolicy());
+        try {
+            CountDownLatch blocker = new CountDownLatch(1);
+            CountDownLatch started = new CountDownLatch(1);
+            int taskCount = 200;
+            List<Integer> result = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch latch = new CountDownLatch(taskCount);
+            SerialExecutor executor = new SerialExecutor(saturatedExecutor, 0);
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    blocker.await();
+                } catch (InterruptedException ignored) {
+                }
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int idx = 0; idx < taskCount; idx++) {
+                int value = idx;
+                executor.execute(() -> {
+                    result.add(value);
+                    latch.countDown();
+                });
+            }
+            // 占满线程池队列, 使批次结束后的再次调度被拒绝
+            saturatedExecutor.execute(() -> {
+            });
+            blocker.countDown();
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            for (int idx = 0; idx < taskCount; idx++) {
+                assertEquals(idx, result.get(idx).intValue());
+            }
+            // 线程池繁忙且队列已满时由提交任务的线程直接执行
+            CountDownLatch busy = new CountDownLatch(1);
+            CountDownLatch busyStarted = new CountDownLatch(1);
+            saturatedExecutor.execute(() -> {
+                busyStarted.countDown();
+                try {
+                    busy.await();
+                } catch (InterruptedException ignored) {
+                }
+            });
+            assertTrue(busyStarted.await(5, TimeUnit.SECONDS));
+            saturatedExecutor.execute(() -> {
+            });
+            Thread caller = Thread.currentThread();
+            AtomicReference<Thread> runner = new AtomicReference<>();
+            executor.execute(() -> runner.set(Thread.currentThread()));
+            assertSame(caller, runner.get());
+            assertEquals(0, executor.size());
+            busy.countDown();
+        } finally {
+            saturatedExecutor.shutdownNow();
+        }
+        try {
+            new SerialExecutor(saturatedExecutor, 0).execute(() -> {
+            });
+            fail();
+        } catch (RejectedExecutionException ignored) {
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.serv.nio.support;
+
+import net.ymate.platform.serv.IClientCfg;
+import net.ymate.platform.serv.IServerCfg;
+import net.ymate.platform.serv.Servs;
+import net.ymate.platform.serv.impl.DefaultClientCfg;
+import net.ymate.platform.serv.impl.DefaultServerCfg;
+import net.ymate.platform.serv.nio.INioSession;
+import net.ymate.platform.serv.nio.client.NioClient;
+import net.ymate.platform.serv.nio.client.NioClientListener;
+import net.ymate.platform.serv.nio.codec.ByteArrayCodec;
+import net.ymate.platform.serv.nio.server.NioServer;
+import net.ymate.platform.serv.nio.server.NioServerListener;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author 刘镇 (suninformation@163.com) on 2024/10/17 15:20
+ * @since 2.1.3
+ */
+public class SslHandlerTest {
+
+    private static final String HOST = "127.0.0.1";
+
+    private static final int PORT = 18443;
+
+    private static final char[] PASSWORD = "changeit".toCharArray();
+
+    private static SSLContext sslContext;
+
+    private static NioServer server;
+
+    private static final AtomicReference<INioSession> LAST_SESSION = new AtomicReference<>();
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        sslContext = createSslContext();
+        IServerCfg serverCfg = DefaultServerCfg.builder()
+                .serverName("TlsServer")
+                .serverHost(HOST)
+                .port(PORT)
+                .sslContext(sslContext).build();
+        // 回显服务
+        server = Servs.createServer(serverCfg, new ByteArrayCodec(), new NioServerListener() {
+            @Override
+            public void onMessageReceived(Object message, INioSession session) throws IOException {
+                LAST_SESSION.set(session);
+                session.send(message);
+            }
+        });
+        server.start();
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    /**
+     * 在测试时通过keytool生成自签名证书, 服务端与客户端共用同一密钥库(同时作为信任库)
+     */
+    private static SSLContext createSslContext() throws Exception {
+        Path dir = Files.createTempDirectory("serv-tls");
+        File keyStoreFile = dir.resolve("server.p12").toFile();
+        keyStoreFile.deleteOnExit();
+        dir.toFile().deleteOnExit();
+        Process process = new ProcessBuilder(new File(System.getProperty("java.home"), "bin/keytool").getPath(),
+                "-genkeypair", "-alias", "serv", "-keyalg", "RSA", "-keysize", "2048", "-validity", "1",
+                "-dname", "CN=localhost", "-storetype", "PKCS12", "-keystore", keyStoreFile.getPath(),
+                "-storepass", new String(PASSWORD), "-keypass", new String(PASSWORD))
+                .redirectErrorStream(true).start();
+        assertTrue(process.waitFor(60, TimeUnit.SECONDS));
+        assertEquals(0, process.exitValue());
+        //
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream inputStream = new FileInputStream(keyStoreFile)) {
+            keyStore.load(inputStream, PASSWORD);
+        }
+        KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagerFactory.init(keyStore, PASSWORD);
+        TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagerFactory.init(keyStore);
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(keyManagerFactory.getKeyManagers(), trustManagerFactory.getTrustManagers(), null);
+        return context;
+    }
+
+    private static SSLSocket connect(String... protocols) throws IOException {
+        SSLSocket socket = (SSLSocket) sslContext.getSocketFactory().createSocket(HOST, PORT);
+        socket.setSoTimeout(10000);
+        if (protocols.length > 0) {
+            socket.setEnabledProtocols(protocols);
+        }
+        return socket;
+    }
+
+    private static byte[] echo(SSLSocket socket, byte[] message) throws IOException {
+        DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+        out.writeInt(message.length);
+        out.write(message);
+        out.flush();
+        DataInputStream in = new DataInputStream(socket.getInputStream());
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    @Test
+    public void echoOverTls() throws Exception {
+        Random random = new Random(15);
+        try (SSLSocket socket = connect()) {
+            // 覆盖单个TLS记录及跨越多个TLS记录的消息
+            for (int size : new int[]{1, 100, 16 * 1024, 256 * 1024}) {
+                byte[] message = new byte[size];
+                random.nextBytes(message);
+                assertArrayEquals(message, echo(socket, message));
+            }
+        }
+    }
+
+    @Test
+    public void sessionResumption() throws Exception {
+        byte[] message = "resume".getBytes();
+        byte[] sessionId;
+        try (SSLSocket socket = connect("TLSv1.2")) {
+            assertArrayEquals(message, echo(socket, message));
+            sessionId = socket.getSession().getId();
+        }
+        try (SSLSocket socket = connect("TLSv1.2")) {
+            assertArrayEquals(message, echo(socket, message));
+            // 简化握手复用了服务端缓存的会话
+            assertTrue(Arrays.equals(sessionId, socket.getSession().getId()));
+        }
+    }
+
+    @Test
+    public void renegotiationRejected() throws Exception {
+        byte[] message = "renegotiate".getBytes();
+        try (SSLSocket socket = connect("TLSv1.2")) {
+            assertArrayEquals(message, echo(socket, message));
+            socket.startHandshake();
+            try {
+                echo(socket, message);
+                fail("Renegotiation should be rejected.");
+            } catch (IOException ignored) {
+                // 服务端拒绝重新协商并关闭连接
+            }
+        }
+    }
+
+    @Test
+    public void closeFromOtherThread() throws Exception {
+        byte[] message = "close".getBytes();
+        try (SSLSocket socket = connect()) {
+            assertArrayEquals(message, echo(socket, message));
+            INioSession session = LAST_SESSION.get();
+            assertNotNull(session);
+            // 在非事件处理器线程中关闭会话, 关闭操作将转交至事件处理器线程并发送close_notify
+            session.closeNow();
+            assertEquals(-1, socket.getInputStream().read());
+        }
+    }
+
+    @Test
+    public void nioClient() throws Exception {
+        final BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+        final byte[] message = new byte[64 * 1024];
+        new Random(16).nextBytes(message);
+        IClientCfg clientCfg = DefaultClientCfg.builder()
+                .clientName("TlsClient")
+                .remoteHost(HOST)
+                .port(PORT)
+                .sslContext(sslContext).build();
+        NioClient client = Servs.createClient(clientCfg, new ByteArrayCodec(), null, null, new NioClientListener() {
+            @Override
+            public void onSessionConnected(INioSession session) throws IOException {
+                super.onSessionConnected(session);
+                // 握手完成前发送的数据将在握手完成后被加密发送
+                session.send(message);
+            }
+
+            @Override
+            public void onMessageReceived(Object message, INioSession session) throws IOException {
+                received.offer(message);
+            }
+        });
+        try {
+            client.connect();
+            assertArrayEquals(message, (byte[]) received.poll(10, TimeUnit.SECONDS));
+            client.send("hello".getBytes());
+            assertArrayEquals("hello".getBytes(), (byte[]) received.poll(10, TimeUnit.SECONDS));
+        } finally {
+            client.close();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.serv.support;
+
+import net.ymate.platform.commons.impl.DefaultThreadFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author 刘镇 (suninformation@163.com) on 2024/10/16 14:40
+ * @since 2.1.3
+ */
+public class HashedWheelTimerTest {
+
+    private HashedWheelTimer timer;
+
+    @Before
+    public void setUp() {
+        // 使用较少的槽位以覆盖多圈的情况
+        timer = new HashedWheelTimer(DefaultThreadFactory.create("WheelTimerTest-"), 10, TimeUnit.MILLISECONDS, 8);
+    }
+
+    @After
+    public void tearDown() {
+        timer.close();
+    }
+
+    @Test
+    public void newTimeout() throws Exception {
+        int count = 10;
+        CountDownLatch latch = new CountDownLatch(count);
+        AtomicLong violations = new AtomicLong();
+        for (int idx = 0; idx < count; idx++) {
+            long delay = 50L * (idx + 1);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+            timer.newTimeout(() -> {
+                if (System.nanoTime() < deadline) {
+                    violations.incrementAndGet();
+                }
+                latch.countDown();
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(0, violations.get());
+        assertEquals(0, timer.pendingTimeouts());
+    }
+
+    @Test
+    public void cancel() throws Exception {
+        AtomicBoolean executed = new AtomicBoolean();
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(() -> executed.set(true), 100, TimeUnit.MILLISECONDS);
+        CountDownLatch latch = new CountDownLatch(1);
+        HashedWheelTimer.Timeout other = timer.newTimeout(latch::countDown, 200, TimeUnit.MILLISECONDS);
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertFalse(executed.get());
+        assertTrue(timeout.isCancelled());
+        assertTrue(other.isExpired());
+        assertFalse(other.cancel());
+        assertEquals(0, timer.pendingTimeouts());
+    }
+}
@@ -37,4 +37,18 @@ public interface IWebCacheProcessor {
      * @throws Exception 可能产生的异常
      */
     boolean processResponseCache(IWebMvc owner, ResponseCache responseCache, IView resultView) throws Exception;
+
+    /**
+     * 当控制器方法执行失败(抛出异常或未返回视图对象)而无法生成缓存时调用, 用于释放本次请求持有的缓存加载状态或尝试输出已过期的缓存内容
+     *
+     * @param owner         所属WebMVC管理器
+     * @param responseCache 控制器方法回应结果缓存注解
+     * @param cause         执行过程中产生的异常, 未返回视图对象时为空
+     * @return 若已输出缓存内容则返回true, 此时异常将被忽略
+     * @throws Exception 可能产生的异常
+     * @since 2.1.3
+     */
+    default boolean processResponseCacheError(IWebMvc owner, ResponseCache responseCache, Throwable cause) throws Exception {
+        return false;
+    }
 }
@@ -180,6 +180,13 @@ public interface IWebMvcConfig extends IInitialization<IWebMvc> {
      */
     String PARAMS_SIGNATURE_VERIFICATION_DISABLED = "webmvc.signature_verification_disabled";
 
+    /**
+     * 二进制视图在容器不支持sendfile时复制数据所采用的缓冲区大小, 默认值: 65536, 单位: 字节
+     *
+     * @since 2.1.3
+     */
+    String PARAMS_BINARY_VIEW_BUFFER_SIZE = "webmvc.binary_view_buffer_size";
+
     /**
      * 控制器请求映射路径分析器，可选值为已知分析器名称或自定义分析器类名称，默认为default，目前支持已知分析器[default|...]
      *
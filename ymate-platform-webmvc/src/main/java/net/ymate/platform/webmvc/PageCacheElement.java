@@ -17,17 +17,23 @@ package net.ymate.platform.webmvc;
 
 import net.ymate.platform.cache.CacheElement;
 import net.ymate.platform.commons.lang.PairObject;
+import net.ymate.platform.commons.util.DateTimeUtils;
 import net.ymate.platform.webmvc.base.Type;
+import org.apache.commons.codec.digest.DigestUtils;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 /**
+ * 页面缓存元素: 同时保存原始内容及其压缩版本(GZIP压缩版本在构建时生成, DEFLATE压缩版本在首次使用时生成), 以便按请求的Accept-Encoding直接输出而无需重复压缩或解压,
+ * 并以原始内容摘要作为ETag, 内容未发生变化时重新生成缓存不会导致客户端缓存失效
+ *
  * @author 刘镇 (suninformation@163.com) on 16/3/28 下午10:55
  */
 public class PageCacheElement extends CacheElement {
@@ -48,8 +54,28 @@ public class PageCacheElement extends CacheElement {
 
     private final byte[] unGzippedBody;
 
+    /**
+     * DEFLATE压缩版本, 首次使用时生成且不参与序列化
+     */
+    private transient volatile byte[] deflatedBody;
+
     private final boolean storeGzipped;
 
+    /**
+     * 原始内容摘要
+     */
+    private final String contentHash;
+
+    /**
+     * 缓存过期后允许继续使用旧内容并由单个请求重新生成的时长(秒)
+     */
+    private int staleWhileRevalidate;
+
+    /**
+     * 缓存过期后重新生成失败时允许继续使用旧内容的时长(秒)
+     */
+    private int staleIfError;
+
     public PageCacheElement(final String contentType,
                             final Map<String, PairObject<Type.HeaderType, Object>> headers,
                             final byte[] body,
@@ -62,11 +88,12 @@ public class PageCacheElement extends CacheElement {
         this.storeGzipped = storeGzipped;
         //
         if (storeGzipped) {
-            unGzippedBody = null;
             if (isBodyParameterGzipped()) {
                 gzippedBody = body;
+                unGzippedBody = unGzip(body);
             } else {
                 gzippedBody = gzip(body);
+                unGzippedBody = body;
             }
         } else {
             if (isBodyParameterGzipped()) {
@@ -75,6 +102,7 @@ public class PageCacheElement extends CacheElement {
                 unGzippedBody = body;
             }
         }
+        contentHash = DigestUtils.md5Hex(unGzippedBody);
     }
 
     private byte[] gzip(byte[] unzipped) throws IOException {
@@ -88,6 +116,14 @@ public class PageCacheElement extends CacheElement {
         return unzipped;
     }
 
+    private static byte[] deflate(byte[] body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(bytes)) {
+            deflaterOutputStream.write(body);
+        }
+        return bytes.toByteArray();
+    }
+
     private boolean isBodyParameterGzipped() {
         return this.responseHeaders.containsKey(Type.HttpHead.GZIP);
     }
@@ -112,10 +148,41 @@ public class PageCacheElement extends CacheElement {
     }
 
     public byte[] getUnGzippedBody() throws IOException {
+        return unGzippedBody;
+    }
+
+    /**
+     * @param encoding 内容编码名称(gzip或deflate), 为空或identity时表示原始内容
+     * @return 返回指定编码的内容, 若未启用压缩或不支持该编码则返回null
+     * @throws IOException 压缩内容时可能产生的异常
+     * @since 2.1.3
+     */
+    public byte[] getBody(String encoding) throws IOException {
+        if (encoding == null || Type.HttpHead.IDENTITY.equalsIgnoreCase(encoding)) {
+            return unGzippedBody;
+        }
         if (storeGzipped) {
-            return unGzip(gzippedBody);
+            if (Type.HttpHead.GZIP.equalsIgnoreCase(encoding)) {
+                return gzippedBody;
+            }
+            if (Type.HttpHead.DEFLATE.equalsIgnoreCase(encoding)) {
+                byte[] body = deflatedBody;
+                if (body == null) {
+                    // 并发时可能重复压缩, 但结果一致, 无需加锁
+                    deflatedBody = body = deflate(unGzippedBody);
+                }
+                return body;
+            }
         }
-        return unGzippedBody;
+        return null;
+    }
+
+    /**
+     * @return 返回原始内容的摘要值(可用于生成ETag)
+     * @since 2.1.3
+     */
+    public String getContentHash() {
+        return contentHash;
     }
 
     @Override
@@ -127,7 +194,76 @@ public class PageCacheElement extends CacheElement {
         }
     }
 
-    private byte[] unGzip(final byte[] gzipped) throws IOException {
+    /**
+     * @return 返回缓存内容的存储时长(包括过期后仍允许使用旧内容的时长), 缓存服务将以此作为缓存项的存活时间
+     */
+    @Override
+    public int getTimeout() {
+        int timeout = super.getTimeout();
+        return timeout > 0 ? timeout + Math.max(staleWhileRevalidate, staleIfError) : timeout;
+    }
+
+    /**
+     * @return 返回缓存内容的有效时长(不包括过期后仍允许使用旧内容的时长)
+     * @since 2.1.3
+     */
+    public int getFreshTimeout() {
+        return super.getTimeout();
+    }
+
+    /**
+     * @return 返回缓存过期后允许继续使用旧内容并由单个请求重新生成的时长(秒)
+     * @since 2.1.3
+     */
+    public int getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    /**
+     * @param staleWhileRevalidate 缓存过期后允许继续使用旧内容并由单个请求重新生成的时长(秒)
+     * @since 2.1.3
+     */
+    public void setStaleWhileRevalidate(int staleWhileRevalidate) {
+        this.staleWhileRevalidate = Math.max(staleWhileRevalidate, 0);
+    }
+
+    /**
+     * @return 返回缓存过期后重新生成失败时允许继续使用旧内容的时长(秒)
+     * @since 2.1.3
+     */
+    public int getStaleIfError() {
+        return staleIfError;
+    }
+
+    /**
+     * @param staleIfError 缓存过期后重新生成失败时允许继续使用旧内容的时长(秒)
+     * @since 2.1.3
+     */
+    public void setStaleIfError(int staleIfError) {
+        this.staleIfError = Math.max(staleIfError, 0);
+    }
+
+    /**
+     * @return 若缓存已过期但仍处于允许使用旧内容并重新生成的时间范围内则返回true
+     * @since 2.1.3
+     */
+    public boolean isStaleWhileRevalidate() {
+        return isExpired() && isWithinStaleWindow(staleWhileRevalidate);
+    }
+
+    /**
+     * @return 若缓存已过期但仍处于重新生成失败时允许使用旧内容的时间范围内则返回true
+     * @since 2.1.3
+     */
+    public boolean isStaleIfError() {
+        return isExpired() && isWithinStaleWindow(staleIfError);
+    }
+
+    private boolean isWithinStaleWindow(int staleTimeout) {
+        return staleTimeout > 0 && System.currentTimeMillis() - getLastUpdateTime() < (super.getTimeout() + staleTimeout) * DateTimeUtils.SECOND;
+    }
+
+    private static byte[] unGzip(final byte[] gzipped) throws IOException {
         try (final GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(gzipped));
              ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(gzipped.length)) {
             byte[] buffer = new byte[FOUR_KB];
@@ -65,6 +65,7 @@ import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * MVC框架管理器
@@ -85,6 +86,11 @@ public final class WebMVC implements IModule, IWebMvc {
 
     private IInterceptorRuleProcessor interceptorRuleProcessor;
 
+    /**
+     * 控制器请求执行器缓存(在控制器注册时构建)
+     */
+    private final Map<RequestMeta, RequestExecutor> requestExecutors = new ConcurrentHashMap<>();
+
     /**
      * @return 返回默认MVC框架管理器实例对象
      */
@@ -207,6 +213,7 @@ public final class WebMVC implements IModule, IWebMvc {
     public void close() throws Exception {
         if (initialized) {
             initialized = false;
+            requestExecutors.clear();
             //
             if (config.getErrorProcessor() instanceof IWebInitialization) {
                 ((IWebInitialization) config.getErrorProcessor()).close();
@@ -239,6 +246,8 @@ public final class WebMVC implements IModule, IWebMvc {
                 if (method.isAnnotationPresent(RequestMapping.class) && ClassUtils.isNormalMethod(method)) {
                     RequestMeta requestMeta = new RequestMeta(requestMappingPrefix, targetClass, method);
                     config.getRequestMappingParser().registerRequestMeta(requestMeta);
+                    // 预编译控制器方法调用句柄及参数绑定计划
+                    requestExecutors.put(requestMeta, RequestExecutor.bind(this, requestMeta));
                     //
                     if (owner.isDevEnv() && LOG.isDebugEnabled()) {
                         LOG.debug(String.format("--> %s: %s : %s.%s", requestMeta.getAllowMethods(), requestMeta.getMapping(), requestMeta.getTargetClass().getName(), requestMeta.getMethod().getName()));
@@ -298,14 +307,16 @@ public final class WebMVC implements IModule, IWebMvc {
         }
         try {
             // 判断是否需要处理文件上传
-            if (context.getHttpMethod().equals(Type.HttpMethod.POST) && requestMeta.getMethod().isAnnotationPresent(FileUpload.class)) {
-                if (!(request instanceof IMultipartRequestWrapper)) {
+            FileUpload fileUpload = context.getHttpMethod().equals(Type.HttpMethod.POST) ? requestMeta.getMethod().getAnnotation(FileUpload.class) : null;
+            if (fileUpload != null) {
+                // 流式处理模式下由控制器方法自行解析请求
+                if (!fileUpload.streaming() && !(request instanceof IMultipartRequestWrapper)) {
                     // 避免重复处理
                     request = new MultipartRequestWrapper(this, request);
                 }
                 //
                 if (devEnv && LOG.isDebugEnabled()) {
-                    LOG.debug("Include file upload: YES");
+                    LOG.debug("Include file upload: " + (fileUpload.streaming() ? "YES (streaming)" : "YES"));
                 }
             }
             WebContext.getContext().addAttribute(Type.Context.HTTP_REQUEST, request);
@@ -327,7 +338,15 @@ public final class WebMVC implements IModule, IWebMvc {
                 }
             }
             if (view == null) {
-                view = RequestExecutor.bind(this, requestMeta).execute();
+                try {
+                    view = requestExecutors.computeIfAbsent(requestMeta, meta -> RequestExecutor.bind(this, meta)).execute();
+                } catch (Throwable e) {
+                    // 尝试由缓存处理器释放加载状态或输出已过期的缓存内容
+                    if (cacheProcessor != null && doProcessResponseCacheError(cacheProcessor, requestMeta.getResponseCache(), e)) {
+                        return;
+                    }
+                    throw e;
+                }
                 if (view != null) {
                     if (cacheProcessor != null) {
                         try {
@@ -347,7 +366,7 @@ public final class WebMVC implements IModule, IWebMvc {
                         }
                     }
                     view.render();
-                } else {
+                } else if (cacheProcessor == null || !doProcessResponseCacheError(cacheProcessor, requestMeta.getResponseCache(), null)) {
                     HttpStatusView.NOT_FOUND.render();
                 }
             } else {
@@ -376,8 +395,8 @@ public final class WebMVC implements IModule, IWebMvc {
         }
         // 判断是否可以使用缓存
         IWebCacheProcessor cacheProcessor = doGetWebCacheProcessor(responseCacheAnn);
-        // 首先判断是否可以使用缓存
-        if (cacheProcessor != null) {
+        // 首先判断是否可以使用缓存(若拦截规则已返回视图则直接输出, 不再查询缓存, 避免注册的加载记录无法被释放)
+        if (view == null && cacheProcessor != null) {
             // 尝试从缓存中加载执行结果
             if (cacheProcessor.processResponseCache(this, responseCacheAnn, null)) {
                 // 加载成功, 则
@@ -406,15 +425,23 @@ public final class WebMVC implements IModule, IWebMvc {
                 }
             }
             //
-            if (config.getErrorProcessor() != null) {
-                view = config.getErrorProcessor().onConvention(this, context);
-            }
-            if (view == null) {
-                PairObject<IView, String> mappingView = View.mappingToView(this, requestMapping);
-                view = mappingView.getKey();
-                if (mappingView.getValue() != null && devEnv && LOG.isDebugEnabled()) {
-                    LOG.debug(String.format("Rendering template file: %s%s", requestMapping, mappingView.getValue()));
+            try {
+                if (config.getErrorProcessor() != null) {
+                    view = config.getErrorProcessor().onConvention(this, context);
+                }
+                if (view == null) {
+                    PairObject<IView, String> mappingView = View.mappingToView(this, requestMapping);
+                    view = mappingView.getKey();
+                    if (mappingView.getValue() != null && devEnv && LOG.isDebugEnabled()) {
+                        LOG.debug(String.format("Rendering template file: %s%s", requestMapping, mappingView.getValue()));
+                    }
+                }
+            } catch (Throwable e) {
+                // 尝试由缓存处理器释放加载状态或输出已过期的缓存内容
+                if (cacheProcessor != null && doProcessResponseCacheError(cacheProcessor, responseCacheAnn, e)) {
+                    return;
                 }
+                throw e;
             }
             //
             if (view != null && cacheProcessor != null) {
@@ -436,11 +463,23 @@ public final class WebMVC implements IModule, IWebMvc {
         }
         if (view != null) {
             view.render();
-        } else {
+        } else if (cacheProcessor == null || !doProcessResponseCacheError(cacheProcessor, responseCacheAnn, null)) {
             HttpStatusView.NOT_FOUND.render();
         }
     }
 
+    private boolean doProcessResponseCacheError(IWebCacheProcessor cacheProcessor, ResponseCache responseCache, Throwable cause) {
+        try {
+            return cacheProcessor.processResponseCacheError(this, responseCache, cause);
+        } catch (Exception e) {
+            // 缓存处理过程中的任何异常都不能掩盖原始异常, 仅输出异常日志
+            if (LOG.isWarnEnabled()) {
+                LOG.warn(e.getMessage(), RuntimeUtils.unwrapThrow(e));
+            }
+        }
+        return false;
+    }
+
     private boolean isAllowRequest(IRequestContext context, HttpServletResponse response, RequestMeta requestMeta, boolean devEnv) throws Exception {
         boolean flag = true;
         // 先判断当前请求方式是否允许
@@ -26,4 +26,10 @@ import java.lang.annotation.*;
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
 public @interface FileUpload {
+
+    /**
+     * @return 是否采用流式处理, 开启后框架将不再预先解析请求(上传文件内容不会暂存至临时文件), 需在控制器方法中通过FileUploadHelper#processUploadStream方法逐个处理表单项
+     * @since 2.1.3
+     */
+    boolean streaming() default false;
 }
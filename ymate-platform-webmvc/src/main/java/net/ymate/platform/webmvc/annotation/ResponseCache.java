@@ -60,4 +60,16 @@ public @interface ResponseCache {
      * @return 是否使用GZIP压缩
      */
     boolean useGZip() default true;
+
+    /**
+     * @return 缓存过期后允许继续使用旧内容的时长(秒), 期间仅由一个请求负责重新生成缓存, 其余请求直接使用旧内容, 默认为0(即不启用)
+     * @since 2.1.3
+     */
+    int staleWhileRevalidate() default 0;
+
+    /**
+     * @return 缓存过期后重新生成失败(控制器方法执行异常或响应状态非200)时允许继续使用旧内容的时长(秒), 默认为0(即不启用)
+     * @since 2.1.3
+     */
+    int staleIfError() default 0;
 }
@@ -222,6 +222,10 @@ public class Type {
 
         String GZIP = "gzip";
 
+        String DEFLATE = "deflate";
+
+        String IDENTITY = "identity";
+
         String FROM = "From";
 
         String HOST = "Host";
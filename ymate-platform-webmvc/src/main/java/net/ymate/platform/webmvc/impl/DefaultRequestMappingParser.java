@@ -15,11 +15,11 @@
  */
 package net.ymate.platform.webmvc.impl;
 
-import net.ymate.platform.commons.lang.PairObject;
 import net.ymate.platform.webmvc.IRequestContext;
 import net.ymate.platform.webmvc.IRequestMappingParser;
 import net.ymate.platform.webmvc.RequestMeta;
 import net.ymate.platform.webmvc.base.Type;
+import net.ymate.platform.webmvc.support.RequestMappingRouter;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -51,7 +51,12 @@ public class DefaultRequestMappingParser implements IRequestMappingParser {
 
     private final Map<String, RequestMeta> MAPPING_META_FOR_PATCH = new HashMap<>();
 
+    private final Map<Type.HttpMethod, RequestMappingRouter> MAPPING_ROUTERS = new EnumMap<>(Type.HttpMethod.class);
+
     public DefaultRequestMappingParser() {
+        for (Type.HttpMethod httpMethod : Type.HttpMethod.values()) {
+            MAPPING_ROUTERS.put(httpMethod, new RequestMappingRouter());
+        }
     }
 
     @Override
@@ -83,6 +88,13 @@ public class DefaultRequestMappingParser implements IRequestMappingParser {
                 default:
                     prev = MAPPING_META_FOR_GET.put(requestMeta.getMapping(), requestMeta);
             }
+            if (RequestMappingRouter.isDynamicMapping(requestMeta.getMapping())) {
+                // 包含参数变量或通配段的映射同时编译至对应请求方式的路由器, 结构相同的映射将被替换
+                RequestMeta prevDynamic = MAPPING_ROUTERS.get(httpMethod).register(requestMeta.getMapping(), requestMeta);
+                if (prev == null) {
+                    prev = prevDynamic;
+                }
+            }
             if (prev != null && LOG.isWarnEnabled()) {
                 LOG.warn(String.format("--> %s: %s : %s.%s has been replaced!", httpMethod, prev.getMapping(), prev.getTargetClass().getName(), prev.getMethod().getName()));
             }
@@ -120,21 +132,6 @@ public class DefaultRequestMappingParser implements IRequestMappingParser {
         return Collections.unmodifiableMap(mappingMetas);
     }
 
-    /**
-     * @param partStr 参数段
-     * @return 返回去掉首尾'/'字符的串
-     */
-    private String fixMappingPart(String partStr) {
-        partStr = StringUtils.trimToEmpty(partStr);
-        if (StringUtils.startsWith(partStr, Type.Const.PATH_SEPARATOR)) {
-            partStr = StringUtils.substringAfter(partStr, Type.Const.PATH_SEPARATOR);
-        }
-        if (StringUtils.endsWith(partStr, Type.Const.PATH_SEPARATOR)) {
-            partStr = StringUtils.substringBeforeLast(partStr, Type.Const.PATH_SEPARATOR);
-        }
-        return partStr;
-    }
-
     @Override
     public final RequestMeta parse(IRequestContext context) {
         if (StringUtils.containsAny(context.getRequestMapping(), "{", "}")) {
@@ -143,43 +140,13 @@ public class DefaultRequestMappingParser implements IRequestMappingParser {
         Map<String, RequestMeta> requestMetas = getRequestMetas(context.getHttpMethod());
         RequestMeta requestMeta = requestMetas.get(context.getRequestMapping());
         if (requestMeta == null) {
-            return doParse(context, requestMetas);
+            return doParse(context);
         }
         return requestMeta;
     }
 
-    private RequestMeta doParse(IRequestContext context, Map<String, RequestMeta> mappings) {
-        String fixedRequestMapping = fixMappingPart(context.getRequestMapping());
-        String[] originalParts = StringUtils.split(fixedRequestMapping, Type.Const.PATH_SEPARATOR);
-        // 收集参数段数量相同的映射
-        Set<PairObject<String[], RequestMeta>> filtered = new HashSet<>();
-        mappings.entrySet().stream().filter((entry) -> (entry.getKey().contains("{"))).forEachOrdered((entry) -> {
-            String[] parts = StringUtils.split(fixMappingPart(entry.getKey()), Type.Const.PATH_SEPARATOR);
-            if (parts.length == originalParts.length) {
-                filtered.add(new PairObject<>(parts, entry.getValue()));
-            }
-        });
-        // 遍历已过滤映射集合通过与请求映射串参数比较，找出最接近的一个并提取参数:
-        Map<String, String> params = new HashMap<>(filtered.size());
-        for (PairObject<String[], RequestMeta> item : filtered) {
-            boolean breakFlag = false;
-            for (int idx = 0; idx < originalParts.length; idx++) {
-                if (item.getKey()[idx].contains("{")) {
-                    String paramName = StringUtils.substringBetween(item.getKey()[idx], "{", "}");
-                    if (paramName != null) {
-                        params.put(paramName, originalParts[idx]);
-                    }
-                } else if (!StringUtils.equalsIgnoreCase(item.getKey()[idx], originalParts[idx])) {
-                    breakFlag = true;
-                    break;
-                }
-            }
-            if (!breakFlag) {
-                // 参数变量存入WebContext容器中的PathVariable参数池
-                params.forEach(context::addAttribute);
-                return item.getValue();
-            }
-        }
-        return null;
+    private RequestMeta doParse(IRequestContext context) {
+        // 参数变量存入WebContext容器中的PathVariable参数池
+        return MAPPING_ROUTERS.get(context.getHttpMethod()).match(context.getRequestMapping(), context::addAttribute);
     }
 }
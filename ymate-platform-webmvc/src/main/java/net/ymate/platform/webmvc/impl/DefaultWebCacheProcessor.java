@@ -17,8 +17,8 @@ package net.ymate.platform.webmvc.impl;
 
 import net.ymate.platform.cache.Caches;
 import net.ymate.platform.cache.ICaches;
-import net.ymate.platform.commons.ReentrantLockHelper;
 import net.ymate.platform.commons.util.ExpressionUtils;
+import net.ymate.platform.commons.util.RuntimeUtils;
 import net.ymate.platform.webmvc.IWebCacheProcessor;
 import net.ymate.platform.webmvc.IWebMvc;
 import net.ymate.platform.webmvc.PageCacheElement;
@@ -35,32 +35,47 @@ import org.apache.commons.logging.LogFactory;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.ByteArrayOutputStream;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 
 /**
+ * 默认控制器视图缓存处理器: 缓存命中时直接输出; 未命中时同一缓存键的并发请求将合并为一次加载(仅由首个请求执行控制器方法), 其余请求等待并共享其结果, 加载完成后即移除加载记录;
+ * 缓存过期后若仍处于staleWhileRevalidate时间范围内则继续输出旧内容, 仅由一个请求负责重新生成, 若重新生成失败且仍处于staleIfError时间范围内则输出旧内容
+ *
  * @author 刘镇 (suninformation@163.com) on 16/2/1 上午3:11
  */
 public class DefaultWebCacheProcessor implements IWebCacheProcessor {
 
     private static final Log LOG = LogFactory.getLog(DefaultWebCacheProcessor.class);
 
-    private static final ReentrantLockHelper LOCK = new ReentrantLockHelper();
+    private static final String LOADING_ATTR_NAME = DefaultWebCacheProcessor.class.getName() + ".loading";
+
+    /**
+     * 等待其它请求加载缓存的最大时长(毫秒), 超时后由当前请求自行执行控制器方法
+     */
+    private static final long LOADING_WAIT_TIMEOUT = 30000L;
+
+    /**
+     * 正在加载中的缓存项
+     */
+    private static final Map<String, Loading> LOADINGS = new ConcurrentHashMap<>();
 
     @Override
     public boolean processResponseCache(IWebMvc owner, ResponseCache responseCache, IView resultView) throws Exception {
         HttpServletRequest request = WebContext.getRequest();
         GenericResponseWrapper response = (GenericResponseWrapper) WebContext.getResponse();
-
-        String cacheKey = doBuildCacheKey(owner, request, responseCache);
         ICaches caches = owner.getOwner().getModuleManager().getModule(Caches.class);
-        PageCacheElement cacheElement = (PageCacheElement) caches.get(responseCache.cacheName(), cacheKey);
-        if (cacheElement == null && resultView != null) {
-            // 仅缓存处理状态为200响应
-            // TODO 注意：需要设置"webmvc.error_with_status_code"参数值为true，以对验证验证、异常错误等设置为非200响应码，否则会造成错误内容被缓存的情况
-            if (response.getStatus() == HttpServletResponse.SC_OK) {
-                cacheElement = putCacheElement(response, caches, responseCache, cacheKey, resultView);
-            }
+        //
+        PageCacheElement cacheElement;
+        if (resultView == null) {
+            cacheElement = doGetCacheElement(owner, request, caches, responseCache);
+        } else {
+            cacheElement = doPutCacheElement(owner, request, response, caches, responseCache, resultView);
         }
         if (cacheElement != null) {
             // 输出内容
@@ -71,16 +86,74 @@ public class DefaultWebCacheProcessor implements IWebCacheProcessor {
         return false;
     }
 
-    private PageCacheElement putCacheElement(GenericResponseWrapper response, ICaches caches, ResponseCache responseCache, String cacheKey, IView resultView) throws Exception {
+    @Override
+    public boolean processResponseCacheError(IWebMvc owner, ResponseCache responseCache, Throwable cause) throws Exception {
+        HttpServletRequest request = WebContext.getRequest();
+        Loading loading = doRemoveLoading(request);
+        if (loading != null) {
+            PageCacheElement cacheElement = loading.staleElement != null && loading.staleElement.isStaleIfError() ? loading.staleElement : null;
+            loading.complete(cacheElement);
+            if (cacheElement != null) {
+                if (LOG.isWarnEnabled()) {
+                    LOG.warn("Failed to regenerate page cache, using stale content.", cause != null ? RuntimeUtils.unwrapThrow(cause) : null);
+                }
+                WebCacheHelper.bind(request, WebContext.getResponse(), cacheElement, responseCache.scope()).writeResponse();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 尝试读取缓存, 若返回null则表示当前请求需执行控制器方法并生成缓存
+     */
+    private PageCacheElement doGetCacheElement(IWebMvc owner, HttpServletRequest request, ICaches caches, ResponseCache responseCache) throws Exception {
+        String cacheKey = doBuildCacheKey(owner, request, responseCache);
+        PageCacheElement cacheElement = (PageCacheElement) caches.get(responseCache.cacheName(), cacheKey);
+        if (cacheElement != null && !cacheElement.isExpired()) {
+            return cacheElement;
+        }
+        String loadingKey = responseCache.cacheName() + ":" + cacheKey;
+        Loading loading = new Loading(loadingKey, cacheKey, cacheElement);
+        Loading current = LOADINGS.putIfAbsent(loadingKey, loading);
+        if (current == null) {
+            // 由当前请求负责重新生成缓存
+            request.setAttribute(LOADING_ATTR_NAME, loading);
+            return null;
+        }
+        if (cacheElement != null && cacheElement.isStaleWhileRevalidate()) {
+            // 其它请求正在重新生成缓存, 直接使用旧内容
+            return cacheElement;
+        }
+        if (current.owner == Thread.currentThread()) {
+            // 加载过程中重入同一缓存键时直接执行, 避免等待自身
+            return null;
+        }
+        // 等待正在进行的加载完成并共享其结果, 若加载失败或等待超时则由当前请求自行执行
+        try {
+            return current.future.get(LOADING_WAIT_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (LOG.isWarnEnabled()) {
+                LOG.warn(StringUtils.EMPTY, RuntimeUtils.unwrapThrow(e));
+            }
+        } catch (TimeoutException e) {
+            if (LOG.isWarnEnabled()) {
+                LOG.warn(String.format("Waiting for page cache loading timeout (%dms), skip and continue.", LOADING_WAIT_TIMEOUT));
+            }
+        }
+        return null;
+    }
+
+    private PageCacheElement doPutCacheElement(IWebMvc owner, HttpServletRequest request, GenericResponseWrapper response, ICaches caches, ResponseCache responseCache, IView resultView) throws Exception {
+        Loading loading = doRemoveLoading(request);
         PageCacheElement cacheElement = null;
-        ReentrantLock locker = LOCK.getLocker(cacheKey);
-        locker.lock();
         try {
-            // 尝试读取缓存
-            cacheElement = (PageCacheElement) caches.get(responseCache.cacheName(), cacheKey);
-            // 若缓存内容不存在或已过期
-            if (cacheElement == null || cacheElement.isExpired()) {
-                // 重新生成缓存内容
+            // 仅缓存处理状态为200响应
+            // TODO 注意：需要设置"webmvc.error_with_status_code"参数值为true，以对验证验证、异常错误等设置为非200响应码，否则会造成错误内容被缓存的情况
+            if (response.getStatus() == HttpServletResponse.SC_OK) {
+                // 生成缓存内容
                 ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
                 resultView.render(outputStream);
 
@@ -90,19 +163,33 @@ public class DefaultWebCacheProcessor implements IWebCacheProcessor {
                 if (timeout > 0) {
                     cacheElement.setTimeout(timeout);
                 }
+                cacheElement.setStaleWhileRevalidate(responseCache.staleWhileRevalidate());
+                cacheElement.setStaleIfError(responseCache.staleIfError());
                 // 存入缓存
-                caches.put(responseCache.cacheName(), cacheKey, cacheElement);
+                caches.put(responseCache.cacheName(), loading != null ? loading.cacheKey : doBuildCacheKey(owner, request, responseCache), cacheElement);
+            } else if (loading != null && loading.staleElement != null && loading.staleElement.isStaleIfError()) {
+                cacheElement = loading.staleElement;
             }
         } catch (UnsupportedOperationException e) {
             if (LOG.isWarnEnabled()) {
                 LOG.warn(String.format("%s Unsupported Render To OutputStream Operation, Skip Cache.", resultView.getClass().getName()));
             }
         } finally {
-            locker.unlock();
+            if (loading != null) {
+                loading.complete(cacheElement);
+            }
         }
         return cacheElement;
     }
 
+    private static Loading doRemoveLoading(HttpServletRequest request) {
+        Loading loading = (Loading) request.getAttribute(LOADING_ATTR_NAME);
+        if (loading != null) {
+            request.removeAttribute(LOADING_ATTR_NAME);
+        }
+        return loading;
+    }
+
     private String doBuildCacheKey(IWebMvc owner, HttpServletRequest request, ResponseCache responseCache) {
         // 计算缓存KEY值
         StringBuilder stringBuilder = new StringBuilder()
@@ -126,4 +213,31 @@ public class DefaultWebCacheProcessor implements IWebCacheProcessor {
         }
         return DigestUtils.sha1Hex(stringBuilder.toString());
     }
+
+    /**
+     * 缓存项加载记录
+     */
+    private static final class Loading {
+
+        private final Thread owner = Thread.currentThread();
+
+        private final CompletableFuture<PageCacheElement> future = new CompletableFuture<>();
+
+        private final String loadingKey;
+
+        private final String cacheKey;
+
+        private final PageCacheElement staleElement;
+
+        Loading(String loadingKey, String cacheKey, PageCacheElement staleElement) {
+            this.loadingKey = loadingKey;
+            this.cacheKey = cacheKey;
+            this.staleElement = staleElement;
+        }
+
+        void complete(PageCacheElement cacheElement) {
+            LOADINGS.remove(loadingKey, this);
+            future.complete(cacheElement);
+        }
+    }
 }
@@ -17,6 +17,7 @@ package net.ymate.platform.webmvc.support;
 
 import net.ymate.platform.commons.util.RuntimeUtils;
 import net.ymate.platform.core.beans.intercept.InterceptContext;
+import net.ymate.platform.core.event.Events;
 import net.ymate.platform.core.event.IEvent;
 import net.ymate.platform.validation.ValidateContext;
 import net.ymate.platform.webmvc.IRequestContext;
@@ -47,7 +48,11 @@ public final class GenericDispatcher {
     }
 
     private void doFireEvent(WebEvent.EVENT event, Object eventSource) {
-        owner.getOwner().getEvents().fireEvent(new WebEvent(owner, event).addParamExtend(IEvent.EVENT_SOURCE, eventSource));
+        Events events = owner.getOwner().getEvents();
+        // 无监听器时不再创建事件对象
+        if (events.hasListeners(WebEvent.class)) {
+            events.fireEvent(new WebEvent(owner, event).addParamExtend(IEvent.EVENT_SOURCE, eventSource));
+        }
     }
 
     public void execute(IRequestContext requestContext,
@@ -25,7 +25,6 @@ import org.apache.commons.lang3.StringUtils;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
-import java.io.File;
 import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -42,14 +41,7 @@ public class MultipartRequestWrapper extends HttpServletRequestWrapper implement
     public MultipartRequestWrapper(IWebMvc owner, HttpServletRequest request) throws IOException, FileUploadException {
         super(request);
         // 绑定并初始化文件上传帮助类
-        formWrapper = FileUploadHelper.bind(owner, request)
-                .setUploadTempDir(new File(StringUtils.defaultIfBlank(owner.getConfig().getUploadTempDir(), System.getProperty("java.io.tmpdir"))))
-                .setFileSizeMax(owner.getConfig().getUploadTotalSizeMax())
-                .setSizeMax(owner.getConfig().getUploadFileSizeMax())
-                .setSizeThreshold(owner.getConfig().getUploadSizeThreshold())
-                .setFileCountMax(owner.getConfig().getUploadFileCountMax())
-                .setFileUploadListener(owner.getConfig().getUploadListener())
-                .processUpload();
+        formWrapper = FileUploadHelper.create(owner, request).processUpload();
     }
 
     @Override
@@ -34,8 +34,11 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
-import java.util.List;
+import java.lang.reflect.Method;
 import java.util.Map;
 
 /**
@@ -51,6 +54,30 @@ public final class RequestExecutor {
 
     private IRequestProcessor requestProcessor;
 
+    private IResponseBodyProcessor responseBodyProcessor;
+
+    /**
+     * 控制器方法参数名称(参数绑定计划)
+     */
+    private final String[] methodParamNames;
+
+    /**
+     * 预编译的控制器方法调用句柄, 类型为: (Object target, Object[] args)Object
+     */
+    private final MethodHandle methodInvoker;
+
+    /**
+     * 控制器方法参数类型, 用于在调用前检查参数值, 避免参数绑定错误被视为控制器方法内部异常
+     */
+    private final Class<?>[] methodParamTypes;
+
+    /**
+     * 创建控制器请求映射元数据描述对应的请求执行器, 执行器构建成本较高, 应由所属WebMVC容器缓存并重复使用
+     *
+     * @param owner       所属WebMVC容器
+     * @param requestMeta 控制器请求映射元数据描述
+     * @return 返回请求执行器对象
+     */
     public static RequestExecutor bind(IWebMvc owner, RequestMeta requestMeta) {
         return new RequestExecutor(owner, requestMeta);
     }
@@ -64,11 +91,53 @@ public final class RequestExecutor {
         if (requestProcessor == null) {
             requestProcessor = this.owner.getConfig().getRequestProcessor();
         }
+        ResponseBody responseBody = requestMeta.getResponseBody();
+        if (responseBody != null) {
+            if (!IResponseBodyProcessor.class.equals(responseBody.value())) {
+                responseBodyProcessor = ClassUtils.impl(responseBody.value(), IResponseBodyProcessor.class);
+            }
+            if (responseBodyProcessor == null) {
+                // 指定 FORMAT_JSON 格式是为了与历史版本的处理逻辑一致
+                responseBodyProcessor = IResponseBodyProcessor.DEFAULT_JSON;
+            }
+        }
+        this.methodParamNames = requestMeta.getMethodParamNames().toArray(new String[0]);
+        this.methodParamTypes = requestMeta.getMethod().getParameterTypes();
+        this.methodInvoker = doCreateMethodInvoker(requestMeta.getMethod());
+    }
+
+    private static MethodHandle doCreateMethodInvoker(Method method) {
+        MethodHandle methodHandle;
+        try {
+            methodHandle = MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            // 非公共控制器类或方法, 与反射调用保持一致, 尝试取消访问检查
+            method.setAccessible(true);
+            try {
+                methodHandle = MethodHandles.lookup().unreflect(method);
+            } catch (IllegalAccessException ex) {
+                throw new IllegalStateException(String.format("Unable to access controller method: %s.%s", method.getDeclaringClass().getName(), method.getName()), ex);
+            }
+        }
+        return methodHandle.asSpreader(Object[].class, method.getParameterCount())
+                .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+    }
+
+    /**
+     * 与反射调用保持一致, 参数类型不匹配时抛出IllegalArgumentException异常
+     */
+    private void doCheckParamValue(int idx, Object paramValue) {
+        Class<?> paramType = methodParamTypes[idx];
+        if (paramValue == null) {
+            if (paramType.isPrimitive()) {
+                throw new IllegalArgumentException(String.format("Parameter '%s' of primitive type %s must not be null.", methodParamNames[idx], paramType.getName()));
+            }
+        } else if (paramType.isPrimitive() ? !org.apache.commons.lang3.ClassUtils.isAssignable(paramValue.getClass(), paramType, true) : !paramType.isInstance(paramValue)) {
+            throw new IllegalArgumentException(String.format("Argument type mismatch for parameter '%s': expected %s but was %s.", methodParamNames[idx], paramType.getName(), paramValue.getClass().getName()));
+        }
     }
 
     public IView execute() throws Exception {
-        // 取得当前控制器方法参数的名称集合
-        List<String> methodParamNames = requestMeta.getMethodParamNames();
         // 根据参数名称, 从请求中提取对应的参数值
         Map<String, Object> paramValues = requestProcessor.processRequestParams(owner, requestMeta);
         // 将当前RequestMeta对象和参数映射放入WebContext中, 便于其它环节中获取并使用
@@ -81,37 +150,30 @@ public final class RequestExecutor {
             // 为非单例控制器类成员赋值
             ClassUtils.wrapper(targetObj).fromMap(paramValues);
         }
+        // 组装方法所需参数
+        Object[] methodParamValues = new Object[methodParamNames.length];
+        for (int idx = 0; idx < methodParamNames.length; idx++) {
+            methodParamValues[idx] = paramValues.get(methodParamNames[idx]);
+            doCheckParamValue(idx, methodParamValues[idx]);
+        }
         Object resultObj;
         try {
-            if (!methodParamNames.isEmpty()) {
-                // 组装方法所需参数
-                Object[] methodParamValues = methodParamNames.stream().map(paramValues::get).toArray();
-                resultObj = requestMeta.getMethod().invoke(targetObj, methodParamValues);
-            } else {
-                resultObj = requestMeta.getMethod().invoke(targetObj);
-            }
-        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+            resultObj = methodInvoker.invokeExact(targetObj, methodParamValues);
+        } catch (Throwable e) {
             Throwable unwrapThrow = RuntimeUtils.unwrapThrow(e);
             if (unwrapThrow instanceof InterceptException) {
                 resultObj = ((InterceptException) unwrapThrow).getReturnValue();
             } else {
-                throw e;
+                // 参数已在调用前完成检查, 此处异常均来自控制器方法, 与反射调用保持一致, 由调用方负责解包原始异常
+                throw new InvocationTargetException(e);
             }
         }
         //
         IView resultView;
-        ResponseBody responseBody = requestMeta.getResponseBody();
-        if (responseBody == null || resultObj instanceof IView || resultObj instanceof String) {
+        if (responseBodyProcessor == null || resultObj instanceof IView || resultObj instanceof String) {
             resultView = doProcessResultToView(owner, requestMeta, resultObj);
         } else {
-            IResponseBodyProcessor responseBodyProcessor = null;
-            if (!IResponseBodyProcessor.class.equals(responseBody.value())) {
-                responseBodyProcessor = ClassUtils.impl(responseBody.value(), IResponseBodyProcessor.class);
-            }
-            if (responseBodyProcessor == null) {
-                // 指定 FORMAT_JSON 格式是为了与历史版本的处理逻辑一致
-                responseBodyProcessor = IResponseBodyProcessor.DEFAULT_JSON;
-            }
+            ResponseBody responseBody = requestMeta.getResponseBody();
             resultView = responseBodyProcessor.processBody(owner, resultObj, responseBody.contentType(), responseBody.keepNull(), responseBody.snakeCase());
         }
         if (resultView != null) {
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.webmvc.support;
+
+import net.ymate.platform.webmvc.RequestMeta;
+import net.ymate.platform.webmvc.base.Type;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * 基于路径段前缀树的RESTFul请求映射路由器(每种HTTP请求方式对应一个实例), 在控制器注册时构建, 请求时按路径长度线性匹配
+ * <p>
+ * 支持的路径段类型及匹配优先级(由高到低):
+ * <ul>
+ * <li>静态段: 如 /user/list, 忽略大小写比较;</li>
+ * <li>参数变量段: 如 /user/{id}, 匹配任意单一路径段并提取为PathVariable参数;</li>
+ * <li>通配段: '*', 匹配任意单一路径段但不提取参数;</li>
+ * <li>多段通配: '**', 仅允许作为最后一段, 匹配剩余的零个或多个路径段;</li>
+ * </ul>
+ * 当高优先级分支无法完成匹配时将回溯尝试低优先级分支, 因此多个映射同时满足时其结果是确定的.
+ *
+ * @author 刘镇 (suninformation@163.com) on 2024/10/08 14:26
+ * @since 2.1.3
+ */
+public final class RequestMappingRouter {
+
+    private static final String WILDCARD = "*";
+
+    private static final String WILDCARD_ALL = "**";
+
+    private static final char VAR_PREFIX = '{';
+
+    private final Node root = new Node();
+
+    private int size;
+
+    /**
+     * 判断请求映射是否需要由路由器处理(即包含参数变量或通配段)
+     *
+     * @param mapping 请求映射
+     * @return 返回true表示需要
+     */
+    public static boolean isDynamicMapping(String mapping) {
+        if (StringUtils.contains(mapping, VAR_PREFIX)) {
+            return true;
+        }
+        for (String part : StringUtils.split(mapping, Type.Const.PATH_SEPARATOR_CHAR)) {
+            if (WILDCARD.equals(part) || WILDCARD_ALL.equals(part)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 注册请求映射
+     *
+     * @param mapping     请求映射
+     * @param requestMeta 控制器请求映射元数据描述
+     * @return 若已存在相同结构的映射则返回被替换的元数据描述对象, 否则返回null
+     */
+    public synchronized RequestMeta register(String mapping, RequestMeta requestMeta) {
+        String[] parts = StringUtils.split(mapping, Type.Const.PATH_SEPARATOR_CHAR);
+        List<String> paramNames = new ArrayList<>();
+        Node node = root;
+        for (int idx = 0; idx < parts.length; idx++) {
+            String part = parts[idx];
+            if (WILDCARD_ALL.equals(part)) {
+                if (idx != parts.length - 1) {
+                    throw new IllegalArgumentException(String.format("Wildcard '%s' must be the last part of mapping: %s", WILDCARD_ALL, mapping));
+                }
+                if (node.wildcardAllChild == null) {
+                    node.wildcardAllChild = new Node();
+                }
+                node = node.wildcardAllChild;
+            } else if (WILDCARD.equals(part)) {
+                if (node.wildcardChild == null) {
+                    node.wildcardChild = new Node();
+                }
+                node = node.wildcardChild;
+            } else if (part.indexOf(VAR_PREFIX) >= 0) {
+                // 与原解析规则保持一致: 包含'{'的路径段整体作为参数变量, 变量名称取'{'与'}'之间的内容
+                paramNames.add(StringUtils.substringBetween(part, "{", "}"));
+                if (node.varChild == null) {
+                    node.varChild = new Node();
+                }
+                node = node.varChild;
+            } else {
+                node = node.staticChild(part, true);
+            }
+        }
+        Route prev = node.route;
+        node.route = new Route(requestMeta, paramNames.toArray(new String[0]));
+        if (prev == null) {
+            size++;
+            return null;
+        }
+        return prev.requestMeta;
+    }
+
+    /**
+     * 匹配请求映射
+     *
+     * @param requestMapping 请求映射
+     * @param consumer       用于接收提取到的参数变量(仅在匹配成功时回调), 可以为空
+     * @return 返回匹配的控制器请求映射元数据描述对象, 若未匹配则返回null
+     */
+    public RequestMeta match(String requestMapping, BiConsumer<String, String> consumer) {
+        if (size == 0 || requestMapping == null) {
+            return null;
+        }
+        Route route = match(root, requestMapping, nextSegment(requestMapping, 0), 0, consumer);
+        return route != null ? route.requestMeta : null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static int nextSegment(String path, int pos) {
+        int length = path.length();
+        while (pos < length && path.charAt(pos) == Type.Const.PATH_SEPARATOR_CHAR) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int segmentEnd(String path, int pos) {
+        int end = path.indexOf(Type.Const.PATH_SEPARATOR_CHAR, pos);
+        return end < 0 ? path.length() : end;
+    }
+
+    private static Route match(Node node, String path, int start, int varIdx, BiConsumer<String, String> consumer) {
+        if (start >= path.length()) {
+            if (node.route != null) {
+                return node.route;
+            }
+            // 多段通配允许匹配零个路径段
+            return node.wildcardAllChild != null ? node.wildcardAllChild.route : null;
+        }
+        int end = segmentEnd(path, start);
+        int next = nextSegment(path, end);
+        Route route;
+        if (node.staticChildren != null) {
+            Node child = node.staticChild(path, start, end);
+            if (child != null && (route = match(child, path, next, varIdx, consumer)) != null) {
+                return route;
+            }
+        }
+        if (node.varChild != null && (route = match(node.varChild, path, next, varIdx + 1, consumer)) != null) {
+            String paramName = route.paramNames[varIdx];
+            if (paramName != null && consumer != null) {
+                consumer.accept(paramName, path.substring(start, end));
+            }
+            return route;
+        }
+        if (node.wildcardChild != null && (route = match(node.wildcardChild, path, next, varIdx, consumer)) != null) {
+            return route;
+        }
+        return node.wildcardAllChild != null ? node.wildcardAllChild.route : null;
+    }
+
+    private static final class Route {
+
+        private final RequestMeta requestMeta;
+
+        private final String[] paramNames;
+
+        Route(RequestMeta requestMeta, String[] paramNames) {
+            this.requestMeta = requestMeta;
+            this.paramNames = paramNames;
+        }
+    }
+
+    /**
+     * 路由节点, 静态子节点采用开放寻址散列表存储, 查找时直接基于请求串的区间计算忽略大小写的哈希值, 无需截取子串
+     */
+    private static final class Node {
+
+        private String[] staticKeys;
+
+        private Node[] staticChildren;
+
+        private int staticSize;
+
+        private Node varChild;
+
+        private Node wildcardChild;
+
+        private Node wildcardAllChild;
+
+        private Route route;
+
+        private static int hash(String str, int start, int end) {
+            int h = 0;
+            for (int idx = start; idx < end; idx++) {
+                h = 31 * h + Character.toLowerCase(Character.toUpperCase(str.charAt(idx)));
+            }
+            return h ^ (h >>> 16);
+        }
+
+        Node staticChild(String path, int start, int end) {
+            int length = end - start;
+            int mask = staticKeys.length - 1;
+            int idx = hash(path, start, end) & mask;
+            String key;
+            while ((key = staticKeys[idx]) != null) {
+                if (key.length() == length && key.regionMatches(true, 0, path, start, length)) {
+                    return staticChildren[idx];
+                }
+                idx = (idx + 1) & mask;
+            }
+            return null;
+        }
+
+        Node staticChild(String part, boolean create) {
+            if (staticKeys == null) {
+                staticKeys = new String[4];
+                staticChildren = new Node[4];
+            }
+            Node child = staticChild(part, 0, part.length());
+            if (child == null && create) {
+                if ((staticSize + 1) * 2 > staticKeys.length) {
+                    resize();
+                }
+                child = new Node();
+                put(staticKeys, staticChildren, part, child);
+                staticSize++;
+            }
+            return child;
+        }
+
+        private void resize() {
+            String[] newKeys = new String[staticKeys.length << 1];
+            Node[] newChildren = new Node[newKeys.length];
+            for (int idx = 0; idx < staticKeys.length; idx++) {
+                if (staticKeys[idx] != null) {
+                    put(newKeys, newChildren, staticKeys[idx], staticChildren[idx]);
+                }
+            }
+            staticKeys = newKeys;
+            staticChildren = newChildren;
+        }
+
+        private static void put(String[] keys, Node[] children, String key, Node child) {
+            int mask = keys.length - 1;
+            int idx = hash(key, 0, key.length()) & mask;
+            while (keys[idx] != null) {
+                idx = (idx + 1) & mask;
+            }
+            keys[idx] = key;
+            children[idx] = child;
+        }
+    }
+}
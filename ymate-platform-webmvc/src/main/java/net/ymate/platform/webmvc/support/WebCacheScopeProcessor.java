@@ -56,4 +56,15 @@ public class WebCacheScopeProcessor implements ICacheScopeProcessor {
                 caches.put(ICaches.Scope.APPLICATION.name(), cacheKey, cacheElement);
         }
     }
+
+    @Override
+    public String buildScopeCacheKey(ICaches.Scope scope, String cacheName, String cacheKey) {
+        switch (scope) {
+            case SESSION:
+                return scope.name() + ":" + buildSessionCacheKey(cacheKey);
+            case APPLICATION:
+            default:
+                return ICaches.Scope.APPLICATION.name() + ":" + cacheKey;
+        }
+    }
 }
@@ -19,15 +19,19 @@ import net.ymate.platform.commons.util.FileUtils;
 import net.ymate.platform.commons.util.MimeTypeUtils;
 import net.ymate.platform.webmvc.IUploadFileWrapper;
 import net.ymate.platform.webmvc.IWebMvc;
+import net.ymate.platform.webmvc.IWebMvcConfig;
 import org.apache.commons.fileupload.*;
 import org.apache.commons.fileupload.disk.DiskFileItemFactory;
 import org.apache.commons.fileupload.servlet.ServletFileUpload;
 import org.apache.commons.fileupload.util.Streams;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.servlet.http.HttpServletRequest;
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.util.*;
 
@@ -76,6 +80,25 @@ public final class FileUploadHelper {
         return new FileUploadHelper(owner, request);
     }
 
+    /**
+     * 创建文件上传处理助手并应用WebMVC模块中的文件上传相关配置(临时目录、数量及大小限制、状态监听器等)
+     *
+     * @param owner   所属WebMVC框架管理器
+     * @param request HttpServletRequest对象
+     * @return 返回文件上传处理助手对象
+     * @since 2.1.3
+     */
+    public static FileUploadHelper create(IWebMvc owner, HttpServletRequest request) {
+        IWebMvcConfig config = owner.getConfig();
+        return new FileUploadHelper(owner, request)
+                .setUploadTempDir(new File(StringUtils.defaultIfBlank(config.getUploadTempDir(), System.getProperty("java.io.tmpdir"))))
+                .setFileSizeMax(config.getUploadFileSizeMax())
+                .setSizeMax(config.getUploadTotalSizeMax())
+                .setSizeThreshold(config.getUploadSizeThreshold())
+                .setFileCountMax(config.getUploadFileCountMax())
+                .setFileUploadListener(config.getUploadListener());
+    }
+
     private FileUploadHelper(IWebMvc owner, HttpServletRequest request) {
         this.request = request;
         if (StringUtils.isBlank(charsetEncoding = owner.getConfig().getDefaultCharsetEncoding())) {
@@ -110,6 +133,34 @@ public final class FileUploadHelper {
         return processUpload(null);
     }
 
+    /**
+     * 采用流式方式处理表单提交: 直接从请求输入流中逐个解析表单项, 上传文件内容不会暂存至内存或临时文件, 而是作为只能读取一次的流交由处理器直接写入目标位置;
+     * 普通表单字段值将保存在内存中, 单个表单项大小、请求总大小及表单项数量的限制均在读取过程中检查, 超出时将抛出FileUploadException异常
+     *
+     * @param handler 上传文件流处理器
+     * @return 返回仅包含普通表单字段的表单包装器
+     * @throws FileUploadException 文件上传时可能产生的异常
+     * @throws IOException         文件读写可能产生的异常
+     * @since 2.1.3
+     */
+    public UploadFormWrapper processUploadStream(IUploadFileStreamHandler handler) throws FileUploadException, IOException {
+        if (handler == null) {
+            throw new NullPointerException("handler");
+        }
+        if (!ServletFileUpload.isMultipartContent(request)) {
+            return new UploadFormWrapper();
+        }
+        Map<String, List<String>> fields = new HashMap<>(16);
+        doIterateItems(doBuildServletFileUpload(null), item -> {
+            if (item.isFormField()) {
+                fields.computeIfAbsent(item.getFieldName(), k -> new ArrayList<>()).add(Streams.asString(item.openStream(), charsetEncoding));
+            } else {
+                handler.handle(new UploadFileStream(item));
+            }
+        });
+        return new UploadFormWrapper(fields, Collections.emptyMap());
+    }
+
     private ServletFileUpload doBuildServletFileUpload(FileItemFactory fileItemFactory) {
         ServletFileUpload servletFileUpload = new ServletFileUpload(fileItemFactory);
         servletFileUpload.setFileSizeMax(fileSizeMax);
@@ -129,22 +180,38 @@ public final class FileUploadHelper {
      * @throws IOException         文件读写可能产生的异常
      */
     private UploadFormWrapper doUploadFileAsStream(IUploadFileItemProcessor processor) throws FileUploadException, IOException {
-        ServletFileUpload servletFileUpload = doBuildServletFileUpload(null);
         Map<String, List<String>> fields = new HashMap<>(16);
         Map<String, List<UploadFileWrapper>> files = new HashMap<>(16);
         //
-        FileItemIterator fileItemIt = servletFileUpload.getItemIterator(request);
-        while (fileItemIt.hasNext()) {
-            FileItemStream item = fileItemIt.next();
+        doIterateItems(doBuildServletFileUpload(null), item -> {
             if (item.isFormField()) {
                 fields.computeIfAbsent(item.getFieldName(), k -> new ArrayList<>()).add(Streams.asString(item.openStream(), charsetEncoding));
             } else {
                 files.computeIfAbsent(item.getFieldName(), k -> new ArrayList<>()).add(processor.process(item));
             }
-        }
+        });
         return new UploadFormWrapper(fields, files);
     }
 
+    /**
+     * 逐个遍历表单项, 由于FileUpload组件仅在parseRequest方法中检查表单项数量, 因此流式处理时需自行检查
+     */
+    private void doIterateItems(ServletFileUpload servletFileUpload, IFileItemConsumer consumer) throws FileUploadException, IOException {
+        FileItemIterator fileItemIt = servletFileUpload.getItemIterator(request);
+        long count = 0;
+        try {
+            while (fileItemIt.hasNext()) {
+                if (fileCountMax != -1 && ++count > fileCountMax) {
+                    throw new FileCountLimitExceededException("attachment", fileCountMax);
+                }
+                consumer.accept(fileItemIt.next());
+            }
+        } catch (FileUploadBase.FileUploadIOException e) {
+            // 读取文件流时超出单个表单项大小限制将以IO异常形式抛出, 此处还原为原始的FileUploadException异常
+            throw (FileUploadException) e.getCause();
+        }
+    }
+
     /**
      * 采用文件方式处理上传文件（即先将文件上传后，再交给用户已上传文件对象集合）
      *
@@ -287,6 +354,135 @@ public final class FileUploadHelper {
 
     }
 
+    /**
+     * 上传文件流处理器接口定义，用于在流式处理模式下将每个上传文件流交给开发者自行处理
+     *
+     * @author 刘镇 (suninformation@163.com) on 2024/10/19 10:26
+     * @since 2.1.3
+     */
+    public interface IUploadFileStreamHandler {
+
+        /**
+         * 处理上传文件流, 文件流只能读取一次且必须在方法返回前完成读取, 未读取的剩余内容将被跳过
+         *
+         * @param fileStream 上传文件流
+         * @throws IOException         文件读写可能产生的异常
+         * @throws FileUploadException 文件上传时可能产生的异常
+         */
+        void handle(UploadFileStream fileStream) throws IOException, FileUploadException;
+    }
+
+    private interface IFileItemConsumer {
+
+        void accept(FileItemStream item) throws IOException, FileUploadException;
+    }
+
+    /**
+     * 上传文件流包装器(流式处理模式), 文件内容直接读取自请求输入流
+     *
+     * @author 刘镇 (suninformation@163.com) on 2024/10/19 10:31
+     * @since 2.1.3
+     */
+    public static final class UploadFileStream {
+
+        private final FileItemStream item;
+
+        private CountingInputStream inputStream;
+
+        UploadFileStream(FileItemStream item) {
+            this.item = item;
+        }
+
+        public String getFieldName() {
+            return item.getFieldName();
+        }
+
+        /**
+         * @return 返回客户端提交的原始文件名称(可能包含路径)
+         */
+        public String getPath() {
+            return item.getName();
+        }
+
+        /**
+         * @return 返回文件名称
+         */
+        public String getName() {
+            String filePath = item.getName();
+            if (filePath != null) {
+                int pos = filePath.lastIndexOf('\\');
+                if (pos == -1) {
+                    pos = filePath.lastIndexOf('/');
+                }
+                filePath = filePath.substring(pos + 1);
+            }
+            return filePath;
+        }
+
+        public String getContentType() {
+            return item.getContentType();
+        }
+
+        /**
+         * @param name 表单项头名称
+         * @return 返回当前表单项的头信息
+         */
+        public String getHeader(String name) {
+            FileItemHeaders headers = item.getHeaders();
+            return headers != null ? headers.getHeader(name) : null;
+        }
+
+        /**
+         * @return 返回当前已读取的字节数, 当文件流被完整读取后即为文件大小
+         */
+        public long getSize() {
+            return inputStream != null ? inputStream.getByteCount() : 0;
+        }
+
+        /**
+         * @return 返回只能读取一次的文件输入流(多次调用返回同一对象)
+         * @throws IOException 文件读写可能产生的异常
+         */
+        public InputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new CountingInputStream(item.openStream());
+            }
+            return inputStream;
+        }
+
+        /**
+         * @return 返回只能读取一次的文件输入通道
+         * @throws IOException 文件读写可能产生的异常
+         */
+        public ReadableByteChannel getChannel() throws IOException {
+            return Channels.newChannel(getInputStream());
+        }
+
+        /**
+         * 将文件流剩余内容写入输出流(不会关闭输出流)
+         *
+         * @param output 输出流
+         * @return 返回写入的字节数
+         * @throws IOException 文件读写可能产生的异常
+         */
+        public long transferTo(OutputStream output) throws IOException {
+            return IOUtils.copyLarge(getInputStream(), output);
+        }
+
+        /**
+         * 将文件流剩余内容写入目标文件
+         *
+         * @param dest 目标文件
+         * @return 返回写入的字节数
+         * @throws IOException 文件读写可能产生的异常
+         */
+        public long transferTo(File dest) throws IOException {
+            try (OutputStream output = Files.newOutputStream(dest.toPath())) {
+                return transferTo(output);
+            }
+        }
+    }
+
     /**
      * 文件上传表单包装器；
      *
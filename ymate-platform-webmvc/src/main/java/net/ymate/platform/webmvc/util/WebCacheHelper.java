@@ -21,21 +21,19 @@ import net.ymate.platform.commons.util.DateTimeUtils;
 import net.ymate.platform.webmvc.PageCacheElement;
 import net.ymate.platform.webmvc.base.Type;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.BufferedOutputStream;
 import java.io.OutputStream;
-import java.util.Date;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * @author 刘镇 (suninformation@163.com) on 16/3/28 下午7:56
  */
 public class WebCacheHelper {
 
-    private static final int EMPTY_GZIPPED_CONTENT_SIZE = 20;
-
     private final HttpServletRequest request;
 
     private final HttpServletResponse response;
@@ -44,21 +42,33 @@ public class WebCacheHelper {
 
     private final ICaches.Scope scope;
 
+    /**
+     * 本次响应的头信息(缓存对象可能被多个请求同时输出, 因此不能直接修改其头信息集合)
+     */
+    private final Map<String, PairObject<Type.HeaderType, Object>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
     private WebCacheHelper(HttpServletRequest request, HttpServletResponse response, PageCacheElement pageCacheElement, ICaches.Scope scope) {
         this.request = request;
         this.response = response;
         this.pageCacheElement = pageCacheElement;
         this.scope = scope;
+        this.headers.putAll(pageCacheElement.getHeaders());
         //
         if (ICaches.Scope.DEFAULT.equals(this.scope)) {
-            this.pageCacheElement.getHeaders().entrySet().removeIf(header -> StringUtils.equalsAnyIgnoreCase(header.getKey(), Type.HttpHead.LAST_MODIFIED, Type.HttpHead.EXPIRES, Type.HttpHead.CACHE_CONTROL, Type.HttpHead.ETAG));
+            this.headers.entrySet().removeIf(header -> StringUtils.equalsAnyIgnoreCase(header.getKey(), Type.HttpHead.LAST_MODIFIED, Type.HttpHead.EXPIRES, Type.HttpHead.CACHE_CONTROL, Type.HttpHead.ETAG));
             //
-            long expiresTime = System.currentTimeMillis() + this.pageCacheElement.getTimeout() * DateTimeUtils.SECOND;
+            long expiresTime = System.currentTimeMillis() + this.pageCacheElement.getFreshTimeout() * DateTimeUtils.SECOND;
             //
-            this.pageCacheElement.getHeaders().put(Type.HttpHead.LAST_MODIFIED, PairObject.bind(Type.HeaderType.DATE, this.pageCacheElement.getLastUpdateTime()));
-            this.pageCacheElement.getHeaders().put(Type.HttpHead.EXPIRES, PairObject.bind(Type.HeaderType.DATE, expiresTime));
-            this.pageCacheElement.getHeaders().put(Type.HttpHead.CACHE_CONTROL, PairObject.bind(Type.HeaderType.STRING, String.format("%s=%d", Type.HttpHead.MAX_AGE, this.pageCacheElement.getTimeout())));
-            this.pageCacheElement.getHeaders().put(Type.HttpHead.ETAG, PairObject.bind(Type.HeaderType.STRING, String.format("\"%d\"", expiresTime)));
+            StringBuilder cacheControl = new StringBuilder(String.format("%s=%d", Type.HttpHead.MAX_AGE, this.pageCacheElement.getFreshTimeout()));
+            if (this.pageCacheElement.getStaleWhileRevalidate() > 0) {
+                cacheControl.append(", stale-while-revalidate=").append(this.pageCacheElement.getStaleWhileRevalidate());
+            }
+            if (this.pageCacheElement.getStaleIfError() > 0) {
+                cacheControl.append(", stale-if-error=").append(this.pageCacheElement.getStaleIfError());
+            }
+            this.headers.put(Type.HttpHead.LAST_MODIFIED, PairObject.bind(Type.HeaderType.DATE, this.pageCacheElement.getLastUpdateTime()));
+            this.headers.put(Type.HttpHead.EXPIRES, PairObject.bind(Type.HeaderType.DATE, expiresTime));
+            this.headers.put(Type.HttpHead.CACHE_CONTROL, PairObject.bind(Type.HeaderType.STRING, cacheControl.toString()));
         }
     }
 
@@ -67,62 +77,118 @@ public class WebCacheHelper {
     }
 
     public void writeResponse() throws Exception {
+        // 按请求的Accept-Encoding选择内容编码, 若压缩后的内容并不比原始内容小则直接输出原始内容
+        String encoding = pageCacheElement.isStoreGzipped() ? negotiateEncoding(request.getHeader(Type.HttpHead.ACCEPT_ENCODING)) : null;
+        byte[] body = pageCacheElement.getUnGzippedBody();
+        if (encoding != null) {
+            byte[] encodedBody = pageCacheElement.getBody(encoding);
+            if (encodedBody != null && encodedBody.length < body.length) {
+                body = encodedBody;
+            } else {
+                encoding = null;
+            }
+        }
+        if (pageCacheElement.isStoreGzipped()) {
+            doAddVaryHeader();
+        }
         if (ICaches.Scope.DEFAULT.equals(scope)) {
-            for (final Map.Entry<String, PairObject<Type.HeaderType, Object>> headerEntry : pageCacheElement.getHeaders().entrySet()) {
-                if (Type.HttpHead.ETAG.equals(headerEntry.getKey())) {
-                    String ifNoneMatch = request.getHeader(Type.HttpHead.IF_NONE_MATCH);
-                    if (headerEntry.getValue() != null && headerEntry.getValue().getValue().equals(ifNoneMatch)) {
-                        response.sendError(HttpServletResponse.SC_NOT_MODIFIED);
-                        return;
-                    }
-                    break;
-                }
-                if (headerEntry.getValue().getValue() != null && Type.HttpHead.LAST_MODIFIED.equals(headerEntry.getKey())) {
-                    long ifModifiedSince = request.getDateHeader(Type.HttpHead.IF_MODIFIED_SINCE);
-                    if (ifModifiedSince != -1) {
-                        final Date requestDate = new Date(ifModifiedSince);
-                        final Date pageDate;
-                        switch (headerEntry.getValue().getKey()) {
-                            case STRING:
-                                pageDate = DateTimeUtils.parseDateTime((String) headerEntry.getValue().getValue(), "EEE, dd MMM yyyy HH:mm:ss z", "0");
-                                break;
-                            case DATE:
-                                pageDate = new Date((Long) headerEntry.getValue().getValue());
-                                break;
-                            default:
-                                throw new IllegalArgumentException(String.format("Header %s is not supported as type: %s", headerEntry, headerEntry.getValue().getKey()));
-                        }
-                        if (!requestDate.before(pageDate)) {
-                            response.sendError(HttpServletResponse.SC_NOT_MODIFIED);
-                            response.setHeader(Type.HttpHead.LAST_MODIFIED, request.getHeader(Type.HttpHead.IF_MODIFIED_SINCE));
-                            return;
-                        }
-                    }
-                }
+            // 基于内容摘要生成ETag, 不同编码的内容对应不同的ETag
+            String eTag = "\"" + pageCacheElement.getContentHash() + (encoding != null ? "-" + encoding : StringUtils.EMPTY) + "\"";
+            headers.put(Type.HttpHead.ETAG, PairObject.bind(Type.HeaderType.STRING, eTag));
+            if (isNotModified(eTag)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                doSetHeaders();
+                return;
             }
         }
         response.setContentType(pageCacheElement.getContentType());
         doSetHeaders();
-        //
-        byte[] body;
-        if (pageCacheElement.isStoreGzipped() && StringUtils.contains(request.getHeader(Type.HttpHead.ACCEPT_ENCODING), Type.HttpHead.GZIP)) {
-            body = pageCacheElement.getGzippedBody();
-            if (body.length == EMPTY_GZIPPED_CONTENT_SIZE) {
-                body = new byte[0];
-            } else {
-                response.setHeader(Type.HttpHead.CONTENT_ENCODING, Type.HttpHead.GZIP);
-            }
-        } else {
-            body = pageCacheElement.getUnGzippedBody();
+        if (encoding != null) {
+            response.setHeader(Type.HttpHead.CONTENT_ENCODING, encoding);
         }
         response.setContentLength(body.length);
-        OutputStream out = new BufferedOutputStream(response.getOutputStream());
+        OutputStream out = response.getOutputStream();
         out.write(body);
         out.flush();
     }
 
+    private boolean isNotModified(String eTag) {
+        String ifNoneMatch = request.getHeader(Type.HttpHead.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            // 存在If-None-Match时忽略If-Modified-Since, 且采用弱比较方式
+            for (String tag : StringUtils.split(ifNoneMatch, ',')) {
+                tag = StringUtils.removeStart(tag.trim(), "W/");
+                if ("*".equals(tag) || eTag.equals(tag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince = request.getDateHeader(Type.HttpHead.IF_MODIFIED_SINCE);
+        // HTTP日期仅精确到秒
+        return ifModifiedSince != -1 && pageCacheElement.getLastUpdateTime() / DateTimeUtils.SECOND <= ifModifiedSince / DateTimeUtils.SECOND;
+    }
+
+    private void doAddVaryHeader() {
+        PairObject<Type.HeaderType, Object> vary = headers.get(Type.HttpHead.VARY);
+        if (vary == null || vary.getValue() == null) {
+            headers.put(Type.HttpHead.VARY, PairObject.bind(Type.HeaderType.STRING, Type.HttpHead.ACCEPT_ENCODING));
+        } else {
+            String value = String.valueOf(vary.getValue());
+            if (!"*".equals(value.trim()) && !StringUtils.containsIgnoreCase(value, Type.HttpHead.ACCEPT_ENCODING)) {
+                headers.put(Type.HttpHead.VARY, PairObject.bind(Type.HeaderType.STRING, value + ", " + Type.HttpHead.ACCEPT_ENCODING));
+            }
+        }
+    }
+
+    /**
+     * 根据请求头Accept-Encoding的值及其权重选择内容编码
+     *
+     * @param acceptEncoding 请求头Accept-Encoding的值
+     * @return 返回gzip或deflate, 若客户端不接受压缩内容则返回null
+     * @since 2.1.3
+     */
+    public static String negotiateEncoding(String acceptEncoding) {
+        if (StringUtils.isBlank(acceptEncoding)) {
+            return null;
+        }
+        float gzipQuality = -1;
+        float deflateQuality = -1;
+        float anyQuality = -1;
+        for (String part : StringUtils.split(acceptEncoding, ',')) {
+            String coding = part;
+            float quality = 1;
+            int idx = part.indexOf(';');
+            if (idx >= 0) {
+                coding = part.substring(0, idx);
+                String param = StringUtils.trimToEmpty(part.substring(idx + 1));
+                if (StringUtils.startsWithIgnoreCase(param, "q=")) {
+                    quality = NumberUtils.toFloat(param.substring(2).trim(), 0);
+                }
+            }
+            coding = coding.trim();
+            if (Type.HttpHead.GZIP.equalsIgnoreCase(coding) || "x-gzip".equalsIgnoreCase(coding)) {
+                gzipQuality = quality;
+            } else if (Type.HttpHead.DEFLATE.equalsIgnoreCase(coding)) {
+                deflateQuality = quality;
+            } else if ("*".equals(coding)) {
+                anyQuality = quality;
+            }
+        }
+        if (gzipQuality < 0) {
+            gzipQuality = anyQuality;
+        }
+        if (deflateQuality < 0) {
+            deflateQuality = anyQuality;
+        }
+        if (gzipQuality > 0 && gzipQuality >= deflateQuality) {
+            return Type.HttpHead.GZIP;
+        }
+        return deflateQuality > 0 ? Type.HttpHead.DEFLATE : null;
+    }
+
     private void doSetHeaders() {
-        pageCacheElement.getHeaders().forEach((name, value) -> {
+        headers.forEach((name, value) -> {
             if (value != null) {
                 switch (value.getKey()) {
                     case STRING:
@@ -19,8 +19,11 @@ import net.ymate.platform.commons.lang.BlurObject;
 import net.ymate.platform.commons.lang.PairObject;
 import net.ymate.platform.commons.util.FileUtils;
 import net.ymate.platform.commons.util.MimeTypeUtils;
+import net.ymate.platform.webmvc.IWebMvc;
+import net.ymate.platform.webmvc.IWebMvcConfig;
 import net.ymate.platform.webmvc.base.Type;
 import net.ymate.platform.webmvc.context.WebContext;
+import net.ymate.platform.webmvc.util.WebUtils;
 import net.ymate.platform.webmvc.view.AbstractView;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -28,11 +31,19 @@ import org.apache.commons.lang3.StringUtils;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * 二进制数据流视图
@@ -41,12 +52,41 @@ import java.nio.file.Files;
  */
 public class BinaryView extends AbstractView {
 
+    /**
+     * 默认数据复制缓冲区大小
+     */
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 单次请求允许的最大Range数量, 超出时将忽略Range请求头并返回完整内容
+     */
+    private static final int MAX_RANGES = 32;
+
+    /**
+     * Tomcat等容器通过以下请求属性提供sendfile支持, 由容器直接将文件内容写入套接字
+     */
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String RANGE_PREFIX = "bytes=";
+
+    private static final String CRLF = "\r\n";
+
+    private static volatile int defaultBufferSize;
+
     private String fileName;
 
     private final Object data;
 
     private long length = -1;
 
+    private int bufferSize;
+
     /**
      * @param targetFile 目标文件
      * @return 加载文件并转换成二进制视图类对象，若目标文件不存在或无较则返回NULL
@@ -60,6 +100,21 @@ public class BinaryView extends AbstractView {
         return null;
     }
 
+    private static int getDefaultBufferSize() {
+        int size = defaultBufferSize;
+        if (size <= 0) {
+            IWebMvc owner = WebUtils.getOwner();
+            if (owner != null) {
+                size = BlurObject.bind(owner.getOwner().getParam(IWebMvcConfig.PARAMS_BINARY_VIEW_BUFFER_SIZE)).toIntValue();
+            }
+            if (size <= 0) {
+                size = DEFAULT_BUFFER_SIZE;
+            }
+            defaultBufferSize = size;
+        }
+        return size;
+    }
+
     /**
      * 构造器
      *
@@ -110,24 +165,7 @@ public class BinaryView extends AbstractView {
         }
         // 文件
         if (data instanceof File) {
-            // 读取文件数据长度
-            length = ((File) data).length();
-            // 尝试计算Range以配合断点续传
-            PairObject<Long, Long> rangePairObj = doParseRange(length);
-            // 若为断点续传
-            if (rangePairObj != null) {
-                doSetRangeHeader(httpServletResponse, rangePairObj);
-                // 开始续传文件流
-                try (InputStream inputStream = Files.newInputStream(((File) data).toPath())) {
-                    IOUtils.copyLarge(inputStream, httpServletResponse.getOutputStream(), rangePairObj.getKey(), rangePairObj.getValue());
-                }
-            } else {
-                // 正常下载
-                httpServletResponse.setContentLength(BlurObject.bind(length).toIntValue());
-                try (InputStream inputStream = Files.newInputStream(((File) data).toPath())) {
-                    IOUtils.copyLarge(inputStream, httpServletResponse.getOutputStream());
-                }
-            }
+            doRenderFile(httpServletRequest, httpServletResponse, (File) data);
         }
         // 字节数组
         else if (data instanceof byte[]) {
@@ -149,16 +187,23 @@ public class BinaryView extends AbstractView {
         }
         // 二进制流
         else if (data instanceof InputStream) {
-            PairObject<Long, Long> rangePairObj = doParseRange(length);
-            if (rangePairObj != null) {
-                doSetRangeHeader(httpServletResponse, rangePairObj);
-                try (InputStream in = (InputStream) data) {
-                    IOUtils.copyLarge(in, httpServletResponse.getOutputStream(), rangePairObj.getKey(), rangePairObj.getValue());
+            try (InputStream in = (InputStream) data) {
+                // 仅当数据长度已知时才支持断点续传, 且由于输入流只能顺序读取, 多个Range时仅处理第一个
+                if (length > 0) {
+                    addHeader(Type.HttpHead.ACCEPT_RANGES, "bytes");
                 }
-            } else {
-                httpServletResponse.setContentLength(BlurObject.bind(length).toIntValue());
-                try (InputStream in = (InputStream) data) {
-                    IOUtils.copyLarge(in, httpServletResponse.getOutputStream());
+                List<PairObject<Long, Long>> ranges = length > 0 ? doParseRanges(httpServletRequest, length) : null;
+                if (ranges != null && ranges.isEmpty()) {
+                    doSendRangeNotSatisfiable(httpServletResponse);
+                } else if (ranges != null) {
+                    PairObject<Long, Long> range = ranges.get(0);
+                    doSetRangeHeader(httpServletResponse, range);
+                    IOUtils.copyLarge(in, httpServletResponse.getOutputStream(), range.getKey(), range.getValue() - range.getKey(), new byte[getBufferSize()]);
+                } else {
+                    if (length >= 0) {
+                        doSetContentLength(httpServletResponse, length);
+                    }
+                    IOUtils.copyLarge(in, httpServletResponse.getOutputStream(), new byte[getBufferSize()]);
                 }
             }
         }
@@ -170,9 +215,121 @@ public class BinaryView extends AbstractView {
         }
     }
 
-    private void doSetRangeHeader(HttpServletResponse response, PairObject<Long, Long> range) {
-        // 表示使用了断点续传（默认是“none”，可以不指定）
+    private void doRenderFile(HttpServletRequest request, HttpServletResponse response, File file) throws IOException {
+        // 读取文件数据长度
+        length = file.length();
+        // 响应头中的日期仅精确到秒
+        long lastModified = file.lastModified() / 1000 * 1000;
+        String eTag = String.format("\"%x-%x\"", lastModified / 1000, length);
         addHeader(Type.HttpHead.ACCEPT_RANGES, "bytes");
+        addHeader(Type.HttpHead.ETAG, eTag);
+        addDateHeader(Type.HttpHead.LAST_MODIFIED, lastModified);
+        if (doCheckNotModified(request, eTag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        // 尝试计算Range以配合断点续传, 若If-Range条件不成立则忽略Range并返回完整内容
+        List<PairObject<Long, Long>> ranges = doCheckIfRange(request, eTag, lastModified) ? doParseRanges(request, length) : null;
+        if (ranges != null && ranges.isEmpty()) {
+            doSendRangeNotSatisfiable(response);
+            return;
+        }
+        if (ranges == null || ranges.size() == 1) {
+            PairObject<Long, Long> range = ranges != null ? ranges.get(0) : null;
+            long start = 0;
+            long end = length;
+            if (range != null) {
+                doSetRangeHeader(response, range);
+                start = range.getKey();
+                end = range.getValue();
+            } else {
+                doSetContentLength(response, length);
+            }
+            if (doSendFile(request, file, start, end)) {
+                return;
+            }
+            try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                doCopy(fileChannel, start, end - start, response.getOutputStream(), ByteBuffer.allocate(getBufferSize()));
+            }
+        } else {
+            doRenderMultipartRanges(response, file, ranges);
+        }
+    }
+
+    /**
+     * 当容器支持sendfile时, 将文件信息通过请求属性交由容器在请求处理结束后直接由内核完成传输(零拷贝)
+     */
+    private boolean doSendFile(HttpServletRequest request, File file, long start, long end) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.getCanonicalPath());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 采用multipart/byteranges格式输出多个Range的数据
+     */
+    private void doRenderMultipartRanges(HttpServletResponse response, File file, List<PairObject<Long, Long>> ranges) throws IOException {
+        String boundary = Long.toHexString(ThreadLocalRandom.current().nextLong()) + Long.toHexString(System.nanoTime());
+        byte[][] partHeaders = new byte[ranges.size()][];
+        long contentLength = 0;
+        for (int idx = 0; idx < ranges.size(); idx++) {
+            PairObject<Long, Long> range = ranges.get(idx);
+            partHeaders[idx] = (CRLF + "--" + boundary + CRLF
+                    + Type.HttpHead.CONTENT_TYPE + ": " + contentType + CRLF
+                    + Type.HttpHead.CONTENT_RANGE + ": " + String.format("bytes %d-%d/%d", range.getKey(), range.getValue() - 1, length) + CRLF + CRLF).getBytes(StandardCharsets.ISO_8859_1);
+            contentLength += partHeaders[idx].length + range.getValue() - range.getKey();
+        }
+        byte[] partEnd = (CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.ISO_8859_1);
+        contentLength += partEnd.length;
+        //
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        doSetContentLength(response, contentLength);
+        OutputStream output = response.getOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(getBufferSize());
+        try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            for (int idx = 0; idx < ranges.size(); idx++) {
+                PairObject<Long, Long> range = ranges.get(idx);
+                output.write(partHeaders[idx]);
+                doCopy(fileChannel, range.getKey(), range.getValue() - range.getKey(), output, buffer);
+            }
+        }
+        output.write(partEnd);
+    }
+
+    /**
+     * 基于文件通道的定位读取复制指定区间的数据, 无需通过skip跳过Range之前的内容, 且缓冲区在多个Range之间复用
+     */
+    private static void doCopy(FileChannel fileChannel, long position, long count, OutputStream output, ByteBuffer buffer) throws IOException {
+        byte[] array = buffer.array();
+        while (count > 0) {
+            buffer.clear();
+            if (count < buffer.capacity()) {
+                buffer.limit((int) count);
+            }
+            int read = fileChannel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            output.write(array, 0, read);
+            position += read;
+            count -= read;
+        }
+    }
+
+    private void doSetContentLength(HttpServletResponse response, long contentLength) {
+        if (contentLength <= Integer.MAX_VALUE) {
+            response.setContentLength((int) contentLength);
+        } else {
+            response.setHeader(Type.HttpHead.CONTENT_LENGTH, String.valueOf(contentLength));
+        }
+    }
+
+    private void doSetRangeHeader(HttpServletResponse response, PairObject<Long, Long> range) {
         // Content-Length: [文件的总大小] - [客户端请求的下载的文件块的开始字节]
         long totalLength = range.getValue() - range.getKey();
         addHeader(Type.HttpHead.CONTENT_LENGTH, String.valueOf(totalLength));
@@ -183,59 +340,151 @@ public class BinaryView extends AbstractView {
         response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
     }
 
+    private void doSendRangeNotSatisfiable(HttpServletResponse response) {
+        addHeader(Type.HttpHead.CONTENT_RANGE, String.format("bytes */%d", length));
+        response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+    }
+
+    /**
+     * 根据If-None-Match和If-Modified-Since请求头判断客户端缓存是否仍然有效(If-None-Match优先)
+     */
+    private boolean doCheckNotModified(HttpServletRequest request, String eTag, long lastModified) {
+        String method = request.getMethod();
+        if (!Type.HttpMethod.GET.name().equals(method) && !Type.HttpMethod.HEAD.name().equals(method)) {
+            return false;
+        }
+        String ifNoneMatch = request.getHeader(Type.HttpHead.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String tag : StringUtils.split(ifNoneMatch, ',')) {
+                tag = StringUtils.removeStart(tag.trim(), "W/");
+                if ("*".equals(tag) || eTag.equals(tag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        try {
+            long ifModifiedSince = request.getDateHeader(Type.HttpHead.IF_MODIFIED_SINCE);
+            return ifModifiedSince != -1 && lastModified <= ifModifiedSince;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 根据If-Range请求头判断是否可以按Range返回部分内容, 仅当其值与当前ETag或最后修改时间完全一致时成立
+     */
+    static boolean doCheckIfRange(HttpServletRequest request, String eTag, long lastModified) {
+        String ifRange = StringUtils.trimToNull(request.getHeader(Type.HttpHead.IF_RANGE));
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return eTag.equals(ifRange);
+        }
+        try {
+            return request.getDateHeader(Type.HttpHead.IF_RANGE) == lastModified;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
     /**
-     * 分析请求头中的Range参数，计算并返回本次数据的开始和结束位置
+     * 分析请求头中的Range参数，计算并返回本次数据的各区间开始和结束(不含)位置
      *
-     * @param length 数据大小
-     * @return 若非断点续传则返回null
+     * @param request HttpServletRequest对象
+     * @param length  数据大小
+     * @return 若非断点续传、Range格式无效或各区间累计长度超出数据大小(如大量重叠区间)则返回null, 若所有区间均无法满足则返回空集合,
+     * 否则返回按开始位置排序并合并了重叠及相邻区间后的集合
      */
-    private PairObject<Long, Long> doParseRange(long length) {
-        PairObject<Long, Long> returnValue = null;
+    static List<PairObject<Long, Long>> doParseRanges(HttpServletRequest request, long length) {
         // 通过请求头Range参数判断是否采用断点续传
-        String separatorStr = "bytes=";
-        String rangeStr = WebContext.getRequest().getHeader(Type.HttpHead.RANGE);
-        if (rangeStr != null && rangeStr.startsWith(separatorStr) && rangeStr.length() >= 7) {
-            rangeStr = StringUtils.substringAfter(rangeStr, separatorStr);
-            String[] ranges = StringUtils.split(rangeStr, ",");
-            // 可能存在多个Range，目前仅处理第一个...
+        String rangeStr = request.getHeader(Type.HttpHead.RANGE);
+        if (rangeStr == null || !rangeStr.startsWith(RANGE_PREFIX) || rangeStr.length() < 7) {
+            return null;
+        }
+        String[] ranges = StringUtils.split(rangeStr.substring(RANGE_PREFIX.length()), ',');
+        if (ranges.length == 0 || ranges.length > MAX_RANGES) {
+            return null;
+        }
+        List<PairObject<Long, Long>> returnValue = new ArrayList<>(ranges.length);
+        long totalLength = 0;
+        try {
             for (String range : ranges) {
-                if (StringUtils.isBlank(range)) {
+                range = range.trim();
+                int idx = range.indexOf('-');
+                if (idx < 0) {
                     return null;
                 }
-                // bytes=-100
-                if (range.startsWith("-")) {
-                    long end = Long.parseLong(range);
-                    long start = length + end;
-                    if (start < 0) {
-                        return null;
+                long start;
+                long end;
+                if (idx == 0) {
+                    // bytes=-100
+                    long suffixLength = Long.parseLong(range.substring(1));
+                    if (suffixLength <= 0) {
+                        continue;
                     }
-                    returnValue = new PairObject<>(start, length);
-                    break;
-                }
-                // bytes=1024-
-                if (range.endsWith("-")) {
-                    long start = Long.parseLong(StringUtils.substringBefore(range, "-"));
-                    if (start < 0) {
-                        return null;
+                    start = Math.max(length - suffixLength, 0);
+                    end = length;
+                } else {
+                    start = Long.parseLong(range.substring(0, idx));
+                    if (idx == range.length() - 1) {
+                        // bytes=1024-
+                        end = length;
+                    } else {
+                        // bytes=10-1024
+                        end = Long.parseLong(range.substring(idx + 1)) + 1;
+                        if (end <= start) {
+                            return null;
+                        }
+                        end = Math.min(end, length);
                     }
-                    returnValue = new PairObject<>(start, length);
-                    break;
                 }
-                // bytes=10-1024
-                if (range.contains("-")) {
-                    String[] tmp = range.split("-");
-                    long start = Long.parseLong(tmp[0]);
-                    long end = Long.parseLong(tmp[1]);
-                    if (start > end) {
+                if (start < 0) {
+                    return null;
+                }
+                if (start < length) {
+                    totalLength += end - start;
+                    // 各区间累计长度超出数据大小时视为放大攻击(RFC 7233 §6.1), 忽略Range并返回完整内容
+                    if (totalLength > length) {
                         return null;
                     }
-                    returnValue = new PairObject<>(start, end + 1);
+                    returnValue.add(new PairObject<>(start, end));
                 }
             }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return doMergeRanges(returnValue);
+    }
+
+    /**
+     * 按开始位置排序并合并重叠或相邻的区间
+     */
+    private static List<PairObject<Long, Long>> doMergeRanges(List<PairObject<Long, Long>> ranges) {
+        if (ranges.size() <= 1) {
+            return ranges;
+        }
+        ranges.sort(Comparator.comparing(PairObject::getKey));
+        List<PairObject<Long, Long>> returnValue = new ArrayList<>(ranges.size());
+        PairObject<Long, Long> current = ranges.get(0);
+        for (int idx = 1; idx < ranges.size(); idx++) {
+            PairObject<Long, Long> range = ranges.get(idx);
+            if (range.getKey() <= current.getValue()) {
+                current = new PairObject<>(current.getKey(), Math.max(current.getValue(), range.getValue()));
+            } else {
+                returnValue.add(current);
+                current = range;
+            }
         }
+        returnValue.add(current);
         return returnValue;
     }
 
+    private int getBufferSize() {
+        return bufferSize > 0 ? bufferSize : getDefaultBufferSize();
+    }
+
     /**
      * @param dispFileName 显示的文件名称
      * @return 设置采用档案下载的方式
@@ -244,4 +493,14 @@ public class BinaryView extends AbstractView {
         fileName = dispFileName;
         return this;
     }
+
+    /**
+     * @param bufferSize 数据复制缓冲区大小, 若未设置则使用webmvc.binary_view_buffer_size参数值(默认为64KB)
+     * @return 设置非sendfile方式输出数据时采用的缓冲区大小
+     * @since 2.1.3
+     */
+    public BinaryView bufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+        return this;
+    }
 }
@@ -22,7 +22,11 @@ import net.ymate.platform.webmvc.view.AbstractView;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.BufferedWriter;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
 
 /**
  * JSON视图
@@ -115,12 +119,28 @@ public class JsonView extends AbstractView {
 
     @Override
     public void render(OutputStream output) throws Exception {
-        StringBuilder jsonStringBuilder = new StringBuilder(JsonWrapper.toJsonString(jsonObj, false, keepNullValue, snakeCase));
-        if (jsonCallback != null) {
-            jsonStringBuilder.insert(0, jsonCallback + "(").append(");");
+        String charsetName = WebContext.getResponse().getCharacterEncoding();
+        if (LOG.isDebugEnabled()) {
+            // 调试模式下需要输出完整的渲染内容, 仍采用先构建字符串再写入的方式
+            StringBuilder jsonStringBuilder = new StringBuilder(JsonWrapper.toJsonString(jsonObj, false, keepNullValue, snakeCase));
+            if (jsonCallback != null) {
+                jsonStringBuilder.insert(0, jsonCallback + "(").append(");");
+            }
+            String jsonContent = jsonStringBuilder.toString();
+            doWriteLog(JsonView.class, jsonContent);
+            IOUtils.write(jsonContent, output, charsetName);
+        } else {
+            // 直接将JSON内容以流的方式写入响应输出流, 避免在内存中构建完整的字符串及字节数组副本
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StringUtils.isNotBlank(charsetName) ? Charset.forName(charsetName) : Charset.defaultCharset()));
+            if (jsonCallback != null) {
+                writer.write(jsonCallback);
+                writer.write('(');
+            }
+            JsonWrapper.writeTo(jsonObj, writer, false, keepNullValue, snakeCase);
+            if (jsonCallback != null) {
+                writer.write(");");
+            }
+            writer.flush();
         }
-        String jsonContent = jsonStringBuilder.toString();
-        doWriteLog(JsonView.class, jsonContent);
-        IOUtils.write(jsonContent, output, WebContext.getResponse().getCharacterEncoding());
     }
 }
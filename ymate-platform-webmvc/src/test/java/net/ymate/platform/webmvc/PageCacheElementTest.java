@@ -0,0 +1,79 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.webmvc;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author 刘镇 (suninformation@163.com) on 2024/10/19 15:20
+ * @since 2.1.3
+ */
+public class PageCacheElementTest {
+
+    private static PageCacheElement doCreateElement(int timeout, int staleWhileRevalidate, int staleIfError) throws Exception {
+        PageCacheElement cacheElement = new PageCacheElement("text/html", null, "<html>hello</html>".getBytes(StandardCharsets.UTF_8), true);
+        cacheElement.setTimeout(timeout);
+        cacheElement.setStaleWhileRevalidate(staleWhileRevalidate);
+        cacheElement.setStaleIfError(staleIfError);
+        return cacheElement;
+    }
+
+    @Test
+    public void timeout() throws Exception {
+        PageCacheElement cacheElement = doCreateElement(60, 30, 600);
+        // 缓存服务存活时间需包括过期后仍允许使用旧内容的时长
+        assertEquals(660, cacheElement.getTimeout());
+        assertEquals(60, cacheElement.getFreshTimeout());
+        assertEquals(60, doCreateElement(60, 0, 0).getTimeout());
+        assertEquals(30, doCreateElement(30, -1, -1).getTimeout());
+    }
+
+    @Test
+    public void stale() throws Exception {
+        PageCacheElement cacheElement = doCreateElement(1, 60, 0);
+        assertFalse(cacheElement.isExpired());
+        assertFalse(cacheElement.isStaleWhileRevalidate());
+        Thread.sleep(1100);
+        assertTrue(cacheElement.isExpired());
+        assertTrue(cacheElement.isStaleWhileRevalidate());
+        assertFalse(cacheElement.isStaleIfError());
+        assertEquals("<html>hello</html>", new String(cacheElement.getUnGzippedBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void body() throws Exception {
+        PageCacheElement cacheElement = doCreateElement(60, 0, 0);
+        byte[] body = cacheElement.getBody(null);
+        assertArrayEquals(body, cacheElement.getBody("identity"));
+        assertArrayEquals(body, IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(cacheElement.getBody("gzip")))));
+        assertArrayEquals(body, IOUtils.toByteArray(new InflaterInputStream(new ByteArrayInputStream(cacheElement.getBody("deflate")))));
+        assertSame(cacheElement.getBody("deflate"), cacheElement.getBody("deflate"));
+        assertNull(cacheElement.getBody("br"));
+        // 内容相同时重新生成的缓存摘要值不变
+        assertEquals(cacheElement.getContentHash(), doCreateElement(30, 0, 0).getContentHash());
+        PageCacheElement other = new PageCacheElement("text/html", null, "<html>other</html>".getBytes(StandardCharsets.UTF_8), false);
+        assertNotEquals(cacheElement.getContentHash(), other.getContentHash());
+        assertNull(other.getBody("gzip"));
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.webmvc.support;
+
+import net.ymate.platform.webmvc.RequestMeta;
+import net.ymate.platform.webmvc.annotation.RequestMapping;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author 刘镇 (suninformation@163.com) on 2024/10/08 16:10
+ * @since 2.1.3
+ */
+public class RequestMappingRouterTest {
+
+    private static final Log LOG = LogFactory.getLog(RequestMappingRouterTest.class);
+
+    private RequestMappingRouter router;
+
+    private RequestMeta userById;
+
+    private RequestMeta userProfile;
+
+    private RequestMeta userAny;
+
+    private RequestMeta files;
+
+    @Before
+    public void setUp() throws Exception {
+        router = new RequestMappingRouter();
+        userById = doCreateRequestMeta("userById");
+        userProfile = doCreateRequestMeta("userProfile");
+        userAny = doCreateRequestMeta("userAny");
+        files = doCreateRequestMeta("files");
+        //
+        router.register(userById.getMapping(), userById);
+        router.register(userProfile.getMapping(), userProfile);
+        router.register(userAny.getMapping(), userAny);
+        router.register(files.getMapping(), files);
+    }
+
+    private RequestMeta doCreateRequestMeta(String methodName) throws Exception {
+        return new RequestMeta(null, RouterController.class, RouterController.class.getMethod(methodName));
+    }
+
+    @Test
+    public void match() {
+        Map<String, String> params = new HashMap<>();
+        assertSame(userById, router.match("/user/1001", params::put));
+        assertEquals("1001", params.get("id"));
+        //
+        params.clear();
+        assertSame(userProfile, router.match("/USER/profile/", params::put));
+        assertTrue(params.isEmpty());
+        //
+        params.clear();
+        assertSame(userAny, router.match("/user/1001/detail", params::put));
+        assertEquals("1001", params.get("name"));
+        //
+        assertSame(files, router.match("/files/a/b/c.txt", null));
+        assertSame(files, router.match("/files", null));
+        assertNull(router.match("/none/1001", null));
+        LOG.info("Router size: " + router.size());
+    }
+
+    @Test
+    public void replace() throws Exception {
+        RequestMeta other = new RequestMeta("/user", RouterController.class, RouterController.class.getMethod("userById"));
+        assertSame(userById, router.register("/user/{uid}", other));
+        Map<String, String> params = new HashMap<>();
+        assertSame(other, router.match("/user/1001", params::put));
+        assertEquals("1001", params.get("uid"));
+    }
+
+    public static class RouterController {
+
+        @RequestMapping("/user/{id}")
+        public void userById() {
+        }
+
+        @RequestMapping("/user/profile")
+        public void userProfile() {
+        }
+
+        @RequestMapping("/user/{name}/*")
+        public void userAny() {
+        }
+
+        @RequestMapping("/files/**")
+        public void files() {
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.webmvc.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author 刘镇 (suninformation@163.com) on 2024/10/20 10:16
+ * @since 2.1.3
+ */
+public class WebCacheHelperTest {
+
+    @Test
+    public void negotiateEncoding() {
+        assertNull(WebCacheHelper.negotiateEncoding(null));
+        assertNull(WebCacheHelper.negotiateEncoding("identity"));
+        assertEquals("gzip", WebCacheHelper.negotiateEncoding("gzip, deflate, br"));
+        assertEquals("gzip", WebCacheHelper.negotiateEncoding("GZIP"));
+        assertEquals("deflate", WebCacheHelper.negotiateEncoding("deflate"));
+        assertEquals("deflate", WebCacheHelper.negotiateEncoding("gzip;q=0.5, deflate"));
+        assertEquals("gzip", WebCacheHelper.negotiateEncoding("*"));
+        assertEquals("deflate", WebCacheHelper.negotiateEncoding("gzip;q=0, *;q=0.8"));
+        assertNull(WebCacheHelper.negotiateEncoding("gzip;q=0, deflate;q=0"));
+        assertNull(WebCacheHelper.negotiateEncoding("br"));
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2007-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.webmvc.view.impl;
+
+import net.ymate.platform.commons.lang.PairObject;
+import net.ymate.platform.webmvc.base.Type;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Proxy;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author 刘镇 (suninformation@163.com) on 2024/10/26 16:40
+ * @since 2.1.3
+ */
+public class BinaryViewTest {
+
+    private static final long LENGTH = 1000;
+
+    private static HttpServletRequest request(String... headers) {
+        Map<String, String> headerMap = new HashMap<>();
+        for (int idx = 0; idx + 1 < headers.length; idx += 2) {
+            headerMap.put(headers[idx], headers[idx + 1]);
+        }
+        return (HttpServletRequest) Proxy.newProxyInstance(BinaryViewTest.class.getClassLoader(), new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getHeader":
+                    return headerMap.get((String) args[0]);
+                case "getDateHeader":
+                    String value = headerMap.get((String) args[0]);
+                    if (value == null) {
+                        return -1L;
+                    }
+                    try {
+                        return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+                    } catch (DateTimeParseException e) {
+                        throw new IllegalArgumentException(value);
+                    }
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private static List<PairObject<Long, Long>> parse(String range) {
+        return BinaryView.doParseRanges(request(Type.HttpHead.RANGE, range), LENGTH);
+    }
+
+    private static PairObject<Long, Long> range(long start, long end) {
+        return new PairObject<>(start, end);
+    }
+
+    @Test
+    public void parseRanges() {
+        assertNull(BinaryView.doParseRanges(request(), LENGTH));
+        assertEquals(Collections.singletonList(range(0, 100)), parse("bytes=0-99"));
+        assertEquals(Collections.singletonList(range(900, 1000)), parse("bytes=900-2000"));
+        // 后缀区间
+        assertEquals(Collections.singletonList(range(900, 1000)), parse("bytes=-100"));
+        assertEquals(Collections.singletonList(range(0, 1000)), parse("bytes=-5000"));
+        // 开放区间
+        assertEquals(Collections.singletonList(range(100, 1000)), parse("bytes=100-"));
+        assertEquals(Arrays.asList(range(0, 10), range(500, 600)), parse("bytes=0-9, 500-599"));
+    }
+
+    @Test
+    public void parseInvalidRanges() {
+        assertNull(parse("items=0-99"));
+        assertNull(parse("bytes=abc"));
+        assertNull(parse("bytes=a-b"));
+        assertNull(parse("bytes=100-10"));
+        assertNull(parse("bytes=-1-10"));
+    }
+
+    @Test
+    public void parseUnsatisfiableRanges() {
+        assertTrue(parse("bytes=1000-").isEmpty());
+        assertTrue(parse("bytes=2000-3000, -0").isEmpty());
+    }
+
+    @Test
+    public void parseOverlappingRanges() {
+        // 重叠及相邻区间合并
+        assertEquals(Collections.singletonList(range(0, 200)), parse("bytes=100-199, 0-149"));
+        assertEquals(Collections.singletonList(range(0, 20)), parse("bytes=0-9, 10-19"));
+        assertEquals(Arrays.asList(range(0, 20), range(500, 1000)), parse("bytes=-500, 10-19, 0-14"));
+        // 累计长度超出数据大小时忽略Range
+        assertNull(parse("bytes=0-, 0-"));
+        StringBuilder builder = new StringBuilder("bytes=0-");
+        for (int idx = 1; idx < 32; idx++) {
+            builder.append(",0-");
+        }
+        assertNull(parse(builder.toString()));
+    }
+
+    @Test
+    public void checkIfRange() {
+        String eTag = "\"5f5e1000-3e8\"";
+        long lastModified = ZonedDateTime.of(2024, 10, 26, 8, 0, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli();
+        String lastModifiedStr = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.of(2024, 10, 26, 8, 0, 0, 0, ZoneOffset.UTC));
+        assertTrue(BinaryView.doCheckIfRange(request(), eTag, lastModified));
+        assertTrue(BinaryView.doCheckIfRange(request(Type.HttpHead.IF_RANGE, eTag), eTag, lastModified));
+        assertFalse(BinaryView.doCheckIfRange(request(Type.HttpHead.IF_RANGE, "\"other\""), eTag, lastModified));
+        // 弱校验ETag不可用于If-Range
+        assertFalse(BinaryView.doCheckIfRange(request(Type.HttpHead.IF_RANGE, "W/" + eTag), eTag, lastModified));
+        assertTrue(BinaryView.doCheckIfRange(request(Type.HttpHead.IF_RANGE, lastModifiedStr), eTag, lastModified));
+        assertFalse(BinaryView.doCheckIfRange(request(Type.HttpHead.IF_RANGE, lastModifiedStr), eTag, lastModified + 1000));
+        assertFalse(BinaryView.doCheckIfRange(request(Type.HttpHead.IF_RANGE, "not a date"), eTag, lastModified));
+    }
+}